@@ -0,0 +1,111 @@
+package net.runelite.client.plugins.botutils;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import net.runelite.api.widgets.WidgetItem;
+import static net.runelite.client.plugins.botutils.SyntheticScene.FIRST_BANK_ID;
+import static net.runelite.client.plugins.botutils.SyntheticScene.FIRST_INVENTORY_ID;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+//Looks up the last item in each container and one that isn't there, so every lookup goes through the whole container
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ContainerBenchmark
+{
+	private static final int MISSING_ID = 1;
+
+	@Param({"50", "400", "800"})
+	public int bankSize;
+
+	private SyntheticScene scene;
+	private BotUtils utils;
+	private int lastInventoryId;
+	private int lastBankId;
+	private String lastBankName;
+	private Collection<Integer> inventoryIds;
+	private Collection<Integer> inventoryLookup;
+	private Collection<Integer> bankLookup;
+
+	@Setup
+	public void setUp() throws IOException
+	{
+		scene = new SyntheticScene(0, bankSize, true);
+		utils = scene.getUtils();
+		lastInventoryId = FIRST_INVENTORY_ID + Simulation.INVENTORY_SIZE - 1;
+		lastBankId = FIRST_BANK_ID + bankSize - 1;
+		lastBankName = utils.getItemDigests().get(lastBankId).getName();
+		inventoryIds = new ArrayList<>();
+		for (int i = 0; i < Simulation.INVENTORY_SIZE; i++)
+		{
+			inventoryIds.add(FIRST_INVENTORY_ID + i);
+		}
+		inventoryLookup = List.of(MISSING_ID, lastInventoryId);
+		bankLookup = List.of(MISSING_ID, lastBankId);
+	}
+
+	@TearDown
+	public void tearDown() throws IOException
+	{
+		scene.close();
+	}
+
+	@Benchmark
+	public List<WidgetItem> getInventoryItems()
+	{
+		return utils.getInventoryItems(inventoryLookup);
+	}
+
+	@Benchmark
+	public boolean inventoryContains()
+	{
+		return utils.inventoryContains(lastInventoryId);
+	}
+
+	@Benchmark
+	public boolean inventoryContainsAny()
+	{
+		return utils.inventoryContains(inventoryLookup);
+	}
+
+	@Benchmark
+	public boolean inventoryContainsAllOf()
+	{
+		return utils.inventoryContainsAllOf(inventoryIds);
+	}
+
+	@Benchmark
+	public boolean inventoryContainsExcept()
+	{
+		return utils.inventoryContainsExcept(inventoryIds);
+	}
+
+	@Benchmark
+	public boolean bankContains()
+	{
+		return utils.bankContains(lastBankId, 1);
+	}
+
+	@Benchmark
+	public boolean bankContainsName()
+	{
+		return utils.bankContains(lastBankName, 1);
+	}
+
+	@Benchmark
+	public boolean bankContainsAnyOf()
+	{
+		return utils.bankContainsAnyOf(bankLookup);
+	}
+}
@@ -0,0 +1,89 @@
+package net.runelite.client.plugins.botutils;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import net.runelite.api.GameObject;
+import net.runelite.api.NPC;
+import net.runelite.api.coords.WorldPoint;
+import static net.runelite.client.plugins.botutils.SyntheticScene.NPC_IDS;
+import static net.runelite.client.plugins.botutils.SyntheticScene.OBJECT_IDS;
+import static net.runelite.client.plugins.botutils.SyntheticScene.START;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class SceneBenchmark
+{
+	//Web walking paths are a few hundred tiles, most of them outside the scene
+	private static final int PATH_LENGTH = 300;
+
+	//Objects, NPCs and ground items each
+	@Param({"10", "100", "1000"})
+	public int density;
+
+	@Param({"true", "false"})
+	public boolean pathDistance;
+
+	private SyntheticScene scene;
+	private BotUtils utils;
+	private List<WorldPoint> path;
+
+	@Setup
+	public void setUp() throws IOException
+	{
+		scene = new SyntheticScene(density, 0, pathDistance);
+		utils = scene.getUtils();
+		path = new ArrayList<>(PATH_LENGTH);
+		for (int i = 0; i < PATH_LENGTH; i++)
+		{
+			path.add(START.dx(i).dy(i / 2));
+		}
+	}
+
+	@TearDown
+	public void tearDown() throws IOException
+	{
+		scene.close();
+	}
+
+	@Benchmark
+	public GameObject findNearestGameObject()
+	{
+		return utils.findNearestGameObject(OBJECT_IDS[0]);
+	}
+
+	@Benchmark
+	public GameObject findNearestGameObjectWithin()
+	{
+		return utils.findNearestGameObjectWithin(START, 10, OBJECT_IDS[0]);
+	}
+
+	@Benchmark
+	public NPC findNearestNpc()
+	{
+		return utils.findNearestNpc(NPC_IDS[0]);
+	}
+
+	@Benchmark
+	public WorldPoint getRandPoint()
+	{
+		return utils.getRandPoint(START, 5);
+	}
+
+	@Benchmark
+	public WorldPoint getNextPoint()
+	{
+		return utils.getNextPoint(path, 3);
+	}
+}
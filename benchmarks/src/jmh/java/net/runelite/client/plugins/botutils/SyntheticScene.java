@@ -0,0 +1,91 @@
+package net.runelite.client.plugins.botutils;
+
+import com.google.inject.Injector;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.Comparator;
+import java.util.Map;
+import java.util.Random;
+import java.util.stream.Stream;
+import net.runelite.api.InventoryID;
+import net.runelite.api.coords.WorldPoint;
+
+/**
+ * A logged in BotUtils on a {@link Simulation}, with objects, NPCs and ground items scattered around the player,
+ * an inventory of 28 different items and an open bank. Benchmark threads query it directly, as plugins do on the
+ * client thread.
+ */
+class SyntheticScene
+{
+	static final WorldPoint START = new WorldPoint(3200, 3200, 0);
+	//Each kind is spread over a few ids, the benchmarks look for the first
+	static final int[] OBJECT_IDS = {1276, 1278, 1286, 1289, 1291};
+	static final int[] NPC_IDS = {1173, 2790, 3106, 3107, 3108};
+	static final int[] ITEM_IDS = {314, 526, 995, 1511, 2138};
+	static final int FIRST_INVENTORY_ID = 2000;
+	static final int FIRST_BANK_ID = 4000;
+	//Tiles from the player, inside the 104 tile scene
+	private static final int SPREAD = 40;
+	private static final long SEED = 42;
+
+	private final File directory;
+	private final Simulation simulation;
+	private final BotUtils utils;
+
+	/**
+	 * @param density      objects, NPCs and ground items each
+	 * @param bankSize     different items in the bank
+	 * @param pathDistance whether nearest is by walking distance
+	 */
+	SyntheticScene(int density, int bankSize, boolean pathDistance) throws IOException
+	{
+		directory = Files.createTempDirectory("benchmarks").toFile();
+		simulation = new Simulation(directory, SEED);
+		Injector injector = simulation.createInjector(binder -> binder.bind(BotUtilsConfig.class)
+			.toInstance(Simulation.config(BotUtilsConfig.class, Map.of("pathDistance", pathDistance))));
+		utils = injector.getInstance(BotUtils.class);
+		simulation.start(utils);
+		simulation.login(START);
+
+		Random random = simulation.getRandom();
+		for (int i = 0; i < density; i++)
+		{
+			simulation.spawnObject(OBJECT_IDS[i % OBJECT_IDS.length], scatter(random));
+			simulation.spawnNpc(NPC_IDS[i % NPC_IDS.length], scatter(random));
+			simulation.spawnItem(ITEM_IDS[i % ITEM_IDS.length], 1, scatter(random));
+		}
+		for (int slot = 0; slot < Simulation.INVENTORY_SIZE; slot++)
+		{
+			simulation.addItem(FIRST_INVENTORY_ID + slot, 1);
+		}
+		int[] bank = new int[bankSize * 2];
+		for (int i = 0; i < bankSize; i++)
+		{
+			bank[i * 2] = FIRST_BANK_ID + i;
+			bank[i * 2 + 1] = i + 1;
+		}
+		simulation.setContainer(InventoryID.BANK, bank);
+		simulation.tick();
+		simulation.getStubClient().setClientThread(null);
+	}
+
+	BotUtils getUtils()
+	{
+		return utils;
+	}
+
+	void close() throws IOException
+	{
+		simulation.stop();
+		try (Stream<java.nio.file.Path> files = Files.walk(directory.toPath()))
+		{
+			files.sorted(Comparator.reverseOrder()).map(java.nio.file.Path::toFile).forEach(File::delete);
+		}
+	}
+
+	private static WorldPoint scatter(Random random)
+	{
+		return START.dx(random.nextInt(SPREAD * 2 + 1) - SPREAD).dy(random.nextInt(SPREAD * 2 + 1) - SPREAD);
+	}
+}
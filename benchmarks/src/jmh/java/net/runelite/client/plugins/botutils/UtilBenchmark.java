@@ -0,0 +1,59 @@
+package net.runelite.client.plugins.botutils;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+//Called every tick or every click by most plugins, neither reads the client
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class UtilBenchmark
+{
+	private final BotUtils utils = new BotUtils();
+
+	@Benchmark
+	public long randomDelay()
+	{
+		return utils.randomDelay(false, 60, 350, 100, 100);
+	}
+
+	@Benchmark
+	public long randomDelayWeighted()
+	{
+		return utils.randomDelay(true, 60, 350, 100, 100);
+	}
+
+	@Benchmark
+	public List<Integer> stringToIntList(IdString idString)
+	{
+		return utils.stringToIntList(idString.value);
+	}
+
+	@State(Scope.Benchmark)
+	public static class IdString
+	{
+		//Ids in a config string
+		@Param({"1", "5", "20"})
+		public int ids;
+
+		private String value;
+
+		@Setup
+		public void setUp()
+		{
+			value = IntStream.range(0, ids)
+				.mapToObj(i -> String.valueOf(1276 + i))
+				.collect(Collectors.joining(", "));
+		}
+	}
+}
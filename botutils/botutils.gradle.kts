@@ -25,11 +25,31 @@ import ProjectVersions.openosrsVersion
  * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
  */
 
+plugins {
+    `java-test-fixtures`
+}
+
 version = "4.4.3"
 
 project.extra["PluginName"] = "BotUtils"
 project.extra["PluginDescription"] = "Illumine - Utils required for plugins to function with added automation"
 
+dependencies {
+    testFixturesApi("com.openosrs:runelite-api:$openosrsVersion+")
+    testFixturesApi("com.openosrs.rs:runescape-api:$openosrsVersion+")
+    testFixturesApi("com.openosrs:runelite-client:$openosrsVersion+")
+    testFixturesApi("com.openosrs:http-api:$openosrsVersion+")
+    testFixturesApi(Libraries.guice)
+    testFixturesApi(Libraries.javax)
+    testFixturesApi(Libraries.junit)
+    testFixturesApi(Libraries.mockito)
+}
+
+//The stub client and simulation are for tests in this and the plugin projects, they aren't released with the plugin
+val javaComponent = components["java"] as AdhocComponentWithVariants
+javaComponent.withVariantsFromConfiguration(configurations["testFixturesApiElements"]) { skip() }
+javaComponent.withVariantsFromConfiguration(configurations["testFixturesRuntimeElements"]) { skip() }
+
 tasks {
     jar {
         manifest {
@@ -0,0 +1,73 @@
+package net.runelite.client.plugins.botutils;
+
+import java.util.Arrays;
+import java.util.List;
+import lombok.AccessLevel;
+import lombok.Getter;
+import net.runelite.api.InventoryID;
+
+/**
+ * The result an action is expected to produce, checked by {@link ActionVerifier}.
+ */
+@Getter(AccessLevel.PACKAGE)
+public class ActionOutcome
+{
+	enum Type
+	{
+		ANIMATION,
+		CONTAINER_CHANGE,
+		POSITION_CHANGE,
+		VARBIT_CHANGE,
+		VARP_CHANGE,
+		ANY_OF
+	}
+
+	private final Type type;
+	private final int param;
+	private final List<ActionOutcome> outcomes;
+
+	private ActionOutcome(Type type, int param, List<ActionOutcome> outcomes)
+	{
+		this.type = type;
+		this.param = param;
+		this.outcomes = outcomes;
+	}
+
+	//Local player starts any animation
+	public static ActionOutcome animation()
+	{
+		return new ActionOutcome(Type.ANIMATION, -1, List.of());
+	}
+
+	public static ActionOutcome containerChange(InventoryID inventoryID)
+	{
+		return new ActionOutcome(Type.CONTAINER_CHANGE, inventoryID.getId(), List.of());
+	}
+
+	//Local player moves off the tile they were on when the action was dispatched
+	public static ActionOutcome positionChange()
+	{
+		return new ActionOutcome(Type.POSITION_CHANGE, -1, List.of());
+	}
+
+	public static ActionOutcome varbitChange(int varbitId)
+	{
+		return new ActionOutcome(Type.VARBIT_CHANGE, varbitId, List.of());
+	}
+
+	public static ActionOutcome varpChange(int varpId)
+	{
+		return new ActionOutcome(Type.VARP_CHANGE, varpId, List.of());
+	}
+
+	public static ActionOutcome anyOf(ActionOutcome... outcomes)
+	{
+		return new ActionOutcome(Type.ANY_OF, -1, Arrays.asList(outcomes));
+	}
+
+	@Override
+	public String toString()
+	{
+		return (type == Type.ANY_OF) ? "ANY_OF" + outcomes : type + "(" + param + ")";
+	}
+}
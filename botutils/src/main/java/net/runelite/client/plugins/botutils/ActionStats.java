@@ -0,0 +1,92 @@
+package net.runelite.client.plugins.botutils;
+
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Success rate and latency for one action type handled by {@link ActionVerifier}.
+ * Updated on the client thread, safe to read from anywhere.
+ */
+public class ActionStats
+{
+	private final LongAdder dispatched = new LongAdder();
+	private final LongAdder retries = new LongAdder();
+	private final LongAdder verified = new LongAdder();
+	private final LongAdder failed = new LongAdder();
+	private final LongAdder totalLatencyMillis = new LongAdder();
+	private final LongAdder totalLatencyTicks = new LongAdder();
+	private final LongAccumulator maxLatencyMillis = new LongAccumulator(Math::max, 0);
+
+	void dispatched(boolean retry)
+	{
+		dispatched.increment();
+		if (retry)
+		{
+			retries.increment();
+		}
+	}
+
+	void verified(long latencyMillis, int latencyTicks)
+	{
+		verified.increment();
+		totalLatencyMillis.add(latencyMillis);
+		totalLatencyTicks.add(latencyTicks);
+		maxLatencyMillis.accumulate(latencyMillis);
+	}
+
+	void failed()
+	{
+		failed.increment();
+	}
+
+	public long getDispatched()
+	{
+		return dispatched.sum();
+	}
+
+	public long getRetries()
+	{
+		return retries.sum();
+	}
+
+	public long getVerified()
+	{
+		return verified.sum();
+	}
+
+	public long getFailed()
+	{
+		return failed.sum();
+	}
+
+	public double getSuccessRate()
+	{
+		long verifiedCount = verified.sum();
+		long total = verifiedCount + failed.sum();
+		return total == 0 ? 0 : (double) verifiedCount / total;
+	}
+
+	public double getAverageLatencyMillis()
+	{
+		long verifiedCount = verified.sum();
+		return verifiedCount == 0 ? 0 : (double) totalLatencyMillis.sum() / verifiedCount;
+	}
+
+	public double getAverageLatencyTicks()
+	{
+		long verifiedCount = verified.sum();
+		return verifiedCount == 0 ? 0 : (double) totalLatencyTicks.sum() / verifiedCount;
+	}
+
+	public long getMaxLatencyMillis()
+	{
+		return maxLatencyMillis.get();
+	}
+
+	@Override
+	public String toString()
+	{
+		return String.format("dispatched: %d, retries: %d, success: %.1f%%, avg latency: %.0fms (%.1f ticks)",
+			getDispatched(), getRetries(), getSuccessRate() * 100, getAverageLatencyMillis(), getAverageLatencyTicks());
+	}
+}
@@ -0,0 +1,254 @@
+package net.runelite.client.plugins.botutils;
+
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import javax.inject.Inject;
+import javax.inject.Singleton;
+import lombok.extern.slf4j.Slf4j;
+import net.runelite.api.Actor;
+import net.runelite.api.Client;
+import net.runelite.api.Player;
+import net.runelite.api.coords.WorldPoint;
+
+/**
+ * Dispatches actions that declare an {@link ActionOutcome}, watches game events until the outcome
+ * is seen or the deadline passes, and re-dispatches failed actions with an exponential tick backoff.
+ * Fed by BotUtils event subscribers, everything here runs on the client thread.
+ */
+@Slf4j
+@Singleton
+public class ActionVerifier
+{
+	private static final int NO_CONTAINER = -1;
+
+	@Inject
+	private Client client;
+
+	//actions and future callbacks may submit new actions while we iterate
+	private final Queue<PendingAction> pending = new ConcurrentLinkedQueue<>();
+	private final Map<String, ActionStats> stats = new ConcurrentHashMap<>();
+
+	CompletableFuture<Boolean> submit(String type, ActionOutcome outcome, int deadlineTicks, int maxRetries, Runnable action)
+	{
+		assert client.isClientThread();
+
+		PendingAction pendingAction = new PendingAction(type, outcome, Math.max(deadlineTicks, 1), Math.max(maxRetries, 0), action);
+		pending.add(pendingAction);
+		dispatch(pendingAction);
+		return pendingAction.future;
+	}
+
+	void onGameTick()
+	{
+		Iterator<PendingAction> iterator = pending.iterator();
+		while (iterator.hasNext())
+		{
+			PendingAction action = iterator.next();
+			if (action.backoffTicks > 0)
+			{
+				if (--action.backoffTicks == 0)
+				{
+					dispatch(action);
+				}
+				continue;
+			}
+			if (matches(action.outcome, action, NO_CONTAINER))
+			{
+				verified(action);
+				iterator.remove();
+				continue;
+			}
+			if (--action.ticksRemaining >= 0)
+			{
+				continue;
+			}
+			if (action.retries < action.maxRetries)
+			{
+				action.backoffTicks = 1 << action.retries;
+				action.retries++;
+				log.debug("Action {} not verified, retrying in {} ticks (attempt {})", action.type, action.backoffTicks, action.retries + 1);
+				continue;
+			}
+			log.debug("Action {} failed after {} retries, expected {}", action.type, action.retries, action.outcome);
+			getStats(action.type).failed();
+			action.future.complete(false);
+			iterator.remove();
+		}
+	}
+
+	void onItemContainerChanged(int containerId)
+	{
+		resolve(containerId);
+	}
+
+	void onAnimationChanged(Actor actor)
+	{
+		if (actor == client.getLocalPlayer() && actor.getAnimation() != -1)
+		{
+			for (PendingAction action : pending)
+			{
+				action.animationStarted = true;
+			}
+			resolve(NO_CONTAINER);
+		}
+	}
+
+	void onVarbitChanged()
+	{
+		resolve(NO_CONTAINER);
+	}
+
+	void clear()
+	{
+		for (PendingAction action : pending)
+		{
+			action.future.complete(false);
+		}
+		pending.clear();
+	}
+
+	public Map<String, ActionStats> getStats()
+	{
+		return Collections.unmodifiableMap(stats);
+	}
+
+	public ActionStats getStats(String type)
+	{
+		return stats.computeIfAbsent(type, t -> new ActionStats());
+	}
+
+	private void resolve(int containerId)
+	{
+		Iterator<PendingAction> iterator = pending.iterator();
+		while (iterator.hasNext())
+		{
+			PendingAction action = iterator.next();
+			if (action.backoffTicks == 0 && matches(action.outcome, action, containerId))
+			{
+				verified(action);
+				iterator.remove();
+			}
+		}
+	}
+
+	private void dispatch(PendingAction action)
+	{
+		action.ticksRemaining = action.deadlineTicks;
+		action.dispatchTick = client.getTickCount();
+		action.dispatchNanos = System.nanoTime();
+		action.snapshot.clear();
+		action.animationStarted = false;
+		capture(action.outcome, action);
+		getStats(action.type).dispatched(action.retries > 0);
+		try
+		{
+			action.action.run();
+		}
+		catch (RuntimeException e)
+		{
+			log.debug("Action {} threw on dispatch", action.type, e);
+		}
+	}
+
+	private void verified(PendingAction action)
+	{
+		long latencyMillis = (System.nanoTime() - action.dispatchNanos) / 1_000_000;
+		getStats(action.type).verified(latencyMillis, client.getTickCount() - action.dispatchTick);
+		action.future.complete(true);
+	}
+
+	//Stores the values an outcome is compared against when the action is dispatched
+	private void capture(ActionOutcome outcome, PendingAction action)
+	{
+		Player player = client.getLocalPlayer();
+		switch (outcome.getType())
+		{
+			case ANIMATION:
+				action.snapshot.put(outcome, player == null ? -1 : player.getAnimation());
+				break;
+			case POSITION_CHANGE:
+				action.snapshot.put(outcome, player == null ? -1 : pack(player.getWorldLocation()));
+				break;
+			case VARBIT_CHANGE:
+				action.snapshot.put(outcome, client.getVarbitValue(outcome.getParam()));
+				break;
+			case VARP_CHANGE:
+				action.snapshot.put(outcome, client.getVarpValue(outcome.getParam()));
+				break;
+			case ANY_OF:
+				for (ActionOutcome child : outcome.getOutcomes())
+				{
+					capture(child, action);
+				}
+				break;
+		}
+	}
+
+	private boolean matches(ActionOutcome outcome, PendingAction action, int containerId)
+	{
+		Player player = client.getLocalPlayer();
+		switch (outcome.getType())
+		{
+			case ANIMATION:
+				//an animation that was already playing at dispatch only counts once it restarts or changes
+				return action.animationStarted ||
+					(player != null && player.getAnimation() != -1 && player.getAnimation() != action.snapshot.get(outcome));
+			case CONTAINER_CHANGE:
+				return containerId == outcome.getParam();
+			case POSITION_CHANGE:
+				return player != null && pack(player.getWorldLocation()) != action.snapshot.get(outcome);
+			case VARBIT_CHANGE:
+				return client.getVarbitValue(outcome.getParam()) != action.snapshot.get(outcome);
+			case VARP_CHANGE:
+				return client.getVarpValue(outcome.getParam()) != action.snapshot.get(outcome);
+			case ANY_OF:
+				for (ActionOutcome child : outcome.getOutcomes())
+				{
+					if (matches(child, action, containerId))
+					{
+						return true;
+					}
+				}
+				return false;
+			default:
+				return false;
+		}
+	}
+
+	private static int pack(WorldPoint point)
+	{
+		return (point.getPlane() << 28) | (point.getX() << 14) | point.getY();
+	}
+
+	private static class PendingAction
+	{
+		private final String type;
+		private final ActionOutcome outcome;
+		private final int deadlineTicks;
+		private final int maxRetries;
+		private final Runnable action;
+		private final CompletableFuture<Boolean> future = new CompletableFuture<>();
+		private final Map<ActionOutcome, Integer> snapshot = new IdentityHashMap<>();
+		private int ticksRemaining;
+		private int backoffTicks;
+		private int retries;
+		private boolean animationStarted;
+		private int dispatchTick;
+		private long dispatchNanos;
+
+		private PendingAction(String type, ActionOutcome outcome, int deadlineTicks, int maxRetries, Runnable action)
+		{
+			this.type = type;
+			this.outcome = outcome;
+			this.deadlineTicks = deadlineTicks;
+			this.maxRetries = maxRetries;
+			this.action = action;
+		}
+	}
+}
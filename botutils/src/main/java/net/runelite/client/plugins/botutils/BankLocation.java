@@ -0,0 +1,100 @@
+package net.runelite.client.plugins.botutils;
+
+import com.google.common.collect.ImmutableListMultimap;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Collectors;
+import lombok.Getter;
+import net.runelite.api.coords.WorldPoint;
+
+/**
+ * Banks with a tile next to their booth or chest, so the nearest bank can be picked and walked to before it is
+ * in the loaded scene. Once it is, the bank object's id picks the menu option, see {@link BotUtils#getBankMenuOpcode}.
+ */
+@Getter
+public enum BankLocation
+{
+	VARROCK_WEST("Varrock West", new WorldPoint(3185, 3441, 0), Type.BOOTH),
+	VARROCK_EAST("Varrock East", new WorldPoint(3253, 3420, 0), Type.BOOTH),
+	GRAND_EXCHANGE("Grand Exchange", new WorldPoint(3164, 3487, 0), Type.BOOTH),
+	EDGEVILLE("Edgeville", new WorldPoint(3094, 3492, 0), Type.BOOTH),
+	FALADOR_EAST("Falador East", new WorldPoint(3013, 3355, 0), Type.BOOTH),
+	FALADOR_WEST("Falador West", new WorldPoint(2946, 3368, 0), Type.BOOTH),
+	DRAYNOR("Draynor Village", new WorldPoint(3092, 3243, 0), Type.BOOTH),
+	AL_KHARID("Al Kharid", new WorldPoint(3269, 3167, 0), Type.BOOTH),
+	LUMBRIDGE("Lumbridge Castle", new WorldPoint(3208, 3220, 2), Type.BOOTH),
+	CATHERBY("Catherby", new WorldPoint(2809, 3441, 0), Type.BOOTH),
+	SEERS_VILLAGE("Seers' Village", new WorldPoint(2725, 3492, 0), Type.BOOTH),
+	ARDOUGNE_NORTH("Ardougne North", new WorldPoint(2616, 3332, 0), Type.BOOTH),
+	ARDOUGNE_SOUTH("Ardougne South", new WorldPoint(2655, 3283, 0), Type.BOOTH),
+	YANILLE("Yanille", new WorldPoint(2613, 3093, 0), Type.BOOTH),
+	FISHING_GUILD("Fishing Guild", new WorldPoint(2586, 3420, 0), Type.BOOTH),
+	GNOME_STRONGHOLD("Tree Gnome Stronghold", new WorldPoint(2445, 3425, 1), Type.BOOTH),
+	SHILO_VILLAGE("Shilo Village", new WorldPoint(2852, 2954, 0), Type.BOOTH),
+	CANIFIS("Canifis", new WorldPoint(3512, 3480, 0), Type.BOOTH),
+	PORT_PHASMATYS("Port Phasmatys", new WorldPoint(3688, 3467, 0), Type.BOOTH),
+	BURGH_DE_ROTT("Burgh de Rott", new WorldPoint(3495, 3211, 0), Type.BOOTH),
+	NARDAH("Nardah", new WorldPoint(3428, 2892, 0), Type.BOOTH),
+	ARCEUUS("Arceuus", new WorldPoint(1624, 3745, 0), Type.BOOTH),
+	HOSIDIUS("Hosidius", new WorldPoint(1749, 3599, 0), Type.BOOTH),
+	PISCARILIUS("Port Piscarilius", new WorldPoint(1803, 3790, 0), Type.BOOTH),
+	LOVAKENGJ("Lovakengj", new WorldPoint(1526, 3739, 0), Type.BOOTH),
+	CASTLE_WARS("Castle Wars", new WorldPoint(2443, 3083, 0), Type.CHEST),
+	CRAFTING_GUILD("Crafting Guild", new WorldPoint(2936, 3281, 0), Type.CHEST),
+	SHANTAY_PASS("Shantay Pass", new WorldPoint(3308, 3120, 0), Type.CHEST),
+	WOODCUTTING_GUILD("Woodcutting Guild", new WorldPoint(1591, 3476, 0), Type.CHEST),
+	MOTHERLODE_MINE("Motherlode Mine", new WorldPoint(3760, 5666, 0), Type.CHEST),
+	BLAST_FURNACE("Blast Furnace", new WorldPoint(1948, 4957, 0), Type.CHEST);
+
+	private static final ImmutableListMultimap<Integer, BankLocation> BY_REGION;
+
+	static
+	{
+		ImmutableListMultimap.Builder<Integer, BankLocation> builder = ImmutableListMultimap.builder();
+		for (BankLocation bank : values())
+		{
+			builder.put(bank.regionId, bank);
+		}
+		BY_REGION = builder.build();
+	}
+
+	private final String name;
+	private final WorldPoint location;
+	private final Type type;
+	private final int regionId;
+
+	BankLocation(String name, WorldPoint location, Type type)
+	{
+		this.name = name;
+		this.location = location;
+		this.type = type;
+		this.regionId = location.getRegionID();
+	}
+
+	public static List<BankLocation> inRegion(int regionId)
+	{
+		return BY_REGION.get(regionId);
+	}
+
+	/**
+	 * All banks ordered by straight line distance ignoring the plane, closest first.
+	 */
+	public static List<BankLocation> byDistance(WorldPoint from)
+	{
+		return Arrays.stream(values())
+			.sorted(Comparator.comparingInt(bank -> bank.location.distanceTo2D(from)))
+			.collect(Collectors.toList());
+	}
+
+	public static BankLocation nearest(WorldPoint from)
+	{
+		return byDistance(from).get(0);
+	}
+
+	public enum Type
+	{
+		BOOTH,
+		CHEST
+	}
+}
@@ -5,6 +5,7 @@
  */
 package net.runelite.client.plugins.botutils;
 
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import com.google.gson.Gson;
 import java.awt.Dimension;
 import java.awt.Rectangle;
@@ -14,14 +15,22 @@ import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
-import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BooleanSupplier;
 import java.util.stream.Collectors;
 import javax.annotation.Nullable;
 import javax.inject.Inject;
@@ -32,16 +41,20 @@ import net.runelite.api.ChatMessageType;
 import net.runelite.api.Client;
 import net.runelite.api.DecorativeObject;
 import net.runelite.api.GameObject;
+import net.runelite.api.GameState;
 import net.runelite.api.GroundObject;
 import net.runelite.api.InventoryID;
 import net.runelite.api.Item;
 import net.runelite.api.ItemContainer;
 import net.runelite.api.ItemID;
+import net.runelite.api.Locatable;
+import net.runelite.api.LocatableQueryResults;
 import net.runelite.api.MenuEntry;
 import net.runelite.api.MenuOpcode;
 import net.runelite.api.NPC;
 import net.runelite.api.Player;
 import net.runelite.api.Point;
+import net.runelite.api.Skill;
 import net.runelite.api.Tile;
 import net.runelite.api.TileItem;
 import net.runelite.api.TileObject;
@@ -50,8 +63,25 @@ import net.runelite.api.WallObject;
 import net.runelite.api.coords.LocalPoint;
 import net.runelite.api.coords.WorldArea;
 import net.runelite.api.coords.WorldPoint;
+import net.runelite.api.events.AnimationChanged;
+import net.runelite.api.events.ChatMessage;
+import net.runelite.api.events.GameObjectDespawned;
+import net.runelite.api.events.GameObjectSpawned;
+import net.runelite.api.events.GameStateChanged;
+import net.runelite.api.events.GameTick;
+import net.runelite.api.events.ItemContainerChanged;
+import net.runelite.api.events.ItemDespawned;
+import net.runelite.api.events.ItemSpawned;
 import net.runelite.api.events.MenuEntryAdded;
 import net.runelite.api.events.MenuOptionClicked;
+import net.runelite.api.events.NpcDespawned;
+import net.runelite.api.events.NpcSpawned;
+import net.runelite.api.events.StatChanged;
+import net.runelite.api.events.VarClientIntChanged;
+import net.runelite.api.events.VarbitChanged;
+import net.runelite.api.events.WallObjectDespawned;
+import net.runelite.api.events.WallObjectSpawned;
+import net.runelite.api.events.WidgetLoaded;
 import net.runelite.api.queries.BankItemQuery;
 import net.runelite.api.queries.DecorativeObjectQuery;
 import net.runelite.api.queries.GameObjectQuery;
@@ -69,11 +99,14 @@ import net.runelite.client.chat.ChatColorType;
 import net.runelite.client.chat.ChatMessageBuilder;
 import net.runelite.client.chat.ChatMessageManager;
 import net.runelite.client.chat.QueuedMessage;
+import net.runelite.client.config.ConfigManager;
 import net.runelite.client.eventbus.Subscribe;
+import net.runelite.client.events.ConfigChanged;
 import net.runelite.client.game.ItemManager;
 import net.runelite.client.plugins.Plugin;
 import net.runelite.client.plugins.PluginDescriptor;
 import net.runelite.client.plugins.PluginType;
+import net.runelite.client.ui.overlay.OverlayManager;
 
 import static java.awt.event.KeyEvent.VK_ENTER;
 import static net.runelite.client.plugins.botutils.Banks.ALL_BANKS;
@@ -117,35 +150,102 @@ public class BotUtils extends Plugin
 	@Inject
 	private GrandExchangeClient grandExchangeClient;
 
-	@Inject
-	private OSBGrandExchangeClient osbGrandExchangeClient;
-
 	@Inject
 	private ClientThread clientThread;
 
 	@Inject
 	ExecutorService executorService;
 
-	MenuEntry targetMenu;
-	private OSBGrandExchangeResult osbGrandExchangeResult;
-	WorldPoint nextPoint;
-	private List<WorldPoint> currentPath = new ArrayList<>();
-
-	public boolean randomEvent;
-	public boolean iterating;
-	public boolean webWalking;
-	private int nextFlagDist = -1;
-	private boolean consumeClick;
-	private boolean modifiedMenu;
-	private int modifiedItemID;
-	private int modifiedItemIndex;
-	private int coordX;
-	private int coordY;
-	private boolean walkAction;
+	//Path requests block on the network, so they get their own thread instead of holding up queued clicks
+	ExecutorService pathExecutor;
+
+	@Inject
+	private MovementTracker movementTracker;
+
+	@Inject
+	private ActionVerifier actionVerifier;
+
+	@Inject
+	private GeometryCache geometryCache;
+
+	@Inject
+	private PriceCache priceCache;
+
+	@Inject
+	private ItemDigestCache itemDigests;
+
+	@Inject
+	private EventGate eventGate;
+
+	@Inject
+	private TickProfiler tickProfiler;
+
+	@Inject
+	private SessionRecorder sessionRecorder;
+
+	@Inject
+	private MetricsEndpoint metricsEndpoint;
+
+	@Inject
+	private EventRecorder eventRecorder;
+
+	@Inject
+	private GameClock gameClock;
+
+	@Inject
+	private RespawnTracker respawnTracker;
+
+	@Inject
+	private PathDistanceField pathDistances;
+
+	@Inject
+	private TickProfilerOverlay tickProfilerOverlay;
+
+	@Inject
+	private OverlayManager overlayManager;
+
+	@Inject
+	private BotUtilsConfig config;
+
+	//Set by plugins and the executor, taken by the client thread's menu subscribers. Replaced as a whole so
+	//the entry and its click handling are always seen together and a newer entry is never cleared by an older click.
+	private final AtomicReference<PendingMenu> pendingMenu = new AtomicReference<>();
+	volatile WorldPoint nextPoint;
+	//Never modified in place, webWalk swaps in a new path
+	private volatile List<WorldPoint> currentPath = Collections.emptyList();
+
+	public volatile boolean randomEvent;
+	public volatile boolean iterating;
+	public volatile boolean webWalking;
+	private volatile int nextFlagDist = -1;
+	private final ConditionWaiter conditionWaiter = new ConditionWaiter();
+	private final AtomicInteger dispatchedClickTargets = new AtomicInteger();
+	private final AtomicInteger staleClickTargets = new AtomicInteger();
+	private final AtomicInteger offscreenClickTargets = new AtomicInteger();
+	private final LongAdder pathHits = new LongAdder();
+	private final LongAdder pathMisses = new LongAdder();
+	private boolean wasMoving;
+	private final int[] lastXp = new int[Skill.values().length];
+	private TickProfiler.Section nearestGameObjectSection;
+	private TickProfiler.Section nearestNpcSection;
+	private TickProfiler.Section nearestObjectSection;
+	private TickProfiler.Section inventorySpaceSection;
+	private TickProfiler.Section inventoryContainsSection;
+	private TickProfiler.Section inventoryItemsSection;
+	private TickProfiler.Section bankContainsSection;
+	private TickProfiler.Section nextPointSection;
 
 	protected static final java.util.Random random = new java.util.Random();
 	public static final MediaType JSON = MediaType.parse("application/json; charset=utf-8");
 	private final String DAX_API_URL = "https://api.dax.cloud/walker/generatePath";
+	//Closest banks in a straight line compared by path length
+	private static final int BANK_PATH_CANDIDATES = 3;
+
+	@Provides
+	BotUtilsConfig provideConfig(ConfigManager configManager)
+	{
+		return configManager.getConfig(BotUtilsConfig.class);
+	}
 
 	@Provides
 	OSBGrandExchangeClient provideOsbGrandExchangeClient(OkHttpClient okHttpClient)
@@ -162,13 +262,51 @@ public class BotUtils extends Plugin
 	@Override
 	protected void startUp()
 	{
+		movementTracker.reset();
+		priceCache.loadSnapshot();
+		Arrays.fill(lastXp, -1);
+		tickProfiler.reset();
+		tickProfiler.setAllocationTracking(config.profileAllocations());
+		pathDistances.setEnabled(config.pathDistance());
+		nearestGameObjectSection = tickProfiler.section("BotUtils", "findNearestGameObject");
+		nearestNpcSection = tickProfiler.section("BotUtils", "findNearestNpc");
+		nearestObjectSection = tickProfiler.section("BotUtils", "findNearestObject");
+		inventorySpaceSection = tickProfiler.section("BotUtils", "getInventorySpace");
+		inventoryContainsSection = tickProfiler.section("BotUtils", "inventoryContains");
+		inventoryItemsSection = tickProfiler.section("BotUtils", "getInventoryItems");
+		bankContainsSection = tickProfiler.section("BotUtils", "bankContains");
+		nextPointSection = tickProfiler.section("BotUtils", "getNextPoint");
+		overlayManager.add(tickProfilerOverlay);
+		registerMetrics();
+		if (config.metricsEndpoint())
+		{
+			metricsEndpoint.start(config.metricsPort());
+		}
+		if (config.recordEvents())
+		{
+			clientThread.invoke(() -> log.info("Recording events to {}", eventRecorder.start()));
+		}
 		executorService = Executors.newSingleThreadExecutor();
+		pathExecutor = Executors.newSingleThreadExecutor(
+			new ThreadFactoryBuilder().setNameFormat("botutils-paths").setDaemon(true).build());
 	}
 
 	@Override
 	protected void shutDown()
 	{
+		log.info("Click targets dispatched: {}, stale: {}, off-screen: {}",
+			dispatchedClickTargets.get(), staleClickTargets.get(), offscreenClickTargets.get());
+		conditionWaiter.clear();
+		actionVerifier.clear();
+		actionVerifier.getStats().forEach((type, stats) -> log.info("Action {}: {}", type, stats));
+		priceCache.saveSnapshot();
+		sessionRecorder.closeAll(2, TimeUnit.SECONDS);
+		tickProfiler.getSections().forEach(section -> log.info("Profiler {}", section));
+		overlayManager.remove(tickProfilerOverlay);
+		metricsEndpoint.stop();
+		clientThread.invoke(eventRecorder::stop);
 		executorService.shutdown();
+		pathExecutor.shutdown();
 	}
 
 	public void sendGameMessage(String message)
@@ -208,10 +346,17 @@ public class BotUtils extends Plugin
 			return null;
 		}
 
-		return new GameObjectQuery()
-			.idEquals(ids)
-			.result(client)
-			.nearestTo(client.getLocalPlayer());
+		long start = nearestGameObjectSection.start();
+		try
+		{
+			return nearest(new GameObjectQuery()
+				.idEquals(ids)
+				.result(client));
+		}
+		finally
+		{
+			nearestGameObjectSection.stop(start);
+		}
 	}
 
 	@Nullable
@@ -224,11 +369,10 @@ public class BotUtils extends Plugin
 			return null;
 		}
 
-		return new GameObjectQuery()
+		return nearest(new GameObjectQuery()
 			.isWithinDistance(worldPoint, dist)
 			.idEquals(ids)
-			.result(client)
-			.nearestTo(client.getLocalPlayer());
+			.result(client));
 	}
 
 	@Nullable
@@ -241,11 +385,10 @@ public class BotUtils extends Plugin
 			return null;
 		}
 
-		return new GameObjectQuery()
+		return nearest(new GameObjectQuery()
 			.isWithinDistance(worldPoint, dist)
 			.idEquals(ids)
-			.result(client)
-			.nearestTo(client.getLocalPlayer());
+			.result(client));
 	}
 
 	@Nullable
@@ -258,10 +401,17 @@ public class BotUtils extends Plugin
 			return null;
 		}
 
-		return new NPCQuery()
-			.idEquals(ids)
-			.result(client)
-			.nearestTo(client.getLocalPlayer());
+		long start = nearestNpcSection.start();
+		try
+		{
+			return nearest(new NPCQuery()
+				.idEquals(ids)
+				.result(client));
+		}
+		finally
+		{
+			nearestNpcSection.stop(start);
+		}
 	}
 
 	@Nullable
@@ -274,10 +424,9 @@ public class BotUtils extends Plugin
 			return null;
 		}
 
-		return new NPCQuery()
+		return nearest(new NPCQuery()
 			.nameContains(names)
-			.result(client)
-			.nearestTo(client.getLocalPlayer());
+			.result(client));
 	}
 
 	@Nullable
@@ -290,11 +439,10 @@ public class BotUtils extends Plugin
 			return null;
 		}
 
-		return new NPCQuery()
+		return nearest(new NPCQuery()
 			.isWithinDistance(worldPoint, dist)
 			.idEquals(ids)
-			.result(client)
-			.nearestTo(client.getLocalPlayer());
+			.result(client));
 	}
 
 	@Nullable
@@ -309,19 +457,17 @@ public class BotUtils extends Plugin
 
 		if (exactnpcname)
 		{
-			return new NPCQuery()
+			return nearest(new NPCQuery()
 				.isWithinDistance(worldPoint, dist)
 				.filter(npc -> npc.getName() != null && npc.getName().toLowerCase().equals(name.toLowerCase()) && npc.getInteracting() == null && npc.getHealthRatio() != 0)
-				.result(client)
-				.nearestTo(client.getLocalPlayer());
+				.result(client));
 		}
 		else
 		{
-			return new NPCQuery()
+			return nearest(new NPCQuery()
 				.isWithinDistance(worldPoint, dist)
 				.filter(npc -> npc.getName() != null && npc.getName().toLowerCase().contains(name.toLowerCase()) && npc.getInteracting() == null && npc.getHealthRatio() != 0)
-				.result(client)
-				.nearestTo(client.getLocalPlayer());
+				.result(client));
 		}
 	}
 
@@ -337,17 +483,15 @@ public class BotUtils extends Plugin
 
 		if (exactnpcname)
 		{
-			return new NPCQuery()
+			return nearest(new NPCQuery()
 				.filter(npc -> npc.getName() != null && npc.getName().toLowerCase().equals(name.toLowerCase()) && npc.getInteracting() == client.getLocalPlayer() && npc.getHealthRatio() != 0)
-				.result(client)
-				.nearestTo(client.getLocalPlayer());
+				.result(client));
 		}
 		else
 		{
-			return new NPCQuery()
+			return nearest(new NPCQuery()
 				.filter(npc -> npc.getName() != null && npc.getName().toLowerCase().contains(name.toLowerCase()) && npc.getInteracting() == client.getLocalPlayer() && npc.getHealthRatio() != 0)
-				.result(client)
-				.nearestTo(client.getLocalPlayer());
+				.result(client));
 		}
 
 	}
@@ -362,10 +506,9 @@ public class BotUtils extends Plugin
 			return null;
 		}
 
-		return new WallObjectQuery()
+		return nearest(new WallObjectQuery()
 			.idEquals(ids)
-			.result(client)
-			.nearestTo(client.getLocalPlayer());
+			.result(client));
 	}
 
 	@Nullable
@@ -378,11 +521,10 @@ public class BotUtils extends Plugin
 			return null;
 		}
 
-		return new WallObjectQuery()
+		return nearest(new WallObjectQuery()
 			.isWithinDistance(worldPoint, radius)
 			.idEquals(ids)
-			.result(client)
-			.nearestTo(client.getLocalPlayer());
+			.result(client));
 	}
 
 	@Nullable
@@ -395,10 +537,9 @@ public class BotUtils extends Plugin
 			return null;
 		}
 
-		return new DecorativeObjectQuery()
+		return nearest(new DecorativeObjectQuery()
 			.idEquals(ids)
-			.result(client)
-			.nearestTo(client.getLocalPlayer());
+			.result(client));
 	}
 
 	@Nullable
@@ -411,10 +552,9 @@ public class BotUtils extends Plugin
 			return null;
 		}
 
-		return new GroundObjectQuery()
+		return nearest(new GroundObjectQuery()
 			.idEquals(ids)
-			.result(client)
-			.nearestTo(client.getLocalPlayer());
+			.result(client));
 	}
 
 	public List<GameObject> getGameObjects(int... ids)
@@ -522,8 +662,29 @@ public class BotUtils extends Plugin
 			.list;
 	}
 
+	//Nearest by walking distance, skipping unreachable results, or by straight line distance while path distance is off
+	@Nullable
+	private <T extends Locatable> T nearest(LocatableQueryResults<T> results)
+	{
+		return pathDistances.isEnabled() ? pathDistances.nearest(results.list) : results.nearestTo(client.getLocalPlayer());
+	}
+
 	@Nullable
 	public TileObject findNearestObject(int... ids)
+	{
+		long start = nearestObjectSection.start();
+		try
+		{
+			return findNearestTileObject(ids);
+		}
+		finally
+		{
+			nearestObjectSection.stop(start);
+		}
+	}
+
+	@Nullable
+	private TileObject findNearestTileObject(int... ids)
 	{
 		GameObject gameObject = findNearestGameObject(ids);
 
@@ -590,10 +751,37 @@ public class BotUtils extends Plugin
 			return null;
 		}
 
-		return new GameObjectQuery()
+		return nearest(new GameObjectQuery()
 			.idEquals(ALL_BANKS)
-			.result(client)
-			.nearestTo(client.getLocalPlayer());
+			.result(client));
+	}
+
+	/**
+	 * Nearest bank from anywhere, including banks outside the loaded scene. The closest few banks in a straight
+	 * line are compared by web walking path length, falling back to straight line distance if no path is returned.
+	 * The paths are requested on a thread of their own and the future completes there, walk towards
+	 * {@link BankLocation#nearest(WorldPoint)} meanwhile.
+	 */
+	public CompletableFuture<BankLocation> findNearestBankLocation(WorldPoint from)
+	{
+		return CompletableFuture.supplyAsync(() -> nearestBankByPath(from), pathExecutor);
+	}
+
+	private BankLocation nearestBankByPath(WorldPoint from)
+	{
+		List<BankLocation> banks = BankLocation.byDistance(from);
+		BankLocation nearest = banks.get(0);
+		int shortestPath = Integer.MAX_VALUE;
+		for (BankLocation bank : banks.subList(0, Math.min(BANK_PATH_CANDIDATES, banks.size())))
+		{
+			List<WorldPoint> path = getDaxPath(from, bank.getLocation());
+			if (!path.isEmpty() && path.size() < shortestPath)
+			{
+				nearest = bank;
+				shortestPath = path.size();
+			}
+		}
+		return nearest;
 	}
 
 	/*
@@ -868,7 +1056,8 @@ public class BotUtils extends Plugin
 	public int getRandomIntBetweenRange(int min, int max)
 	{
 		//return (int) ((Math.random() * ((max - min) + 1)) + min); //This does not allow return of negative values
-		return ThreadLocalRandom.current().nextInt(min, max + 1);
+		//Drawn from the shared generator so a seeded simulation repeats the same delays and click points
+		return min + random.nextInt(max - min + 1);
 	}
 
 	private void mouseEvent(int id, @NotNull Point point)
@@ -965,17 +1154,112 @@ public class BotUtils extends Plugin
 		delayMouseClick(point, delay);
 	}
 
+	/*
+	 *
+	 * Resolves the target's screen bounds on the client thread after the delay has passed, so camera or
+	 * player movement during the delay doesn't leave us clicking stale bounds. If the target is gone by then
+	 * nothing is clicked, the menu entry set for it is cleared and the returned future completes with false
+	 * so the caller can pick a new target
+	 *
+	 * */
+	public CompletableFuture<Boolean> delayMouseClick(ClickTarget target, long delay)
+	{
+		//The entry set for this target, a newer one set during the delay is left alone
+		PendingMenu pending = pendingMenu.get();
+		CompletableFuture<Boolean> clicked = new CompletableFuture<>();
+		executorService.submit(() ->
+		{
+			try
+			{
+				sleep(delay);
+				Point point = resolveClickPoint(target);
+				if (point == null)
+				{
+					if (pending != null)
+					{
+						pendingMenu.compareAndSet(pending, null);
+					}
+					clicked.complete(false);
+					return;
+				}
+				handleMouseClick(point);
+				clicked.complete(true);
+			}
+			catch (RuntimeException e)
+			{
+				e.printStackTrace();
+				clicked.complete(false);
+			}
+		});
+		return clicked;
+	}
+
+	//Null if the target is gone
+	@Nullable
+	private Point resolveClickPoint(ClickTarget target)
+	{
+		assert !client.isClientThread();
+
+		dispatchedClickTargets.incrementAndGet();
+		CompletableFuture<Rectangle> snapshot = new CompletableFuture<>();
+		clientThread.invoke(() ->
+		{
+			try
+			{
+				snapshot.complete(target.resolve(client, geometryCache));
+			}
+			catch (RuntimeException e)
+			{
+				snapshot.completeExceptionally(e);
+			}
+		});
+		Rectangle bounds;
+		try
+		{
+			bounds = snapshot.get(200, TimeUnit.MILLISECONDS);
+		}
+		catch (InterruptedException | ExecutionException | TimeoutException e)
+		{
+			bounds = null;
+		}
+		if (bounds == null)
+		{
+			staleClickTargets.incrementAndGet();
+			log.debug("Click target {} is stale, skipping the click", target);
+			return null;
+		}
+		Point point = getClickPoint(bounds);
+		if (!pointOnScreen(point))
+		{
+			offscreenClickTargets.incrementAndGet();
+			log.debug("Click target {} is off-screen at {}", target, point);
+		}
+		return point;
+	}
+
+	public int getDispatchedClickTargets()
+	{
+		return dispatchedClickTargets.get();
+	}
+
+	public int getStaleClickTargets()
+	{
+		return staleClickTargets.get();
+	}
+
+	public int getOffscreenClickTargets()
+	{
+		return offscreenClickTargets.get();
+	}
+
 	/**
 	 * PLAYER FUNCTIONS
 	 */
 
-	//Not very accurate, recommend using isMoving(LocalPoint lastTickLocalPoint)
+	//Compares against the position recorded on the previous GameTick, safe to call on the client thread
 	public boolean isMoving()
 	{
-		int camX = client.getCameraX2();
-		int camY = client.getCameraY2();
-		sleep(25);
-		return (camX != client.getCameraX() || camY != client.getCameraY()) && client.getLocalDestinationLocation() != null;
+		return movementTracker.isMoving();
 	}
 
 	public boolean isMoving(LocalPoint lastTickLocalPoint)
@@ -985,8 +1269,22 @@ public class BotUtils extends Plugin
 
 	public boolean isInteracting()
 	{
-		sleep(25);
-		return isMoving() || client.getLocalPlayer().getAnimation() != -1;
+		return movementTracker.isInteracting();
+	}
+
+	public boolean isIdleFor(int ticks)
+	{
+		return movementTracker.isIdleFor(ticks);
+	}
+
+	public int getIdleTicks()
+	{
+		return movementTracker.getIdleTicks();
+	}
+
+	public MovementTracker getMovementTracker()
+	{
+		return movementTracker;
 	}
 
 	public boolean isAnimating()
@@ -1009,11 +1307,10 @@ public class BotUtils extends Plugin
 
 	public void walk(LocalPoint localPoint, int rand, long delay)
 	{
-		coordX = localPoint.getSceneX() + getRandomIntBetweenRange(-Math.abs(rand), Math.abs(rand));
-		coordY = localPoint.getSceneY() + getRandomIntBetweenRange(-Math.abs(rand), Math.abs(rand));
-		walkAction = true;
-		targetMenu = new MenuEntry("Walk here", "", 0, MenuOpcode.WALK.getId(),
-			0, 0, false);
+		int x = localPoint.getSceneX() + getRandomIntBetweenRange(-Math.abs(rand), Math.abs(rand));
+		int y = localPoint.getSceneY() + getRandomIntBetweenRange(-Math.abs(rand), Math.abs(rand));
+		pendingMenu.set(PendingMenu.walk(new MenuEntry("Walk here", "", 0, MenuOpcode.WALK.getId(),
+			0, 0, false), x, y));
 		delayMouseClick(new Point(0, 0), delay);
 	}
 
@@ -1022,11 +1319,10 @@ public class BotUtils extends Plugin
 		LocalPoint localPoint = LocalPoint.fromWorld(client, worldPoint);
 		if (localPoint != null)
 		{
-			coordX = localPoint.getSceneX() + getRandomIntBetweenRange(-Math.abs(rand), Math.abs(rand));
-			coordY = localPoint.getSceneY() + getRandomIntBetweenRange(-Math.abs(rand), Math.abs(rand));
-			walkAction = true;
-			targetMenu = new MenuEntry("Walk here", "", 0, MenuOpcode.WALK.getId(),
-				0, 0, false);
+			int x = localPoint.getSceneX() + getRandomIntBetweenRange(-Math.abs(rand), Math.abs(rand));
+			int y = localPoint.getSceneY() + getRandomIntBetweenRange(-Math.abs(rand), Math.abs(rand));
+			pendingMenu.set(PendingMenu.walk(new MenuEntry("Walk here", "", 0, MenuOpcode.WALK.getId(),
+				0, 0, false), x, y));
 			delayMouseClick(new Point(0, 0), delay);
 		}
 		else
@@ -1061,22 +1357,30 @@ public class BotUtils extends Plugin
 		Gson g = new Gson();
 		Outer outer = g.fromJson(jsonString, Outer.class);
 		//log.info("test list output: {}, \n length: {}", outer.path.toString(), outer.path.size());
-		return outer.path;
+		return (outer == null || outer.path == null) ? Collections.emptyList() : outer.path; //no response or no path found
 	}
 
 	public WorldPoint getNextPoint(List<WorldPoint> worldPoints, int randomRadius)
 	{
-		int listSize = worldPoints.size();
-		for (int i = listSize - 1; i > 0; i--)
+		long start = nextPointSection.start();
+		try
 		{
-			if (worldPoints.get(i).isInScene(client))
+			int listSize = worldPoints.size();
+			for (int i = listSize - 1; i > 0; i--)
 			{
-				//log.info("WorldPoint: {} is inScene.", worldPoints.get(i));
-				WorldPoint scenePoint = worldPoints.get((i >= listSize - 1) ? i : (i - getRandomIntBetweenRange(2, 4))); //returns a few tiles into the scene unless it's the destination tile
-				return getRandPoint(scenePoint, randomRadius);
+				if (worldPoints.get(i).isInScene(client))
+				{
+					//log.info("WorldPoint: {} is inScene.", worldPoints.get(i));
+					WorldPoint scenePoint = worldPoints.get((i >= listSize - 1) ? i : (i - getRandomIntBetweenRange(2, 4))); //returns a few tiles into the scene unless it's the destination tile
+					return getRandPoint(scenePoint, randomRadius);
+				}
 			}
+			return null;
+		}
+		finally
+		{
+			nextPointSection.stop(start);
 		}
-		return null;
 	}
 
 	public List<WorldPoint> getDaxPath(WorldPoint start, WorldPoint destination)
@@ -1132,17 +1436,24 @@ public class BotUtils extends Plugin
 			if (player.getWorldLocation().distanceTo(destination) <= randRadius)
 			{
 				//log.info("Arrived at destination");
-				currentPath.clear();
+				currentPath = Collections.emptyList();
 				webWalking = false;
 				nextPoint = null;
 				return true;
 			}
 			webWalking = true;
-			if (currentPath.isEmpty() || !currentPath.get(currentPath.size() - 1).equals(destination)) //no current path or destination doesn't match destination param
+			List<WorldPoint> path = currentPath;
+			if (path.isEmpty() || !path.get(path.size() - 1).equals(destination)) //no current path or destination doesn't match destination param
+			{
+				pathMisses.increment();
+				path = getDaxPath(player.getWorldLocation(), destination); //get a new path
+				currentPath = path;
+			}
+			else
 			{
-				currentPath = getDaxPath(player.getWorldLocation(), destination); //get a new path
+				pathHits.increment();
 			}
-			if (currentPath.isEmpty())
+			if (path.isEmpty())
 			{
 				log.info("Current path is empty, failed to retrieve path");
 				return false;
@@ -1152,14 +1463,16 @@ public class BotUtils extends Plugin
 				nextFlagDist = getRandomIntBetweenRange(0, 10);
 				//log.info("Next flag distance: {}", nextFlagDist);
 			}
-			if (!isMoving || (nextPoint != null && nextPoint.distanceTo(player.getWorldLocation()) < nextFlagDist))
+			WorldPoint next = nextPoint;
+			if (!isMoving || (next != null && next.distanceTo(player.getWorldLocation()) < nextFlagDist))
 			{
-				nextPoint = getNextPoint(currentPath, randRadius);
-				if (nextPoint != null)
+				next = getNextPoint(path, randRadius);
+				nextPoint = next;
+				if (next != null)
 				{
-					log.info("Walking to next tile: {}", nextPoint);
-					walk(nextPoint, 0, sleepDelay);
-					nextFlagDist = nextPoint.equals(destination) ? 0 : getRandomIntBetweenRange(0, 10);
+					log.info("Walking to next tile: {}", next);
+					walk(next, 0, sleepDelay);
+					nextFlagDist = next.equals(destination) ? 0 : getRandomIntBetweenRange(0, 10);
 					//log.info("Next flag distance: {}", nextFlagDist);
 				}
 				else
@@ -1205,7 +1518,7 @@ public class BotUtils extends Plugin
 		log.info("enabling run");
 		executorService.submit(() ->
 		{
-			targetMenu = new MenuEntry("Toggle Run", "", 1, 57, -1, 10485782, false);
+			setMenuEntry(new MenuEntry("Toggle Run", "", 1, 57, -1, 10485782, false));
 			delayMouseClick(runOrbBounds, getRandomIntBetweenRange(10, 250));
 		});
 	}
@@ -1230,7 +1543,7 @@ public class BotUtils extends Plugin
 		if (staminaPotion != null)
 		{
 			log.info("using stamina potion");
-			targetMenu = new MenuEntry("", "", staminaPotion.getId(), MenuOpcode.ITEM_FIRST_OPTION.getId(), staminaPotion.getIndex(), 9764864, false);
+			setMenuEntry(new MenuEntry("", "", staminaPotion.getId(), MenuOpcode.ITEM_FIRST_OPTION.getId(), staminaPotion.getIndex(), 9764864, false));
 			delayMouseClick(staminaPotion.getCanvasBounds(), getRandomIntBetweenRange(5, 200));
 			return true;
 		}
@@ -1240,7 +1553,7 @@ public class BotUtils extends Plugin
 	public void logout()
 	{
 		int param1 = (client.getWidget(WidgetInfo.LOGOUT_BUTTON) != null) ? 11927560 : 4522007;
-		targetMenu = new MenuEntry("", "", 1, MenuOpcode.CC_OP.getId(), -1, param1, false);
+		setMenuEntry(new MenuEntry("", "", 1, MenuOpcode.CC_OP.getId(), -1, param1, false));
 		Widget logoutWidget = client.getWidget(WidgetInfo.LOGOUT_BUTTON);
 		if (logoutWidget != null)
 		{
@@ -1268,45 +1581,58 @@ public class BotUtils extends Plugin
 
 	public int getInventorySpace()
 	{
-		Widget inventoryWidget = client.getWidget(WidgetInfo.INVENTORY);
-		if (inventoryWidget != null)
+		long start = inventorySpaceSection.start();
+		try
 		{
-			return 28 - inventoryWidget.getWidgetItems().size();
+			Widget inventoryWidget = client.getWidget(WidgetInfo.INVENTORY);
+			if (inventoryWidget != null)
+			{
+				return 28 - inventoryWidget.getWidgetItems().size();
+			}
+			else
+			{
+				return -1;
+			}
 		}
-		else
+		finally
 		{
-			return -1;
+			inventorySpaceSection.stop(start);
 		}
 	}
 
 	public List<WidgetItem> getInventoryItems(Collection<Integer> ids)
 	{
-		Widget inventoryWidget = client.getWidget(WidgetInfo.INVENTORY);
-		List<WidgetItem> matchedItems = new ArrayList<>();
-
-		if (inventoryWidget != null)
+		long start = inventoryItemsSection.start();
+		try
 		{
-			Collection<WidgetItem> items = inventoryWidget.getWidgetItems();
-			for (WidgetItem item : items)
+			Widget inventoryWidget = client.getWidget(WidgetInfo.INVENTORY);
+			List<WidgetItem> matchedItems = new ArrayList<>();
+
+			if (inventoryWidget != null)
 			{
-				if (ids.contains(item.getId()))
+				Collection<WidgetItem> items = inventoryWidget.getWidgetItems();
+				for (WidgetItem item : items)
 				{
-					matchedItems.add(item);
+					if (ids.contains(item.getId()))
+					{
+						matchedItems.add(item);
+					}
 				}
+				return matchedItems;
 			}
-			return matchedItems;
+			return null;
+		}
+		finally
+		{
+			inventoryItemsSection.stop(start);
 		}
-		return null;
 	}
 
 	//Requires Inventory visible or returns empty
 	public List<WidgetItem> getInventoryItems(String itemName)
 	{
 		return new InventoryWidgetItemQuery()
-			.filter(i -> client.getItemDefinition(i.getId())
-				.getName()
-				.toLowerCase()
-				.contains(itemName))
+			.filter(i -> itemDigests.getLowerName(i.getId()).contains(itemName))
 			.result(client)
 			.list;
 	}
@@ -1414,13 +1740,9 @@ public class BotUtils extends Plugin
 				{
 					continue;
 				}
-				String[] menuActions = itemManager.getItemDefinition(item.getId()).getInventoryActions();
-				for (String action : menuActions)
+				if (itemDigests.hasAction(item.getId(), menuOption))
 				{
-					if (action != null && action.equals(menuOption))
-					{
-						return item;
-					}
+					return item;
 				}
 			}
 		}
@@ -1435,10 +1757,9 @@ public class BotUtils extends Plugin
 			Collection<WidgetItem> items = inventoryWidget.getWidgetItems();
 			for (WidgetItem item : items)
 			{
-				String[] menuActions = itemManager.getItemDefinition(item.getId()).getInventoryActions();
-				for (String action : menuActions)
+				for (String menuOption : menuOptions)
 				{
-					if (action != null && menuOptions.contains(action))
+					if (itemDigests.hasAction(item.getId(), menuOption))
 					{
 						return item;
 					}
@@ -1456,13 +1777,9 @@ public class BotUtils extends Plugin
 			Collection<WidgetItem> items = inventoryWidget.getWidgetItems();
 			for (WidgetItem item : items)
 			{
-				String[] menuActions = itemManager.getItemDefinition(item.getId()).getInventoryActions();
-				for (String action : menuActions)
+				if (itemDigests.hasAction(item.getId(), menuOption))
 				{
-					if (action != null && action.equals(menuOption))
-					{
-						return item;
-					}
+					return item;
 				}
 			}
 		}
@@ -1530,10 +1847,7 @@ public class BotUtils extends Plugin
 		}
 
 		WidgetItem inventoryItem = new InventoryWidgetItemQuery()
-			.filter(i -> client.getItemDefinition(i.getId())
-				.getName()
-				.toLowerCase()
-				.contains(itemName))
+			.filter(i -> itemDigests.getLowerName(i.getId()).contains(itemName))
 			.result(client)
 			.first();
 
@@ -1614,7 +1928,15 @@ public class BotUtils extends Plugin
 		{
 			return false;
 		}
-		return getInventoryItems(itemIds).size() > 0;
+		long start = inventoryContainsSection.start();
+		try
+		{
+			return getInventoryItems(itemIds).size() > 0;
+		}
+		finally
+		{
+			inventoryContainsSection.stop(start);
+		}
 	}
 
 	public boolean inventoryContainsAllOf(Collection<Integer> itemIds)
@@ -1656,7 +1978,7 @@ public class BotUtils extends Plugin
 	{
 		assert !client.isClientThread();
 
-		targetMenu = new MenuEntry("", "", item.getId(), MenuOpcode.ITEM_DROP.getId(), item.getIndex(), 9764864, false);
+		setMenuEntry(new MenuEntry("", "", item.getId(), MenuOpcode.ITEM_DROP.getId(), item.getIndex(), 9764864, false));
 		click(item.getCanvasBounds());
 	}
 
@@ -1696,6 +2018,39 @@ public class BotUtils extends Plugin
 		});
 	}
 
+	/**
+	 * Drops the given inventory items in order, e.g. a few at a time between skilling actions.
+	 */
+	public void dropInventoryItems(Collection<WidgetItem> items, int minDelayBetween, int maxDelayBetween)
+	{
+		if (isBankOpen() || isDepositBoxOpen())
+		{
+			log.info("can't drop item, bank is open");
+			return;
+		}
+		//Set before the task is queued, so a caller checking iterating doesn't queue the same items again meanwhile
+		iterating = true;
+		executorService.submit(() ->
+		{
+			try
+			{
+				for (WidgetItem item : items)
+				{
+					sleep(minDelayBetween, maxDelayBetween);
+					dropItem(item);
+				}
+			}
+			catch (Exception e)
+			{
+				e.printStackTrace();
+			}
+			finally
+			{
+				iterating = false;
+			}
+		});
+	}
+
 	public void dropAllExcept(Collection<Integer> ids, boolean dropAll, int minDelayBetween, int maxDelayBetween)
 	{
 		if (isBankOpen() || isDepositBoxOpen())
@@ -1895,7 +2250,7 @@ public class BotUtils extends Plugin
 		{
 			return;
 		}
-		targetMenu = new MenuEntry("", "", 1, MenuOpcode.CC_OP.getId(), 11, 786434, false); //close bank
+		setMenuEntry(new MenuEntry("", "", 1, MenuOpcode.CC_OP.getId(), 11, 786434, false)); //close bank
 		Widget bankCloseWidget = client.getWidget(WidgetInfo.BANK_PIN_EXIT_BUTTON);
 		if (bankCloseWidget != null)
 		{
@@ -1945,15 +2300,7 @@ public class BotUtils extends Plugin
 	{
 		if (isBankOpen())
 		{
-			ItemContainer bankItemContainer = client.getItemContainer(InventoryID.BANK);
-			for (int id : ids)
-			{
-				if (new BankItemQuery().idEquals(ids).result(client).size() > 0)
-				{
-					return true;
-				}
-			}
-			return false;
+			return new BankItemQuery().idEquals(ids).result(client).size() > 0;
 		}
 		return false;
 	}
@@ -1981,16 +2328,23 @@ public class BotUtils extends Plugin
 		if (isBankOpen())
 		{
 			ItemContainer bankItemContainer = client.getItemContainer(InventoryID.BANK);
-			final WidgetItem bankItem;
 			if (bankItemContainer != null)
 			{
-				for (Item item : bankItemContainer.getItems())
+				long start = bankContainsSection.start();
+				try
 				{
-					if (item.getId() == itemID)
+					for (Item item : bankItemContainer.getItems())
 					{
-						return item.getQuantity() >= minStackAmount;
+						if (item.getId() == itemID)
+						{
+							return item.getQuantity() >= minStackAmount;
+						}
 					}
 				}
+				finally
+				{
+					bankContainsSection.stop(start);
+				}
 			}
 		}
 		return false;
@@ -2085,11 +2439,11 @@ public class BotUtils extends Plugin
 			Widget depositInventoryWidget = client.getWidget(WidgetInfo.BANK_DEPOSIT_INVENTORY);
 			if (isDepositBoxOpen())
 			{
-				targetMenu = new MenuEntry("", "", 1, MenuOpcode.CC_OP.getId(), -1, 12582916, false); //deposit all in bank interface
+				setMenuEntry(new MenuEntry("", "", 1, MenuOpcode.CC_OP.getId(), -1, 12582916, false)); //deposit all in bank interface
 			}
 			else
 			{
-				targetMenu = new MenuEntry("", "", 8, MenuOpcode.CC_OP.getId(), -1, 786473, false); //deposit all in bank interface
+				setMenuEntry(new MenuEntry("", "", 8, MenuOpcode.CC_OP.getId(), -1, 786473, false)); //deposit all in bank interface
 			}
 			if ((depositInventoryWidget != null))
 			{
@@ -2145,8 +2499,8 @@ public class BotUtils extends Plugin
 			return;
 		}
 		boolean depositBox = isDepositBoxOpen();
-		targetMenu = new MenuEntry("", "", (depositBox) ? 1 : 8, MenuOpcode.CC_OP.getId(), item.getIndex(),
-			(depositBox) ? 12582914 : 983043, false);
+		setMenuEntry(new MenuEntry("", "", (depositBox) ? 1 : 8, MenuOpcode.CC_OP.getId(), item.getIndex(),
+			(depositBox) ? 12582914 : 983043, false));
 		click(item.getCanvasBounds());
 	}
 
@@ -2197,7 +2551,7 @@ public class BotUtils extends Plugin
 	{
 		executorService.submit(() ->
 		{
-			targetMenu = new MenuEntry("Withdraw-All", "", 7, MenuOpcode.CC_OP.getId(), bankItemWidget.getIndex(), 786444, false);
+			setMenuEntry(new MenuEntry("Withdraw-All", "", 7, MenuOpcode.CC_OP.getId(), bankItemWidget.getIndex(), 786444, false));
 			clickRandomPointCenter(-200, 200);
 		});
 	}
@@ -2219,8 +2573,7 @@ public class BotUtils extends Plugin
 	{
 		executorService.submit(() ->
 		{
-			targetMenu = new MenuEntry("", "", (client.getVarbitValue(6590) == 0) ? 1 : 2, MenuOpcode.CC_OP.getId(), bankItemWidget.getIndex(), 786444, false);
-			setMenuEntry(targetMenu);
+			setMenuEntry(new MenuEntry("", "", (client.getVarbitValue(6590) == 0) ? 1 : 2, MenuOpcode.CC_OP.getId(), bankItemWidget.getIndex(), 786444, false));
 			clickRandomPointCenter(-200, 200);
 		});
 	}
@@ -2256,48 +2609,59 @@ public class BotUtils extends Plugin
 						identifier = 6;
 						break;
 				}
-				targetMenu = new MenuEntry("", "", identifier, MenuOpcode.CC_OP.getId(), item.getIndex(), 786444, false);
-				setMenuEntry(targetMenu);
+				setMenuEntry(new MenuEntry("", "", identifier, MenuOpcode.CC_OP.getId(), item.getIndex(), 786444, false));
 				delayClickRandomPointCenter(-200, 200, 50);
 				if (identifier == 6)
 				{
-					executorService.submit(() -> {
-						sleep(getRandomIntBetweenRange(1000, 1500));
+					waitFor(this::isEnterAmountOpen, 5).thenAcceptAsync(open ->
+					{
+						if (!open)
+						{
+							log.info("Withdraw-X prompt did not open");
+							return;
+						}
+						sleep(getRandomIntBetweenRange(80, 250));
 						typeString(String.valueOf(amount));
 						sleep(getRandomIntBetweenRange(80, 250));
 						pressKey(VK_ENTER);
-					});
+					}, executorService);
 				}
 			}
 		});
 	}
 
+	public boolean isEnterAmountOpen()
+	{
+		Widget inputWidget = client.getWidget(WidgetInfo.CHATBOX_FULL_INPUT);
+		return inputWidget != null && !inputWidget.isHidden();
+	}
+
+	public CompletableFuture<Boolean> waitForBankOpen(int timeoutTicks)
+	{
+		return waitFor(() -> isBankOpen() || isDepositBoxOpen(), timeoutTicks);
+	}
+
 	/**
 	 * GRAND EXCHANGE FUNCTIONS
 	 */
 
+	/**
+	 * Returns the last known price without blocking, with all averages at 0 until the first lookup completes.
+	 * Missing or expired prices are refreshed in the background, see {@link PriceCache}.
+	 */
 	public OSBGrandExchangeResult getOSBItem(int itemId)
 	{
-		log.debug("Looking up OSB item price {}", itemId);
-		osbGrandExchangeClient.lookupItem(itemId)
-			.subscribe(
-				(osbresult) ->
-				{
-					if (osbresult != null && osbresult.getOverall_average() > 0)
-					{
-						osbGrandExchangeResult = osbresult;
-					}
-				},
-				(e) -> log.debug("Error getting price of item {}", itemId, e)
-			);
-		if (osbGrandExchangeResult != null)
-		{
-			return osbGrandExchangeResult;
-		}
-		else
-		{
-			return null;
-		}
+		return priceCache.get(itemId);
+	}
+
+	public PriceCache getPriceCache()
+	{
+		return priceCache;
+	}
+
+	public ItemDigestCache getItemDigests()
+	{
+		return itemDigests;
 	}
 
 	/**
@@ -2339,6 +2703,11 @@ public class BotUtils extends Plugin
 	 */
 	public void sleep(int toSleep)
 	{
+		if (gameClock.isVirtual())
+		{
+			gameClock.advance(toSleep);
+			return;
+		}
 		try
 		{
 			long start = System.currentTimeMillis();
@@ -2359,6 +2728,11 @@ public class BotUtils extends Plugin
 
 	public void sleep(long toSleep)
 	{
+		if (gameClock.isVirtual())
+		{
+			gameClock.advance(toSleep);
+			return;
+		}
 		try
 		{
 			long start = System.currentTimeMillis();
@@ -2451,23 +2825,331 @@ public class BotUtils extends Plugin
 		client.setSelectedSpellChildIndex(-1);
 	}
 
+	/**
+	 * Completes with true as soon as the condition is met or false after timeoutTicks game ticks.
+	 * The condition is re-evaluated on the client thread on GameTick, WidgetLoaded, ItemContainerChanged,
+	 * VarbitChanged and VarClientIntChanged. Chain clicks or typing with thenAcceptAsync(.., executorService).
+	 */
+	public CompletableFuture<Boolean> waitFor(BooleanSupplier condition, int timeoutTicks)
+	{
+		CompletableFuture<Boolean> future = conditionWaiter.add(condition, timeoutTicks);
+		if (client.isClientThread())
+		{
+			conditionWaiter.evaluate();
+		}
+		return future;
+	}
+
+	/**
+	 * Runs the action now and expects the outcome within deadlineTicks, re-running it with a 1, 2, 4.. tick
+	 * backoff up to maxRetries times. Completes with whether the outcome was seen, stats are kept per type.
+	 * Must be called on the client thread.
+	 */
+	public CompletableFuture<Boolean> verifiedAction(String type, ActionOutcome outcome, int deadlineTicks, int maxRetries, Runnable action)
+	{
+		return actionVerifier.submit(type, outcome, deadlineTicks, maxRetries, action);
+	}
+
+	public ActionVerifier getActionVerifier()
+	{
+		return actionVerifier;
+	}
+
+	public GeometryCache getGeometryCache()
+	{
+		return geometryCache;
+	}
+
+	/**
+	 * STATE MACHINE AND EVENT GATE FUNCTIONS
+	 */
+
+	//Registered machines read input changes from the event gate
+	public void registerStateMachine(StateMachine<?> stateMachine)
+	{
+		stateMachine.attach(eventGate);
+	}
+
+	public void unregisterStateMachine(StateMachine<?> stateMachine)
+	{
+		stateMachine.detach();
+	}
+
+	public EventGate getEventGate()
+	{
+		return eventGate;
+	}
+
+	public TickProfiler getTickProfiler()
+	{
+		return tickProfiler;
+	}
+
+	public SessionRecorder getSessionRecorder()
+	{
+		return sessionRecorder;
+	}
+
+	public MetricsEndpoint getMetricsEndpoint()
+	{
+		return metricsEndpoint;
+	}
+
+	public EventRecorder getEventRecorder()
+	{
+		return eventRecorder;
+	}
+
+	public GameClock getClock()
+	{
+		return gameClock;
+	}
+
+	public RespawnTracker getRespawnTracker()
+	{
+		return respawnTracker;
+	}
+
+	public PathDistanceField getPathDistances()
+	{
+		return pathDistances;
+	}
+
+	private void registerMetrics()
+	{
+		metricsEndpoint.counter("botutils_click_targets_dispatched_total", "Click targets dispatched", dispatchedClickTargets::get);
+		metricsEndpoint.counter("botutils_click_targets_stale_total", "Click targets whose target was gone when resolved", staleClickTargets::get);
+		metricsEndpoint.counter("botutils_click_targets_offscreen_total", "Click targets resolved off screen", offscreenClickTargets::get);
+		metricsEndpoint.counter("botutils_path_cache_hits_total", "Web walk steps reusing the current path", pathHits::sum);
+		metricsEndpoint.counter("botutils_path_cache_misses_total", "Web walk paths requested", pathMisses::sum);
+		metricsEndpoint.counter("botutils_path_field_updates_total", "Walking distance field recomputations", pathDistances::getUpdates);
+	}
+
 	public void setMenuEntry(MenuEntry menuEntry)
 	{
-		targetMenu = menuEntry;
+		pendingMenu.set(menuEntry == null ? null : new PendingMenu(menuEntry, false, false, 0, 0, false, 0, 0));
 	}
 
 	public void setMenuEntry(MenuEntry menuEntry, boolean consume)
 	{
-		targetMenu = menuEntry;
-		consumeClick = consume;
+		pendingMenu.set(menuEntry == null ? null : new PendingMenu(menuEntry, consume, false, 0, 0, false, 0, 0));
 	}
 
 	public void setModifiedMenuEntry(MenuEntry menuEntry, int itemID, int itemIndex)
 	{
-		targetMenu = menuEntry;
-		modifiedMenu = true;
-		modifiedItemID = itemID;
-		modifiedItemIndex = itemIndex;
+		pendingMenu.set(menuEntry == null ? null : new PendingMenu(menuEntry, false, true, itemID, itemIndex, false, 0, 0));
+	}
+
+	public MenuEntry getMenuEntry()
+	{
+		PendingMenu pending = pendingMenu.get();
+		return pending == null ? null : pending.entry;
+	}
+
+	@Subscribe
+	private void onGameTick(GameTick event)
+	{
+		tickProfiler.endTick();
+		movementTracker.onGameTick();
+		boolean moving = movementTracker.isMoving();
+		if (moving || wasMoving)
+		{
+			eventGate.mark(StateInput.POSITION);
+		}
+		wasMoving = moving;
+		conditionWaiter.tick();
+		actionVerifier.onGameTick();
+		Player player = client.getLocalPlayer();
+		eventRecorder.tick(client.getTickCount(), player == null ? null : player.getWorldLocation(),
+			player == null ? -1 : player.getAnimation());
+	}
+
+	@Subscribe
+	private void onGameStateChanged(GameStateChanged event)
+	{
+		eventRecorder.gameState(event.getGameState());
+		if (event.getGameState() == GameState.LOADING)
+		{
+			geometryCache.invalidate();
+			pathDistances.invalidate();
+			eventGate.markAll();
+		}
+		else if (event.getGameState() == GameState.LOGIN_SCREEN)
+		{
+			Arrays.fill(lastXp, -1);
+			respawnTracker.reset();
+		}
+	}
+
+	@Subscribe
+	private void onConfigChanged(ConfigChanged event)
+	{
+		if (!event.getGroup().equals("botutils"))
+		{
+			return;
+		}
+		switch (event.getKey())
+		{
+			case "profileAllocations":
+				tickProfiler.setAllocationTracking(config.profileAllocations());
+				break;
+			case "pathDistance":
+				pathDistances.setEnabled(config.pathDistance());
+				break;
+			case "metricsEndpoint":
+			case "metricsPort":
+				metricsEndpoint.stop();
+				if (config.metricsEndpoint())
+				{
+					metricsEndpoint.start(config.metricsPort());
+				}
+				break;
+			case "recordEvents":
+				//The recorder's buffer is written on the client thread, config changes arrive on another one
+				clientThread.invoke(() ->
+				{
+					if (config.recordEvents())
+					{
+						log.info("Recording events to {}", eventRecorder.start());
+					}
+					else
+					{
+						eventRecorder.stop();
+					}
+				});
+				break;
+		}
+	}
+
+	@Subscribe
+	private void onWidgetLoaded(WidgetLoaded event)
+	{
+		conditionWaiter.evaluate();
+		eventGate.mark(StateInput.WIDGETS);
+	}
+
+	@Subscribe
+	private void onItemContainerChanged(ItemContainerChanged event)
+	{
+		conditionWaiter.evaluate();
+		actionVerifier.onItemContainerChanged(event.getContainerId());
+		eventRecorder.container(event.getContainerId(), event.getItemContainer());
+		if (event.getContainerId() == InventoryID.INVENTORY.getId())
+		{
+			eventGate.mark(StateInput.INVENTORY);
+		}
+		else if (event.getContainerId() == InventoryID.EQUIPMENT.getId())
+		{
+			eventGate.mark(StateInput.EQUIPMENT);
+		}
+		else if (event.getContainerId() == InventoryID.BANK.getId())
+		{
+			eventGate.mark(StateInput.BANK);
+		}
+	}
+
+	@Subscribe
+	private void onVarbitChanged(VarbitChanged event)
+	{
+		conditionWaiter.evaluate();
+		actionVerifier.onVarbitChanged();
+		eventGate.mark(StateInput.VARBITS);
+		if (event.getIndex() >= 0)
+		{
+			eventRecorder.varbit(event.getIndex(), client.getVarps()[event.getIndex()]);
+		}
+	}
+
+	@Subscribe
+	private void onAnimationChanged(AnimationChanged event)
+	{
+		actionVerifier.onAnimationChanged(event.getActor());
+		if (event.getActor() == client.getLocalPlayer())
+		{
+			eventGate.mark(StateInput.ANIMATION);
+		}
+	}
+
+	@Subscribe
+	private void onStatChanged(StatChanged event)
+	{
+		eventGate.mark(StateInput.STATS);
+		eventRecorder.stat(event);
+		//the first change of each skill after login is its current xp, not a gain
+		int skill = event.getSkill().ordinal();
+		if (lastXp[skill] >= 0 && event.getXp() > lastXp[skill])
+		{
+			sessionRecorder.recordXp(event.getSkill(), event.getXp() - lastXp[skill]);
+		}
+		lastXp[skill] = event.getXp();
+	}
+
+	@Subscribe
+	private void onNpcSpawned(NpcSpawned event)
+	{
+		eventGate.mark(StateInput.NPCS);
+		eventRecorder.npc(event.getNpc(), true);
+	}
+
+	@Subscribe
+	private void onNpcDespawned(NpcDespawned event)
+	{
+		eventGate.mark(StateInput.NPCS);
+		eventRecorder.npc(event.getNpc(), false);
+	}
+
+	@Subscribe
+	private void onGameObjectSpawned(GameObjectSpawned event)
+	{
+		eventGate.mark(StateInput.OBJECTS);
+		eventRecorder.gameObject(event.getGameObject(), true);
+		respawnTracker.spawned(event.getGameObject());
+		pathDistances.invalidate();
+	}
+
+	@Subscribe
+	private void onGameObjectDespawned(GameObjectDespawned event)
+	{
+		eventGate.mark(StateInput.OBJECTS);
+		eventRecorder.gameObject(event.getGameObject(), false);
+		respawnTracker.despawned(event.getGameObject());
+		pathDistances.invalidate();
+	}
+
+	@Subscribe
+	private void onWallObjectSpawned(WallObjectSpawned event)
+	{
+		pathDistances.invalidate();
+	}
+
+	@Subscribe
+	private void onWallObjectDespawned(WallObjectDespawned event)
+	{
+		pathDistances.invalidate();
+	}
+
+	@Subscribe
+	private void onItemSpawned(ItemSpawned event)
+	{
+		eventRecorder.item(event.getItem(), event.getTile().getWorldLocation(), true);
+	}
+
+	@Subscribe
+	private void onItemDespawned(ItemDespawned event)
+	{
+		eventRecorder.item(event.getItem(), event.getTile().getWorldLocation(), false);
+	}
+
+	@Subscribe
+	private void onChatMessage(ChatMessage event)
+	{
+		eventRecorder.chat(event);
+	}
+
+	@Subscribe
+	private void onVarClientIntChanged(VarClientIntChanged event)
+	{
+		conditionWaiter.evaluate();
 	}
 
 	@Subscribe
@@ -2478,10 +3160,11 @@ public class BotUtils extends Plugin
 		{
 			return;
 		}
-		if (targetMenu != null)
+		PendingMenu pending = pendingMenu.get();
+		if (pending != null)
 		{
-			client.setLeftClickMenuEntry(targetMenu);
-			if (modifiedMenu)
+			client.setLeftClickMenuEntry(pending.entry);
+			if (pending.modified)
 			{
 				event.setModified();
 			}
@@ -2491,46 +3174,89 @@ public class BotUtils extends Plugin
 	@Subscribe
 	private void onMenuOptionClicked(MenuOptionClicked event)
 	{
+		eventRecorder.menu(event);
 		if (event.getOpcode() == MenuOpcode.CC_OP.getId() && (event.getParam1() == WidgetInfo.WORLD_SWITCHER_LIST.getId() ||
 			event.getParam1() == 11927560 || event.getParam1() == 4522007 || event.getParam1() == 24772686))
 		{
 			//Either logging out or world-hopping which is handled by 3rd party plugins so let them have priority
 			log.info("Received world-hop/login related click. Giving them priority");
-			targetMenu = null;
+			pendingMenu.set(null);
 			return;
 		}
-		if (targetMenu != null)
+		PendingMenu pending = pendingMenu.get();
+		if (pending != null)
 		{
 			event.consume();
-			if (consumeClick)
+			if (pending.consume)
 			{
 				log.info("Consuming a click and not sending anything else");
-				consumeClick = false;
+				//keep the entry for the next click unless it was replaced in the meantime
+				pendingMenu.compareAndSet(pending, pending.consumed());
 				return;
 			}
-			if (event.getOption().equals("Walk here") && walkAction)
+			MenuEntry entry = pending.entry;
+			if (event.getOption().equals("Walk here") && pending.walk)
 			{
 				log.debug("Walk action");
-				walkTile(coordX, coordY);
-				walkAction = false;
+				walkTile(pending.x, pending.y);
+				pendingMenu.compareAndSet(pending, pending.walked());
 				return;
 			}
-			if (modifiedMenu)
+			if (pending.modified)
 			{
 				client.setSelectedItemWidget(WidgetInfo.INVENTORY.getId());
-				client.setSelectedItemSlot(modifiedItemIndex);
-				client.setSelectedItemID(modifiedItemID);
-				log.info("doing a Modified MOC, mod ID: {}, mod index: {}, param1: {}", modifiedItemID, modifiedItemIndex, targetMenu.getParam1());
-				client.invokeMenuAction(targetMenu.getOption(), targetMenu.getTarget(), targetMenu.getIdentifier(), MenuOpcode.ITEM_USE_ON_WIDGET_ITEM.getId(),
-					targetMenu.getParam0(), targetMenu.getParam1());
-				modifiedMenu = false;
+				client.setSelectedItemSlot(pending.itemIndex);
+				client.setSelectedItemID(pending.itemId);
+				log.info("doing a Modified MOC, mod ID: {}, mod index: {}, param1: {}", pending.itemId, pending.itemIndex, entry.getParam1());
+				client.invokeMenuAction(entry.getOption(), entry.getTarget(), entry.getIdentifier(), MenuOpcode.ITEM_USE_ON_WIDGET_ITEM.getId(),
+					entry.getParam0(), entry.getParam1());
 			}
 			else
 			{
-				client.invokeMenuAction(targetMenu.getOption(), targetMenu.getTarget(), targetMenu.getIdentifier(), targetMenu.getOpcode(),
-					targetMenu.getParam0(), targetMenu.getParam1());
+				client.invokeMenuAction(entry.getOption(), entry.getTarget(), entry.getIdentifier(), entry.getOpcode(),
+					entry.getParam0(), entry.getParam1());
 			}
-			targetMenu = null;
+			pendingMenu.compareAndSet(pending, null);
+		}
+	}
+
+	//A menu entry together with how the next click should handle it, never modified after it is published
+	private static final class PendingMenu
+	{
+		private final MenuEntry entry;
+		private final boolean consume;
+		private final boolean modified;
+		private final int itemId;
+		private final int itemIndex;
+		private final boolean walk;
+		private final int x;
+		private final int y;
+
+		private PendingMenu(MenuEntry entry, boolean consume, boolean modified, int itemId, int itemIndex, boolean walk, int x, int y)
+		{
+			this.entry = entry;
+			this.consume = consume;
+			this.modified = modified;
+			this.itemId = itemId;
+			this.itemIndex = itemIndex;
+			this.walk = walk;
+			this.x = x;
+			this.y = y;
+		}
+
+		private static PendingMenu walk(MenuEntry entry, int x, int y)
+		{
+			return new PendingMenu(entry, false, false, 0, 0, true, x, y);
+		}
+
+		private PendingMenu consumed()
+		{
+			return new PendingMenu(entry, false, modified, itemId, itemIndex, walk, x, y);
+		}
+
+		private PendingMenu walked()
+		{
+			return new PendingMenu(entry, consume, modified, itemId, itemIndex, false, x, y);
 		}
 	}
 }
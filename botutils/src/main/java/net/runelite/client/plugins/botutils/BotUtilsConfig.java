@@ -0,0 +1,70 @@
+package net.runelite.client.plugins.botutils;
+
+import net.runelite.client.config.Config;
+import net.runelite.client.config.ConfigGroup;
+import net.runelite.client.config.ConfigItem;
+
+@ConfigGroup("botutils")
+public interface BotUtilsConfig extends Config
+{
+
+	@ConfigItem(
+		keyName = "profilerOverlay",
+		name = "Tick profiler overlay",
+		description = "Show p50/p99 handler and query times and the worst tick recorded by the tick profiler",
+		position = 0
+	)
+	default boolean profilerOverlay() { return false; }
+
+	@ConfigItem(
+		keyName = "profileAllocations",
+		name = "Profile allocations",
+		description = "Count bytes allocated per profiled section, adds some overhead to every section",
+		position = 1
+	)
+	default boolean profileAllocations() { return false; }
+
+	@ConfigItem(
+		keyName = "profilerRows",
+		name = "Profiler rows",
+		description = "Number of slowest sections to show in the tick profiler overlay",
+		hidden = true,
+		unhide = "profilerOverlay",
+		position = 2
+	)
+	default int profilerRows() { return 8; }
+
+	@ConfigItem(
+		keyName = "metricsEndpoint",
+		name = "Metrics endpoint",
+		description = "Serve counters, latencies and plugin states in Prometheus text format on http://localhost:port/metrics",
+		position = 3
+	)
+	default boolean metricsEndpoint() { return false; }
+
+	@ConfigItem(
+		keyName = "metricsPort",
+		name = "Metrics port",
+		description = "Port of the metrics endpoint, use a different port for each client",
+		hidden = true,
+		unhide = "metricsEndpoint",
+		position = 4
+	)
+	default int metricsPort() { return 9464; }
+
+	@ConfigItem(
+		keyName = "recordEvents",
+		name = "Record events",
+		description = "Record game events to .runelite/botutils/recordings for offline replay",
+		position = 5
+	)
+	default boolean recordEvents() { return false; }
+
+	@ConfigItem(
+		keyName = "pathDistance",
+		name = "Nearest by walking distance",
+		description = "Rank nearest objects, NPCs and items by walking distance and skip ones that can't be walked to",
+		position = 6
+	)
+	default boolean pathDistance() { return true; }
+}
@@ -0,0 +1,116 @@
+package net.runelite.client.plugins.botutils;
+
+import java.awt.Rectangle;
+import java.awt.Shape;
+import java.util.function.BiFunction;
+import javax.annotation.Nullable;
+import net.runelite.api.Client;
+import net.runelite.api.DecorativeObject;
+import net.runelite.api.GameObject;
+import net.runelite.api.GroundObject;
+import net.runelite.api.NPC;
+import net.runelite.api.Point;
+import net.runelite.api.Tile;
+import net.runelite.api.coords.LocalPoint;
+import net.runelite.api.widgets.WidgetItem;
+
+/**
+ * A reference to something on screen that is resolved to canvas bounds when the click is dispatched,
+ * rather than when it is queued, so camera or player movement during the delay doesn't invalidate it.
+ * Use with {@link BotUtils#delayMouseClick(ClickTarget, long)}.
+ */
+public class ClickTarget
+{
+	private final String name;
+	private final BiFunction<Client, GeometryCache, Rectangle> resolver;
+
+	private ClickTarget(String name, BiFunction<Client, GeometryCache, Rectangle> resolver)
+	{
+		this.name = name;
+		this.resolver = resolver;
+	}
+
+	public static ClickTarget of(GameObject gameObject)
+	{
+		return new ClickTarget("GameObject " + gameObject.getId(), (client, cache) ->
+			isInScene(client, gameObject) ? cache.getBounds(gameObject) : null);
+	}
+
+	public static ClickTarget of(DecorativeObject decorativeObject)
+	{
+		return new ClickTarget("DecorativeObject " + decorativeObject.getId(), (client, cache) -> cache.getBounds(decorativeObject));
+	}
+
+	public static ClickTarget of(GroundObject groundObject)
+	{
+		return new ClickTarget("GroundObject " + groundObject.getId(), (client, cache) -> cache.getBounds(groundObject));
+	}
+
+	public static ClickTarget of(NPC npc)
+	{
+		return new ClickTarget("NPC " + npc.getId(), (client, cache) ->
+			client.getNpcs().contains(npc) ? cache.getBounds(npc) : null);
+	}
+
+	public static ClickTarget of(WidgetItem widgetItem)
+	{
+		return new ClickTarget("WidgetItem " + widgetItem.getId(), (client, cache) -> widgetItem.getCanvasBounds());
+	}
+
+	//Ground items and walk targets
+	public static ClickTarget of(Tile tile)
+	{
+		return new ClickTarget("Tile " + tile.getWorldLocation(), (client, cache) ->
+			bounds(cache.getCanvasTilePoly(tile.getLocalLocation())));
+	}
+
+	public static ClickTarget of(LocalPoint localPoint)
+	{
+		return new ClickTarget("LocalPoint " + localPoint, (client, cache) -> bounds(cache.getCanvasTilePoly(localPoint)));
+	}
+
+	/**
+	 * Must be called on the client thread. Returns null if the target has despawned or has no model on screen.
+	 */
+	@Nullable
+	Rectangle resolve(Client client, GeometryCache geometryCache)
+	{
+		return resolver.apply(client, geometryCache);
+	}
+
+	private static Rectangle bounds(Shape shape)
+	{
+		return (shape == null) ? null : shape.getBounds();
+	}
+
+	private static boolean isInScene(Client client, GameObject gameObject)
+	{
+		Point sceneLocation = gameObject.getSceneMinLocation();
+		Tile[][][] tiles = client.getScene().getTiles();
+		int plane = gameObject.getPlane();
+		if (sceneLocation.getX() < 0 || sceneLocation.getY() < 0 ||
+			sceneLocation.getX() >= tiles[plane].length || sceneLocation.getY() >= tiles[plane][0].length)
+		{
+			return false;
+		}
+		Tile tile = tiles[plane][sceneLocation.getX()][sceneLocation.getY()];
+		if (tile == null)
+		{
+			return false;
+		}
+		for (GameObject tileObject : tile.getGameObjects())
+		{
+			if (tileObject == gameObject)
+			{
+				return true;
+			}
+		}
+		return false;
+	}
+
+	@Override
+	public String toString()
+	{
+		return name;
+	}
+}
@@ -0,0 +1,107 @@
+package net.runelite.client.plugins.botutils;
+
+import java.util.Iterator;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.function.BooleanSupplier;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Holds conditions registered through {@link BotUtils#waitFor(BooleanSupplier, int)}.
+ * Conditions are re-evaluated on the client thread whenever BotUtils receives an event
+ * that could change UI or container state, and time out after a number of game ticks.
+ */
+@Slf4j
+class ConditionWaiter
+{
+	private final Queue<PendingCondition> pending = new ConcurrentLinkedQueue<>();
+
+	CompletableFuture<Boolean> add(BooleanSupplier condition, int timeoutTicks)
+	{
+		PendingCondition pendingCondition = new PendingCondition(condition, Math.max(timeoutTicks, 0));
+		pending.add(pendingCondition);
+		return pendingCondition.future;
+	}
+
+	//Called for events that may satisfy a condition
+	void evaluate()
+	{
+		Iterator<PendingCondition> iterator = pending.iterator();
+		while (iterator.hasNext())
+		{
+			PendingCondition pendingCondition = iterator.next();
+			if (pendingCondition.future.isDone() || pendingCondition.test())
+			{
+				iterator.remove();
+			}
+		}
+	}
+
+	//Called once per GameTick, evaluates and then counts down the remaining ticks
+	void tick()
+	{
+		Iterator<PendingCondition> iterator = pending.iterator();
+		while (iterator.hasNext())
+		{
+			PendingCondition pendingCondition = iterator.next();
+			if (pendingCondition.future.isDone() || pendingCondition.test())
+			{
+				iterator.remove();
+				continue;
+			}
+			if (--pendingCondition.ticksRemaining < 0)
+			{
+				pendingCondition.future.complete(false);
+				iterator.remove();
+			}
+		}
+	}
+
+	void clear()
+	{
+		for (PendingCondition pendingCondition : pending)
+		{
+			pendingCondition.future.complete(false);
+		}
+		pending.clear();
+	}
+
+	int size()
+	{
+		return pending.size();
+	}
+
+	private static class PendingCondition
+	{
+		private final BooleanSupplier condition;
+		private final CompletableFuture<Boolean> future = new CompletableFuture<>();
+		private int ticksRemaining;
+
+		private PendingCondition(BooleanSupplier condition, int ticksRemaining)
+		{
+			this.condition = condition;
+			this.ticksRemaining = ticksRemaining;
+		}
+
+		//returns true once the future has been completed
+		private boolean test()
+		{
+			try
+			{
+				if (condition.getAsBoolean())
+				{
+					future.complete(true);
+					return true;
+				}
+			}
+			catch (RuntimeException e)
+			{
+				log.debug("waitFor condition threw an exception", e);
+				future.completeExceptionally(e);
+				return true;
+			}
+			return false;
+		}
+	}
+}
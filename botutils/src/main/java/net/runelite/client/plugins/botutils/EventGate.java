@@ -0,0 +1,101 @@
+package net.runelite.client.plugins.botutils;
+
+import java.util.Arrays;
+import javax.inject.Singleton;
+
+/**
+ * Dirty flags for game state, kept as one version counter per {@link StateInput} which BotUtils bumps
+ * from its event subscribers. A plugin creates a {@link Watch} over the inputs its tick logic reads and
+ * polls it once per evaluation, skipping the evaluation when nothing it depends on has changed.
+ * Client thread only.
+ */
+@Singleton
+public class EventGate
+{
+	private static final StateInput[] INPUTS = StateInput.values();
+
+	private final long[] versions = new long[INPUTS.length];
+
+	void mark(StateInput input)
+	{
+		versions[input.ordinal()]++;
+	}
+
+	void markAll()
+	{
+		for (int i = 0; i < versions.length; i++)
+		{
+			versions[i]++;
+		}
+	}
+
+	public long getVersion(StateInput input)
+	{
+		return versions[input.ordinal()];
+	}
+
+	/**
+	 * Starts watching the given inputs, the first poll always reports them as changed.
+	 */
+	public Watch watch(StateInput... inputs)
+	{
+		return new Watch(inputs);
+	}
+
+	public class Watch
+	{
+		private final StateInput[] inputs;
+		private final long[] seen;
+		private long polls;
+		private long unchanged;
+
+		private Watch(StateInput[] inputs)
+		{
+			this.inputs = inputs.clone();
+			this.seen = new long[inputs.length];
+			Arrays.fill(seen, -1);
+		}
+
+		/**
+		 * Returns true if any watched input changed since the last poll, {@link StateInput#TICK} always counts as changed.
+		 */
+		public boolean poll()
+		{
+			return pollMask() != 0;
+		}
+
+		/**
+		 * Returns a mask of {@link StateInput} bits for the watched inputs that changed since the last poll.
+		 */
+		public int pollMask()
+		{
+			int changed = 0;
+			for (int i = 0; i < inputs.length; i++)
+			{
+				long version = versions[inputs[i].ordinal()];
+				if (inputs[i] == StateInput.TICK || version != seen[i])
+				{
+					changed |= inputs[i].mask;
+					seen[i] = version;
+				}
+			}
+			polls++;
+			if (changed == 0)
+			{
+				unchanged++;
+			}
+			return changed;
+		}
+
+		public long getPolls()
+		{
+			return polls;
+		}
+
+		//Polls where nothing had changed, i.e. evaluations the caller could skip
+		public long getUnchanged()
+		{
+			return unchanged;
+		}
+	}
+}
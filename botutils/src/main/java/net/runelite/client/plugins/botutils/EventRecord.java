@@ -0,0 +1,28 @@
+package net.runelite.client.plugins.botutils;
+
+/**
+ * Record types in an {@link EventRecorder} log, written as the ordinal so new types go at the end.
+ */
+enum EventRecord
+{
+	TICK,
+	GAME_STATE,
+	NPC_SPAWNED,
+	NPC_DESPAWNED,
+	OBJECT_SPAWNED,
+	OBJECT_DESPAWNED,
+	ITEM_SPAWNED,
+	ITEM_DESPAWNED,
+	CONTAINER,
+	STAT,
+	VARBIT,
+	CHAT,
+	MENU;
+
+	private static final EventRecord[] RECORDS = values();
+
+	static EventRecord fromOrdinal(int ordinal)
+	{
+		return RECORDS[ordinal];
+	}
+}
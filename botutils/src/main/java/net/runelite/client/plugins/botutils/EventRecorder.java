@@ -0,0 +1,346 @@
+package net.runelite.client.plugins.botutils;
+
+import com.google.common.io.ByteArrayDataOutput;
+import com.google.common.io.ByteStreams;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import javax.annotation.Nullable;
+import javax.inject.Inject;
+import javax.inject.Singleton;
+import lombok.extern.slf4j.Slf4j;
+import net.runelite.api.GameObject;
+import net.runelite.api.GameState;
+import net.runelite.api.Item;
+import net.runelite.api.ItemContainer;
+import net.runelite.api.NPC;
+import net.runelite.api.TileItem;
+import net.runelite.api.coords.WorldPoint;
+import net.runelite.api.events.ChatMessage;
+import net.runelite.api.events.MenuOptionClicked;
+import net.runelite.api.events.StatChanged;
+import net.runelite.client.RuneLite;
+
+/**
+ * Records the game events plugins consume to a compact binary log that {@link EventReplay} can feed back
+ * through an event bus offline. BotUtils passes events in as they are posted, each is appended to an
+ * in-memory buffer on the client thread and the buffer is handed to a background writer once per tick.
+ * Client thread only, including starting and stopping, except for where the file is written.
+ */
+@Slf4j
+@Singleton
+public class EventRecorder
+{
+	static final int LOG_MAGIC = 0x4F534245;
+	static final int LOG_VERSION = 1;
+	private static final File RECORDING_DIR = new File(new File(RuneLite.RUNELITE_DIR, "botutils"), "recordings");
+	private static final int BUFFER_SIZE = 4096;
+
+	private final File directory;
+	private final ExecutorService writer = Executors.newSingleThreadExecutor(
+		new ThreadFactoryBuilder().setNameFormat("botutils-events").setDaemon(true).build());
+
+	private ByteArrayDataOutput buffer;
+	private volatile File file;
+
+	//Writer thread only
+	private DataOutputStream out;
+
+	@Inject
+	EventRecorder()
+	{
+		this(RECORDING_DIR);
+	}
+
+	public EventRecorder(File directory)
+	{
+		this.directory = directory;
+	}
+
+	/**
+	 * Starts a new recording, returns the file it is written to. The file is created here, so a recording never
+	 * overwrites an earlier one, even one started in the same millisecond.
+	 */
+	public File start()
+	{
+		if (buffer != null)
+		{
+			return file;
+		}
+		File recording = reserve();
+		file = recording;
+		buffer = ByteStreams.newDataOutput(BUFFER_SIZE);
+		writer.execute(() -> open(recording));
+		return recording;
+	}
+
+	/**
+	 * Stops the recording, the returned future completes once everything recorded is written and the file is closed.
+	 */
+	public CompletableFuture<Void> stop()
+	{
+		if (buffer == null)
+		{
+			return CompletableFuture.completedFuture(null);
+		}
+		flush();
+		buffer = null;
+		return CompletableFuture.runAsync(this::close, writer);
+	}
+
+	public boolean isRecording()
+	{
+		return buffer != null;
+	}
+
+	//Safe to call from any thread
+	@Nullable
+	public File getFile()
+	{
+		return file;
+	}
+
+	void tick(int tickCount, @Nullable WorldPoint playerLocation, int playerAnimation)
+	{
+		if (buffer == null)
+		{
+			return;
+		}
+		buffer.writeByte(EventRecord.TICK.ordinal());
+		buffer.writeInt(tickCount);
+		writeLocation(playerLocation);
+		buffer.writeInt(playerAnimation);
+		flush();
+	}
+
+	void gameState(GameState gameState)
+	{
+		if (buffer == null)
+		{
+			return;
+		}
+		buffer.writeByte(EventRecord.GAME_STATE.ordinal());
+		buffer.writeByte(gameState.ordinal());
+	}
+
+	void npc(NPC npc, boolean spawned)
+	{
+		if (buffer == null)
+		{
+			return;
+		}
+		buffer.writeByte((spawned ? EventRecord.NPC_SPAWNED : EventRecord.NPC_DESPAWNED).ordinal());
+		buffer.writeInt(npc.getIndex());
+		buffer.writeInt(npc.getId());
+		writeLocation(npc.getWorldLocation());
+	}
+
+	void gameObject(GameObject gameObject, boolean spawned)
+	{
+		if (buffer == null)
+		{
+			return;
+		}
+		buffer.writeByte((spawned ? EventRecord.OBJECT_SPAWNED : EventRecord.OBJECT_DESPAWNED).ordinal());
+		buffer.writeInt(gameObject.getId());
+		writeLocation(gameObject.getWorldLocation());
+	}
+
+	void item(TileItem item, WorldPoint location, boolean spawned)
+	{
+		if (buffer == null)
+		{
+			return;
+		}
+		buffer.writeByte((spawned ? EventRecord.ITEM_SPAWNED : EventRecord.ITEM_DESPAWNED).ordinal());
+		buffer.writeInt(item.getId());
+		buffer.writeInt(item.getQuantity());
+		writeLocation(location);
+	}
+
+	void container(int containerId, @Nullable ItemContainer container)
+	{
+		if (buffer == null)
+		{
+			return;
+		}
+		Item[] items = container == null ? new Item[0] : container.getItems();
+		buffer.writeByte(EventRecord.CONTAINER.ordinal());
+		buffer.writeInt(containerId);
+		buffer.writeShort(items.length);
+		for (Item item : items)
+		{
+			buffer.writeInt(item.getId());
+			buffer.writeInt(item.getQuantity());
+		}
+	}
+
+	void stat(StatChanged event)
+	{
+		if (buffer == null)
+		{
+			return;
+		}
+		buffer.writeByte(EventRecord.STAT.ordinal());
+		buffer.writeByte(event.getSkill().ordinal());
+		buffer.writeInt(event.getXp());
+		buffer.writeShort(event.getLevel());
+		buffer.writeShort(event.getBoostedLevel());
+	}
+
+	void varbit(int index, int value)
+	{
+		if (buffer == null)
+		{
+			return;
+		}
+		buffer.writeByte(EventRecord.VARBIT.ordinal());
+		buffer.writeInt(index);
+		buffer.writeInt(value);
+	}
+
+	void chat(ChatMessage event)
+	{
+		if (buffer == null)
+		{
+			return;
+		}
+		buffer.writeByte(EventRecord.CHAT.ordinal());
+		buffer.writeByte(event.getType().ordinal());
+		buffer.writeUTF(nullToEmpty(event.getName()));
+		buffer.writeUTF(nullToEmpty(event.getMessage()));
+	}
+
+	void menu(MenuOptionClicked event)
+	{
+		if (buffer == null)
+		{
+			return;
+		}
+		buffer.writeByte(EventRecord.MENU.ordinal());
+		buffer.writeUTF(nullToEmpty(event.getOption()));
+		buffer.writeUTF(nullToEmpty(event.getTarget()));
+		buffer.writeInt(event.getIdentifier());
+		buffer.writeInt(event.getOpcode());
+		buffer.writeInt(event.getParam0());
+		buffer.writeInt(event.getParam1());
+	}
+
+	private void writeLocation(@Nullable WorldPoint location)
+	{
+		if (location == null)
+		{
+			buffer.writeInt(-1);
+			buffer.writeInt(-1);
+			buffer.writeByte(-1);
+			return;
+		}
+		buffer.writeInt(location.getX());
+		buffer.writeInt(location.getY());
+		buffer.writeByte(location.getPlane());
+	}
+
+	private void flush()
+	{
+		byte[] chunk = buffer.toByteArray();
+		if (chunk.length == 0)
+		{
+			return;
+		}
+		buffer = ByteStreams.newDataOutput(BUFFER_SIZE);
+		writer.execute(() -> write(chunk));
+	}
+
+	//Creates the file under a name no other recording has, opening it is left to the writer
+	private File reserve()
+	{
+		String timestamp = new SimpleDateFormat("yyyyMMdd-HHmmss-SSS").format(new Date());
+		for (int attempt = 0; ; attempt++)
+		{
+			File recording = new File(directory, "events-" + timestamp + (attempt == 0 ? "" : "-" + attempt) + ".bin");
+			try
+			{
+				if (!directory.exists() && !directory.mkdirs())
+				{
+					throw new IOException("Unable to create " + directory);
+				}
+				Files.createFile(recording.toPath());
+				return recording;
+			}
+			catch (FileAlreadyExistsException e)
+			{
+				//taken by an earlier recording, try the next number
+			}
+			catch (IOException e)
+			{
+				//open fails on it too and logs why
+				return recording;
+			}
+		}
+	}
+
+	private void open(File recording)
+	{
+		try
+		{
+			out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(recording.toPath())));
+			out.writeInt(LOG_MAGIC);
+			out.writeInt(LOG_VERSION);
+			out.writeLong(System.currentTimeMillis());
+		}
+		catch (IOException e)
+		{
+			log.warn("Unable to start event recording {}", recording, e);
+			out = null;
+		}
+	}
+
+	private void write(byte[] chunk)
+	{
+		if (out == null)
+		{
+			return;
+		}
+		try
+		{
+			out.write(chunk);
+			out.flush();
+		}
+		catch (IOException e)
+		{
+			log.warn("Unable to write event recording", e);
+			close();
+		}
+	}
+
+	private void close()
+	{
+		if (out == null)
+		{
+			return;
+		}
+		try
+		{
+			out.close();
+		}
+		catch (IOException e)
+		{
+			log.warn("Unable to close event recording", e);
+		}
+		out = null;
+	}
+
+	private static String nullToEmpty(@Nullable String value)
+	{
+		return value == null ? "" : value;
+	}
+}
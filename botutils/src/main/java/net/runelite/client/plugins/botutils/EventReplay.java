@@ -0,0 +1,299 @@
+package net.runelite.client.plugins.botutils;
+
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.List;
+import javax.annotation.Nullable;
+import net.runelite.api.ChatMessageType;
+import net.runelite.api.GameState;
+import net.runelite.api.GameObject;
+import net.runelite.api.MenuEntry;
+import net.runelite.api.NPC;
+import net.runelite.api.Skill;
+import net.runelite.api.TileItem;
+import net.runelite.api.coords.WorldPoint;
+import net.runelite.api.events.ChatMessage;
+import net.runelite.api.events.GameObjectDespawned;
+import net.runelite.api.events.GameObjectSpawned;
+import net.runelite.api.events.GameStateChanged;
+import net.runelite.api.events.GameTick;
+import net.runelite.api.events.ItemContainerChanged;
+import net.runelite.api.events.ItemDespawned;
+import net.runelite.api.events.ItemSpawned;
+import net.runelite.api.events.MenuOptionClicked;
+import net.runelite.api.events.NpcDespawned;
+import net.runelite.api.events.NpcSpawned;
+import net.runelite.api.events.StatChanged;
+import net.runelite.api.events.VarbitChanged;
+import net.runelite.client.eventbus.EventBus;
+
+/**
+ * Feeds a recording made by {@link EventRecorder} back through an event bus, in the recorded order and on the
+ * calling thread, so the same recording always drives subscribers through the same sequence of events.
+ * Every record updates the {@link ReplayScene} and is posted as the event it was recorded from. Spawns,
+ * despawns and item containers refer to client objects that don't exist offline, {@link ReplayObjects}
+ * stands in for those. Plugins also read the client on every tick, the StubClient in the botutils test
+ * fixtures answers those reads from the scene, is injected as the plugin's client and provides the objects.
+ * <pre>
+ * StubClient stubClient = new StubClient(new ReplayScene());
+ * // inject stubClient.getClient() into the plugin
+ * EventBus eventBus = new EventBus();
+ * eventBus.register(plugin);
+ * LatencyHistogram ticks = EventReplay.load(recording).replay(eventBus, stubClient);
+ * </pre>
+ */
+public class EventReplay
+{
+	private static final Skill[] SKILLS = Skill.values();
+	private static final GameState[] GAME_STATES = GameState.values();
+	private static final ChatMessageType[] CHAT_TYPES = ChatMessageType.values();
+
+	private final byte[] data;
+	private final long recordedAt;
+
+	private EventReplay(byte[] data, long recordedAt)
+	{
+		this.data = data;
+		this.recordedAt = recordedAt;
+	}
+
+	public static EventReplay load(File file) throws IOException
+	{
+		byte[] bytes = Files.readAllBytes(file.toPath());
+		DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes));
+		if (in.readInt() != EventRecorder.LOG_MAGIC || in.readInt() != EventRecorder.LOG_VERSION)
+		{
+			throw new IOException("Not an event recording: " + file);
+		}
+		long recordedAt = in.readLong();
+		int header = bytes.length - in.available();
+		byte[] events = new byte[bytes.length - header];
+		System.arraycopy(bytes, header, events, 0, events.length);
+		return new EventReplay(events, recordedAt);
+	}
+
+	public long getRecordedAt()
+	{
+		return recordedAt;
+	}
+
+	/**
+	 * Replays every event, a recording cut short by a crash is replayed up to its last complete record.
+	 *
+	 * @return time spent in subscribers per replayed tick
+	 */
+	public LatencyHistogram replay(EventBus eventBus, ReplayObjects objects) throws IOException
+	{
+		return replay(eventBus, objects, null);
+	}
+
+	/**
+	 * Replays every event while running the clock on virtual time from the recording's start,
+	 * advancing it one game tick per replayed tick. The clock goes back to system time once the replay ends.
+	 */
+	public LatencyHistogram replay(EventBus eventBus, ReplayObjects objects, @Nullable GameClock clock) throws IOException
+	{
+		if (clock == null)
+		{
+			return replayEvents(eventBus, objects, () ->
+			{
+			});
+		}
+		clock.useVirtualTime(recordedAt);
+		try
+		{
+			return replayEvents(eventBus, objects, clock::tick);
+		}
+		finally
+		{
+			clock.useSystemTime();
+		}
+	}
+
+	private LatencyHistogram replayEvents(EventBus eventBus, ReplayObjects objects, Runnable onTick) throws IOException
+	{
+		LatencyHistogram ticks = new LatencyHistogram();
+		DataInputStream in = new DataInputStream(new ByteArrayInputStream(data));
+		long tickNanos = 0;
+		while (in.available() > 0)
+		{
+			EventRecord record = EventRecord.fromOrdinal(in.readUnsignedByte());
+			Object event;
+			try
+			{
+				event = read(record, in, objects);
+			}
+			catch (EOFException e)
+			{
+				break;
+			}
+			if (event != null)
+			{
+				long start = System.nanoTime();
+				eventBus.post(event);
+				tickNanos += System.nanoTime() - start;
+			}
+			if (record == EventRecord.TICK)
+			{
+				ticks.record(tickNanos);
+				tickNanos = 0;
+				onTick.run();
+			}
+		}
+		return ticks;
+	}
+
+	//Null if there is nothing to post, e.g. a despawn of something that isn't in the scene
+	@Nullable
+	private static Object read(EventRecord record, DataInputStream in, ReplayObjects objects) throws IOException
+	{
+		ReplayScene scene = objects.getScene();
+		switch (record)
+		{
+			case TICK:
+				scene.tick(in.readInt(), readLocation(in), in.readInt());
+				return new GameTick();
+			case GAME_STATE:
+			{
+				GameState gameState = GAME_STATES[in.readUnsignedByte()];
+				scene.setGameState(gameState);
+				GameStateChanged event = new GameStateChanged();
+				event.setGameState(gameState);
+				return event;
+			}
+			case NPC_SPAWNED:
+			{
+				int index = in.readInt();
+				scene.npc(index, new ReplayScene.Entity(in.readInt(), 1, readLocation(in)), true);
+				NPC npc = objects.getNpc(index);
+				return npc == null ? null : new NpcSpawned(npc);
+			}
+			case NPC_DESPAWNED:
+			{
+				int index = in.readInt();
+				ReplayScene.Entity entity = new ReplayScene.Entity(in.readInt(), 1, readLocation(in));
+				//The client's NPC is gone once the scene drops it
+				NPC npc = objects.getNpc(index);
+				scene.npc(index, entity, false);
+				return npc == null ? null : new NpcDespawned(npc);
+			}
+			case OBJECT_SPAWNED:
+			{
+				ReplayScene.Entity entity = new ReplayScene.Entity(in.readInt(), 1, readLocation(in));
+				scene.object(entity, true);
+				GameObject object = objects.getGameObject(entity);
+				if (object == null)
+				{
+					return null;
+				}
+				GameObjectSpawned event = new GameObjectSpawned();
+				event.setTile(objects.getTile(entity.getLocation()));
+				event.setGameObject(object);
+				return event;
+			}
+			case OBJECT_DESPAWNED:
+			{
+				ReplayScene.Entity entity = spawned(scene.getObjects(), new ReplayScene.Entity(in.readInt(), 1, readLocation(in)));
+				if (entity == null)
+				{
+					return null;
+				}
+				GameObject object = objects.getGameObject(entity);
+				scene.object(entity, false);
+				if (object == null)
+				{
+					return null;
+				}
+				GameObjectDespawned event = new GameObjectDespawned();
+				event.setTile(objects.getTile(entity.getLocation()));
+				event.setGameObject(object);
+				return event;
+			}
+			case ITEM_SPAWNED:
+			{
+				ReplayScene.Entity entity = new ReplayScene.Entity(in.readInt(), in.readInt(), readLocation(in));
+				scene.groundItem(entity, true);
+				TileItem item = objects.getTileItem(entity);
+				return item == null ? null : new ItemSpawned(objects.getTile(entity.getLocation()), item);
+			}
+			case ITEM_DESPAWNED:
+			{
+				ReplayScene.Entity entity = spawned(scene.getGroundItems(), new ReplayScene.Entity(in.readInt(), in.readInt(), readLocation(in)));
+				if (entity == null)
+				{
+					return null;
+				}
+				TileItem item = objects.getTileItem(entity);
+				scene.groundItem(entity, false);
+				return item == null ? null : new ItemDespawned(objects.getTile(entity.getLocation()), item);
+			}
+			case CONTAINER:
+			{
+				int containerId = in.readInt();
+				int[] items = new int[in.readUnsignedShort() * 2];
+				for (int i = 0; i < items.length; i++)
+				{
+					items[i] = in.readInt();
+				}
+				scene.container(containerId, items);
+				return new ItemContainerChanged(containerId, objects.getItemContainer(containerId));
+			}
+			case STAT:
+			{
+				Skill skill = SKILLS[in.readUnsignedByte()];
+				int xp = in.readInt();
+				int level = in.readShort();
+				int boostedLevel = in.readShort();
+				scene.stat(skill, xp, level, boostedLevel);
+				return new StatChanged(skill, xp, level, boostedLevel);
+			}
+			case VARBIT:
+			{
+				int index = in.readInt();
+				scene.varp(index, in.readInt());
+				VarbitChanged event = new VarbitChanged();
+				event.setIndex(index);
+				return event;
+			}
+			case CHAT:
+			{
+				ChatMessage event = new ChatMessage();
+				event.setType(CHAT_TYPES[in.readUnsignedByte()]);
+				event.setName(in.readUTF());
+				event.setMessage(in.readUTF());
+				return event;
+			}
+			case MENU:
+			{
+				//clicks are the plugin's output, also kept in the scene to compare against the replayed decisions
+				MenuEntry entry = new MenuEntry(in.readUTF(), in.readUTF(), in.readInt(), in.readInt(), in.readInt(), in.readInt(), false);
+				scene.click(entry);
+				return new MenuOptionClicked(entry.getOption(), entry.getTarget(), entry.getIdentifier(), entry.getOpcode(),
+					entry.getParam0(), entry.getParam1(), false);
+			}
+			default:
+				throw new IOException("Unknown record " + record);
+		}
+	}
+
+	//The scene's own instance of a recorded entity, which the client objects are kept by
+	@Nullable
+	private static ReplayScene.Entity spawned(List<ReplayScene.Entity> entities, ReplayScene.Entity recorded)
+	{
+		int index = entities.indexOf(recorded);
+		return index == -1 ? null : entities.get(index);
+	}
+
+	@Nullable
+	private static WorldPoint readLocation(DataInputStream in) throws IOException
+	{
+		int x = in.readInt();
+		int y = in.readInt();
+		int plane = in.readByte();
+		return plane == -1 ? null : new WorldPoint(x, y, plane);
+	}
+}
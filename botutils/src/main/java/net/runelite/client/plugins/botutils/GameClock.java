@@ -0,0 +1,65 @@
+package net.runelite.client.plugins.botutils;
+
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicLong;
+import javax.inject.Singleton;
+
+/**
+ * Time source for plugin timers and BotUtils sleeps. Runs on the system clock, a headless simulation or an
+ * {@link EventReplay} can switch it to virtual time which only moves when advanced, one game tick per
+ * simulated tick and the requested amount per sleep, so hours of plugin logic run in seconds.
+ * Safe to use from any thread.
+ */
+@Singleton
+public class GameClock
+{
+	public static final long TICK_MILLIS = 600;
+
+	private final AtomicLong virtualMillis = new AtomicLong();
+	private volatile boolean virtual;
+
+	public long millis()
+	{
+		return virtual ? virtualMillis.get() : System.currentTimeMillis();
+	}
+
+	public Instant now()
+	{
+		return Instant.ofEpochMilli(millis());
+	}
+
+	public boolean isVirtual()
+	{
+		return virtual;
+	}
+
+	/**
+	 * Switches to virtual time starting at the given epoch millis.
+	 */
+	public void useVirtualTime(long startMillis)
+	{
+		virtualMillis.set(startMillis);
+		virtual = true;
+	}
+
+	public void useSystemTime()
+	{
+		virtual = false;
+	}
+
+	/**
+	 * Moves virtual time forward, does nothing on the system clock.
+	 */
+	public void advance(long millis)
+	{
+		if (virtual)
+		{
+			virtualMillis.addAndGet(millis);
+		}
+	}
+
+	public void tick()
+	{
+		advance(TICK_MILLIS);
+	}
+}
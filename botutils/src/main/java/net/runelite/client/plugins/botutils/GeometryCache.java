@@ -0,0 +1,193 @@
+package net.runelite.client.plugins.botutils;
+
+import java.awt.Polygon;
+import java.awt.Rectangle;
+import java.awt.Shape;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+import javax.annotation.Nullable;
+import javax.inject.Inject;
+import javax.inject.Singleton;
+import net.runelite.api.Actor;
+import net.runelite.api.Client;
+import net.runelite.api.DecorativeObject;
+import net.runelite.api.GameObject;
+import net.runelite.api.GroundObject;
+import net.runelite.api.Perspective;
+import net.runelite.api.TileObject;
+import net.runelite.api.coords.LocalPoint;
+
+/**
+ * Caches projected click bounds and tile polygons until the camera or viewport changes.
+ * Every query compares the current camera position, yaw, pitch, zoom and canvas/viewport size
+ * with the last known values and drops the whole cache when any of them differ, so static objects
+ * are projected once per camera move instead of once per use. Actors are also re-projected
+ * when their position or orientation changes. Client thread only, returned shapes must not be modified.
+ */
+@Singleton
+public class GeometryCache
+{
+	private static final int CAMERA_STATE_SIZE = 12;
+
+	@Inject
+	private Client client;
+
+	private final Map<Object, Entry> bounds = new IdentityHashMap<>();
+	private final Map<Long, Polygon> tilePolys = new HashMap<>();
+	private final int[] cameraState = new int[CAMERA_STATE_SIZE];
+	private final int[] currentState = new int[CAMERA_STATE_SIZE];
+	private int cameraVersion;
+	private final LongAdder hits = new LongAdder();
+	private final LongAdder misses = new LongAdder();
+
+	@Nullable
+	public Rectangle getBounds(GameObject gameObject)
+	{
+		return getBounds(gameObject, gameObject, gameObject::getConvexHull);
+	}
+
+	@Nullable
+	public Rectangle getBounds(DecorativeObject decorativeObject)
+	{
+		return getBounds(decorativeObject, decorativeObject, decorativeObject::getConvexHull);
+	}
+
+	@Nullable
+	public Rectangle getBounds(GroundObject groundObject)
+	{
+		return getBounds(groundObject, groundObject, groundObject::getConvexHull);
+	}
+
+	@Nullable
+	public Rectangle getBounds(Actor actor)
+	{
+		validate();
+		LocalPoint localPoint = actor.getLocalLocation();
+		if (localPoint == null)
+		{
+			return null;
+		}
+		long position = pack(localPoint.getX(), localPoint.getY(), actor.getOrientation());
+		Entry entry = bounds.get(actor);
+		if (entry != null && entry.position == position)
+		{
+			hits.increment();
+			return entry.bounds;
+		}
+		misses.increment();
+		Shape hull = actor.getConvexHull();
+		entry = new Entry(position, hull == null ? null : hull.getBounds());
+		bounds.put(actor, entry);
+		return entry.bounds;
+	}
+
+	@Nullable
+	public Polygon getCanvasTilePoly(LocalPoint localPoint)
+	{
+		return getCanvasTileAreaPoly(localPoint, 1);
+	}
+
+	@Nullable
+	public Polygon getCanvasTileAreaPoly(@Nullable LocalPoint localPoint, int size)
+	{
+		if (localPoint == null)
+		{
+			return null;
+		}
+		validate();
+		long key = pack(localPoint.getX(), localPoint.getY(), size);
+		if (tilePolys.containsKey(key))
+		{
+			hits.increment();
+			return tilePolys.get(key);
+		}
+		misses.increment();
+		Polygon polygon = (size == 1) ? Perspective.getCanvasTilePoly(client, localPoint) :
+			Perspective.getCanvasTileAreaPoly(client, localPoint, size);
+		tilePolys.put(key, polygon);
+		return polygon;
+	}
+
+	public int getCameraVersion()
+	{
+		validate();
+		return cameraVersion;
+	}
+
+	public long getHits()
+	{
+		return hits.sum();
+	}
+
+	public long getMisses()
+	{
+		return misses.sum();
+	}
+
+	public void invalidate()
+	{
+		bounds.clear();
+		tilePolys.clear();
+		cameraVersion++;
+	}
+
+	private Rectangle getBounds(Object key, TileObject tileObject, Supplier<Shape> hullSupplier)
+	{
+		validate();
+		LocalPoint localPoint = tileObject.getLocalLocation();
+		long position = (localPoint == null) ? -1 : pack(localPoint.getX(), localPoint.getY(), tileObject.getPlane());
+		Entry entry = bounds.get(key);
+		if (entry != null && entry.position == position)
+		{
+			hits.increment();
+			return entry.bounds;
+		}
+		misses.increment();
+		Shape hull = hullSupplier.get();
+		entry = new Entry(position, hull == null ? null : hull.getBounds());
+		bounds.put(key, entry);
+		return entry.bounds;
+	}
+
+	private void validate()
+	{
+		currentState[0] = client.getCameraX();
+		currentState[1] = client.getCameraY();
+		currentState[2] = client.getCameraZ();
+		currentState[3] = client.getCameraPitch();
+		currentState[4] = client.getCameraYaw();
+		currentState[5] = client.getScale();
+		currentState[6] = client.getViewportWidth();
+		currentState[7] = client.getViewportHeight();
+		currentState[8] = client.getViewportXOffset();
+		currentState[9] = client.getViewportYOffset();
+		currentState[10] = client.getCanvasWidth();
+		currentState[11] = client.getCanvasHeight();
+		if (!Arrays.equals(currentState, cameraState))
+		{
+			System.arraycopy(currentState, 0, cameraState, 0, CAMERA_STATE_SIZE);
+			invalidate();
+		}
+	}
+
+	private static long pack(int x, int y, int extra)
+	{
+		return ((long) x << 40) | ((long) (y & 0xFFFFF) << 20) | (extra & 0xFFFFF);
+	}
+
+	private static class Entry
+	{
+		private final long position;
+		private final Rectangle bounds;
+
+		private Entry(long position, Rectangle bounds)
+		{
+			this.position = position;
+			this.bounds = bounds;
+		}
+	}
+}
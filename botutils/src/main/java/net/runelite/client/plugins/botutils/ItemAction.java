@@ -0,0 +1,57 @@
+package net.runelite.client.plugins.botutils;
+
+import java.util.HashMap;
+import java.util.Map;
+import javax.annotation.Nullable;
+import lombok.Getter;
+
+/**
+ * Inventory menu options tracked in {@link ItemDigest#getActions()}, one bit each.
+ */
+public enum ItemAction
+{
+	EAT("Eat"),
+	DRINK("Drink"),
+	WIELD("Wield"),
+	WEAR("Wear"),
+	EQUIP("Equip"),
+	BURY("Bury"),
+	SCATTER("Scatter"),
+	CLEAN("Clean"),
+	READ("Read"),
+	OPEN("Open"),
+	RUB("Rub"),
+	BREAK("Break"),
+	EMPTY("Empty"),
+	FILL("Fill"),
+	CHECK("Check"),
+	DROP("Drop");
+
+	private static final Map<String, ItemAction> OPTIONS = new HashMap<>();
+
+	static
+	{
+		for (ItemAction action : values())
+		{
+			OPTIONS.put(action.option, action);
+		}
+	}
+
+	@Getter
+	private final String option;
+
+	@Getter
+	private final int mask;
+
+	ItemAction(String option)
+	{
+		this.option = option;
+		this.mask = 1 << ordinal();
+	}
+
+	@Nullable
+	public static ItemAction fromOption(String option)
+	{
+		return OPTIONS.get(option);
+	}
+}
@@ -0,0 +1,66 @@
+package net.runelite.client.plugins.botutils;
+
+import lombok.Getter;
+import net.runelite.api.ItemDefinition;
+
+/**
+ * The item definition fields plugins check on hot paths, read once per item id by {@link ItemDigestCache}.
+ */
+@Getter
+public class ItemDigest
+{
+	private final int id;
+	private final String name;
+	private final String lowerName;
+	private final int haPrice;
+	private final boolean stackable;
+	private final boolean tradeable;
+	private final int actions;
+	private final String[] inventoryActions;
+
+	ItemDigest(int id, ItemDefinition definition)
+	{
+		this.id = id;
+		this.name = definition.getName();
+		this.lowerName = name.toLowerCase();
+		this.haPrice = definition.getHaPrice();
+		this.stackable = definition.isStackable();
+		this.tradeable = definition.isTradeable();
+		this.inventoryActions = definition.getInventoryActions().clone();
+		int mask = 0;
+		for (String option : inventoryActions)
+		{
+			ItemAction action = (option == null) ? null : ItemAction.fromOption(option);
+			if (action != null)
+			{
+				mask |= action.getMask();
+			}
+		}
+		this.actions = mask;
+	}
+
+	public boolean hasAction(ItemAction action)
+	{
+		return (actions & action.getMask()) != 0;
+	}
+
+	/**
+	 * Checks any inventory menu option, using the action bitmask when the option is an {@link ItemAction}.
+	 */
+	public boolean hasAction(String option)
+	{
+		ItemAction action = ItemAction.fromOption(option);
+		if (action != null)
+		{
+			return hasAction(action);
+		}
+		for (String inventoryAction : inventoryActions)
+		{
+			if (option.equals(inventoryAction))
+			{
+				return true;
+			}
+		}
+		return false;
+	}
+}
@@ -0,0 +1,74 @@
+package net.runelite.client.plugins.botutils;
+
+import java.util.Arrays;
+import javax.inject.Inject;
+import javax.inject.Singleton;
+import net.runelite.client.game.ItemManager;
+
+/**
+ * Item digests indexed by item id, so name, high alch price, stackability and menu option checks are one array read
+ * after the first lookup of an id. Digests are created on the client thread, reading cached ones is safe anywhere.
+ */
+@Singleton
+public class ItemDigestCache
+{
+	private static final int INITIAL_CAPACITY = 32768;
+
+	@Inject
+	private ItemManager itemManager;
+
+	private volatile ItemDigest[] digests = new ItemDigest[INITIAL_CAPACITY];
+
+	public ItemDigest get(int itemId)
+	{
+		ItemDigest[] current = digests;
+		ItemDigest digest = (itemId < current.length) ? current[itemId] : null;
+		if (digest == null)
+		{
+			digest = new ItemDigest(itemId, itemManager.getItemDefinition(itemId));
+			store(digest);
+		}
+		return digest;
+	}
+
+	public String getLowerName(int itemId)
+	{
+		return get(itemId).getLowerName();
+	}
+
+	public int getHaPrice(int itemId)
+	{
+		return get(itemId).getHaPrice();
+	}
+
+	public boolean isStackable(int itemId)
+	{
+		return get(itemId).isStackable();
+	}
+
+	public boolean hasAction(int itemId, ItemAction action)
+	{
+		return get(itemId).hasAction(action);
+	}
+
+	public boolean hasAction(int itemId, String option)
+	{
+		return get(itemId).hasAction(option);
+	}
+
+	public void clear()
+	{
+		digests = new ItemDigest[INITIAL_CAPACITY];
+	}
+
+	private synchronized void store(ItemDigest digest)
+	{
+		ItemDigest[] current = digests;
+		if (digest.getId() >= current.length)
+		{
+			current = Arrays.copyOf(current, Math.max(current.length * 2, digest.getId() + 1));
+		}
+		current[digest.getId()] = digest;
+		digests = current;
+	}
+}
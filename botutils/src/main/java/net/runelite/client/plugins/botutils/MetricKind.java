@@ -0,0 +1,22 @@
+package net.runelite.client.plugins.botutils;
+
+/**
+ * How {@link SessionSummary} aggregates a metric recorded by a {@link SessionRecorder.Session}.
+ */
+public enum MetricKind
+{
+	//Summed and reported as a total and a rate per hour, e.g. actions, xp or items gained
+	COUNTER,
+	//Point in time value, reported as last, min and max
+	GAUGE,
+	//Milliseconds, reported as percentiles, e.g. time spent in a state
+	DURATION;
+
+	//Record type in the session log, 0 is used for name definitions
+	final byte record = (byte) (ordinal() + 1);
+
+	static MetricKind fromRecord(byte record)
+	{
+		return values()[record - 1];
+	}
+}
@@ -0,0 +1,213 @@
+package net.runelite.client.plugins.botutils;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.LongSupplier;
+import javax.annotation.Nullable;
+import javax.inject.Inject;
+import javax.inject.Singleton;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Optional HTTP endpoint on localhost serving BotUtils and plugin metrics at /metrics in the Prometheus text format.
+ * Every value is read from counters and histograms that are safe to read from any thread, so a scrape runs
+ * entirely on the endpoint's own thread and never waits on the client thread.
+ * Plugins can add their own counters and publish their current state:
+ * <pre>
+ * utils.getMetricsEndpoint().setState("Power Skiller", state);
+ * </pre>
+ */
+@Slf4j
+@Singleton
+public class MetricsEndpoint
+{
+	private static final double[] QUANTILES = {0.5, 0.9, 0.99};
+
+	@Inject
+	private TickProfiler tickProfiler;
+
+	@Inject
+	private ActionVerifier actionVerifier;
+
+	@Inject
+	private PriceCache priceCache;
+
+	@Inject
+	private GeometryCache geometryCache;
+
+	private final Map<String, Metric> metrics = new ConcurrentSkipListMap<>();
+	private final Map<String, Enum<?>> states = new ConcurrentHashMap<>();
+	private HttpServer server;
+	private ExecutorService executor;
+
+	public void counter(String name, String help, LongSupplier value)
+	{
+		metrics.put(name, new Metric("counter", help, value));
+	}
+
+	public void gauge(String name, String help, LongSupplier value)
+	{
+		metrics.put(name, new Metric("gauge", help, value));
+	}
+
+	/**
+	 * Publishes the plugin's current state, null removes it.
+	 */
+	public void setState(String plugin, @Nullable Enum<?> state)
+	{
+		if (state == null)
+		{
+			states.remove(plugin);
+		}
+		else
+		{
+			states.put(plugin, state);
+		}
+	}
+
+	public synchronized boolean isRunning()
+	{
+		return server != null;
+	}
+
+	synchronized void start(int port)
+	{
+		if (server != null)
+		{
+			return;
+		}
+		try
+		{
+			server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 0);
+		}
+		catch (IOException e)
+		{
+			log.warn("Unable to start metrics endpoint on port {}", port, e);
+			return;
+		}
+		executor = Executors.newSingleThreadExecutor(new ThreadFactoryBuilder().setNameFormat("botutils-metrics").setDaemon(true).build());
+		server.setExecutor(executor);
+		server.createContext("/metrics", this::handle);
+		server.start();
+		log.info("Metrics endpoint started on http://localhost:{}/metrics", port);
+	}
+
+	synchronized void stop()
+	{
+		if (server == null)
+		{
+			return;
+		}
+		server.stop(0);
+		executor.shutdown();
+		server = null;
+		executor = null;
+	}
+
+	private void handle(HttpExchange exchange) throws IOException
+	{
+		byte[] body = scrape().getBytes(StandardCharsets.UTF_8);
+		exchange.getResponseHeaders().set("Content-Type", "text/plain; version=0.0.4; charset=utf-8");
+		exchange.sendResponseHeaders(200, body.length);
+		try (OutputStream out = exchange.getResponseBody())
+		{
+			out.write(body);
+		}
+	}
+
+	public String scrape()
+	{
+		StringBuilder sb = new StringBuilder(4096);
+		metrics.forEach((name, metric) ->
+		{
+			header(sb, name, metric.type, metric.help);
+			sb.append(name).append(' ').append(metric.value.getAsLong()).append('\n');
+		});
+
+		header(sb, "botutils_actions_dispatched_total", "counter", "Verified actions dispatched, including retries");
+		actionVerifier.getStats().forEach((type, stats) -> sample(sb, "botutils_actions_dispatched_total", "type", type, stats.getDispatched()));
+		header(sb, "botutils_actions_verified_total", "counter", "Actions whose outcome was observed");
+		actionVerifier.getStats().forEach((type, stats) -> sample(sb, "botutils_actions_verified_total", "type", type, stats.getVerified()));
+		header(sb, "botutils_actions_failed_total", "counter", "Actions whose outcome was not observed before the deadline");
+		actionVerifier.getStats().forEach((type, stats) -> sample(sb, "botutils_actions_failed_total", "type", type, stats.getFailed()));
+
+		header(sb, "botutils_price_cache_hits_total", "counter", "Price lookups answered by a fresh cache entry");
+		sb.append("botutils_price_cache_hits_total ").append(priceCache.getHits()).append('\n');
+		header(sb, "botutils_price_cache_misses_total", "counter", "Price lookups that queued a fetch");
+		sb.append("botutils_price_cache_misses_total ").append(priceCache.getMisses()).append('\n');
+		header(sb, "botutils_price_cache_entries", "gauge", "Items in the price cache");
+		sb.append("botutils_price_cache_entries ").append(priceCache.size()).append('\n');
+		header(sb, "botutils_geometry_cache_hits_total", "counter", "Click bounds and tile polygons reused from the geometry cache");
+		sb.append("botutils_geometry_cache_hits_total ").append(geometryCache.getHits()).append('\n');
+		header(sb, "botutils_geometry_cache_misses_total", "counter", "Click bounds and tile polygons computed");
+		sb.append("botutils_geometry_cache_misses_total ").append(geometryCache.getMisses()).append('\n');
+
+		header(sb, "botutils_section_seconds", "summary", "Time spent in profiled handlers and queries");
+		for (TickProfiler.Section section : tickProfiler.getSections())
+		{
+			String labels = "owner=\"" + escape(section.getOwner()) + "\",section=\"" + escape(section.getName()) + "\"";
+			summary(sb, "botutils_section_seconds", labels, section.getHistogram());
+		}
+		header(sb, "botutils_tick_seconds", "summary", "Profiled client thread time per game tick");
+		summary(sb, "botutils_tick_seconds", null, tickProfiler.getTickHistogram());
+
+		header(sb, "botutils_plugin_state", "gauge", "Current state of each running plugin");
+		states.forEach((plugin, state) -> sb.append("botutils_plugin_state{plugin=\"").append(escape(plugin))
+			.append("\",state=\"").append(escape(state.name())).append("\"} 1\n"));
+		return sb.toString();
+	}
+
+	private static void header(StringBuilder sb, String name, String type, String help)
+	{
+		sb.append("# HELP ").append(name).append(' ').append(help).append('\n');
+		sb.append("# TYPE ").append(name).append(' ').append(type).append('\n');
+	}
+
+	private static void sample(StringBuilder sb, String name, String label, String value, long sample)
+	{
+		sb.append(name).append('{').append(label).append("=\"").append(escape(value)).append("\"} ").append(sample).append('\n');
+	}
+
+	private static void summary(StringBuilder sb, String name, @Nullable String labels, LatencyHistogram histogram)
+	{
+		String prefix = labels == null ? "" : labels + ",";
+		for (double quantile : QUANTILES)
+		{
+			sb.append(name).append('{').append(prefix).append("quantile=\"").append(quantile).append("\"} ")
+				.append(histogram.getPercentileNanos(quantile) / 1e9).append('\n');
+		}
+		String suffix = labels == null ? " " : "{" + labels + "} ";
+		sb.append(name).append("_sum").append(suffix).append(histogram.getTotalNanos() / 1e9).append('\n');
+		sb.append(name).append("_count").append(suffix).append(histogram.getCount()).append('\n');
+	}
+
+	private static String escape(String value)
+	{
+		return value.replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n");
+	}
+
+	private static class Metric
+	{
+		private final String type;
+		private final String help;
+		private final LongSupplier value;
+
+		private Metric(String type, String help, LongSupplier value)
+		{
+			this.type = type;
+			this.help = help;
+			this.value = value;
+		}
+	}
+}
@@ -0,0 +1,194 @@
+package net.runelite.client.plugins.botutils;
+
+import javax.inject.Inject;
+import javax.inject.Singleton;
+import net.runelite.api.Client;
+import net.runelite.api.Player;
+import net.runelite.api.coords.WorldPoint;
+
+/**
+ * Keeps a short history of the local player's position and animation, sampled once per GameTick,
+ * so movement and idle checks can be answered without sleeping on the calling thread.
+ */
+@Singleton
+public class MovementTracker
+{
+	private static final int HISTORY_SIZE = 32; //must be a power of two
+	private static final int NO_SAMPLE = -1;
+
+	@Inject
+	private Client client;
+
+	private final int[] positions = new int[HISTORY_SIZE];
+	private final int[] animations = new int[HISTORY_SIZE];
+	private int samples;
+	private int lastSampleTick = NO_SAMPLE;
+	private int lastMoveTick;
+	private int lastActiveTick;
+
+	void onGameTick()
+	{
+		Player player = client.getLocalPlayer();
+		if (player == null)
+		{
+			return;
+		}
+		int tick = client.getTickCount();
+		int position = pack(player.getWorldLocation());
+		int animation = player.getAnimation();
+
+		if (samples == 0)
+		{
+			lastMoveTick = tick;
+			lastActiveTick = tick;
+		}
+		else if (position != positions[(samples - 1) & (HISTORY_SIZE - 1)])
+		{
+			lastMoveTick = tick;
+		}
+		if (animation != -1 || lastMoveTick == tick)
+		{
+			lastActiveTick = tick;
+		}
+
+		positions[samples & (HISTORY_SIZE - 1)] = position;
+		animations[samples & (HISTORY_SIZE - 1)] = animation;
+		samples++;
+		lastSampleTick = tick;
+	}
+
+	void reset()
+	{
+		samples = 0;
+		lastSampleTick = NO_SAMPLE;
+		lastMoveTick = 0;
+		lastActiveTick = 0;
+	}
+
+	/**
+	 * True if the player changed tile since the previous tick or still has a walk destination.
+	 */
+	public boolean isMoving()
+	{
+		Player player = client.getLocalPlayer();
+		if (player == null)
+		{
+			return false;
+		}
+		if (client.getLocalDestinationLocation() != null)
+		{
+			return true;
+		}
+		int previous = previousPosition();
+		return previous != NO_SAMPLE && previous != pack(player.getWorldLocation());
+	}
+
+	public boolean isAnimating()
+	{
+		Player player = client.getLocalPlayer();
+		return player != null && player.getAnimation() != -1;
+	}
+
+	public boolean isInteracting()
+	{
+		return isMoving() || isAnimating();
+	}
+
+	/**
+	 * Number of game ticks since the player last moved or animated, 0 if active right now.
+	 */
+	public int getIdleTicks()
+	{
+		if (samples == 0 || isInteracting())
+		{
+			return 0;
+		}
+		return client.getTickCount() - lastActiveTick;
+	}
+
+	public boolean isIdleFor(int ticks)
+	{
+		return samples >= ticks && getIdleTicks() >= ticks;
+	}
+
+	public int getTicksSinceMoved()
+	{
+		return samples == 0 ? 0 : client.getTickCount() - lastMoveTick;
+	}
+
+	/**
+	 * Average tiles moved per tick over the last sampleTicks ticks of history.
+	 */
+	public double getSpeed(int sampleTicks)
+	{
+		int count = Math.min(Math.min(sampleTicks, HISTORY_SIZE - 1), samples - 1);
+		if (count <= 0)
+		{
+			return 0;
+		}
+		int tiles = 0;
+		for (int i = samples - count; i < samples; i++)
+		{
+			tiles += distance(positions[(i - 1) & (HISTORY_SIZE - 1)], positions[i & (HISTORY_SIZE - 1)]);
+		}
+		return (double) tiles / count;
+	}
+
+	/**
+	 * Estimated ticks to reach the destination using recent speed, or run/walk speed when standing still.
+	 */
+	public int getEtaTicks(WorldPoint destination, boolean runEnabled)
+	{
+		Player player = client.getLocalPlayer();
+		if (player == null)
+		{
+			return -1;
+		}
+		int distance = player.getWorldLocation().distanceTo(destination);
+		if (distance == Integer.MAX_VALUE)
+		{
+			return -1;
+		}
+		double speed = getSpeed(4);
+		if (speed <= 0)
+		{
+			speed = runEnabled ? 2 : 1;
+		}
+		return (int) Math.ceil(distance / speed);
+	}
+
+	public int getLastAnimation()
+	{
+		return samples == 0 ? -1 : animations[(samples - 1) & (HISTORY_SIZE - 1)];
+	}
+
+	//The last sample taken on an earlier tick than the current one
+	private int previousPosition()
+	{
+		if (samples == 0)
+		{
+			return NO_SAMPLE;
+		}
+		if (lastSampleTick != client.getTickCount())
+		{
+			return positions[(samples - 1) & (HISTORY_SIZE - 1)];
+		}
+		return samples > 1 ? positions[(samples - 2) & (HISTORY_SIZE - 1)] : NO_SAMPLE;
+	}
+
+	private static int pack(WorldPoint point)
+	{
+		return (point.getPlane() << 28) | (point.getX() << 14) | point.getY();
+	}
+
+	private static int distance(int from, int to)
+	{
+		if ((from >>> 28) != (to >>> 28))
+		{
+			return 0; //plane change, e.g. stairs or agility obstacle
+		}
+		int dx = Math.abs(((from >> 14) & 0x3FFF) - ((to >> 14) & 0x3FFF));
+		int dy = Math.abs((from & 0x3FFF) - (to & 0x3FFF));
+		return Math.max(dx, dy);
+	}
+}
@@ -0,0 +1,366 @@
+package net.runelite.client.plugins.botutils;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
+import javax.annotation.Nullable;
+import javax.inject.Inject;
+import javax.inject.Singleton;
+import net.runelite.api.Actor;
+import net.runelite.api.Client;
+import net.runelite.api.CollisionData;
+import net.runelite.api.CollisionDataFlag;
+import net.runelite.api.GameObject;
+import net.runelite.api.Locatable;
+import net.runelite.api.Player;
+import net.runelite.api.coords.LocalPoint;
+import net.runelite.api.coords.WorldArea;
+import net.runelite.api.coords.WorldPoint;
+
+/**
+ * Walking distance in tiles from the local player to every tile of the loaded scene, found with a breadth first
+ * search over the collision flags, so targets behind walls, fences or water rank by how far they really are and
+ * unreachable ones can be skipped. The field is only recomputed after the player changed tile, the scene loaded or
+ * BotUtils saw objects change, into the same int arrays every time.
+ * While disabled distances are straight line tile distances and nothing is unreachable.
+ * Client thread only.
+ */
+@Singleton
+public class PathDistanceField
+{
+	public static final int UNREACHABLE = -1;
+
+	private static final int SCENE_SIZE = 104;
+	private static final int[] DX = {0, 0, 1, -1, 1, 1, -1, -1};
+	private static final int[] DY = {1, -1, 0, 0, 1, -1, 1, -1};
+
+	@Inject
+	private Client client;
+
+	private final int[] distances = new int[SCENE_SIZE * SCENE_SIZE];
+	//Searches from tiles other than the player's, so the player's field stays valid
+	private final int[] scratch = new int[SCENE_SIZE * SCENE_SIZE];
+	private final int[] queue = new int[SCENE_SIZE * SCENE_SIZE];
+	private final LongAdder updates = new LongAdder();
+	private volatile boolean enabled = true;
+	private boolean dirty = true;
+	//Collision flags of the plane the field was computed on
+	private int[][] flags;
+	private int originX = -1;
+	private int originY = -1;
+	private int originPlane = -1;
+	private int baseX;
+	private int baseY;
+
+	public boolean isEnabled()
+	{
+		return enabled;
+	}
+
+	public void setEnabled(boolean enabled)
+	{
+		this.enabled = enabled;
+	}
+
+	//Number of times the field was recomputed
+	public long getUpdates()
+	{
+		return updates.sum();
+	}
+
+	/**
+	 * Tiles to walk to stand on the given tile, or {@link #UNREACHABLE}.
+	 */
+	public int getDistance(WorldPoint tile)
+	{
+		if (!enabled)
+		{
+			return straightDistance(tile);
+		}
+		if (!update() || tile.getPlane() != originPlane)
+		{
+			return UNREACHABLE;
+		}
+		return distanceAt(distances, tile.getX() - baseX, tile.getY() - baseY);
+	}
+
+	/**
+	 * Tiles to walk to pick up an item from the given tile: standing on it, or next to it with no wall in between
+	 * when the tile itself is blocked, e.g. an item on a table.
+	 */
+	public int getPickupDistance(WorldPoint tile)
+	{
+		if (!enabled)
+		{
+			return straightDistance(tile);
+		}
+		if (!update() || tile.getPlane() != originPlane)
+		{
+			return UNREACHABLE;
+		}
+		return pickupDistance(distances, tile.getX() - baseX, tile.getY() - baseY);
+	}
+
+	/**
+	 * Tiles to walk to stand on or next to the tiles the target covers, e.g. every side of a 2x2 tree or a large NPC,
+	 * not counting sides walled off from the target.
+	 */
+	public int getDistance(Locatable target)
+	{
+		if (!enabled)
+		{
+			return straightDistance(target.getWorldLocation());
+		}
+		if (!update() || target.getWorldLocation().getPlane() != originPlane)
+		{
+			return UNREACHABLE;
+		}
+		if (target instanceof GameObject)
+		{
+			GameObject object = (GameObject) target;
+			return reachDistance(distances, flags, object.getSceneMinLocation().getX(), object.getSceneMinLocation().getY(),
+				object.getSceneMaxLocation().getX(), object.getSceneMaxLocation().getY());
+		}
+		if (target instanceof Actor)
+		{
+			WorldArea area = ((Actor) target).getWorldArea();
+			int x = area.getX() - baseX;
+			int y = area.getY() - baseY;
+			return reachDistance(distances, flags, x, y, x + area.getWidth() - 1, y + area.getHeight() - 1);
+		}
+		LocalPoint local = target.getLocalLocation();
+		return reachDistance(distances, flags, local.getSceneX(), local.getSceneY(), local.getSceneX(), local.getSceneY());
+	}
+
+	/**
+	 * The target with the shortest walk, skipping unreachable targets, or null if there are none.
+	 */
+	@Nullable
+	public <T extends Locatable> T nearest(Collection<T> targets)
+	{
+		T nearest = null;
+		int nearestDistance = Integer.MAX_VALUE;
+		for (T target : targets)
+		{
+			int distance = getDistance(target);
+			if (distance != UNREACHABLE && distance < nearestDistance)
+			{
+				nearest = target;
+				nearestDistance = distance;
+			}
+		}
+		return nearest;
+	}
+
+	/**
+	 * Walking distances between the given tiles on the player's plane, [i][j] being the tiles to walk from standing
+	 * on tile i to pick up an item from tile j as in {@link #getPickupDistance(WorldPoint)}, or {@link #UNREACHABLE}. Runs a search from every tile, so only
+	 * pass a handful.
+	 */
+	public int[][] getDistances(List<WorldPoint> tiles)
+	{
+		int[][] matrix = new int[tiles.size()][tiles.size()];
+		if (!enabled)
+		{
+			for (int i = 0; i < tiles.size(); i++)
+			{
+				for (int j = 0; j < tiles.size(); j++)
+				{
+					int distance = tiles.get(i).distanceTo(tiles.get(j));
+					matrix[i][j] = distance == Integer.MAX_VALUE ? UNREACHABLE : distance;
+				}
+			}
+			return matrix;
+		}
+		boolean updated = update();
+		for (int i = 0; i < tiles.size(); i++)
+		{
+			WorldPoint from = tiles.get(i);
+			int x = from.getX() - baseX;
+			int y = from.getY() - baseY;
+			boolean searchable = updated && from.getPlane() == originPlane && inScene(x, y);
+			if (searchable)
+			{
+				search(scratch, flags, x, y);
+			}
+			for (int j = 0; j < tiles.size(); j++)
+			{
+				WorldPoint to = tiles.get(j);
+				matrix[i][j] = searchable && to.getPlane() == originPlane ? pickupDistance(scratch, to.getX() - baseX, to.getY() - baseY) : UNREACHABLE;
+			}
+		}
+		return matrix;
+	}
+
+	//Called by BotUtils when collision may have changed, e.g. a door opened or the scene loaded
+	void invalidate()
+	{
+		dirty = true;
+	}
+
+	private boolean update()
+	{
+		Player player = client.getLocalPlayer();
+		CollisionData[] maps = client.getCollisionMaps();
+		if (player == null || maps == null)
+		{
+			return false;
+		}
+		LocalPoint local = player.getLocalLocation();
+		int x = local.getSceneX();
+		int y = local.getSceneY();
+		int plane = client.getPlane();
+		if (!dirty && x == originX && y == originY && plane == originPlane && baseX == client.getBaseX() && baseY == client.getBaseY())
+		{
+			return true;
+		}
+		if (!inScene(x, y) || maps[plane] == null)
+		{
+			return false;
+		}
+		flags = maps[plane].getFlags();
+		search(distances, flags, x, y);
+		originX = x;
+		originY = y;
+		originPlane = plane;
+		baseX = client.getBaseX();
+		baseY = client.getBaseY();
+		dirty = false;
+		updates.increment();
+		return true;
+	}
+
+	private void search(int[] distances, int[][] flags, int startX, int startY)
+	{
+		Arrays.fill(distances, UNREACHABLE);
+		int head = 0;
+		int tail = 0;
+		distances[index(startX, startY)] = 0;
+		queue[tail++] = index(startX, startY);
+		while (head < tail)
+		{
+			int current = queue[head++];
+			int x = current / SCENE_SIZE;
+			int y = current % SCENE_SIZE;
+			int next = distances[current] + 1;
+			for (int i = 0; i < DX.length; i++)
+			{
+				int nx = x + DX[i];
+				int ny = y + DY[i];
+				if (!inScene(nx, ny) || distances[index(nx, ny)] != UNREACHABLE || !canMove(flags, x, y, DX[i], DY[i]))
+				{
+					continue;
+				}
+				distances[index(nx, ny)] = next;
+				queue[tail++] = index(nx, ny);
+			}
+		}
+	}
+
+	//Diagonal steps need both orthogonal steps around the corner to be open, as in the game's own pathing
+	private static boolean canMove(int[][] flags, int x, int y, int dx, int dy)
+	{
+		if (dx != 0 && dy != 0)
+		{
+			return canMove(flags, x, y, dx, 0) && canMove(flags, x, y, 0, dy) &&
+				canMove(flags, x + dx, y, 0, dy) && canMove(flags, x, y + dy, dx, 0);
+		}
+		int wall;
+		if (dy == 1)
+		{
+			wall = CollisionDataFlag.BLOCK_MOVEMENT_NORTH;
+		}
+		else if (dy == -1)
+		{
+			wall = CollisionDataFlag.BLOCK_MOVEMENT_SOUTH;
+		}
+		else if (dx == 1)
+		{
+			wall = CollisionDataFlag.BLOCK_MOVEMENT_EAST;
+		}
+		else
+		{
+			wall = CollisionDataFlag.BLOCK_MOVEMENT_WEST;
+		}
+		return (flags[x][y] & wall) == 0 && (flags[x + dx][y + dy] & CollisionDataFlag.BLOCK_MOVEMENT_FULL) == 0;
+	}
+
+	private int pickupDistance(int[] distances, int x, int y)
+	{
+		if (inScene(x, y) && (flags[x][y] & CollisionDataFlag.BLOCK_MOVEMENT_FULL) == 0)
+		{
+			return distanceAt(distances, x, y);
+		}
+		return reachDistance(distances, flags, x, y, x, y);
+	}
+
+	//Shortest distance to a tile of the area or a tile directly beside it without a wall between them and the area
+	private static int reachDistance(int[] distances, int[][] flags, int minX, int minY, int maxX, int maxY)
+	{
+		int best = UNREACHABLE;
+		for (int x = minX; x <= maxX; x++)
+		{
+			for (int y = minY; y <= maxY; y++)
+			{
+				best = closer(best, distanceAt(distances, x, y));
+			}
+			if (!walled(flags, x, maxY, CollisionDataFlag.BLOCK_MOVEMENT_NORTH))
+			{
+				best = closer(best, distanceAt(distances, x, maxY + 1));
+			}
+			if (!walled(flags, x, minY, CollisionDataFlag.BLOCK_MOVEMENT_SOUTH))
+			{
+				best = closer(best, distanceAt(distances, x, minY - 1));
+			}
+		}
+		for (int y = minY; y <= maxY; y++)
+		{
+			if (!walled(flags, maxX, y, CollisionDataFlag.BLOCK_MOVEMENT_EAST))
+			{
+				best = closer(best, distanceAt(distances, maxX + 1, y));
+			}
+			if (!walled(flags, minX, y, CollisionDataFlag.BLOCK_MOVEMENT_WEST))
+			{
+				best = closer(best, distanceAt(distances, minX - 1, y));
+			}
+		}
+		return best;
+	}
+
+	private static boolean walled(int[][] flags, int x, int y, int wall)
+	{
+		return inScene(x, y) && (flags[x][y] & wall) != 0;
+	}
+
+	private static int closer(int best, int distance)
+	{
+		return distance != UNREACHABLE && (best == UNREACHABLE || distance < best) ? distance : best;
+	}
+
+	private static int distanceAt(int[] distances, int x, int y)
+	{
+		return inScene(x, y) ? distances[index(x, y)] : UNREACHABLE;
+	}
+
+	private int straightDistance(WorldPoint tile)
+	{
+		Player player = client.getLocalPlayer();
+		if (player == null)
+		{
+			return UNREACHABLE;
+		}
+		int distance = player.getWorldLocation().distanceTo(tile);
+		return distance == Integer.MAX_VALUE ? UNREACHABLE : distance;
+	}
+
+	private static boolean inScene(int x, int y)
+	{
+		return x >= 0 && y >= 0 && x < SCENE_SIZE && y < SCENE_SIZE;
+	}
+
+	private static int index(int x, int y)
+	{
+		return x * SCENE_SIZE + y;
+	}
+}
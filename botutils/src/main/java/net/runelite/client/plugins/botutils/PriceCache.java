@@ -0,0 +1,336 @@
+package net.runelite.client.plugins.botutils;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+import javax.annotation.Nullable;
+import javax.inject.Inject;
+import javax.inject.Singleton;
+import lombok.extern.slf4j.Slf4j;
+import net.runelite.client.RuneLite;
+import net.runelite.http.api.osbuddy.OSBGrandExchangeClient;
+import net.runelite.http.api.osbuddy.OSBGrandExchangeResult;
+
+/**
+ * OSBuddy price cache. Reads never block and return the last known price, a missing or expired entry
+ * queues a background lookup which is shared by every caller asking for the same item while it runs.
+ * Prices are saved to a snapshot file so a restart begins with the last known values, which are then
+ * refreshed in the background. Safe to use from any thread.
+ */
+@Slf4j
+@Singleton
+public class PriceCache
+{
+	private static final long TTL_MILLIS = TimeUnit.MINUTES.toMillis(30);
+	private static final long FAILED_RETRY_MILLIS = TimeUnit.MINUTES.toMillis(1);
+	private static final long SAVE_INTERVAL_MINUTES = 5;
+	private static final int LOOKUP_THREADS = 2;
+	private static final int SNAPSHOT_MAGIC = 0x4F534250;
+	private static final int SNAPSHOT_VERSION = 1;
+	private static final File SNAPSHOT_FILE = new File(new File(RuneLite.RUNELITE_DIR, "botutils"), "prices.dat");
+
+	private final PriceSource priceSource;
+	private final File snapshotFile;
+	private final Map<Integer, Entry> prices = new ConcurrentHashMap<>();
+	private final Map<Integer, CompletableFuture<OSBGrandExchangeResult>> inFlight = new ConcurrentHashMap<>();
+	private final AtomicBoolean dirty = new AtomicBoolean();
+	private final LongAdder hits = new LongAdder();
+	private final LongAdder misses = new LongAdder();
+	private final ScheduledExecutorService lookupExecutor = Executors.newScheduledThreadPool(LOOKUP_THREADS,
+		new ThreadFactoryBuilder().setNameFormat("botutils-prices-%d").setDaemon(true).build());
+
+	@Inject
+	PriceCache(OSBGrandExchangeClient osbGrandExchangeClient)
+	{
+		this(itemId -> osbGrandExchangeClient.lookupItem(itemId).blockingFirst(), SNAPSHOT_FILE);
+	}
+
+	/**
+	 * @param priceSource  where prices are looked up, e.g. a local stand-in for the OSBuddy API
+	 * @param snapshotFile where prices are saved between sessions
+	 */
+	public PriceCache(PriceSource priceSource, File snapshotFile)
+	{
+		this.priceSource = priceSource;
+		this.snapshotFile = snapshotFile;
+		lookupExecutor.scheduleWithFixedDelay(this::saveIfDirty, SAVE_INTERVAL_MINUTES, SAVE_INTERVAL_MINUTES, TimeUnit.MINUTES);
+	}
+
+	/**
+	 * Returns the last known price, or an empty result with all averages at 0 if the item has never been looked up.
+	 * Queues a refresh in the background if the entry is missing or expired.
+	 */
+	public OSBGrandExchangeResult get(int itemId)
+	{
+		Entry entry = prices.get(itemId);
+		if (entry == null || entry.isExpired())
+		{
+			misses.increment();
+			fetch(itemId);
+		}
+		else
+		{
+			hits.increment();
+		}
+		return (entry == null) ? empty(itemId) : entry.result;
+	}
+
+	public int getPrice(int itemId)
+	{
+		return get(itemId).getOverall_average();
+	}
+
+	/**
+	 * Returns the cached price without ever queueing a lookup.
+	 */
+	@Nullable
+	public OSBGrandExchangeResult getIfPresent(int itemId)
+	{
+		Entry entry = prices.get(itemId);
+		return (entry == null) ? null : entry.result;
+	}
+
+	/**
+	 * Whether a price is cached for the item. An item whose lookup failed or came back without a price has no
+	 * price, even though it is kept to hold back the next lookup for a while.
+	 */
+	public boolean contains(int itemId)
+	{
+		Entry entry = prices.get(itemId);
+		return entry != null && entry.priced;
+	}
+
+	/**
+	 * Starts a background lookup unless one is already running for this item, in which case that one is returned.
+	 * The future completes with the cached result after the lookup, which is the previous value if it failed.
+	 */
+	public CompletableFuture<OSBGrandExchangeResult> fetch(int itemId)
+	{
+		CompletableFuture<OSBGrandExchangeResult> future = new CompletableFuture<>();
+		CompletableFuture<OSBGrandExchangeResult> running = inFlight.putIfAbsent(itemId, future);
+		if (running != null)
+		{
+			return running;
+		}
+		lookupExecutor.execute(() -> lookup(itemId, future));
+		return future;
+	}
+
+	/**
+	 * Looks up every item that isn't cached or has expired.
+	 */
+	public CompletableFuture<Void> prefetch(Collection<Integer> itemIds)
+	{
+		return CompletableFuture.allOf(itemIds.stream()
+			.distinct()
+			.filter(itemId ->
+			{
+				Entry entry = prices.get(itemId);
+				return entry == null || entry.isExpired();
+			})
+			.map(this::fetch)
+			.toArray(CompletableFuture[]::new));
+	}
+
+	/**
+	 * Loads the snapshot in the background without replacing prices that are already cached,
+	 * then refreshes the entries that expired while the client was closed.
+	 */
+	public CompletableFuture<Void> loadSnapshot()
+	{
+		return CompletableFuture.supplyAsync(this::readSnapshot, lookupExecutor)
+			.thenCompose(expired -> prefetch(expired).thenRun(this::saveIfDirty));
+	}
+
+	public synchronized void saveSnapshot()
+	{
+		dirty.set(false);
+		List<Map.Entry<Integer, Entry>> entries = new ArrayList<>();
+		for (Map.Entry<Integer, Entry> entry : prices.entrySet())
+		{
+			if (entry.getValue().priced)
+			{
+				entries.add(entry);
+			}
+		}
+
+		File tempFile = new File(snapshotFile.getPath() + ".tmp");
+		try
+		{
+			Files.createDirectories(snapshotFile.getAbsoluteFile().getParentFile().toPath());
+			try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(tempFile))))
+			{
+				out.writeInt(SNAPSHOT_MAGIC);
+				out.writeInt(SNAPSHOT_VERSION);
+				out.writeInt(entries.size());
+				for (Map.Entry<Integer, Entry> entry : entries)
+				{
+					OSBGrandExchangeResult result = entry.getValue().result;
+					out.writeInt(entry.getKey());
+					out.writeInt(result.getBuy_average());
+					out.writeInt(result.getSell_average());
+					out.writeInt(result.getOverall_average());
+					out.writeLong(entry.getValue().expiresAt);
+				}
+			}
+			Files.move(tempFile.toPath(), snapshotFile.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+			log.debug("Saved {} prices to {}", entries.size(), snapshotFile);
+		}
+		catch (IOException e)
+		{
+			log.warn("Unable to save price snapshot", e);
+			dirty.set(true);
+		}
+	}
+
+	public int size()
+	{
+		return prices.size();
+	}
+
+	//get() calls answered by a fresh entry
+	public long getHits()
+	{
+		return hits.sum();
+	}
+
+	//get() calls that found a missing or expired entry
+	public long getMisses()
+	{
+		return misses.sum();
+	}
+
+	public void clear()
+	{
+		prices.clear();
+		dirty.set(true);
+	}
+
+	private List<Integer> readSnapshot()
+	{
+		List<Integer> expired = new ArrayList<>();
+		if (!snapshotFile.exists())
+		{
+			return expired;
+		}
+		try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(snapshotFile))))
+		{
+			if (in.readInt() != SNAPSHOT_MAGIC || in.readInt() != SNAPSHOT_VERSION)
+			{
+				log.debug("Ignoring price snapshot {} with unknown format", snapshotFile);
+				return expired;
+			}
+			int count = in.readInt();
+			for (int i = 0; i < count; i++)
+			{
+				int itemId = in.readInt();
+				OSBGrandExchangeResult result = empty(itemId);
+				result.setBuy_average(in.readInt());
+				result.setSell_average(in.readInt());
+				result.setOverall_average(in.readInt());
+				Entry entry = new Entry(result, result.getOverall_average() > 0, in.readLong());
+				if (prices.putIfAbsent(itemId, entry) == null && entry.isExpired())
+				{
+					expired.add(itemId);
+				}
+			}
+			log.debug("Loaded {} prices from {}, {} expired", count, snapshotFile, expired.size());
+		}
+		catch (IOException e)
+		{
+			log.warn("Unable to load price snapshot", e);
+		}
+		return expired;
+	}
+
+	private void saveIfDirty()
+	{
+		if (dirty.get())
+		{
+			saveSnapshot();
+		}
+	}
+
+	private void lookup(int itemId, CompletableFuture<OSBGrandExchangeResult> future)
+	{
+		log.debug("Looking up OSB item price {}", itemId);
+		try
+		{
+			OSBGrandExchangeResult result = priceSource.lookup(itemId);
+			if (result != null && result.getOverall_average() > 0)
+			{
+				prices.put(itemId, new Entry(result, true, System.currentTimeMillis() + TTL_MILLIS));
+				dirty.set(true);
+			}
+			else
+			{
+				retryLater(itemId);
+			}
+		}
+		catch (RuntimeException e)
+		{
+			log.debug("Error getting price of item {}", itemId, e);
+			retryLater(itemId);
+		}
+		finally
+		{
+			inFlight.remove(itemId);
+			OSBGrandExchangeResult cached = getIfPresent(itemId);
+			future.complete(cached == null ? empty(itemId) : cached);
+		}
+	}
+
+	//Keeps the last known price but stops every read from queueing another lookup straight away
+	private void retryLater(int itemId)
+	{
+		Entry previous = prices.get(itemId);
+		long retryAt = System.currentTimeMillis() + FAILED_RETRY_MILLIS;
+		prices.put(itemId, previous == null ? new Entry(empty(itemId), false, retryAt) : new Entry(previous.result, previous.priced, retryAt));
+	}
+
+	private static OSBGrandExchangeResult empty(int itemId)
+	{
+		OSBGrandExchangeResult result = new OSBGrandExchangeResult();
+		result.setItem_id(itemId);
+		return result;
+	}
+
+	private static class Entry
+	{
+		private final OSBGrandExchangeResult result;
+		//False for the empty result held back after a failed lookup
+		private final boolean priced;
+		private final long expiresAt;
+
+		private Entry(OSBGrandExchangeResult result, boolean priced, long expiresAt)
+		{
+			this.result = result;
+			this.priced = priced;
+			this.expiresAt = expiresAt;
+		}
+
+		private boolean isExpired()
+		{
+			return System.currentTimeMillis() >= expiresAt;
+		}
+	}
+}
@@ -0,0 +1,15 @@
+package net.runelite.client.plugins.botutils;
+
+import javax.annotation.Nullable;
+import net.runelite.http.api.osbuddy.OSBGrandExchangeResult;
+
+/**
+ * Where {@link PriceCache} looks prices up. Called from the cache's lookup threads, so implementations may block.
+ * The default is the OSBuddy API, a local stand-in can be passed to the cache instead.
+ */
+@FunctionalInterface
+public interface PriceSource
+{
+	@Nullable
+	OSBGrandExchangeResult lookup(int itemId);
+}
@@ -0,0 +1,46 @@
+package net.runelite.client.plugins.botutils;
+
+import javax.annotation.Nullable;
+import net.runelite.api.GameObject;
+import net.runelite.api.ItemContainer;
+import net.runelite.api.NPC;
+import net.runelite.api.Tile;
+import net.runelite.api.TileItem;
+import net.runelite.api.coords.WorldPoint;
+
+/**
+ * Client objects for what a {@link ReplayScene} holds, so {@link EventReplay} can post the spawn, despawn and
+ * item container events a recording refers to. The StubClient in the botutils test fixtures answers these
+ * from its scene, returning the same instances its client hands out.
+ */
+public interface ReplayObjects
+{
+	ReplayScene getScene();
+
+	/**
+	 * The NPC at the index, the same instance for as long as the scene has the same NPC there.
+	 */
+	@Nullable
+	NPC getNpc(int index);
+
+	/**
+	 * The object for one of the scene's own entity instances, or null if it isn't in the loaded scene.
+	 */
+	@Nullable
+	GameObject getGameObject(ReplayScene.Entity entity);
+
+	/**
+	 * The ground item for one of the scene's own entity instances, or null if it isn't in the loaded scene.
+	 */
+	@Nullable
+	TileItem getTileItem(ReplayScene.Entity entity);
+
+	@Nullable
+	Tile getTile(WorldPoint location);
+
+	/**
+	 * The container as last recorded, or null if it never was.
+	 */
+	@Nullable
+	ItemContainer getItemContainer(int containerId);
+}
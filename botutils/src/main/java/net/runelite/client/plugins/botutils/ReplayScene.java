@@ -0,0 +1,198 @@
+package net.runelite.client.plugins.botutils;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import javax.annotation.Nullable;
+import lombok.Getter;
+import lombok.Value;
+import net.runelite.api.GameState;
+import net.runelite.api.MenuEntry;
+import net.runelite.api.Skill;
+import net.runelite.api.coords.WorldPoint;
+
+/**
+ * Scene state rebuilt by {@link EventReplay} from a recording: the player's position and animation,
+ * spawned NPCs, objects and ground items, item containers, varps, stats and the recorded clicks as of the replayed tick.
+ * The StubClient test fixture answers client queries from it while replayed events are posted to plugins.
+ */
+@Getter
+public class ReplayScene
+{
+	private int tickCount;
+	@Nullable
+	private WorldPoint playerLocation;
+	private int playerAnimation = -1;
+	private GameState gameState = GameState.UNKNOWN;
+	@Getter(lombok.AccessLevel.NONE)
+	private final Map<Integer, Entity> npcs = new HashMap<>();
+	@Getter(lombok.AccessLevel.NONE)
+	private final List<Entity> objects = new ArrayList<>();
+	@Getter(lombok.AccessLevel.NONE)
+	private final List<Entity> groundItems = new ArrayList<>();
+	@Getter(lombok.AccessLevel.NONE)
+	private final Map<Integer, int[]> containers = new HashMap<>();
+	@Getter(lombok.AccessLevel.NONE)
+	private final Map<Integer, Integer> varps = new HashMap<>();
+	@Getter(lombok.AccessLevel.NONE)
+	private final List<MenuEntry> recordedClicks = new ArrayList<>();
+	@Getter(lombok.AccessLevel.NONE)
+	private final int[] xp = new int[Skill.values().length];
+	@Getter(lombok.AccessLevel.NONE)
+	private final int[] levels = new int[Skill.values().length];
+	@Getter(lombok.AccessLevel.NONE)
+	private final int[] boostedLevels = new int[Skill.values().length];
+
+	public Collection<Entity> getNpcs()
+	{
+		return Collections.unmodifiableCollection(npcs.values());
+	}
+
+	//Spawned NPCs by their index
+	public Map<Integer, Entity> getNpcsByIndex()
+	{
+		return Collections.unmodifiableMap(npcs);
+	}
+
+	@Nullable
+	public Entity getNpc(int index)
+	{
+		return npcs.get(index);
+	}
+
+	public List<Entity> getObjects()
+	{
+		return Collections.unmodifiableList(objects);
+	}
+
+	public List<Entity> getGroundItems()
+	{
+		return Collections.unmodifiableList(groundItems);
+	}
+
+	/**
+	 * Returns item ids and quantities of the container as alternating values, or null if it was never recorded.
+	 */
+	@Nullable
+	public int[] getContainer(int containerId)
+	{
+		return containers.get(containerId);
+	}
+
+	//Menu options clicked while recording, in order
+	public List<MenuEntry> getRecordedClicks()
+	{
+		return Collections.unmodifiableList(recordedClicks);
+	}
+
+	public int getVarp(int index)
+	{
+		return varps.getOrDefault(index, 0);
+	}
+
+	public int getXp(Skill skill)
+	{
+		return xp[skill.ordinal()];
+	}
+
+	public int getLevel(Skill skill)
+	{
+		return levels[skill.ordinal()];
+	}
+
+	public int getBoostedLevel(Skill skill)
+	{
+		return boostedLevels[skill.ordinal()];
+	}
+
+	void tick(int tickCount, @Nullable WorldPoint playerLocation, int playerAnimation)
+	{
+		this.tickCount = tickCount;
+		this.playerLocation = playerLocation;
+		this.playerAnimation = playerAnimation;
+	}
+
+	void setGameState(GameState gameState)
+	{
+		this.gameState = gameState;
+		if (gameState == GameState.LOADING || gameState == GameState.LOGIN_SCREEN)
+		{
+			npcs.clear();
+			objects.clear();
+			groundItems.clear();
+		}
+	}
+
+	void npc(int index, Entity npc, boolean spawned)
+	{
+		if (spawned)
+		{
+			npcs.put(index, npc);
+		}
+		else
+		{
+			npcs.remove(index);
+		}
+	}
+
+	void object(Entity object, boolean spawned)
+	{
+		if (spawned)
+		{
+			objects.add(object);
+		}
+		else
+		{
+			objects.remove(object);
+		}
+	}
+
+	void groundItem(Entity item, boolean spawned)
+	{
+		if (spawned)
+		{
+			groundItems.add(item);
+		}
+		else
+		{
+			groundItems.remove(item);
+		}
+	}
+
+	void container(int containerId, int[] items)
+	{
+		containers.put(containerId, items);
+	}
+
+	void click(MenuEntry menuEntry)
+	{
+		recordedClicks.add(menuEntry);
+	}
+
+	void varp(int index, int value)
+	{
+		varps.put(index, value);
+	}
+
+	void stat(Skill skill, int xp, int level, int boostedLevel)
+	{
+		this.xp[skill.ordinal()] = xp;
+		this.levels[skill.ordinal()] = level;
+		this.boostedLevels[skill.ordinal()] = boostedLevel;
+	}
+
+	/**
+	 * A recorded NPC, object or ground item. Quantity is 1 for NPCs and objects.
+	 */
+	@Value
+	public static class Entity
+	{
+		int id;
+		int quantity;
+		@Nullable
+		WorldPoint location;
+	}
+}
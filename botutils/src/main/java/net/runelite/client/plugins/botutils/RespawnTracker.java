@@ -0,0 +1,263 @@
+package net.runelite.client.plugins.botutils;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+import javax.inject.Inject;
+import javax.inject.Singleton;
+import lombok.Value;
+import net.runelite.api.Client;
+import net.runelite.api.GameObject;
+import net.runelite.api.GameState;
+import net.runelite.api.coords.WorldPoint;
+
+/**
+ * Learns how long depleted game objects, e.g. rocks and trees, take to come back. BotUtils records the tick a
+ * tracked object id despawns from a tile and the tick the same id spawns there again, the difference is averaged
+ * per id and used to predict when each depleted tile will be workable. The time from a spawn to the next despawn
+ * is learned the same way, as the lifetime left of an object that is present. Objects spawning and despawning
+ * during a scene load are not depletions and are ignored.
+ * Client thread only.
+ * <pre>
+ * utils.getRespawnTracker().track(objectIds);
+ * RespawnTracker.Respawn next = utils.getRespawnTracker().getNextRespawn(skillLocation, radius, objectIds);
+ * </pre>
+ */
+@Singleton
+public class RespawnTracker
+{
+	//Depleted tiles are forgotten after this many expected respawn times, or the fixed limit while nothing was learned
+	private static final int EXPIRY_FACTOR = 3;
+	private static final int UNKNOWN_EXPIRY_TICKS = 500;
+
+	@Inject
+	private Client client;
+
+	private final Set<Integer> trackedIds = new HashSet<>();
+	private final Map<Integer, RespawnTime> respawnTimes = new HashMap<>();
+	private final Map<Integer, RespawnTime> lifetimes = new HashMap<>();
+	//Tick each tracked object despawned, keyed by id and tile
+	private final Map<Long, Integer> depleted = new HashMap<>();
+	//Tick each tracked object spawned while logged in, keyed by id and tile
+	private final Map<Long, Integer> present = new HashMap<>();
+
+	/**
+	 * Starts recording depletions of the given object ids, replacing the previously tracked ids.
+	 * Learned respawn times are kept.
+	 */
+	public void track(Collection<Integer> ids)
+	{
+		trackedIds.clear();
+		trackedIds.addAll(ids);
+		depleted.keySet().removeIf(key -> !trackedIds.contains(id(key)));
+		present.keySet().removeIf(key -> !trackedIds.contains(id(key)));
+	}
+
+	public void stopTracking()
+	{
+		trackedIds.clear();
+		depleted.clear();
+		present.clear();
+	}
+
+	/**
+	 * Average ticks the given object id took to respawn, or -1 if no respawn was seen yet.
+	 */
+	public int getExpectedRespawnTicks(int id)
+	{
+		RespawnTime time = respawnTimes.get(id);
+		return time == null ? -1 : time.getExpectedTicks();
+	}
+
+	public int getSamples(int id)
+	{
+		RespawnTime time = respawnTimes.get(id);
+		return time == null ? 0 : time.samples;
+	}
+
+	/**
+	 * Average ticks the given object id stayed before it was depleted, or -1 if no depletion after a spawn was seen yet.
+	 */
+	public int getExpectedLifetimeTicks(int id)
+	{
+		RespawnTime time = lifetimes.get(id);
+		return time == null ? -1 : time.getExpectedTicks();
+	}
+
+	/**
+	 * Expected ticks until the object is depleted, 0 if overdue, or -1 if its spawn wasn't seen or
+	 * the id's lifetime wasn't learned yet.
+	 */
+	public int getRemainingLifetimeTicks(GameObject object)
+	{
+		Integer spawnTick = present.get(key(object.getId(), object.getWorldLocation()));
+		int expected = getExpectedLifetimeTicks(object.getId());
+		if (spawnTick == null || expected < 0)
+		{
+			return -1;
+		}
+		return Math.max(0, expected - (client.getTickCount() - spawnTick));
+	}
+
+	/**
+	 * Expected ticks until the object comes back on the given tile, 0 if overdue, or -1 if the tile isn't
+	 * known to be depleted or the id's respawn time wasn't learned yet.
+	 */
+	public int getTicksUntilRespawn(WorldPoint tile, int id)
+	{
+		Integer despawnTick = depleted.get(key(id, tile));
+		if (despawnTick == null)
+		{
+			return -1;
+		}
+		return remainingTicks(id, despawnTick);
+	}
+
+	/**
+	 * Returns the depleted tile within the radius expected to respawn first, or null if there is none with
+	 * a learned respawn time.
+	 */
+	public Respawn getNextRespawn(WorldPoint center, int radius, Collection<Integer> ids)
+	{
+		expire();
+		Respawn next = null;
+		for (Map.Entry<Long, Integer> entry : depleted.entrySet())
+		{
+			int id = id(entry.getKey());
+			if (!ids.contains(id))
+			{
+				continue;
+			}
+			int remaining = remainingTicks(id, entry.getValue());
+			if (remaining < 0 || (next != null && remaining >= next.getTicksRemaining()))
+			{
+				continue;
+			}
+			WorldPoint tile = tile(entry.getKey());
+			if (tile.distanceTo(center) <= radius)
+			{
+				next = new Respawn(tile, id, remaining);
+			}
+		}
+		return next;
+	}
+
+	void despawned(GameObject object)
+	{
+		if (!trackedIds.contains(object.getId()))
+		{
+			return;
+		}
+		long key = key(object.getId(), object.getWorldLocation());
+		if (client.getGameState() != GameState.LOGGED_IN)
+		{
+			present.remove(key);
+			return;
+		}
+		depleted.put(key, client.getTickCount());
+		Integer spawnTick = present.remove(key);
+		if (spawnTick != null)
+		{
+			lifetimes.computeIfAbsent(object.getId(), id -> new RespawnTime()).add(client.getTickCount() - spawnTick);
+		}
+	}
+
+	void spawned(GameObject object)
+	{
+		if (!trackedIds.contains(object.getId()))
+		{
+			return;
+		}
+		long key = key(object.getId(), object.getWorldLocation());
+		Integer despawnTick = depleted.remove(key);
+		if (client.getGameState() != GameState.LOGGED_IN)
+		{
+			present.remove(key);
+			return;
+		}
+		present.put(key, client.getTickCount());
+		if (despawnTick == null)
+		{
+			return;
+		}
+		respawnTimes.computeIfAbsent(object.getId(), id -> new RespawnTime()).add(client.getTickCount() - despawnTick);
+	}
+
+	//Called on logout, depletions seen before are of no use on the next login
+	void reset()
+	{
+		depleted.clear();
+		present.clear();
+	}
+
+	private int remainingTicks(int id, int despawnTick)
+	{
+		int expected = getExpectedRespawnTicks(id);
+		if (expected < 0)
+		{
+			return -1;
+		}
+		return Math.max(0, expected - (client.getTickCount() - despawnTick));
+	}
+
+	private void expire()
+	{
+		int tick = client.getTickCount();
+		Iterator<Map.Entry<Long, Integer>> it = depleted.entrySet().iterator();
+		while (it.hasNext())
+		{
+			Map.Entry<Long, Integer> entry = it.next();
+			int expected = getExpectedRespawnTicks(id(entry.getKey()));
+			int limit = expected < 0 ? UNKNOWN_EXPIRY_TICKS : expected * EXPIRY_FACTOR;
+			if (tick - entry.getValue() > limit)
+			{
+				it.remove();
+			}
+		}
+	}
+
+	private static long key(int id, WorldPoint tile)
+	{
+		int packed = (tile.getPlane() << 28) | (tile.getX() << 14) | tile.getY();
+		return ((long) id << 32) | (packed & 0xFFFFFFFFL);
+	}
+
+	private static int id(long key)
+	{
+		return (int) (key >>> 32);
+	}
+
+	private static WorldPoint tile(long key)
+	{
+		int packed = (int) key;
+		return new WorldPoint((packed >> 14) & 0x3FFF, packed & 0x3FFF, packed >>> 28);
+	}
+
+	@Value
+	public static class Respawn
+	{
+		WorldPoint location;
+		int id;
+		int ticksRemaining;
+	}
+
+	private static class RespawnTime
+	{
+		private int samples;
+		private long totalTicks;
+
+		private void add(int ticks)
+		{
+			samples++;
+			totalTicks += ticks;
+		}
+
+		private int getExpectedTicks()
+		{
+			return (int) (totalTicks / samples);
+		}
+	}
+}
@@ -0,0 +1,302 @@
+package net.runelite.client.plugins.botutils;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import javax.inject.Inject;
+import javax.inject.Singleton;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import net.runelite.api.Skill;
+import net.runelite.client.RuneLite;
+
+/**
+ * Records plugin session metrics to a binary log per session. Recording only queues the value, a background
+ * thread owns the files and writes the queue out every second, so the client thread never does I/O.
+ * Logs are written to .runelite/botutils/sessions and can be summarised with {@link SessionSummary}.
+ * <pre>
+ * session = utils.getSessionRecorder().start("Power Fighter");
+ * session.count("kills");
+ * session.close();
+ * </pre>
+ * Safe to use from any thread.
+ */
+@Slf4j
+@Singleton
+public class SessionRecorder
+{
+	static final int LOG_MAGIC = 0x4F53424D;
+	static final int LOG_VERSION = 1;
+	static final byte RECORD_NAME = 0;
+	static final byte RECORD_END = -1;
+	private static final File SESSION_DIR = new File(new File(RuneLite.RUNELITE_DIR, "botutils"), "sessions");
+	private static final long FLUSH_INTERVAL_MILLIS = 1000;
+
+	private final File directory;
+	private final Queue<Entry> queue = new ConcurrentLinkedQueue<>();
+	private final List<Session> sessions = new CopyOnWriteArrayList<>();
+	private final ScheduledExecutorService writer = Executors.newSingleThreadScheduledExecutor(
+		new ThreadFactoryBuilder().setNameFormat("botutils-sessions").setDaemon(true).build());
+
+	@Inject
+	SessionRecorder()
+	{
+		this(SESSION_DIR);
+	}
+
+	public SessionRecorder(File directory)
+	{
+		this.directory = directory;
+		writer.scheduleWithFixedDelay(this::drain, FLUSH_INTERVAL_MILLIS, FLUSH_INTERVAL_MILLIS, TimeUnit.MILLISECONDS);
+	}
+
+	public Session start(String plugin)
+	{
+		Session session = new Session(plugin);
+		sessions.add(session);
+		return session;
+	}
+
+	public List<Session> getSessions()
+	{
+		return List.copyOf(sessions);
+	}
+
+	//Called by BotUtils, xp is credited to every open session
+	void recordXp(Skill skill, int gained)
+	{
+		for (Session session : sessions)
+		{
+			session.count("xp." + skill.getName(), gained);
+		}
+	}
+
+	/**
+	 * Closes every open session and waits up to the timeout for the writer to finish.
+	 */
+	public void closeAll(long timeout, TimeUnit unit)
+	{
+		sessions.forEach(Session::close);
+		try
+		{
+			writer.submit(this::drain).get(timeout, unit);
+		}
+		catch (InterruptedException e)
+		{
+			Thread.currentThread().interrupt();
+		}
+		catch (ExecutionException | TimeoutException e)
+		{
+			log.warn("Session logs not fully written", e);
+		}
+	}
+
+	private void drain()
+	{
+		Entry entry;
+		while ((entry = queue.poll()) != null)
+		{
+			entry.session.write(entry);
+		}
+		for (Session session : sessions)
+		{
+			session.flush();
+		}
+	}
+
+	public class Session
+	{
+		@Getter
+		private final String plugin;
+		//Moves to a numbered name if another session already started in the same millisecond
+		@Getter
+		private volatile File file;
+		private final long startMillis = System.currentTimeMillis();
+		private volatile boolean closed;
+
+		//Writer thread only
+		private final Map<String, Integer> nameIds = new HashMap<>();
+		private DataOutputStream out;
+		private boolean finished;
+
+		private Session(String plugin)
+		{
+			this.plugin = plugin;
+			this.file = file(0);
+		}
+
+		public void count(String name)
+		{
+			record(MetricKind.COUNTER, name, 1);
+		}
+
+		public void count(String name, long amount)
+		{
+			record(MetricKind.COUNTER, name, amount);
+		}
+
+		public void gauge(String name, long value)
+		{
+			record(MetricKind.GAUGE, name, value);
+		}
+
+		public void duration(String name, long millis)
+		{
+			record(MetricKind.DURATION, name, millis);
+		}
+
+		public void record(MetricKind kind, String name, long value)
+		{
+			if (!closed)
+			{
+				queue.add(new Entry(this, kind, name, System.currentTimeMillis(), value));
+			}
+		}
+
+		/**
+		 * Stops recording, values queued before this are still written.
+		 */
+		public void close()
+		{
+			if (closed)
+			{
+				return;
+			}
+			closed = true;
+			queue.add(new Entry(this, null, null, System.currentTimeMillis(), 0));
+		}
+
+		public boolean isClosed()
+		{
+			return closed;
+		}
+
+		private void write(Entry entry)
+		{
+			if (finished)
+			{
+				return;
+			}
+			try
+			{
+				if (out == null)
+				{
+					open();
+				}
+				if (entry.kind == null)
+				{
+					out.writeByte(RECORD_END);
+					out.writeShort(0);
+					out.writeInt((int) (entry.millis - startMillis));
+					out.close();
+					sessions.remove(this);
+					finished = true;
+					return;
+				}
+				Integer id = nameIds.get(entry.name);
+				if (id == null)
+				{
+					id = nameIds.size();
+					nameIds.put(entry.name, id);
+					out.writeByte(RECORD_NAME);
+					out.writeShort(id);
+					out.writeUTF(entry.name);
+				}
+				out.writeByte(entry.kind.record);
+				out.writeShort(id);
+				out.writeInt((int) (entry.millis - startMillis));
+				out.writeLong(entry.value);
+			}
+			catch (IOException e)
+			{
+				log.warn("Unable to write session log {}", file, e);
+				finished = true;
+				sessions.remove(this);
+			}
+		}
+
+		private void open() throws IOException
+		{
+			if (!directory.exists() && !directory.mkdirs())
+			{
+				throw new IOException("Unable to create " + directory);
+			}
+			for (int attempt = 1; out == null; attempt++)
+			{
+				try
+				{
+					out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(file.toPath(), StandardOpenOption.CREATE_NEW)));
+				}
+				catch (FileAlreadyExistsException e)
+				{
+					file = file(attempt);
+				}
+			}
+			out.writeInt(LOG_MAGIC);
+			out.writeInt(LOG_VERSION);
+			out.writeUTF(plugin);
+			out.writeLong(startMillis);
+		}
+
+		private File file(int attempt)
+		{
+			String timestamp = new SimpleDateFormat("yyyyMMdd-HHmmss-SSS").format(new Date(startMillis));
+			String suffix = attempt == 0 ? "" : "-" + attempt;
+			return new File(directory, plugin.replaceAll("[^A-Za-z0-9]", "") + "-" + timestamp + suffix + ".bin");
+		}
+
+		private void flush()
+		{
+			if (out == null || finished)
+			{
+				return;
+			}
+			try
+			{
+				out.flush();
+			}
+			catch (IOException e)
+			{
+				log.warn("Unable to write session log {}", file, e);
+				finished = true;
+				sessions.remove(this);
+			}
+		}
+	}
+
+	private static class Entry
+	{
+		private final Session session;
+		private final MetricKind kind;
+		private final String name;
+		private final long millis;
+		private final long value;
+
+		private Entry(Session session, MetricKind kind, String name, long millis, long value)
+		{
+			this.session = session;
+			this.kind = kind;
+			this.name = name;
+			this.millis = millis;
+			this.value = value;
+		}
+	}
+}
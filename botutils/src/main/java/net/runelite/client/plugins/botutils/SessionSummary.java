@@ -0,0 +1,203 @@
+package net.runelite.client.plugins.botutils;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import lombok.AccessLevel;
+import lombok.Getter;
+
+/**
+ * Reads a session log written by {@link SessionRecorder} and reduces it to totals, rates and percentiles.
+ * Can be run on its own against one or more logs or session directories:
+ * <pre>
+ * java -cp botutils.jar net.runelite.client.plugins.botutils.SessionSummary ~/.runelite/botutils/sessions
+ * </pre>
+ */
+@Getter
+public class SessionSummary
+{
+	private final String plugin;
+	private final long startMillis;
+	private long durationMillis;
+	private final Map<String, Metric> metrics = new LinkedHashMap<>();
+
+	private SessionSummary(String plugin, long startMillis)
+	{
+		this.plugin = plugin;
+		this.startMillis = startMillis;
+	}
+
+	/**
+	 * Reads a session log, a log cut short by a crash is summarised up to its last complete record.
+	 */
+	public static SessionSummary read(File file) throws IOException
+	{
+		try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file))))
+		{
+			if (in.readInt() != SessionRecorder.LOG_MAGIC || in.readInt() != SessionRecorder.LOG_VERSION)
+			{
+				throw new IOException("Not a session log: " + file);
+			}
+			SessionSummary summary = new SessionSummary(in.readUTF(), in.readLong());
+			List<String> names = new ArrayList<>();
+			while (true)
+			{
+				byte record;
+				try
+				{
+					record = in.readByte();
+				}
+				catch (EOFException e)
+				{
+					break;
+				}
+				try
+				{
+					int id = in.readUnsignedShort();
+					if (record == SessionRecorder.RECORD_NAME)
+					{
+						names.add(id, in.readUTF());
+						continue;
+					}
+					if (record == SessionRecorder.RECORD_END)
+					{
+						summary.durationMillis = Math.max(summary.durationMillis, in.readInt());
+						break;
+					}
+					MetricKind kind = MetricKind.fromRecord(record);
+					int offset = in.readInt();
+					long value = in.readLong();
+					summary.metrics.computeIfAbsent(names.get(id), name -> new Metric(name, kind)).add(value);
+					summary.durationMillis = Math.max(summary.durationMillis, offset);
+				}
+				catch (EOFException e)
+				{
+					break;
+				}
+			}
+			return summary;
+		}
+	}
+
+	public static void main(String[] args) throws IOException
+	{
+		if (args.length == 0)
+		{
+			System.err.println("Usage: SessionSummary <session log or directory>...");
+			System.exit(1);
+		}
+		for (String arg : args)
+		{
+			File file = new File(arg);
+			File[] files = file.isDirectory() ? file.listFiles((dir, name) -> name.endsWith(".bin")) : new File[]{file};
+			if (files == null)
+			{
+				continue;
+			}
+			Arrays.sort(files);
+			for (File log : files)
+			{
+				System.out.println(log.getName());
+				System.out.println(read(log));
+			}
+		}
+	}
+
+	public double perHour(long amount)
+	{
+		return durationMillis == 0 ? 0 : amount * 3_600_000.0 / durationMillis;
+	}
+
+	@Override
+	public String toString()
+	{
+		StringBuilder sb = new StringBuilder();
+		sb.append(plugin).append(", ").append(durationMillis / 60_000).append(" minutes\n");
+		for (Metric metric : metrics.values())
+		{
+			sb.append("  ").append(metric.name).append(": ");
+			switch (metric.kind)
+			{
+				case COUNTER:
+					sb.append(metric.total).append(String.format(" (%.1f/h)", perHour(metric.total)));
+					break;
+				case GAUGE:
+					sb.append("last ").append(metric.last).append(", min ").append(metric.min).append(", max ").append(metric.max);
+					break;
+				case DURATION:
+					sb.append(metric.count).append(" x, mean ").append(metric.getMean())
+						.append("ms, p50 ").append(metric.getPercentile(0.5))
+						.append("ms, p90 ").append(metric.getPercentile(0.9))
+						.append("ms, p99 ").append(metric.getPercentile(0.99))
+						.append("ms, max ").append(metric.max).append("ms");
+					break;
+			}
+			sb.append('\n');
+		}
+		return sb.toString();
+	}
+
+	@Getter
+	public static class Metric
+	{
+		private final String name;
+		private final MetricKind kind;
+		private int count;
+		private long total;
+		private long last;
+		private long min = Long.MAX_VALUE;
+		private long max = Long.MIN_VALUE;
+		@Getter(AccessLevel.NONE)
+		private long[] values = new long[16];
+		@Getter(AccessLevel.NONE)
+		private boolean sorted;
+
+		private Metric(String name, MetricKind kind)
+		{
+			this.name = name;
+			this.kind = kind;
+		}
+
+		private void add(long value)
+		{
+			if (count == values.length)
+			{
+				values = Arrays.copyOf(values, count * 2);
+			}
+			values[count++] = value;
+			total += value;
+			last = value;
+			min = Math.min(min, value);
+			max = Math.max(max, value);
+			sorted = false;
+		}
+
+		public long getMean()
+		{
+			return count == 0 ? 0 : total / count;
+		}
+
+		public long getPercentile(double percentile)
+		{
+			if (count == 0)
+			{
+				return 0;
+			}
+			if (!sorted)
+			{
+				Arrays.sort(values, 0, count);
+				sorted = true;
+			}
+			int index = (int) Math.ceil(percentile * count) - 1;
+			return values[Math.max(0, Math.min(index, count - 1))];
+		}
+	}
+}
@@ -0,0 +1,24 @@
+package net.runelite.client.plugins.botutils;
+
+/**
+ * Game state a {@link StateMachine} guard or an {@link EventGate} watch depends on. BotUtils marks these
+ * from its event subscribers, except {@link #CONFIG} which plugins invalidate on their own state machine.
+ */
+public enum StateInput
+{
+	//Re-evaluated every tick, for guards on timers, counters or anything without an event
+	TICK,
+	INVENTORY,
+	EQUIPMENT,
+	BANK,
+	OBJECTS,
+	NPCS,
+	STATS,
+	ANIMATION,
+	POSITION,
+	VARBITS,
+	WIDGETS,
+	CONFIG;
+
+	final int mask = 1 << ordinal();
+}
@@ -0,0 +1,340 @@
+package net.runelite.client.plugins.botutils;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Replaces a plugin's getState() if-chain with rules checked in the order they were added, the first rule
+ * whose guard passes picks the state and {@link #tick()} then runs that state's action.
+ * Each guard declares the {@link StateInput}s it reads and is only called again after one of them changed,
+ * otherwise its last result is reused. Registered machines read changes from the {@link EventGate}. The machine records time and ticks spent in each state and transition counts,
+ * and time spent in each state visit to a {@link SessionRecorder.Session} if one is set.
+ * Client thread only.
+ * <pre>
+ * stateMachine = StateMachine.builder(MyState.class)
+ * 	.when(TIMEOUT, () -&gt; timeout &gt; 0, StateInput.TICK)
+ * 	.when(DROP, utils::inventoryFull, StateInput.INVENTORY)
+ * 	.otherwise(FIND_OBJECT)
+ * 	.onTick(TIMEOUT, () -&gt; timeout--)
+ * 	.build();
+ * utils.registerStateMachine(stateMachine);
+ * </pre>
+ */
+@Slf4j
+public class StateMachine<S extends Enum<S>>
+{
+	private final Rule<S>[] rules;
+	private final S fallback;
+	private final Map<S, Runnable> tickActions;
+	private final Map<S, Runnable> enterActions;
+	private final long[] nanosInState;
+	private final int[] ticksInState;
+	private final int[][] transitions;
+	private final String[] dwellNames;
+
+	private EventGate.Watch watch;
+	private SessionRecorder.Session session;
+	private int pendingInputs;
+	private S state;
+	private long enteredAt;
+	private long evaluations;
+	private long skippedEvaluations;
+
+	private StateMachine(Builder<S> builder)
+	{
+		@SuppressWarnings("unchecked")
+		Rule<S>[] rules = builder.rules.toArray(new Rule[0]);
+		this.rules = rules;
+		this.fallback = builder.fallback;
+		this.tickActions = builder.tickActions;
+		this.enterActions = builder.enterActions;
+		int states = builder.type.getEnumConstants().length;
+		this.nanosInState = new long[states];
+		this.ticksInState = new int[states];
+		this.transitions = new int[states][states];
+		this.dwellNames = new String[states];
+		for (S s : builder.type.getEnumConstants())
+		{
+			dwellNames[s.ordinal()] = "state." + s.name();
+		}
+	}
+
+	public static <S extends Enum<S>> Builder<S> builder(Class<S> type)
+	{
+		return new Builder<>(type);
+	}
+
+	/**
+	 * Re-checks the guards whose inputs changed, moves to the resulting state and runs its tick action.
+	 */
+	public S tick()
+	{
+		pendingInputs |= StateInput.TICK.mask;
+		if (watch != null)
+		{
+			pendingInputs |= watch.pollMask();
+		}
+		S next = evaluate();
+		if (next != state)
+		{
+			transition(next);
+		}
+		if (state != null)
+		{
+			ticksInState[state.ordinal()]++;
+			Runnable action = tickActions.get(state);
+			if (action != null)
+			{
+				action.run();
+			}
+		}
+		return state;
+	}
+
+	public S getState()
+	{
+		return state;
+	}
+
+	void attach(EventGate eventGate)
+	{
+		watch = eventGate.watch(StateInput.values());
+	}
+
+	void detach()
+	{
+		watch = null;
+	}
+
+	//Records the duration of every state visit as state.NAME, null stops recording
+	public void setSession(SessionRecorder.Session session)
+	{
+		this.session = session;
+	}
+
+	public void invalidate(StateInput input)
+	{
+		pendingInputs |= input.mask;
+	}
+
+	public void invalidateAll()
+	{
+		for (Rule<S> rule : rules)
+		{
+			rule.dirty = true;
+		}
+	}
+
+	/**
+	 * Leaves the current state without counting a transition and forgets all cached guard results.
+	 * Statistics are kept.
+	 */
+	public void reset()
+	{
+		if (state != null)
+		{
+			leave(System.nanoTime());
+		}
+		state = null;
+		invalidateAll();
+	}
+
+	public long getTimeInState(S state, TimeUnit unit)
+	{
+		long nanos = nanosInState[state.ordinal()];
+		if (state == this.state)
+		{
+			nanos += System.nanoTime() - enteredAt;
+		}
+		return unit.convert(nanos, TimeUnit.NANOSECONDS);
+	}
+
+	public int getTicksInState(S state)
+	{
+		return ticksInState[state.ordinal()];
+	}
+
+	public int getTransitionCount(S from, S to)
+	{
+		return transitions[from.ordinal()][to.ordinal()];
+	}
+
+	public long getEvaluations()
+	{
+		return evaluations;
+	}
+
+	//Ticks where no guard had to be called again
+	public long getSkippedEvaluations()
+	{
+		return skippedEvaluations;
+	}
+
+	@Override
+	public String toString()
+	{
+		StringBuilder sb = new StringBuilder("state: ").append(state)
+			.append(", evaluations: ").append(evaluations)
+			.append(", skipped: ").append(skippedEvaluations);
+		S[] states = fallback.getDeclaringClass().getEnumConstants();
+		for (S s : states)
+		{
+			if (ticksInState[s.ordinal()] > 0)
+			{
+				sb.append(", ").append(s).append(": ")
+					.append(ticksInState[s.ordinal()]).append(" ticks/")
+					.append(getTimeInState(s, TimeUnit.MILLISECONDS)).append("ms");
+			}
+		}
+		return sb.toString();
+	}
+
+	private S evaluate()
+	{
+		int inputs = pendingInputs;
+		pendingInputs = 0;
+		for (Rule<S> rule : rules)
+		{
+			if ((rule.inputs & inputs) != 0)
+			{
+				rule.dirty = true;
+			}
+		}
+
+		boolean evaluated = false;
+		S next = fallback;
+		//rules after the first one that passes stay dirty until the chain reaches them again
+		for (Rule<S> rule : rules)
+		{
+			if (rule.dirty)
+			{
+				rule.passed = rule.guard.getAsBoolean();
+				rule.dirty = false;
+				evaluated = true;
+			}
+			if (rule.passed)
+			{
+				next = rule.target;
+				break;
+			}
+		}
+		if (evaluated)
+		{
+			evaluations++;
+		}
+		else
+		{
+			skippedEvaluations++;
+		}
+		return next;
+	}
+
+	private void transition(S next)
+	{
+		long now = System.nanoTime();
+		if (state != null)
+		{
+			leave(now);
+			transitions[state.ordinal()][next.ordinal()]++;
+		}
+		log.debug("State {} -> {}", state, next);
+		state = next;
+		enteredAt = now;
+		Runnable action = enterActions.get(next);
+		if (action != null)
+		{
+			action.run();
+		}
+	}
+
+	private void leave(long now)
+	{
+		long nanos = now - enteredAt;
+		nanosInState[state.ordinal()] += nanos;
+		if (session != null)
+		{
+			session.duration(dwellNames[state.ordinal()], TimeUnit.NANOSECONDS.toMillis(nanos));
+		}
+	}
+
+	private static class Rule<S>
+	{
+		private final S target;
+		private final BooleanSupplier guard;
+		private final int inputs;
+		private boolean dirty = true;
+		private boolean passed;
+
+		private Rule(S target, BooleanSupplier guard, int inputs)
+		{
+			this.target = target;
+			this.guard = guard;
+			this.inputs = inputs;
+		}
+	}
+
+	public static class Builder<S extends Enum<S>>
+	{
+		private final Class<S> type;
+		private final List<Rule<S>> rules = new ArrayList<>();
+		private final Map<S, Runnable> tickActions;
+		private final Map<S, Runnable> enterActions;
+		private S fallback;
+
+		private Builder(Class<S> type)
+		{
+			this.type = type;
+			this.tickActions = new EnumMap<>(type);
+			this.enterActions = new EnumMap<>(type);
+		}
+
+		/**
+		 * Adds a rule checked after every rule added before it.
+		 *
+		 * @param inputs what the guard reads, a guard without inputs is only ever called once
+		 */
+		public Builder<S> when(S state, BooleanSupplier guard, StateInput... inputs)
+		{
+			int mask = 0;
+			for (StateInput input : inputs)
+			{
+				mask |= input.mask;
+			}
+			rules.add(new Rule<>(state, guard, mask));
+			return this;
+		}
+
+		//State used when no guard passes
+		public Builder<S> otherwise(S state)
+		{
+			this.fallback = state;
+			return this;
+		}
+
+		public Builder<S> onTick(S state, Runnable action)
+		{
+			tickActions.put(state, action);
+			return this;
+		}
+
+		public Builder<S> onEnter(S state, Runnable action)
+		{
+			enterActions.put(state, action);
+			return this;
+		}
+
+		public StateMachine<S> build()
+		{
+			if (fallback == null)
+			{
+				throw new IllegalStateException("State machine needs an otherwise() state");
+			}
+			return new StateMachine<>(this);
+		}
+	}
+}
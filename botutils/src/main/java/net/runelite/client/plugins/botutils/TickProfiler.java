@@ -0,0 +1,223 @@
+package net.runelite.client.plugins.botutils;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import javax.inject.Inject;
+import javax.inject.Singleton;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import net.runelite.api.Client;
+
+/**
+ * Times plugin event handlers and BotUtils queries into {@link LatencyHistogram}s, one per named section.
+ * Sections are created once and kept in a field, timing a call is then two nanoTime reads:
+ * <pre>
+ * private final TickProfiler.Section gameTickSection = utils.getTickProfiler().section("Power Skiller", "onGameTick");
+ * ...
+ * long start = gameTickSection.start();
+ * try
+ * {
+ *     ...
+ * }
+ * finally
+ * {
+ *     gameTickSection.stop(start);
+ * }
+ * </pre>
+ * Time recorded on the client thread between two game ticks is summed into the tick total, the worst of which is kept.
+ * Sections started inside another section, e.g. a BotUtils query inside a plugin's onGameTick, only count once.
+ * Allocated bytes are counted per section when enabled and supported by the JVM.
+ */
+@Slf4j
+@Singleton
+public class TickProfiler
+{
+	@Inject
+	private Client client;
+
+	private final Map<String, Section> sections = new ConcurrentHashMap<>();
+	@Getter
+	private final LatencyHistogram tickHistogram = new LatencyHistogram();
+	private final com.sun.management.ThreadMXBean threadBean = allocationBean();
+
+	@Getter
+	private volatile boolean enabled = true;
+	@Getter
+	private volatile boolean allocationTracking;
+	private long currentTickNanos;
+	//Client thread sections currently running
+	private int depth;
+	@Getter
+	private volatile long worstTickNanos;
+	@Getter
+	private volatile int worstTick = -1;
+
+	public Section section(String owner, String name)
+	{
+		return sections.computeIfAbsent(owner + "." + name, key -> new Section(owner, name));
+	}
+
+	/**
+	 * Returns all sections, slowest p99 first.
+	 */
+	public List<Section> getSections()
+	{
+		List<Section> list = new ArrayList<>(sections.values());
+		list.sort(Comparator.comparingLong((Section s) -> s.getHistogram().getPercentileNanos(0.99)).reversed());
+		return list;
+	}
+
+	public void setEnabled(boolean enabled)
+	{
+		this.enabled = enabled;
+	}
+
+	public void setAllocationTracking(boolean allocationTracking)
+	{
+		this.allocationTracking = allocationTracking && isAllocationTrackingSupported();
+		if (this.allocationTracking && !threadBean.isThreadAllocatedMemoryEnabled())
+		{
+			threadBean.setThreadAllocatedMemoryEnabled(true);
+		}
+	}
+
+	public boolean isAllocationTrackingSupported()
+	{
+		return threadBean != null && threadBean.isThreadAllocatedMemorySupported();
+	}
+
+	public void reset()
+	{
+		sections.values().forEach(Section::reset);
+		tickHistogram.reset();
+		currentTickNanos = 0;
+		worstTickNanos = 0;
+		worstTick = -1;
+	}
+
+	//Called by BotUtils at the start of each game tick, closes the previous tick
+	void endTick()
+	{
+		if (!enabled)
+		{
+			return;
+		}
+		long tickNanos = currentTickNanos;
+		currentTickNanos = 0;
+		if (depth != 0)
+		{
+			//A section was started without being stopped, the sections after it weren't counted in this tick
+			log.warn("Unbalanced profiler sections at the end of tick {}, depth {}", client.getTickCount() - 1, depth);
+			depth = 0;
+		}
+		tickHistogram.record(tickNanos);
+		if (tickNanos > worstTickNanos)
+		{
+			worstTickNanos = tickNanos;
+			worstTick = client.getTickCount() - 1;
+		}
+	}
+
+	private long allocatedBytes()
+	{
+		return threadBean.getThreadAllocatedBytes(Thread.currentThread().getId());
+	}
+
+	private static com.sun.management.ThreadMXBean allocationBean()
+	{
+		try
+		{
+			java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+			return (bean instanceof com.sun.management.ThreadMXBean) ? (com.sun.management.ThreadMXBean) bean : null;
+		}
+		catch (LinkageError e)
+		{
+			return null;
+		}
+	}
+
+	@Getter
+	public class Section
+	{
+		private final String owner;
+		private final String name;
+		private final LatencyHistogram histogram = new LatencyHistogram();
+		private final LongAdder allocated = new LongAdder();
+		@Getter(lombok.AccessLevel.NONE)
+		private final ThreadLocal<long[]> allocationStart = ThreadLocal.withInitial(() -> new long[1]);
+
+		private Section(String owner, String name)
+		{
+			this.owner = owner;
+			this.name = name;
+		}
+
+		/**
+		 * Returns the value to pass to {@link #stop(long)}, or 0 while the profiler is disabled.
+		 */
+		public long start()
+		{
+			if (!enabled)
+			{
+				return 0;
+			}
+			if (allocationTracking)
+			{
+				allocationStart.get()[0] = allocatedBytes();
+			}
+			if (client.isClientThread())
+			{
+				depth++;
+			}
+			return System.nanoTime();
+		}
+
+		public void stop(long start)
+		{
+			if (start == 0)
+			{
+				return;
+			}
+			long nanos = System.nanoTime() - start;
+			histogram.record(nanos);
+			if (allocationTracking)
+			{
+				allocated.add(allocatedBytes() - allocationStart.get()[0]);
+			}
+			if (client.isClientThread() && --depth <= 0)
+			{
+				depth = 0;
+				currentTickNanos += nanos;
+			}
+		}
+
+		public long getAllocatedBytes()
+		{
+			return allocated.sum();
+		}
+
+		public long getAllocatedBytesPerCall()
+		{
+			long calls = histogram.getCount();
+			return calls == 0 ? 0 : allocated.sum() / calls;
+		}
+
+		private void reset()
+		{
+			histogram.reset();
+			allocated.reset();
+		}
+
+		@Override
+		public String toString()
+		{
+			return String.format("%s.%s: calls %d, p50 %dus, p99 %dus, max %dus", owner, name, histogram.getCount(),
+				histogram.getPercentileNanos(0.5) / 1000, histogram.getPercentileNanos(0.99) / 1000, histogram.getMaxNanos() / 1000);
+		}
+	}
+}
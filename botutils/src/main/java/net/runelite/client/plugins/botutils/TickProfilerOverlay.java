@@ -0,0 +1,86 @@
+package net.runelite.client.plugins.botutils;
+
+import java.awt.Dimension;
+import java.awt.Graphics2D;
+import java.awt.Rectangle;
+import java.util.List;
+import javax.inject.Inject;
+import javax.inject.Singleton;
+import static net.runelite.api.MenuOpcode.RUNELITE_OVERLAY_CONFIG;
+import static net.runelite.client.ui.overlay.OverlayManager.OPTION_CONFIGURE;
+import net.runelite.client.ui.overlay.OverlayMenuEntry;
+import net.runelite.client.ui.overlay.OverlayPanel;
+import net.runelite.client.ui.overlay.OverlayPosition;
+import net.runelite.client.ui.overlay.components.TitleComponent;
+import net.runelite.client.ui.overlay.components.table.TableAlignment;
+import net.runelite.client.ui.overlay.components.table.TableComponent;
+import net.runelite.client.util.ColorUtil;
+
+@Singleton
+class TickProfilerOverlay extends OverlayPanel
+{
+	private final TickProfiler profiler;
+	private final BotUtilsConfig config;
+
+	@Inject
+	private TickProfilerOverlay(final BotUtils plugin, final TickProfiler profiler, final BotUtilsConfig config)
+	{
+		super(plugin);
+		setPosition(OverlayPosition.TOP_LEFT);
+		this.profiler = profiler;
+		this.config = config;
+		getMenuEntries().add(new OverlayMenuEntry(RUNELITE_OVERLAY_CONFIG, OPTION_CONFIGURE, "Tick profiler overlay"));
+	}
+
+	@Override
+	public Dimension render(Graphics2D graphics)
+	{
+		if (!config.profilerOverlay())
+		{
+			return null;
+		}
+		TableComponent tableComponent = new TableComponent();
+		tableComponent.setColumnAlignments(TableAlignment.LEFT, TableAlignment.RIGHT, TableAlignment.RIGHT);
+		tableComponent.addRow("Section", "p50", "p99");
+
+		List<TickProfiler.Section> sections = profiler.getSections();
+		for (int i = 0; i < Math.min(config.profilerRows(), sections.size()); i++)
+		{
+			TickProfiler.Section section = sections.get(i);
+			LatencyHistogram histogram = section.getHistogram();
+			String name = section.getOwner() + "." + section.getName();
+			if (profiler.isAllocationTracking())
+			{
+				name += " " + section.getAllocatedBytesPerCall() + "B";
+			}
+			tableComponent.addRow(name, micros(histogram.getPercentileNanos(0.5)), micros(histogram.getPercentileNanos(0.99)));
+		}
+
+		TableComponent tableTickComponent = new TableComponent();
+		tableTickComponent.setColumnAlignments(TableAlignment.LEFT, TableAlignment.RIGHT);
+		LatencyHistogram ticks = profiler.getTickHistogram();
+		tableTickComponent.addRow("Tick p50:", micros(ticks.getPercentileNanos(0.5)));
+		tableTickComponent.addRow("Tick p99:", micros(ticks.getPercentileNanos(0.99)));
+		tableTickComponent.addRow("Worst tick:", micros(profiler.getWorstTickNanos()) + " (#" + profiler.getWorstTick() + ")");
+
+		panelComponent.setBackgroundColor(ColorUtil.fromHex("#121212")); //Material Dark default
+		panelComponent.setPreferredSize(new Dimension(270, 200));
+		panelComponent.setBorder(new Rectangle(5, 5, 5, 5));
+		panelComponent.getChildren().add(TitleComponent.builder()
+			.text("Tick Profiler")
+			.color(ColorUtil.fromHex("#40C4FF"))
+			.build());
+		panelComponent.getChildren().add(tableComponent);
+		panelComponent.getChildren().add(TitleComponent.builder()
+			.text("Client thread")
+			.color(ColorUtil.fromHex("#F8BBD0"))
+			.build());
+		panelComponent.getChildren().add(tableTickComponent);
+		return super.render(graphics);
+	}
+
+	private static String micros(long nanos)
+	{
+		return nanos / 1000 + "us";
+	}
+}
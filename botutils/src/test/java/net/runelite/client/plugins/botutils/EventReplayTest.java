@@ -0,0 +1,348 @@
+package net.runelite.client.plugins.botutils;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import net.runelite.api.ChatMessageType;
+import net.runelite.api.Client;
+import net.runelite.api.GameObject;
+import net.runelite.api.GameState;
+import net.runelite.api.InventoryID;
+import net.runelite.api.Item;
+import net.runelite.api.ItemContainer;
+import net.runelite.api.MenuEntry;
+import net.runelite.api.NPC;
+import net.runelite.api.Player;
+import net.runelite.api.Skill;
+import net.runelite.api.TileItem;
+import net.runelite.api.coords.WorldPoint;
+import net.runelite.api.events.ChatMessage;
+import net.runelite.api.events.GameObjectSpawned;
+import net.runelite.api.events.GameTick;
+import net.runelite.api.events.ItemContainerChanged;
+import net.runelite.api.events.ItemDespawned;
+import net.runelite.api.events.ItemSpawned;
+import net.runelite.api.events.MenuOptionClicked;
+import net.runelite.api.events.NpcDespawned;
+import net.runelite.api.events.NpcSpawned;
+import net.runelite.api.events.StatChanged;
+import net.runelite.client.eventbus.EventBus;
+import net.runelite.client.eventbus.Subscribe;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class EventReplayTest
+{
+	private static final WorldPoint START = new WorldPoint(3200, 3200, 0);
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	@Test
+	public void testRecordingDrivesPluginThroughStubClient() throws Exception
+	{
+		EventRecorder recorder = new EventRecorder(folder.getRoot());
+		File file = recorder.start();
+		recorder.gameState(GameState.LOGGED_IN);
+		recorder.npc(npc(5, 3106, START.dx(2)), true);
+		recorder.gameObject(gameObject(1276, START.dy(3)), true);
+		recorder.item(tileItem(526, 1), START.dx(1), true);
+		recorder.container(InventoryID.INVENTORY.getId(), container(new Item(1351, 1), new Item(1511, 3)));
+		recorder.stat(new StatChanged(Skill.WOODCUTTING, 1154, 10, 11));
+		recorder.varbit(173, 1);
+		recorder.tick(100, START, -1);
+		recorder.menu(new MenuOptionClicked("Chop down", "<col=ffff>Tree", 1276, 3, 50, 55, false));
+		recorder.npc(npc(5, 3106, START.dx(2)), false);
+		recorder.item(tileItem(526, 1), START.dx(1), false);
+		recorder.chat(chat("You get some logs."));
+		recorder.tick(101, START.dx(1), 879);
+		recorder.stop().get(5, TimeUnit.SECONDS);
+		assertFalse(recorder.isRecording());
+
+		EventReplay replay = EventReplay.load(file);
+		ReplayScene scene = new ReplayScene();
+		StubClient stubClient = new StubClient(scene);
+		TickReader plugin = new TickReader(stubClient.getClient());
+		SceneEvents events = new SceneEvents();
+		EventBus eventBus = new EventBus();
+		eventBus.register(plugin);
+		eventBus.register(events);
+		GameClock clock = new GameClock();
+
+		LatencyHistogram ticks = replay.replay(eventBus, stubClient, clock);
+
+		assertEquals(2, ticks.getCount());
+		assertEquals(List.of(100, 101), plugin.tickCounts);
+		assertEquals(List.of(START, START.dx(1)), plugin.locations);
+		assertEquals(List.of(-1, 879), plugin.animations);
+		assertEquals(List.of(1, 0), plugin.npcCounts);
+		assertEquals(List.of(3106), plugin.npcIds);
+		assertEquals(List.of(4, 4), plugin.inventoryItems);
+		assertEquals(List.of("You get some logs."), plugin.messages);
+		assertEquals(1154, plugin.xp);
+		assertEquals(11, stubClient.getClient().getBoostedSkillLevel(Skill.WOODCUTTING));
+		assertEquals(10, stubClient.getClient().getRealSkillLevel(Skill.WOODCUTTING));
+		assertEquals(1, stubClient.getClient().getVarpValue(173));
+		assertEquals(GameState.LOGGED_IN, stubClient.getClient().getGameState());
+
+		assertEquals(List.of(new ReplayScene.Entity(1276, 1, START.dy(3))), scene.getObjects());
+		assertTrue(scene.getGroundItems().isEmpty());
+		List<MenuEntry> clicks = scene.getRecordedClicks();
+		assertEquals(1, clicks.size());
+		assertEquals("Chop down", clicks.get(0).getOption());
+		assertEquals("<col=ffff>Tree", clicks.get(0).getTarget());
+		assertEquals(1276, clicks.get(0).getIdentifier());
+		assertEquals(3, clicks.get(0).getOpcode());
+		assertEquals(50, clicks.get(0).getParam0());
+		assertEquals(55, clicks.get(0).getParam1());
+
+		//Spawns, despawns, containers and clicks are posted too, with the objects the client hands out
+		assertEquals(1, events.npcSpawned.size());
+		assertEquals(3106, events.npcSpawned.get(0).getNpc().getId());
+		assertEquals(1, events.npcDespawned.size());
+		assertSame(events.npcSpawned.get(0).getNpc(), events.npcDespawned.get(0).getNpc());
+		assertEquals(1, events.objectSpawned.size());
+		assertEquals(1276, events.objectSpawned.get(0).getGameObject().getId());
+		assertSame(stubClient.getGameObject(scene.getObjects().get(0)), events.objectSpawned.get(0).getGameObject());
+		assertEquals(START.dy(3), events.objectSpawned.get(0).getTile().getWorldLocation());
+		assertEquals(1, events.itemSpawned.size());
+		assertEquals(526, events.itemSpawned.get(0).getItem().getId());
+		assertEquals(1, events.itemDespawned.size());
+		assertSame(events.itemSpawned.get(0).getItem(), events.itemDespawned.get(0).getItem());
+		assertEquals(START.dx(1), events.itemDespawned.get(0).getTile().getWorldLocation());
+		assertEquals(1, events.containers.size());
+		assertEquals(InventoryID.INVENTORY.getId(), events.containers.get(0).getContainerId());
+		assertEquals(2, events.containers.get(0).getItemContainer().getItems().length);
+		assertEquals(1, events.clicks.size());
+		assertEquals("Chop down", events.clicks.get(0).getOption());
+		assertEquals(1276, events.clicks.get(0).getIdentifier());
+	}
+
+	@Test
+	public void testRecordingsStartedTogetherGetTheirOwnFiles() throws Exception
+	{
+		EventRecorder first = new EventRecorder(folder.getRoot());
+		EventRecorder second = new EventRecorder(folder.getRoot());
+		File firstFile = first.start();
+		File secondFile = second.start();
+		first.tick(1, START, -1);
+		second.tick(2, START, -1);
+		first.stop().get(5, TimeUnit.SECONDS);
+		second.stop().get(5, TimeUnit.SECONDS);
+
+		assertNotEquals(firstFile, secondFile);
+		ReplayScene firstScene = new ReplayScene();
+		EventReplay.load(firstFile).replay(new EventBus(), new StubClient(firstScene));
+		ReplayScene secondScene = new ReplayScene();
+		EventReplay.load(secondFile).replay(new EventBus(), new StubClient(secondScene));
+		assertEquals(1, firstScene.getTickCount());
+		assertEquals(2, secondScene.getTickCount());
+	}
+
+	@Test
+	public void testReplayRunsClockOnRecordedTime() throws Exception
+	{
+		EventRecorder recorder = new EventRecorder(folder.getRoot());
+		File file = recorder.start();
+		recorder.tick(1, START, -1);
+		recorder.tick(2, START, -1);
+		recorder.tick(3, START, -1);
+		recorder.stop().get(5, TimeUnit.SECONDS);
+
+		EventReplay replay = EventReplay.load(file);
+		GameClock clock = new GameClock();
+		List<Long> times = new ArrayList<>();
+		EventBus eventBus = new EventBus();
+		eventBus.register(new Object()
+		{
+			@Subscribe
+			private void onGameTick(GameTick event)
+			{
+				times.add(clock.millis());
+			}
+		});
+		replay.replay(eventBus, new StubClient(new ReplayScene()), clock);
+
+		long start = replay.getRecordedAt();
+		assertEquals(List.of(start, start + GameClock.TICK_MILLIS, start + 2 * GameClock.TICK_MILLIS), times);
+		//The clock is shared by every plugin, so it's handed back to system time
+		assertFalse(clock.isVirtual());
+	}
+
+	@Test
+	public void testTruncatedRecordingReplaysCompleteRecords() throws Exception
+	{
+		EventRecorder recorder = new EventRecorder(folder.getRoot());
+		File file = recorder.start();
+		recorder.tick(1, START, -1);
+		recorder.tick(2, START, -1);
+		recorder.stop().get(5, TimeUnit.SECONDS);
+		//Cut the last record short, as a crash mid-write would
+		byte[] bytes = Files.readAllBytes(file.toPath());
+		Files.write(file.toPath(), Arrays.copyOf(bytes, bytes.length - 3));
+
+		ReplayScene scene = new ReplayScene();
+		LatencyHistogram ticks = EventReplay.load(file).replay(new EventBus(), new StubClient(scene));
+
+		assertEquals(1, ticks.getCount());
+		assertEquals(1, scene.getTickCount());
+	}
+
+	@Test
+	public void testStubClientWithoutPlayer()
+	{
+		Client client = new StubClient(new ReplayScene()).getClient();
+
+		assertNull(client.getLocalPlayer());
+		assertNull(client.getItemContainer(InventoryID.BANK));
+		assertTrue(client.getNpcs().isEmpty());
+	}
+
+	private static NPC npc(int index, int id, WorldPoint location)
+	{
+		return StubClient.stub(NPC.class, Map.of(
+			"getIndex", args -> index,
+			"getId", args -> id,
+			"getWorldLocation", args -> location));
+	}
+
+	private static GameObject gameObject(int id, WorldPoint location)
+	{
+		return StubClient.stub(GameObject.class, Map.of(
+			"getId", args -> id,
+			"getWorldLocation", args -> location));
+	}
+
+	private static TileItem tileItem(int id, int quantity)
+	{
+		return StubClient.stub(TileItem.class, Map.of(
+			"getId", args -> id,
+			"getQuantity", args -> quantity));
+	}
+
+	private static ItemContainer container(Item... items)
+	{
+		return StubClient.stub(ItemContainer.class, Map.of("getItems", args -> items));
+	}
+
+	private static ChatMessage chat(String message)
+	{
+		ChatMessage event = new ChatMessage();
+		event.setType(ChatMessageType.GAMEMESSAGE);
+		event.setName("");
+		event.setMessage(message);
+		return event;
+	}
+
+	private static class SceneEvents
+	{
+		private final List<NpcSpawned> npcSpawned = new ArrayList<>();
+		private final List<NpcDespawned> npcDespawned = new ArrayList<>();
+		private final List<GameObjectSpawned> objectSpawned = new ArrayList<>();
+		private final List<ItemSpawned> itemSpawned = new ArrayList<>();
+		private final List<ItemDespawned> itemDespawned = new ArrayList<>();
+		private final List<ItemContainerChanged> containers = new ArrayList<>();
+		private final List<MenuOptionClicked> clicks = new ArrayList<>();
+
+		@Subscribe
+		private void onNpcSpawned(NpcSpawned event)
+		{
+			npcSpawned.add(event);
+		}
+
+		@Subscribe
+		private void onNpcDespawned(NpcDespawned event)
+		{
+			npcDespawned.add(event);
+		}
+
+		@Subscribe
+		private void onGameObjectSpawned(GameObjectSpawned event)
+		{
+			objectSpawned.add(event);
+		}
+
+		@Subscribe
+		private void onItemSpawned(ItemSpawned event)
+		{
+			itemSpawned.add(event);
+		}
+
+		@Subscribe
+		private void onItemDespawned(ItemDespawned event)
+		{
+			itemDespawned.add(event);
+		}
+
+		@Subscribe
+		private void onItemContainerChanged(ItemContainerChanged event)
+		{
+			containers.add(event);
+		}
+
+		@Subscribe
+		private void onMenuOptionClicked(MenuOptionClicked event)
+		{
+			clicks.add(event);
+		}
+	}
+
+	//Reads the client on every tick the way plugins do
+	private static class TickReader
+	{
+		private final Client client;
+		private final List<Integer> tickCounts = new ArrayList<>();
+		private final List<WorldPoint> locations = new ArrayList<>();
+		private final List<Integer> animations = new ArrayList<>();
+		private final List<Integer> npcCounts = new ArrayList<>();
+		private final List<Integer> npcIds = new ArrayList<>();
+		private final List<Integer> inventoryItems = new ArrayList<>();
+		private final List<String> messages = new ArrayList<>();
+		private int xp;
+
+		private TickReader(Client client)
+		{
+			this.client = client;
+		}
+
+		@Subscribe
+		private void onGameTick(GameTick event)
+		{
+			Player player = client.getLocalPlayer();
+			tickCounts.add(client.getTickCount());
+			locations.add(player.getWorldLocation());
+			animations.add(player.getAnimation());
+			npcCounts.add(client.getNpcs().size());
+			client.getNpcs().forEach(npc -> npcIds.add(npc.getId()));
+			int count = 0;
+			for (Item item : client.getItemContainer(InventoryID.INVENTORY).getItems())
+			{
+				count += item.getQuantity();
+			}
+			inventoryItems.add(count);
+		}
+
+		@Subscribe
+		private void onStatChanged(StatChanged event)
+		{
+			xp = client.getSkillExperience(event.getSkill());
+		}
+
+		@Subscribe
+		private void onChatMessage(ChatMessage event)
+		{
+			messages.add(event.getMessage());
+		}
+	}
+}
@@ -0,0 +1,420 @@
+package net.runelite.client.plugins.botutils;
+
+import java.awt.event.MouseAdapter;
+import java.awt.event.MouseEvent;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import net.runelite.api.MenuEntry;
+import net.runelite.api.MenuOpcode;
+import net.runelite.api.coords.LocalPoint;
+import net.runelite.api.coords.WorldPoint;
+import net.runelite.api.events.MenuOptionClicked;
+import net.runelite.client.eventbus.EventBus;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.spy;
+
+//Entries and walk state are set from plugin and executor threads while the client thread clicks and others read them
+public class MenuHandoffTest
+{
+	private static final int SETTERS = 3;
+	private static final int ROUNDS = 100;
+	private static final int BURST = 50;
+	private static final long SETTLE_TIMEOUT_MILLIS = 5_000;
+	//Scene x of the walk that ends each round, clear of the burst walks
+	private static final int LAST_WALK_X = 1000;
+	private static final int WALKERS = 2;
+	private static final int WALK_ROUNDS = 500;
+	private static final int LOGS = 1511;
+	private static final int DROPPED = 10;
+	private static final WorldPoint START = new WorldPoint(3200, 3200, 0);
+	//Paths of different lengths, so reading one path's size and another's points goes out of bounds
+	private static final List<WorldPoint> EAST = line(1, 0, 20);
+	private static final List<WorldPoint> NORTH = line(0, 1, 5);
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	private final Map<String, AtomicInteger> invoked = new ConcurrentHashMap<>();
+	private final Map<String, AtomicInteger> walked = new ConcurrentHashMap<>();
+	private volatile Runnable duringAction = () ->
+	{
+	};
+	private Simulation simulation;
+	private EventBus eventBus;
+	private BotUtils utils;
+	//Written by walkTile on the clicking thread
+	private int selectedX;
+	private int selectedY;
+
+	@Before
+	public void before()
+	{
+		simulation = new Simulation(folder.getRoot(), 1);
+		utils = simulation.createInjector().getInstance(BotUtils.class);
+		//Walks queue a click, nothing needs to run it here
+		utils.executorService = mock(ExecutorService.class);
+		simulation.register(utils);
+		eventBus = simulation.getEventBus();
+		StubClient stubClient = simulation.getStubClient();
+		stubClient.answer("invokeMenuAction", args ->
+		{
+			invoked.computeIfAbsent((String) args[1], target -> new AtomicInteger()).incrementAndGet();
+			duringAction.run();
+			return null;
+		});
+		stubClient.answer("setSelectedSceneTileX", args ->
+		{
+			selectedX = (int) args[0];
+			return null;
+		});
+		stubClient.answer("setSelectedSceneTileY", args ->
+		{
+			selectedY = (int) args[0];
+			return null;
+		});
+		stubClient.answer("setViewportWalking", args ->
+		{
+			walked.computeIfAbsent(selectedX + "," + selectedY, tile -> new AtomicInteger()).incrementAndGet();
+			duringAction.run();
+			return null;
+		});
+	}
+
+	@Test
+	public void testNewestEntryIsClickedWhileSettersRace() throws Exception
+	{
+		//Widen the window between the handler reading the pending entry and replacing it
+		duringAction = Thread::yield;
+		Set<String> published = ConcurrentHashMap.newKeySet();
+		AtomicBoolean clicking = new AtomicBoolean(true);
+		Thread clicker = new Thread(() ->
+		{
+			while (clicking.get())
+			{
+				click();
+			}
+		}, "client");
+		ExecutorService setters = Executors.newFixedThreadPool(SETTERS);
+		clicker.start();
+		try
+		{
+			for (int round = 0; round < ROUNDS; round++)
+			{
+				int r = round;
+				List<Future<?>> bursts = new ArrayList<>();
+				for (int t = 0; t < SETTERS; t++)
+				{
+					int thread = t;
+					bursts.add(setters.submit(() ->
+					{
+						for (int i = 0; i < BURST; i++)
+						{
+							published.add(publish(thread * BURST + i, r, i % 3));
+						}
+					}));
+				}
+				for (Future<?> burst : bursts)
+				{
+					burst.get();
+				}
+				//Set after every burst entry, so an older click clearing it means it is never clicked
+				String last = publish(LAST_WALK_X, r, r % 3);
+				published.add(last);
+				awaitClicked(last, r);
+			}
+		}
+		finally
+		{
+			clicking.set(false);
+			clicker.join();
+			setters.shutdownNow();
+		}
+
+		for (Map.Entry<String, AtomicInteger> entry : invoked.entrySet())
+		{
+			//Clicking a walk entry a second time is an ordinary walk, those all have an empty target
+			if (!entry.getKey().isEmpty())
+			{
+				assertTrue("Invoked an entry that was never set: " + entry.getKey(), published.contains(entry.getKey()));
+				assertEquals("Invoked more than once: " + entry.getKey(), 1, entry.getValue().get());
+			}
+		}
+		for (Map.Entry<String, AtomicInteger> entry : walked.entrySet())
+		{
+			assertTrue("Walked to a tile that was never set: " + entry.getKey(), published.contains(entry.getKey()));
+			assertEquals("Walked more than once: " + entry.getKey(), 1, entry.getValue().get());
+		}
+	}
+
+	@Test
+	public void testConsumedEntryIsKeptForTheNextClick()
+	{
+		MenuEntry entry = entry("consumed");
+		utils.setMenuEntry(entry, true);
+
+		click();
+		assertTrue(invoked.isEmpty());
+		assertSame(entry, utils.getMenuEntry());
+
+		click();
+		assertEquals(1, count(invoked, "consumed"));
+		assertNull(utils.getMenuEntry());
+	}
+
+	@Test
+	public void testWalkEntryWalksOnce()
+	{
+		utils.walk(LocalPoint.fromScene(10, 20), 0, 0);
+		MenuEntry walk = utils.getMenuEntry();
+
+		click();
+		assertEquals(1, count(walked, "10,20"));
+		assertTrue(invoked.isEmpty());
+		//Still set, the next click on it is an ordinary walk
+		assertSame(walk, utils.getMenuEntry());
+
+		click();
+		assertEquals(1, count(walked, "10,20"));
+		assertEquals(1, count(invoked, ""));
+		assertNull(utils.getMenuEntry());
+	}
+
+	@Test
+	public void testEntrySetDuringActionIsKept()
+	{
+		MenuEntry newer = entry("newer");
+		duringAction = () -> utils.setMenuEntry(newer);
+		utils.setMenuEntry(entry("older"));
+
+		click();
+
+		assertEquals(1, count(invoked, "older"));
+		assertSame(newer, utils.getMenuEntry());
+	}
+
+	@Test
+	public void testEntrySetDuringWalkIsKept()
+	{
+		MenuEntry newer = entry("newer");
+		duringAction = () -> utils.setMenuEntry(newer);
+		utils.walk(LocalPoint.fromScene(10, 20), 0, 0);
+
+		click();
+		assertSame(newer, utils.getMenuEntry());
+
+		//Clicked as the newer entry, not as a walk
+		click();
+		assertEquals(1, count(walked, "10,20"));
+		assertEquals(1, count(invoked, "newer"));
+	}
+
+	@Test
+	public void testWebWalkersSwitchingDestinationsSeeWholePaths() throws Exception
+	{
+		//Sets up the profiler sections webWalk times, walk clicks still aren't run
+		utils.startUp();
+		utils.executorService.shutdown();
+		utils.executorService = mock(ExecutorService.class);
+		simulation.login(START);
+		BotUtils walker = spy(utils);
+		doAnswer(invocation -> invocation.getArgument(1).equals(EAST.get(EAST.size() - 1)) ? EAST : NORTH)
+			.when(walker).getDaxPath(any(), any());
+		ExecutorService threads = Executors.newFixedThreadPool(WALKERS + 1);
+		AtomicBoolean walking = new AtomicBoolean(true);
+		AtomicReference<WorldPoint> strayPoint = new AtomicReference<>();
+		try
+		{
+			//Reads what the walkers publish while they keep swapping paths
+			Future<?> reader = threads.submit(() ->
+			{
+				while (walking.get())
+				{
+					WorldPoint next = walker.nextPoint;
+					if (next != null && !EAST.contains(next) && !NORTH.contains(next))
+					{
+						strayPoint.set(next);
+					}
+				}
+			});
+			List<Future<?>> walkers = new ArrayList<>();
+			for (int t = 0; t < WALKERS; t++)
+			{
+				WorldPoint destination = (t % 2 == 0 ? EAST : NORTH).get((t % 2 == 0 ? EAST : NORTH).size() - 1);
+				walkers.add(threads.submit(() ->
+				{
+					for (int i = 0; i < WALK_ROUNDS; i++)
+					{
+						walker.webWalk(destination, 0, false, 0);
+					}
+				}));
+			}
+			for (Future<?> walk : walkers)
+			{
+				//Rethrows anything a walker ran into, e.g. reading past the end of a swapped path
+				walk.get(SETTLE_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+			}
+			walking.set(false);
+			reader.get(SETTLE_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+			assertNull("Published a next point on neither path: " + strayPoint.get(), strayPoint.get());
+			assertTrue(walker.webWalking);
+
+			//A plugin thread waiting on the walk sees it end once another thread arrives
+			Future<?> waiter = threads.submit(() ->
+			{
+				while (walker.webWalking)
+				{
+					Thread.onSpinWait();
+				}
+			});
+			WorldPoint destination = EAST.get(EAST.size() - 1);
+			simulation.getScene().tick(simulation.getTickCount(), destination, -1);
+			assertTrue(threads.submit(() -> walker.webWalk(destination, 0, false, 0)).get(SETTLE_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS));
+			waiter.get(SETTLE_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+			assertFalse(walker.webWalking);
+			assertNull(walker.nextPoint);
+		}
+		finally
+		{
+			walking.set(false);
+			threads.shutdownNow();
+		}
+	}
+
+	@Test
+	public void testIteratingClearsAfterEveryDropIsClicked() throws Exception
+	{
+		//The test thread stands in for the client thread, drops are clicked from the executor
+		simulation.getStubClient().setClientThread(Thread.currentThread());
+		simulation.login(START);
+		for (int i = 0; i < DROPPED; i++)
+		{
+			simulation.addItem(LOGS, 1);
+		}
+		AtomicInteger presses = new AtomicInteger();
+		simulation.getClient().getCanvas().addMouseListener(new MouseAdapter()
+		{
+			@Override
+			public void mousePressed(MouseEvent e)
+			{
+				presses.incrementAndGet();
+			}
+		});
+		ExecutorService executor = Executors.newSingleThreadExecutor();
+		utils.executorService = executor;
+		ExecutorService plugin = Executors.newSingleThreadExecutor();
+		try
+		{
+			//Waits the way plugins do, for the drop loop to start and then to finish, and counts the clicks it then sees
+			Future<Integer> seen = plugin.submit(() ->
+			{
+				long deadline = System.currentTimeMillis() + SETTLE_TIMEOUT_MILLIS;
+				while (!utils.iterating)
+				{
+					if (System.currentTimeMillis() > deadline)
+					{
+						throw new AssertionError("Never saw the drop loop start");
+					}
+					Thread.onSpinWait();
+				}
+				while (utils.iterating)
+				{
+					Thread.onSpinWait();
+				}
+				return presses.get();
+			});
+			//Long enough between drops for the plugin thread to see the loop running
+			utils.dropItems(List.of(LOGS), true, 10, 20);
+
+			assertEquals(DROPPED, (int) seen.get(SETTLE_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS));
+		}
+		finally
+		{
+			plugin.shutdownNow();
+			executor.shutdownNow();
+		}
+	}
+
+	//A plain, consumed or walk entry, keyed by its target or by the tile it walks to
+	private String publish(int x, int round, int kind)
+	{
+		switch (kind)
+		{
+			case 0:
+				String target = x + "/" + round;
+				utils.setMenuEntry(entry(target));
+				return target;
+			case 1:
+				String consumed = x + "/" + round + " consumed";
+				utils.setMenuEntry(entry(consumed), true);
+				return consumed;
+			default:
+				utils.walk(LocalPoint.fromScene(x, round), 0, 0);
+				return x + "," + round;
+		}
+	}
+
+	private void awaitClicked(String key, int round) throws InterruptedException
+	{
+		long deadline = System.currentTimeMillis() + SETTLE_TIMEOUT_MILLIS;
+		while (count(invoked, key) == 0 && count(walked, key) == 0)
+		{
+			if (System.currentTimeMillis() > deadline)
+			{
+				fail("Round " + round + ": " + key + " was set last but never clicked, an older click cleared it");
+			}
+			Thread.sleep(1);
+		}
+	}
+
+	//The client builds the menu from the pending entry, the handler then acts on whatever is pending by the time it runs
+	private void click()
+	{
+		MenuEntry entry = utils.getMenuEntry();
+		MenuEntry clicked = entry != null ? entry : new MenuEntry("Walk here", "", 0, MenuOpcode.WALK.getId(), 0, 0, false);
+		eventBus.post(new MenuOptionClicked(clicked.getOption(), clicked.getTarget(), clicked.getIdentifier(), clicked.getOpcode(),
+			clicked.getParam0(), clicked.getParam1(), false));
+	}
+
+	private static MenuEntry entry(String target)
+	{
+		return new MenuEntry("Chop down", target, 1276, MenuOpcode.GAME_OBJECT_FIRST_OPTION.getId(), 50, 55, false);
+	}
+
+	//Tiles stepping away from START, ending at the destination
+	private static List<WorldPoint> line(int dx, int dy, int length)
+	{
+		return IntStream.rangeClosed(1, length)
+			.mapToObj(i -> START.dx(dx * i).dy(dy * i))
+			.collect(Collectors.toUnmodifiableList());
+	}
+
+	private static int count(Map<String, AtomicInteger> counts, String key)
+	{
+		AtomicInteger count = counts.get(key);
+		return count == null ? 0 : count.get();
+	}
+}
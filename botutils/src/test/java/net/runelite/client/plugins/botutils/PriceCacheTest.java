@@ -0,0 +1,253 @@
+package net.runelite.client.plugins.botutils;
+
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import net.runelite.http.api.osbuddy.OSBGrandExchangeResult;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class PriceCacheTest
+{
+	private static final int SNAPSHOT_MAGIC = 0x4F534250;
+	private static final int SNAPSHOT_VERSION = 1;
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	private File snapshotFile;
+
+	@Before
+	public void before()
+	{
+		snapshotFile = new File(folder.getRoot(), "prices.dat");
+	}
+
+	@Test
+	public void testSnapshotRoundTrip()
+	{
+		PriceCache cache = new PriceCache(new FakePriceSource(Map.of(1, 100, 2, 250)), snapshotFile);
+		cache.prefetch(List.of(1, 2)).join();
+		cache.saveSnapshot();
+
+		FakePriceSource source = new FakePriceSource(Map.of());
+		PriceCache loaded = new PriceCache(source, snapshotFile);
+		loaded.loadSnapshot().join();
+
+		assertEquals(2, loaded.size());
+		assertEquals(100, loaded.getIfPresent(1).getOverall_average());
+		assertEquals(250, loaded.getIfPresent(2).getOverall_average());
+		assertEquals(200, loaded.getIfPresent(2).getBuy_average());
+		assertEquals(300, loaded.getIfPresent(2).getSell_average());
+		//Nothing had expired, so nothing is looked up again
+		assertEquals(0, source.total());
+	}
+
+	@Test
+	public void testUnpricedItemsNotSaved()
+	{
+		PriceCache cache = new PriceCache(new FakePriceSource(Map.of(1, 100)), snapshotFile);
+		cache.prefetch(List.of(1, 2)).join();
+		assertFalse(cache.contains(2));
+		cache.saveSnapshot();
+
+		PriceCache loaded = new PriceCache(new FakePriceSource(Map.of()), snapshotFile);
+		loaded.loadSnapshot().join();
+
+		assertEquals(100, loaded.getIfPresent(1).getOverall_average());
+		assertNull(loaded.getIfPresent(2));
+	}
+
+	@Test
+	public void testSaveReplacesSnapshotThroughTempFile() throws IOException
+	{
+		File tempFile = new File(snapshotFile.getPath() + ".tmp");
+		Files.write(snapshotFile.toPath(), new byte[]{1, 2, 3});
+		//Left over from a save that was cut short
+		Files.write(tempFile.toPath(), new byte[]{4, 5, 6, 7, 8, 9});
+
+		PriceCache cache = new PriceCache(new FakePriceSource(Map.of(1, 100)), snapshotFile);
+		cache.prefetch(List.of(1)).join();
+		cache.saveSnapshot();
+
+		assertFalse(tempFile.exists());
+		assertTrue(snapshotFile.exists());
+
+		PriceCache loaded = new PriceCache(new FakePriceSource(Map.of()), snapshotFile);
+		loaded.loadSnapshot().join();
+		assertEquals(100, loaded.getIfPresent(1).getOverall_average());
+	}
+
+	@Test
+	public void testSaveCreatesDirectory()
+	{
+		snapshotFile = new File(new File(folder.getRoot(), "botutils"), "prices.dat");
+		PriceCache cache = new PriceCache(new FakePriceSource(Map.of(1, 100)), snapshotFile);
+		cache.prefetch(List.of(1)).join();
+		cache.saveSnapshot();
+
+		assertTrue(snapshotFile.exists());
+	}
+
+	@Test
+	public void testUnknownFormatIgnored() throws IOException
+	{
+		Files.write(snapshotFile.toPath(), new byte[]{0, 0, 0, 1, 0, 0, 0, 1});
+
+		PriceCache cache = new PriceCache(new FakePriceSource(Map.of()), snapshotFile);
+		cache.loadSnapshot().join();
+
+		assertEquals(0, cache.size());
+	}
+
+	@Test
+	public void testExpiredPricesRefreshedOnLoad() throws IOException
+	{
+		long now = System.currentTimeMillis();
+		writeSnapshot(new int[]{1, 2}, new int[]{100, 200}, new long[]{now - 1, now + TimeUnit.HOURS.toMillis(1)});
+
+		FakePriceSource source = new FakePriceSource(Map.of(1, 120, 2, 220));
+		PriceCache cache = new PriceCache(source, snapshotFile);
+		cache.loadSnapshot().join();
+
+		assertEquals(1, source.count(1));
+		assertEquals(0, source.count(2));
+		assertEquals(120, cache.getIfPresent(1).getOverall_average());
+		assertEquals(200, cache.getIfPresent(2).getOverall_average());
+
+		//The refreshed price is saved straight away
+		PriceCache reloaded = new PriceCache(new FakePriceSource(Map.of()), snapshotFile);
+		reloaded.loadSnapshot().join();
+		assertEquals(120, reloaded.getIfPresent(1).getOverall_average());
+	}
+
+	@Test
+	public void testExpiredPriceKeptWhenRefreshFails() throws IOException
+	{
+		writeSnapshot(new int[]{1}, new int[]{100}, new long[]{System.currentTimeMillis() - 1});
+
+		FakePriceSource source = new FakePriceSource(Map.of());
+		PriceCache cache = new PriceCache(source, snapshotFile);
+		cache.loadSnapshot().join();
+
+		assertEquals(1, source.count(1));
+		assertEquals(100, cache.getIfPresent(1).getOverall_average());
+		assertTrue(cache.contains(1));
+		//Backs off instead of looking it up again on every read
+		cache.getPrice(1);
+		assertEquals(1, source.count(1));
+	}
+
+	@Test
+	public void testFailedLookupIsNotAPrice()
+	{
+		AtomicInteger lookups = new AtomicInteger();
+		PriceCache cache = new PriceCache(itemId ->
+		{
+			lookups.incrementAndGet();
+			throw new RuntimeException("OSBuddy is down");
+		}, snapshotFile);
+		cache.fetch(1).join();
+
+		assertFalse(cache.contains(1));
+		assertEquals(0, cache.getPrice(1));
+		//Held back until the retry is due
+		assertEquals(1, lookups.get());
+	}
+
+	@Test
+	public void testLoadKeepsCachedPrices() throws IOException
+	{
+		writeSnapshot(new int[]{1}, new int[]{100}, new long[]{System.currentTimeMillis() + TimeUnit.HOURS.toMillis(1)});
+
+		PriceCache cache = new PriceCache(new FakePriceSource(Map.of(1, 150)), snapshotFile);
+		cache.prefetch(List.of(1)).join();
+		cache.loadSnapshot().join();
+
+		assertEquals(150, cache.getIfPresent(1).getOverall_average());
+	}
+
+	@Test
+	public void testFreshPricesAreHits()
+	{
+		FakePriceSource source = new FakePriceSource(Map.of(1, 100));
+		PriceCache cache = new PriceCache(source, snapshotFile);
+		cache.fetch(1).join();
+
+		assertEquals(100, cache.getPrice(1));
+		assertEquals(100, cache.getPrice(1));
+		assertEquals(2, cache.getHits());
+		assertEquals(0, cache.getMisses());
+		assertEquals(1, source.count(1));
+	}
+
+	private void writeSnapshot(int[] itemIds, int[] prices, long[] expiresAt) throws IOException
+	{
+		try (DataOutputStream out = new DataOutputStream(new FileOutputStream(snapshotFile)))
+		{
+			out.writeInt(SNAPSHOT_MAGIC);
+			out.writeInt(SNAPSHOT_VERSION);
+			out.writeInt(itemIds.length);
+			for (int i = 0; i < itemIds.length; i++)
+			{
+				out.writeInt(itemIds[i]);
+				out.writeInt(prices[i] - 50);
+				out.writeInt(prices[i] + 50);
+				out.writeInt(prices[i]);
+				out.writeLong(expiresAt[i]);
+			}
+		}
+	}
+
+	//Answers from a fixed price list, items without a price come back unpriced like an unknown item from OSBuddy
+	private static class FakePriceSource implements PriceSource
+	{
+		private final Map<Integer, Integer> prices;
+		private final Map<Integer, AtomicInteger> counts = new ConcurrentHashMap<>();
+
+		private FakePriceSource(Map<Integer, Integer> prices)
+		{
+			this.prices = prices;
+		}
+
+		@Override
+		public OSBGrandExchangeResult lookup(int itemId)
+		{
+			counts.computeIfAbsent(itemId, id -> new AtomicInteger()).incrementAndGet();
+			OSBGrandExchangeResult result = new OSBGrandExchangeResult();
+			result.setItem_id(itemId);
+			int price = prices.getOrDefault(itemId, 0);
+			if (price > 0)
+			{
+				result.setBuy_average(price - 50);
+				result.setSell_average(price + 50);
+				result.setOverall_average(price);
+			}
+			return result;
+		}
+
+		private int count(int itemId)
+		{
+			AtomicInteger count = counts.get(itemId);
+			return count == null ? 0 : count.get();
+		}
+
+		private int total()
+		{
+			return counts.values().stream().mapToInt(AtomicInteger::get).sum();
+		}
+	}
+}
@@ -0,0 +1,171 @@
+package net.runelite.client.plugins.botutils;
+
+import com.google.inject.Guice;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import net.runelite.api.Client;
+import net.runelite.api.GameObject;
+import net.runelite.api.GameState;
+import net.runelite.api.coords.WorldPoint;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import org.junit.Before;
+import org.junit.Test;
+
+public class RespawnTrackerTest
+{
+	private static final int ROCK = 11161;
+	private static final int TREE = 1276;
+	private static final WorldPoint CENTER = new WorldPoint(3200, 3200, 0);
+	private static final WorldPoint NEAR = CENTER.dx(2);
+	private static final WorldPoint FAR = CENTER.dx(20);
+
+	private ReplayScene scene;
+	private RespawnTracker tracker;
+
+	@Before
+	public void before()
+	{
+		scene = new ReplayScene();
+		Client client = new StubClient(scene).getClient();
+		tracker = Guice.createInjector(binder -> binder.bind(Client.class).toInstance(client)).getInstance(RespawnTracker.class);
+		scene.setGameState(GameState.LOGGED_IN);
+		tracker.track(Set.of(ROCK));
+	}
+
+	@Test
+	public void testLearnsAverageRespawnAndLifetime()
+	{
+		//Present for 20 ticks, back after 15, present for 30, back after 25
+		spawnAt(10, ROCK, NEAR);
+		despawnAt(30, ROCK, NEAR);
+		spawnAt(45, ROCK, NEAR);
+		despawnAt(75, ROCK, NEAR);
+		spawnAt(100, ROCK, NEAR);
+
+		assertEquals(20, tracker.getExpectedRespawnTicks(ROCK));
+		assertEquals(2, tracker.getSamples(ROCK));
+		assertEquals(25, tracker.getExpectedLifetimeTicks(ROCK));
+		assertEquals(-1, tracker.getExpectedRespawnTicks(TREE));
+		assertEquals(-1, tracker.getExpectedLifetimeTicks(TREE));
+	}
+
+	@Test
+	public void testRemainingTicksCountDownFromLearnedTimes()
+	{
+		spawnAt(10, ROCK, NEAR);
+		despawnAt(30, ROCK, NEAR);
+		spawnAt(45, ROCK, NEAR);
+
+		tick(55);
+		assertEquals(10, tracker.getRemainingLifetimeTicks(rock(NEAR)));
+		tick(80);
+		//Overdue
+		assertEquals(0, tracker.getRemainingLifetimeTicks(rock(NEAR)));
+
+		despawnAt(81, ROCK, NEAR);
+		tick(90);
+		assertEquals(6, tracker.getTicksUntilRespawn(NEAR, ROCK));
+		//Never depleted
+		assertEquals(-1, tracker.getTicksUntilRespawn(FAR, ROCK));
+		//Spawn not seen
+		assertEquals(-1, tracker.getRemainingLifetimeTicks(rock(FAR)));
+	}
+
+	@Test
+	public void testNextRespawnIsSoonestWithinRadius()
+	{
+		learnRespawn(ROCK, 20);
+		despawnAt(100, ROCK, CENTER.dy(1));
+		despawnAt(105, ROCK, NEAR);
+		despawnAt(110, ROCK, FAR);
+		//Untracked ids are never recorded
+		despawnAt(110, TREE, CENTER);
+		tick(112);
+
+		RespawnTracker.Respawn next = tracker.getNextRespawn(CENTER, 5, List.of(ROCK, TREE));
+		assertEquals(new RespawnTracker.Respawn(CENTER.dy(1), ROCK, 8), next);
+		//The far rock respawns last, outside the radius it's never picked
+		spawnAt(113, ROCK, CENTER.dy(1));
+		spawnAt(114, ROCK, NEAR);
+		assertNull(tracker.getNextRespawn(CENTER, 5, List.of(ROCK)));
+		assertEquals(new RespawnTracker.Respawn(FAR, ROCK, 16), tracker.getNextRespawn(CENTER, 30, List.of(ROCK)));
+	}
+
+	@Test
+	public void testDepletedTilesExpire()
+	{
+		learnRespawn(ROCK, 20);
+		despawnAt(200, ROCK, NEAR);
+
+		//Overdue but kept until three respawn times have passed
+		tick(260);
+		assertEquals(new RespawnTracker.Respawn(NEAR, ROCK, 0), tracker.getNextRespawn(CENTER, 5, List.of(ROCK)));
+		tick(261);
+		assertNull(tracker.getNextRespawn(CENTER, 5, List.of(ROCK)));
+		assertEquals(-1, tracker.getTicksUntilRespawn(NEAR, ROCK));
+	}
+
+	@Test
+	public void testSceneLoadIsNotADepletion()
+	{
+		spawnAt(10, ROCK, NEAR);
+		scene.setGameState(GameState.LOADING);
+		despawnAt(20, ROCK, NEAR);
+		spawnAt(21, ROCK, NEAR);
+		scene.setGameState(GameState.LOGGED_IN);
+
+		assertEquals(-1, tracker.getExpectedRespawnTicks(ROCK));
+		assertEquals(-1, tracker.getExpectedLifetimeTicks(ROCK));
+		assertEquals(-1, tracker.getTicksUntilRespawn(NEAR, ROCK));
+	}
+
+	@Test
+	public void testTrackingOtherIdsKeepsWhatWasLearned()
+	{
+		learnRespawn(ROCK, 20);
+		despawnAt(100, ROCK, NEAR);
+
+		tracker.track(Set.of(TREE));
+		assertEquals(-1, tracker.getTicksUntilRespawn(NEAR, ROCK));
+		assertEquals(20, tracker.getExpectedRespawnTicks(ROCK));
+	}
+
+	//One depletion and respawn of the id on a tile that is out of the way of the tests
+	private void learnRespawn(int id, int ticks)
+	{
+		WorldPoint tile = CENTER.dy(-50);
+		despawnAt(0, id, tile);
+		spawnAt(ticks, id, tile);
+	}
+
+	private void spawnAt(int tick, int id, WorldPoint tile)
+	{
+		tick(tick);
+		tracker.spawned(object(id, tile));
+	}
+
+	private void despawnAt(int tick, int id, WorldPoint tile)
+	{
+		tick(tick);
+		tracker.despawned(object(id, tile));
+	}
+
+	private void tick(int tick)
+	{
+		scene.tick(tick, CENTER, -1);
+	}
+
+	private static GameObject rock(WorldPoint tile)
+	{
+		return object(ROCK, tile);
+	}
+
+	private static GameObject object(int id, WorldPoint tile)
+	{
+		return StubClient.stub(GameObject.class, Map.of(
+			"getId", args -> id,
+			"getWorldLocation", args -> tile));
+	}
+}
@@ -0,0 +1,34 @@
+package net.runelite.client.plugins.botutils;
+
+import net.runelite.api.MenuEntry;
+
+/**
+ * What the game does with menu actions a {@link Simulation} doesn't handle itself, e.g. chopping a tree or
+ * attacking an NPC, and how that plays out over the following ticks.
+ */
+public interface ActionModel
+{
+	/**
+	 * Called once when added to the simulation, e.g. to answer client queries about the model's NPCs.
+	 */
+	default void attach(Simulation simulation)
+	{
+	}
+
+	/**
+	 * Applies a menu action invoked by a plugin on the client thread.
+	 *
+	 * @return true if the action was for this model
+	 */
+	boolean invoke(Simulation simulation, MenuEntry entry);
+
+	/**
+	 * Advances the model one game tick, before the tick's events are posted.
+	 */
+	void tick(Simulation simulation);
+
+	/**
+	 * The player clicked something else in the world or walked away, stop what the click on this model started.
+	 */
+	void interrupt(Simulation simulation);
+}
@@ -0,0 +1,193 @@
+package net.runelite.client.plugins.botutils;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import javax.annotation.Nullable;
+import net.runelite.api.MenuEntry;
+import net.runelite.api.MenuOpcode;
+import net.runelite.api.NPC;
+import net.runelite.api.Skill;
+import net.runelite.api.coords.WorldPoint;
+import net.runelite.api.events.ActorDeath;
+
+/**
+ * Fighting one kind of NPC. Attacking one walks up to it and hits it every few ticks for attack and hitpoints xp
+ * until it dies, the player clicks elsewhere or the NPC is gone. A dead NPC leaves its drops where it died and
+ * respawns at the same index and location. NPCs don't fight back or wander.
+ */
+public class CombatModel implements ActionModel
+{
+	private static final int ATTACK_ANIMATION = 422;
+	private static final int HEALTH_SCALE = 30;
+
+	private final int npcId;
+	private final int hitpoints;
+	private final int maxHit;
+	private final int attackSpeed;
+	private final int respawnTicks;
+	private final List<int[]> drops = new ArrayList<>();
+	private final Map<Integer, Integer> health = new HashMap<>();
+	private final List<Death> deaths = new ArrayList<>();
+	@Nullable
+	private Integer target;
+	private int nextHit;
+	private int kills;
+
+	public CombatModel(int npcId, int hitpoints, int maxHit, int attackSpeed, int respawnTicks)
+	{
+		this.npcId = npcId;
+		this.hitpoints = hitpoints;
+		this.maxHit = maxHit;
+		this.attackSpeed = attackSpeed;
+		this.respawnTicks = respawnTicks;
+	}
+
+	/**
+	 * Adds an item dropped on every kill.
+	 */
+	public CombatModel drop(int itemId, int quantity)
+	{
+		drops.add(new int[]{itemId, quantity});
+		return this;
+	}
+
+	@Override
+	public void attach(Simulation simulation)
+	{
+		StubClient stubClient = simulation.getStubClient();
+		stubClient.answerPlayer("getInteracting", args -> target == null ? null : stubClient.getNpc(target));
+		stubClient.answerNpc("getInteracting", (npc, args) -> isTarget(npc) ? simulation.getPlayer() : null);
+		stubClient.answerNpc("getHealthRatio", (npc, args) -> isTarget(npc) ? ratio(npc.getIndex()) : -1);
+		stubClient.answerNpc("getHealthScale", (npc, args) -> isTarget(npc) ? HEALTH_SCALE : -1);
+	}
+
+	@Override
+	public boolean invoke(Simulation simulation, MenuEntry entry)
+	{
+		if (entry.getOpcode() != MenuOpcode.NPC_SECOND_OPTION.getId())
+		{
+			return false;
+		}
+		int index = entry.getIdentifier();
+		NPC npc = simulation.getStubClient().getNpc(index);
+		if (npc == null || npc.getId() != npcId)
+		{
+			return false;
+		}
+		simulation.walkTo(npc.getWorldLocation(), 1, () ->
+		{
+			if (simulation.getScene().getNpc(index) != null && health.getOrDefault(index, hitpoints) > 0)
+			{
+				target = index;
+				nextHit = simulation.getTickCount() + 1;
+				health.putIfAbsent(index, hitpoints);
+			}
+		});
+		return true;
+	}
+
+	@Override
+	public void tick(Simulation simulation)
+	{
+		Iterator<Death> iterator = deaths.iterator();
+		while (iterator.hasNext())
+		{
+			Death death = iterator.next();
+			if (death.despawnTick == simulation.getTickCount())
+			{
+				simulation.despawnNpc(death.index);
+				for (int[] drop : drops)
+				{
+					simulation.spawnItem(drop[0], drop[1], death.location);
+				}
+			}
+			if (death.respawnTick <= simulation.getTickCount())
+			{
+				health.remove(death.index);
+				simulation.spawnNpc(death.index, npcId, death.location);
+				iterator.remove();
+			}
+		}
+		if (target == null)
+		{
+			return;
+		}
+		if (simulation.getScene().getNpc(target) == null)
+		{
+			stop(simulation);
+			return;
+		}
+		if (simulation.getTickCount() < nextHit)
+		{
+			//Back to standing between hits
+			simulation.setAnimation(-1);
+			return;
+		}
+		int damage = Math.min(simulation.getRandom().nextInt(maxHit + 1), health.get(target));
+		simulation.setAnimation(ATTACK_ANIMATION);
+		simulation.addXp(Skill.ATTACK, damage * 4);
+		simulation.addXp(Skill.HITPOINTS, damage * 4 / 3);
+		int remaining = health.get(target) - damage;
+		health.put(target, remaining);
+		nextHit += attackSpeed;
+		if (remaining > 0)
+		{
+			return;
+		}
+		kills++;
+		NPC npc = simulation.getStubClient().getNpc(target);
+		simulation.post(new ActorDeath(npc));
+		deaths.add(new Death(target, npc.getWorldLocation(), simulation.getTickCount() + 1, simulation.getTickCount() + respawnTicks));
+		target = null;
+	}
+
+	@Override
+	public void interrupt(Simulation simulation)
+	{
+		if (target != null)
+		{
+			stop(simulation);
+		}
+	}
+
+	public int getKills()
+	{
+		return kills;
+	}
+
+	private void stop(Simulation simulation)
+	{
+		target = null;
+		simulation.setAnimation(-1);
+	}
+
+	private boolean isTarget(NPC npc)
+	{
+		Integer index = target;
+		return index != null && npc.getIndex() == index && npc.getId() == npcId;
+	}
+
+	private int ratio(int index)
+	{
+		return health.getOrDefault(index, hitpoints) * HEALTH_SCALE / hitpoints;
+	}
+
+	private static class Death
+	{
+		private final int index;
+		private final WorldPoint location;
+		private final int despawnTick;
+		private final int respawnTick;
+
+		private Death(int index, WorldPoint location, int despawnTick, int respawnTick)
+		{
+			this.index = index;
+			this.location = location;
+			this.despawnTick = despawnTick;
+			this.respawnTick = respawnTick;
+		}
+	}
+}
@@ -0,0 +1,1014 @@
+package net.runelite.client.plugins.botutils;
+
+import com.google.inject.Guice;
+import com.google.inject.Injector;
+import com.google.inject.Module;
+import com.google.inject.util.Modules;
+import java.awt.event.MouseAdapter;
+import java.awt.event.MouseEvent;
+import java.io.File;
+import java.lang.invoke.MethodHandles;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import javax.annotation.Nullable;
+import net.runelite.api.Client;
+import net.runelite.api.Experience;
+import net.runelite.api.GameObject;
+import net.runelite.api.GameState;
+import net.runelite.api.InventoryID;
+import net.runelite.api.ItemDefinition;
+import net.runelite.api.MenuEntry;
+import net.runelite.api.MenuOpcode;
+import net.runelite.api.NPC;
+import net.runelite.api.Player;
+import net.runelite.api.Skill;
+import net.runelite.api.Tile;
+import net.runelite.api.TileItem;
+import net.runelite.api.coords.WorldPoint;
+import net.runelite.api.events.AnimationChanged;
+import net.runelite.api.events.GameObjectDespawned;
+import net.runelite.api.events.GameObjectSpawned;
+import net.runelite.api.events.GameStateChanged;
+import net.runelite.api.events.GameTick;
+import net.runelite.api.events.ItemContainerChanged;
+import net.runelite.api.events.ItemDespawned;
+import net.runelite.api.events.ItemSpawned;
+import net.runelite.api.events.MenuOptionClicked;
+import net.runelite.api.events.NpcDespawned;
+import net.runelite.api.events.NpcSpawned;
+import net.runelite.api.events.StatChanged;
+import net.runelite.client.callback.ClientThread;
+import net.runelite.client.chat.ChatMessageManager;
+import net.runelite.client.config.ConfigManager;
+import net.runelite.client.eventbus.EventBus;
+import net.runelite.client.game.ItemManager;
+import net.runelite.client.ui.overlay.OverlayManager;
+import net.runelite.http.api.ge.GrandExchangeClient;
+import net.runelite.http.api.osbuddy.OSBGrandExchangeResult;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Runs BotUtils and plugins headless against a {@link StubClient}, hours of play in seconds. Each {@link #tick()} moves
+ * the virtual {@link GameClock} one game tick, walks the player, advances the {@link ActionModel}s, posts the tick's
+ * events and GameTick on the calling thread, which is the client thread, then runs client thread work and the tasks
+ * queued on the BotUtils executor until both are idle. The executor runs on its own thread, but in turn with the client
+ * thread, never alongside it. Clicks dispatched on the canvas become {@link MenuOptionClicked} events for the left click
+ * entry, and the menu actions BotUtils invokes are applied to the scene: walking, dropping, picking up ground items
+ * and depositing into an open bank here, anything else by the models. Time spent in subscribers per tick is kept in
+ * {@link #getTickCost()}.
+ * <p>
+ * The scene, models and BotUtils' delays and click points are seeded and drawn in the same order every run, so runs
+ * with the same seed play out identically. Throughput is per hour of game ticks, click delays play out within the
+ * tick they are queued on.
+ * <pre>
+ * Simulation simulation = new Simulation(directory, 1);
+ * Injector injector = simulation.createInjector(binder -> binder.bind(PluginConfig.class).toInstance(config));
+ * simulation.start(injector.getInstance(BotUtils.class));
+ * simulation.register(plugin);
+ * simulation.login(location);
+ * simulation.run(6000);
+ * </pre>
+ */
+public class Simulation
+{
+	//Virtual time starts here, 2020-01-01, so timers and session files don't depend on when the test runs
+	public static final long START_MILLIS = 1_577_836_800_000L;
+	public static final int INVENTORY_SIZE = 28;
+	private static final int EQUIPMENT_SIZE = 14;
+	private static final int RUN_VARP = 173;
+	//CC_OP param1 of the bank's deposit inventory button
+	private static final int DEPOSIT_INVENTORY = 786473;
+	private static final int START_HITPOINTS_XP = 1154;
+	private static final long SETTLE_TIMEOUT_MILLIS = 10_000;
+	private static final Skill[] SKILLS = Skill.values();
+	private static final MenuEntry WALK_HERE = new MenuEntry("Walk here", "", 0, MenuOpcode.WALK.getId(), 0, 0, false);
+	//Clicks on these move the player or start something new, dropping or equipping an item doesn't
+	private static final Set<Integer> WORLD_OPCODES = Stream.of(
+		MenuOpcode.WALK,
+		MenuOpcode.GAME_OBJECT_FIRST_OPTION, MenuOpcode.GAME_OBJECT_SECOND_OPTION, MenuOpcode.GAME_OBJECT_THIRD_OPTION,
+		MenuOpcode.GAME_OBJECT_FOURTH_OPTION, MenuOpcode.GAME_OBJECT_FIFTH_OPTION,
+		MenuOpcode.NPC_FIRST_OPTION, MenuOpcode.NPC_SECOND_OPTION, MenuOpcode.NPC_THIRD_OPTION,
+		MenuOpcode.NPC_FOURTH_OPTION, MenuOpcode.NPC_FIFTH_OPTION,
+		MenuOpcode.GROUND_ITEM_FIRST_OPTION, MenuOpcode.GROUND_ITEM_SECOND_OPTION, MenuOpcode.GROUND_ITEM_THIRD_OPTION,
+		MenuOpcode.GROUND_ITEM_FOURTH_OPTION, MenuOpcode.GROUND_ITEM_FIFTH_OPTION)
+		.map(MenuOpcode::getId)
+		.collect(Collectors.toSet());
+
+	private final ReplayScene scene = new ReplayScene();
+	private final StubClient stubClient = new StubClient(scene);
+	private final GameClock clock = new GameClock();
+	private final EventBus eventBus = new EventBus();
+	private final File directory;
+	private final long seed;
+	private final Random random;
+	private final Queue<Runnable> clientTasks = new ConcurrentLinkedQueue<>();
+	private final List<BooleanSupplier> nextTickTasks = new ArrayList<>();
+	private final Queue<Runnable> executorTasks = new ConcurrentLinkedQueue<>();
+	//The client thread and the executor thread take turns, so random draws happen in the same order on every run
+	private final Semaphore clientTurn = new Semaphore(0);
+	private final Semaphore executorTurn = new Semaphore(0);
+	private final ExecutorService executorThread = Executors.newSingleThreadExecutor(runnable ->
+	{
+		Thread thread = new Thread(runnable, "simulation-executor");
+		thread.setDaemon(true);
+		return thread;
+	});
+	private final ExecutorService executor = new SimulationExecutor();
+	private volatile boolean executorRunning;
+	@Nullable
+	private volatile Thread executorTaskThread;
+	private final ClientThread clientThread = mock(ClientThread.class);
+	private final ItemManager itemManager = mock(ItemManager.class);
+	private final List<ActionModel> models = new ArrayList<>();
+	private final List<Object> pendingEvents = new ArrayList<>();
+	private final Map<Integer, ItemDefinition> itemDefinitions = new HashMap<>();
+	private final Map<Integer, Integer> prices = new HashMap<>();
+	private final Map<Integer, String> npcNames = new HashMap<>();
+	private final LatencyHistogram tickCost = new LatencyHistogram();
+	private final int[] startXp = new int[SKILLS.length];
+	private BotUtils utils;
+	private int tickCount;
+	private int startTick;
+	@Nullable
+	private WorldPoint playerLocation;
+	private int playerAnimation = -1;
+	@Nullable
+	private WorldPoint destination;
+	private int destinationRange;
+	@Nullable
+	private Runnable onArrival;
+	private int selectedSceneX;
+	private int selectedSceneY;
+	@Nullable
+	private int[] banked;
+	private int nextNpcIndex;
+	private int clicks;
+	private int menuActions;
+	private int unhandledActions;
+
+	/**
+	 * @param directory where BotUtils keeps prices and session recordings during the run
+	 * @param seed      seeds the models and BotUtils' delays
+	 */
+	public Simulation(File directory, long seed)
+	{
+		this.directory = directory;
+		this.seed = seed;
+		this.random = new Random(seed);
+		doAnswer(invocation -> invoke((Runnable) invocation.getArgument(0))).when(clientThread).invoke(any(Runnable.class));
+		doAnswer(invocation -> invoke((BooleanSupplier) invocation.getArgument(0))).when(clientThread).invoke(any(BooleanSupplier.class));
+		doAnswer(invocation -> queueClientTask(invocation.getArgument(0))).when(clientThread).invokeLater(any(Runnable.class));
+		doAnswer(invocation -> invokeLater((BooleanSupplier) invocation.getArgument(0))).when(clientThread).invokeLater(any(BooleanSupplier.class));
+		when(itemManager.getItemDefinition(anyInt())).thenAnswer(invocation -> itemDefinition(invocation.getArgument(0)));
+
+		stubClient.answer("invokeMenuAction", args ->
+		{
+			invoke(new MenuEntry((String) args[0], (String) args[1], (int) args[2], (int) args[3], (int) args[4], (int) args[5], false));
+			return null;
+		});
+		stubClient.answer("setSelectedSceneTileX", args ->
+		{
+			selectedSceneX = (int) args[0];
+			return null;
+		});
+		stubClient.answer("setSelectedSceneTileY", args ->
+		{
+			selectedSceneY = (int) args[0];
+			return null;
+		});
+		stubClient.answer("setViewportWalking", args ->
+		{
+			if ((boolean) args[0])
+			{
+				walkHere();
+			}
+			return null;
+		});
+		stubClient.answer("getLocalDestinationLocation", args -> destination == null ? null : stubClient.local(destination));
+		stubClient.answerNpc("getName", (npc, args) -> npcNames.get(npc.getId()));
+		stubClient.getClient().getCanvas().addMouseListener(new MouseAdapter()
+		{
+			@Override
+			public void mousePressed(MouseEvent e)
+			{
+				pressed();
+			}
+		});
+	}
+
+	/**
+	 * An injector for BotUtils and plugins with the stub client, this simulation's client thread, executor, clock and
+	 * event bus, BotUtils' config at its defaults and the rest of the client mocked. Modules given here override those
+	 * bindings and add the plugin's own, e.g. its config from {@link #config}.
+	 */
+	public Injector createInjector(Module... modules)
+	{
+		Module simulation = binder ->
+		{
+			binder.bind(Client.class).toInstance(stubClient.getClient());
+			binder.bind(ClientThread.class).toInstance(clientThread);
+			binder.bind(EventBus.class).toInstance(eventBus);
+			binder.bind(GameClock.class).toInstance(clock);
+			binder.bind(ExecutorService.class).toInstance(executor);
+			binder.bind(ItemManager.class).toInstance(itemManager);
+			binder.bind(ChatMessageManager.class).toInstance(mock(ChatMessageManager.class));
+			binder.bind(OverlayManager.class).toInstance(mock(OverlayManager.class));
+			binder.bind(ConfigManager.class).toInstance(mock(ConfigManager.class));
+			binder.bind(GrandExchangeClient.class).toInstance(mock(GrandExchangeClient.class));
+			binder.bind(PriceCache.class).toInstance(new PriceCache(this::lookupPrice, new File(directory, "prices.dat")));
+			binder.bind(SessionRecorder.class).toInstance(new SessionRecorder(new File(directory, "sessions")));
+			binder.bind(EventRecorder.class).toInstance(new EventRecorder(new File(directory, "recordings")));
+			binder.bind(BotUtilsConfig.class).toInstance(config(BotUtilsConfig.class, Map.of()));
+		};
+		return Guice.createInjector(Modules.override(simulation).with(modules));
+	}
+
+	/**
+	 * A config answering with the given values by method name and with its defaults otherwise.
+	 */
+	public static <T> T config(Class<T> type, Map<String, Object> values)
+	{
+		return type.cast(Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, (proxy, method, args) ->
+		{
+			if (method.getDeclaringClass() == Object.class)
+			{
+				switch (method.getName())
+				{
+					case "equals":
+						return proxy == args[0];
+					case "hashCode":
+						return System.identityHashCode(proxy);
+					default:
+						return type.getSimpleName();
+				}
+			}
+			if (values.containsKey(method.getName()))
+			{
+				return values.get(method.getName());
+			}
+			if (!method.isDefault())
+			{
+				return null;
+			}
+			return MethodHandles.privateLookupIn(type, MethodHandles.lookup())
+				.unreflectSpecial(method, type)
+				.bindTo(proxy)
+				.invokeWithArguments(args == null ? new Object[0] : args);
+		}));
+	}
+
+	/**
+	 * Starts BotUtils on virtual time with its clicks and path requests dispatched through this simulation's executor.
+	 * The calling thread becomes the client thread and must be the one calling {@link #tick()}.
+	 */
+	public void start(BotUtils utils)
+	{
+		this.utils = utils;
+		stubClient.setClientThread(Thread.currentThread());
+		clock.useVirtualTime(START_MILLIS);
+		BotUtils.random.setSeed(seed);
+		utils.startUp();
+		utils.executorService.shutdown();
+		utils.executorService = executor;
+		utils.pathExecutor.shutdown();
+		utils.pathExecutor = executor;
+		utils.getPriceCache().prefetch(new ArrayList<>(prices.keySet())).join();
+		eventBus.register(utils);
+	}
+
+	public void register(Object subscriber)
+	{
+		eventBus.register(subscriber);
+	}
+
+	public void stop()
+	{
+		utils.shutDown();
+		settle();
+		executorThread.shutdown();
+		clock.useSystemTime();
+		stubClient.setClientThread(null);
+	}
+
+	/**
+	 * Logs in at the location with an empty inventory and equipment, run on and 10 hitpoints. Throughput counts from here.
+	 */
+	public void login(WorldPoint location)
+	{
+		playerLocation = location;
+		scene.setGameState(GameState.LOGGED_IN);
+		scene.tick(tickCount, playerLocation, playerAnimation);
+		scene.varp(RUN_VARP, 1);
+		GameStateChanged gameStateChanged = new GameStateChanged();
+		gameStateChanged.setGameState(GameState.LOGGED_IN);
+		pendingEvents.add(gameStateChanged);
+		setContainer(InventoryID.INVENTORY, emptyContainer(INVENTORY_SIZE));
+		setContainer(InventoryID.EQUIPMENT, emptyContainer(EQUIPMENT_SIZE));
+		for (Skill skill : SKILLS)
+		{
+			if (skill != Skill.OVERALL)
+			{
+				setXp(skill, skill == Skill.HITPOINTS ? START_HITPOINTS_XP : 0);
+			}
+			startXp[skill.ordinal()] = scene.getXp(skill);
+		}
+		startTick = tickCount;
+	}
+
+	public void run(int ticks)
+	{
+		for (int i = 0; i < ticks; i++)
+		{
+			tick();
+		}
+	}
+
+	public void tick()
+	{
+		tickCount++;
+		clock.tick();
+		nextTickTasks.forEach(this::invokeLater);
+		nextTickTasks.clear();
+		move();
+		for (ActionModel model : models)
+		{
+			model.tick(this);
+		}
+		scene.tick(tickCount, playerLocation, playerAnimation);
+		List<Object> events = new ArrayList<>(pendingEvents);
+		pendingEvents.clear();
+		long start = System.nanoTime();
+		for (Object event : events)
+		{
+			eventBus.post(event);
+		}
+		eventBus.post(new GameTick());
+		tickCost.record(System.nanoTime() - start);
+		settle();
+	}
+
+	public void addModel(ActionModel model)
+	{
+		models.add(model);
+		model.attach(this);
+	}
+
+	/**
+	 * Defines an item. Items that aren't defined are named after their id, unstackable and worth nothing.
+	 */
+	public void item(int id, String name, int price, boolean stackable)
+	{
+		prices.put(id, price);
+		itemDefinitions.put(id, StubClient.stub(ItemDefinition.class, Map.of(
+			"getId", args -> id,
+			"getName", args -> name,
+			"getPrice", args -> price,
+			"getHaPrice", args -> price * 3 / 5,
+			"isStackable", args -> stackable,
+			"isTradeable", args -> true,
+			"getInventoryActions", args -> new String[]{null, null, null, null, "Drop"})));
+	}
+
+	public void npcName(int id, String name)
+	{
+		npcNames.put(id, name);
+	}
+
+	/**
+	 * Walks the player to within range of the target, then runs the arrival action on the client thread.
+	 * Replaces any walk in progress.
+	 */
+	public void walkTo(WorldPoint target, int range, @Nullable Runnable onArrival)
+	{
+		destination = target;
+		destinationRange = range;
+		this.onArrival = onArrival;
+	}
+
+	public void setAnimation(int animation)
+	{
+		if (animation == playerAnimation)
+		{
+			return;
+		}
+		playerAnimation = animation;
+		scene.tick(tickCount, playerLocation, playerAnimation);
+		AnimationChanged event = new AnimationChanged();
+		event.setActor(getPlayer());
+		pendingEvents.add(event);
+	}
+
+	public void addXp(Skill skill, int xp)
+	{
+		setXp(skill, scene.getXp(skill) + xp);
+	}
+
+	/**
+	 * Adds to a stack of the item if it is stackable and there is one, otherwise to the first empty slot.
+	 *
+	 * @return false if the inventory is full
+	 */
+	public boolean addItem(int id, int quantity)
+	{
+		int[] inventory = scene.getContainer(InventoryID.INVENTORY.getId()).clone();
+		int slot = -1;
+		for (int i = 0; i < INVENTORY_SIZE; i++)
+		{
+			if (inventory[i * 2] == id && isStackable(id))
+			{
+				slot = i;
+				break;
+			}
+			if (slot == -1 && inventory[i * 2] == -1)
+			{
+				slot = i;
+			}
+		}
+		if (slot == -1)
+		{
+			return false;
+		}
+		inventory[slot * 2] = id;
+		inventory[slot * 2 + 1] += quantity;
+		setContainer(InventoryID.INVENTORY, inventory);
+		return true;
+	}
+
+	public boolean inventoryFull()
+	{
+		int[] inventory = scene.getContainer(InventoryID.INVENTORY.getId());
+		for (int i = 0; i < INVENTORY_SIZE; i++)
+		{
+			if (inventory[i * 2] == -1)
+			{
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Replaces the container's contents, item ids and quantities as alternating values with -1, 0 for empty slots.
+	 */
+	public void setContainer(InventoryID inventoryID, @Nullable int[] items)
+	{
+		scene.container(inventoryID.getId(), items);
+		if (items != null)
+		{
+			pendingEvents.add(new ItemContainerChanged(inventoryID.getId(), stubClient.getClient().getItemContainer(inventoryID)));
+		}
+	}
+
+	public void openBank()
+	{
+		if (scene.getContainer(InventoryID.BANK.getId()) == null)
+		{
+			setContainer(InventoryID.BANK, banked == null ? new int[0] : banked);
+		}
+	}
+
+	public void closeBank()
+	{
+		banked = scene.getContainer(InventoryID.BANK.getId());
+		setContainer(InventoryID.BANK, null);
+	}
+
+	public ReplayScene.Entity spawnObject(int id, WorldPoint location)
+	{
+		ReplayScene.Entity entity = new ReplayScene.Entity(id, 1, location);
+		scene.object(entity, true);
+		GameObjectSpawned event = new GameObjectSpawned();
+		event.setTile(stubClient.getTile(location));
+		event.setGameObject(stubClient.getGameObject(entity));
+		pendingEvents.add(event);
+		return entity;
+	}
+
+	public void despawnObject(ReplayScene.Entity entity)
+	{
+		GameObject object = stubClient.getGameObject(entity);
+		Tile tile = stubClient.getTile(entity.getLocation());
+		scene.object(entity, false);
+		GameObjectDespawned event = new GameObjectDespawned();
+		event.setTile(tile);
+		event.setGameObject(object);
+		pendingEvents.add(event);
+	}
+
+	/**
+	 * @return the NPC's index
+	 */
+	public int spawnNpc(int id, WorldPoint location)
+	{
+		int index = nextNpcIndex++;
+		spawnNpc(index, id, location);
+		return index;
+	}
+
+	public void spawnNpc(int index, int id, WorldPoint location)
+	{
+		scene.npc(index, new ReplayScene.Entity(id, 1, location), true);
+		pendingEvents.add(new NpcSpawned(stubClient.getNpc(index)));
+	}
+
+	public void despawnNpc(int index)
+	{
+		NPC npc = stubClient.getNpc(index);
+		scene.npc(index, null, false);
+		pendingEvents.add(new NpcDespawned(npc));
+	}
+
+	public ReplayScene.Entity spawnItem(int id, int quantity, WorldPoint location)
+	{
+		ReplayScene.Entity entity = new ReplayScene.Entity(id, quantity, location);
+		scene.groundItem(entity, true);
+		pendingEvents.add(new ItemSpawned(stubClient.getTile(location), stubClient.getTileItem(entity)));
+		return entity;
+	}
+
+	public void despawnItem(ReplayScene.Entity entity)
+	{
+		TileItem item = stubClient.getTileItem(entity);
+		Tile tile = stubClient.getTile(entity.getLocation());
+		scene.groundItem(entity, false);
+		pendingEvents.add(new ItemDespawned(tile, item));
+	}
+
+	/**
+	 * Queues an event to be posted with the next tick's events.
+	 */
+	public void post(Object event)
+	{
+		pendingEvents.add(event);
+	}
+
+	/**
+	 * The world location of a scene tile on the player's plane.
+	 */
+	public WorldPoint fromScene(int sceneX, int sceneY)
+	{
+		Client client = stubClient.getClient();
+		return new WorldPoint(client.getBaseX() + sceneX, client.getBaseY() + sceneY, client.getPlane());
+	}
+
+	public Client getClient()
+	{
+		return stubClient.getClient();
+	}
+
+	public StubClient getStubClient()
+	{
+		return stubClient;
+	}
+
+	public ReplayScene getScene()
+	{
+		return scene;
+	}
+
+	public GameClock getClock()
+	{
+		return clock;
+	}
+
+	public EventBus getEventBus()
+	{
+		return eventBus;
+	}
+
+	public Random getRandom()
+	{
+		return random;
+	}
+
+	public Player getPlayer()
+	{
+		return stubClient.getClient().getLocalPlayer();
+	}
+
+	@Nullable
+	public WorldPoint getPlayerLocation()
+	{
+		return playerLocation;
+	}
+
+	public int getTickCount()
+	{
+		return tickCount;
+	}
+
+	//Time spent in subscribers posting each tick's events
+	public LatencyHistogram getTickCost()
+	{
+		return tickCost;
+	}
+
+	public int getXpGained(Skill skill)
+	{
+		return scene.getXp(skill) - startXp[skill.ordinal()];
+	}
+
+	public double getHours()
+	{
+		return (tickCount - startTick) * GameClock.TICK_MILLIS / 3_600_000.0;
+	}
+
+	public double getXpPerHour(Skill skill)
+	{
+		double hours = getHours();
+		return hours == 0 ? 0 : getXpGained(skill) / hours;
+	}
+
+	//Mouse presses on the canvas
+	public int getClicks()
+	{
+		return clicks;
+	}
+
+	public int getMenuActions()
+	{
+		return menuActions;
+	}
+
+	//Menu actions neither this simulation nor a model handled
+	public int getUnhandledActions()
+	{
+		return unhandledActions;
+	}
+
+	private void setXp(Skill skill, int xp)
+	{
+		int level = Experience.getLevelForXp(xp);
+		scene.stat(skill, xp, level, level);
+		pendingEvents.add(new StatChanged(skill, xp, level, level));
+	}
+
+	private boolean isStackable(int id)
+	{
+		ItemDefinition definition = itemDefinitions.get(id);
+		return definition != null && definition.isStackable();
+	}
+
+	private ItemDefinition itemDefinition(int id)
+	{
+		ItemDefinition definition = itemDefinitions.get(id);
+		if (definition == null)
+		{
+			item(id, "Item " + id, 0, false);
+			definition = itemDefinitions.get(id);
+		}
+		return definition;
+	}
+
+	private OSBGrandExchangeResult lookupPrice(int itemId)
+	{
+		OSBGrandExchangeResult result = new OSBGrandExchangeResult();
+		result.setItem_id(itemId);
+		int price = prices.getOrDefault(itemId, 0);
+		result.setBuy_average(price);
+		result.setSell_average(price);
+		result.setOverall_average(price);
+		return result;
+	}
+
+	private static int[] emptyContainer(int size)
+	{
+		int[] items = new int[size * 2];
+		for (int i = 0; i < size; i++)
+		{
+			items[i * 2] = -1;
+		}
+		return items;
+	}
+
+	private Object invoke(Runnable task)
+	{
+		if (stubClient.getClient().isClientThread())
+		{
+			task.run();
+		}
+		else
+		{
+			queueClientTask(task);
+		}
+		return null;
+	}
+
+	private Object invoke(BooleanSupplier task)
+	{
+		if (stubClient.getClient().isClientThread())
+		{
+			if (!task.getAsBoolean())
+			{
+				nextTickTasks.add(task);
+			}
+		}
+		else
+		{
+			invokeLater(task);
+		}
+		return null;
+	}
+
+	//Runs until it returns true, once per tick after the first try
+	private Object invokeLater(BooleanSupplier task)
+	{
+		return queueClientTask(() ->
+		{
+			if (!task.getAsBoolean())
+			{
+				nextTickTasks.add(task);
+			}
+		});
+	}
+
+	//Client thread work queued from the executor thread runs before the executor carries on
+	private Object queueClientTask(Runnable task)
+	{
+		clientTasks.add(task);
+		if (Thread.currentThread() == executorTaskThread)
+		{
+			clientTurn.release();
+			executorTurn.acquireUninterruptibly();
+		}
+		return null;
+	}
+
+	//Runs client thread work and executor tasks, one at a time, until neither has anything left to do
+	private void settle()
+	{
+		while (true)
+		{
+			Runnable task = clientTasks.poll();
+			if (task != null)
+			{
+				task.run();
+				continue;
+			}
+			if (!executorRunning)
+			{
+				Runnable next = executorTasks.poll();
+				if (next == null)
+				{
+					return;
+				}
+				executorRunning = true;
+				executorThread.execute(() -> runExecutorTask(next));
+			}
+			passTurn();
+		}
+	}
+
+	private void runExecutorTask(Runnable task)
+	{
+		executorTurn.acquireUninterruptibly();
+		executorTaskThread = Thread.currentThread();
+		try
+		{
+			task.run();
+		}
+		finally
+		{
+			executorRunning = false;
+			clientTurn.release();
+		}
+	}
+
+	//Lets the executor run until its task is done or it queues client thread work
+	private void passTurn()
+	{
+		executorTurn.release();
+		try
+		{
+			if (!clientTurn.tryAcquire(SETTLE_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS))
+			{
+				throw new IllegalStateException("Executor still busy after " + SETTLE_TIMEOUT_MILLIS + "ms on tick " + tickCount);
+			}
+		}
+		catch (InterruptedException e)
+		{
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException("Interrupted on tick " + tickCount, e);
+		}
+	}
+
+	//A press on the canvas clicks whatever BotUtils has set as the left click entry at that moment
+	private void pressed()
+	{
+		MenuEntry entry = utils == null ? null : utils.getMenuEntry();
+		queueClientTask(() -> click(entry));
+	}
+
+	private void click(@Nullable MenuEntry entry)
+	{
+		clicks++;
+		MenuEntry clicked = entry != null ? entry : WALK_HERE;
+		MenuOptionClicked event = new MenuOptionClicked(clicked.getOption(), clicked.getTarget(), clicked.getIdentifier(),
+			clicked.getOpcode(), clicked.getParam0(), clicked.getParam1(), false);
+		eventBus.post(event);
+		//Walk here without an entry is a click on the ground wherever the mouse was, it goes nowhere in particular
+		if (!event.isConsumed() && clicked != WALK_HERE)
+		{
+			invoke(clicked);
+		}
+	}
+
+	private void invoke(MenuEntry entry)
+	{
+		menuActions++;
+		int opcode = entry.getOpcode();
+		if (WORLD_OPCODES.contains(opcode))
+		{
+			interrupt();
+		}
+		if (opcode == MenuOpcode.ITEM_DROP.getId())
+		{
+			drop(entry.getParam0(), entry.getIdentifier());
+			return;
+		}
+		if (opcode == MenuOpcode.GROUND_ITEM_THIRD_OPTION.getId())
+		{
+			take(entry.getIdentifier(), fromScene(entry.getParam0(), entry.getParam1()));
+			return;
+		}
+		if (opcode == MenuOpcode.CC_OP.getId() && entry.getParam1() == DEPOSIT_INVENTORY)
+		{
+			depositInventory();
+			return;
+		}
+		for (ActionModel model : models)
+		{
+			if (model.invoke(this, entry))
+			{
+				return;
+			}
+		}
+		unhandledActions++;
+	}
+
+	private void interrupt()
+	{
+		destination = null;
+		onArrival = null;
+		for (ActionModel model : models)
+		{
+			model.interrupt(this);
+		}
+	}
+
+	private void walkHere()
+	{
+		interrupt();
+		walkTo(fromScene(selectedSceneX, selectedSceneY), 0, null);
+	}
+
+	//One tile a tick walking, two running, straight at the destination since every tile can be walked on
+	private void move()
+	{
+		if (destination == null || playerLocation == null)
+		{
+			return;
+		}
+		int steps = scene.getVarp(RUN_VARP) == 1 ? 2 : 1;
+		for (int i = 0; i < steps && playerLocation.distanceTo(destination) > destinationRange; i++)
+		{
+			playerLocation = playerLocation.dx(Integer.signum(destination.getX() - playerLocation.getX()))
+				.dy(Integer.signum(destination.getY() - playerLocation.getY()));
+		}
+		if (playerLocation.distanceTo(destination) <= destinationRange)
+		{
+			Runnable arrival = onArrival;
+			destination = null;
+			onArrival = null;
+			if (arrival != null)
+			{
+				arrival.run();
+			}
+		}
+	}
+
+	private void drop(int slot, int id)
+	{
+		int[] inventory = scene.getContainer(InventoryID.INVENTORY.getId()).clone();
+		if (slot < 0 || slot >= INVENTORY_SIZE || inventory[slot * 2] != id)
+		{
+			return;
+		}
+		inventory[slot * 2] = -1;
+		inventory[slot * 2 + 1] = 0;
+		setContainer(InventoryID.INVENTORY, inventory);
+	}
+
+	private void take(int id, WorldPoint location)
+	{
+		walkTo(location, 0, () ->
+		{
+			for (ReplayScene.Entity item : scene.getGroundItems())
+			{
+				if (item.getId() == id && location.equals(item.getLocation()))
+				{
+					if (addItem(id, item.getQuantity()))
+					{
+						despawnItem(item);
+					}
+					return;
+				}
+			}
+		});
+	}
+
+	private void depositInventory()
+	{
+		int[] bank = scene.getContainer(InventoryID.BANK.getId());
+		if (bank == null)
+		{
+			return;
+		}
+		Map<Integer, Integer> merged = new HashMap<>();
+		for (int i = 0; i < bank.length / 2; i++)
+		{
+			merged.merge(bank[i * 2], bank[i * 2 + 1], Integer::sum);
+		}
+		int[] inventory = scene.getContainer(InventoryID.INVENTORY.getId());
+		for (int i = 0; i < INVENTORY_SIZE; i++)
+		{
+			if (inventory[i * 2] != -1)
+			{
+				merged.merge(inventory[i * 2], inventory[i * 2 + 1], Integer::sum);
+			}
+		}
+		int[] contents = new int[merged.size() * 2];
+		int slot = 0;
+		for (Map.Entry<Integer, Integer> entry : merged.entrySet())
+		{
+			contents[slot++] = entry.getKey();
+			contents[slot++] = entry.getValue();
+		}
+		setContainer(InventoryID.BANK, contents);
+		setContainer(InventoryID.INVENTORY, emptyContainer(INVENTORY_SIZE));
+	}
+
+	//Tasks wait here until the client thread settles the tick, then run on the executor thread in turn with it
+	private class SimulationExecutor extends AbstractExecutorService
+	{
+		private volatile boolean shutdown;
+
+		@Override
+		public void execute(Runnable command)
+		{
+			executorTasks.add(command);
+		}
+
+		@Override
+		public void shutdown()
+		{
+			shutdown = true;
+		}
+
+		@Override
+		public List<Runnable> shutdownNow()
+		{
+			shutdown = true;
+			List<Runnable> pending = new ArrayList<>(executorTasks);
+			executorTasks.clear();
+			return pending;
+		}
+
+		@Override
+		public boolean isShutdown()
+		{
+			return shutdown;
+		}
+
+		@Override
+		public boolean isTerminated()
+		{
+			return shutdown && executorTasks.isEmpty() && !executorRunning;
+		}
+
+		@Override
+		public boolean awaitTermination(long timeout, TimeUnit unit)
+		{
+			return isTerminated();
+		}
+	}
+}
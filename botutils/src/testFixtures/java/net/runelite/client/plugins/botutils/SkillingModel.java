@@ -0,0 +1,183 @@
+package net.runelite.client.plugins.botutils;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import javax.annotation.Nullable;
+import net.runelite.api.MenuEntry;
+import net.runelite.api.MenuOpcode;
+import net.runelite.api.Skill;
+import net.runelite.api.coords.WorldPoint;
+
+/**
+ * Gathering from objects, e.g. chopping trees or mining rocks. Clicking the first option of one walks up to it and
+ * gathers an item and xp every few ticks until the inventory is full, the player clicks elsewhere or the object
+ * depletes. Depleted objects respawn in the same place.
+ */
+public class SkillingModel implements ActionModel
+{
+	private final int objectId;
+	private final Skill skill;
+	private final int xp;
+	private final int itemId;
+	private final int animation;
+	private final int ticksPerAction;
+	private final int depleteOneIn;
+	private final int respawnTicks;
+	private final List<Respawn> respawns = new ArrayList<>();
+	@Nullable
+	private ReplayScene.Entity target;
+	private int nextAction;
+	private int actions;
+	private int depletions;
+
+	/**
+	 * @param depleteOneIn the object depletes after one in this many actions, 0 if it never does
+	 */
+	public SkillingModel(int objectId, Skill skill, int xp, int itemId, int animation, int ticksPerAction, int depleteOneIn, int respawnTicks)
+	{
+		this.objectId = objectId;
+		this.skill = skill;
+		this.xp = xp;
+		this.itemId = itemId;
+		this.animation = animation;
+		this.ticksPerAction = ticksPerAction;
+		this.depleteOneIn = depleteOneIn;
+		this.respawnTicks = respawnTicks;
+	}
+
+	@Override
+	public boolean invoke(Simulation simulation, MenuEntry entry)
+	{
+		if (entry.getOpcode() != MenuOpcode.GAME_OBJECT_FIRST_OPTION.getId() || entry.getIdentifier() != objectId)
+		{
+			return false;
+		}
+		ReplayScene.Entity object = find(simulation, simulation.fromScene(entry.getParam0(), entry.getParam1()));
+		if (object == null)
+		{
+			//Clicked as it depleted, the game does nothing
+			return true;
+		}
+		simulation.walkTo(object.getLocation(), 1, () ->
+		{
+			target = object;
+			nextAction = simulation.getTickCount() + ticksPerAction;
+			simulation.setAnimation(animation);
+		});
+		return true;
+	}
+
+	@Override
+	public void tick(Simulation simulation)
+	{
+		Iterator<Respawn> iterator = respawns.iterator();
+		while (iterator.hasNext())
+		{
+			Respawn respawn = iterator.next();
+			if (simulation.getTickCount() >= respawn.tick)
+			{
+				simulation.spawnObject(objectId, respawn.location);
+				iterator.remove();
+			}
+		}
+		if (target == null)
+		{
+			return;
+		}
+		if (!isSpawned(simulation, target))
+		{
+			stop(simulation);
+			return;
+		}
+		if (simulation.getTickCount() < nextAction)
+		{
+			return;
+		}
+		if (!simulation.addItem(itemId, 1))
+		{
+			stop(simulation);
+			return;
+		}
+		simulation.addXp(skill, xp);
+		actions++;
+		if (depleteOneIn > 0 && simulation.getRandom().nextInt(depleteOneIn) == 0)
+		{
+			depletions++;
+			simulation.despawnObject(target);
+			respawns.add(new Respawn(target.getLocation(), simulation.getTickCount() + respawnTicks));
+			stop(simulation);
+			return;
+		}
+		if (simulation.inventoryFull())
+		{
+			stop(simulation);
+			return;
+		}
+		nextAction += ticksPerAction;
+	}
+
+	@Override
+	public void interrupt(Simulation simulation)
+	{
+		if (target != null)
+		{
+			stop(simulation);
+		}
+	}
+
+	//Items gathered
+	public int getActions()
+	{
+		return actions;
+	}
+
+	public int getDepletions()
+	{
+		return depletions;
+	}
+
+	private void stop(Simulation simulation)
+	{
+		target = null;
+		simulation.setAnimation(-1);
+	}
+
+	@Nullable
+	private ReplayScene.Entity find(Simulation simulation, WorldPoint location)
+	{
+		for (ReplayScene.Entity object : simulation.getScene().getObjects())
+		{
+			if (object.getId() == objectId && location.equals(object.getLocation()))
+			{
+				return object;
+			}
+		}
+		return null;
+	}
+
+	//By identity, a respawned object is a new one
+	private static boolean isSpawned(Simulation simulation, ReplayScene.Entity object)
+	{
+		for (ReplayScene.Entity spawned : simulation.getScene().getObjects())
+		{
+			if (spawned == object)
+			{
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private static class Respawn
+	{
+		private final WorldPoint location;
+		private final int tick;
+
+		private Respawn(WorldPoint location, int tick)
+		{
+			this.location = location;
+			this.tick = tick;
+		}
+	}
+}
@@ -0,0 +1,686 @@
+package net.runelite.client.plugins.botutils;
+
+import java.awt.Canvas;
+import java.awt.Polygon;
+import java.awt.Rectangle;
+import java.lang.reflect.Array;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import javax.annotation.Nullable;
+import net.runelite.api.Client;
+import net.runelite.api.CollisionData;
+import net.runelite.api.GameObject;
+import net.runelite.api.InventoryID;
+import net.runelite.api.Item;
+import net.runelite.api.ItemContainer;
+import net.runelite.api.NPC;
+import net.runelite.api.Player;
+import net.runelite.api.Point;
+import net.runelite.api.Scene;
+import net.runelite.api.Skill;
+import net.runelite.api.Tile;
+import net.runelite.api.TileItem;
+import net.runelite.api.VarPlayer;
+import net.runelite.api.coords.LocalPoint;
+import net.runelite.api.coords.WorldArea;
+import net.runelite.api.coords.WorldPoint;
+import net.runelite.api.widgets.Widget;
+import net.runelite.api.widgets.WidgetInfo;
+import net.runelite.api.widgets.WidgetItem;
+import net.runelite.rs.api.RSClient;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * A {@link Client} answering from a {@link ReplayScene}, so plugins that read the client on every tick can be driven
+ * by {@link EventReplay} or a {@link Simulation} without the game. The local player, NPCs, objects and ground items on
+ * scene tiles, item containers, the inventory and bank item widgets, stats, varps, game state and tick count come from the scene.
+ * The scene is an open field, every tile can be walked on. Objects and actors are drawn top-down around the player,
+ * {@link #TILE_PIXELS} to a tile, so their click bounds are on screen while they are near. Tiles have no projection,
+ * tile click targets resolve stale and are clicked at the centre of the viewport.
+ * Any other method returns 0, false, null or an empty array or list unless a test gives it an answer with {@link #answer}.
+ */
+public class StubClient implements InvocationHandler, ReplayObjects
+{
+	static final int SCENE_SIZE = 104;
+	public static final int VIEWPORT_WIDTH = 765;
+	public static final int VIEWPORT_HEIGHT = 503;
+	public static final int TILE_PIXELS = 24;
+	private static final int VARPS = 4000;
+	private static final int PLANES = 4;
+	private static final int INVENTORY_SIZE = 28;
+	//The real client loads a new scene when the player gets this close to the edge
+	private static final int SCENE_EDGE = 16;
+
+	private final ReplayScene scene;
+	private final Client client;
+	private final Player player;
+	private final Canvas canvas = new Canvas();
+	private final Map<String, Function<Object[], Object>> answers = new ConcurrentHashMap<>();
+	private final Map<String, Function<Object[], Object>> playerAnswers = new ConcurrentHashMap<>();
+	private final Map<String, BiFunction<NPC, Object[], Object>> npcAnswers = new ConcurrentHashMap<>();
+	private final Map<Integer, NPC> npcs = new HashMap<>();
+	private final Map<Integer, ReplayScene.Entity> npcEntities = new HashMap<>();
+	//Keyed by the scene's own entity instances, a despawned and respawned object is a new object like in game
+	private final Map<ReplayScene.Entity, GameObject> objects = new IdentityHashMap<>();
+	private final Map<ReplayScene.Entity, TileItem> items = new IdentityHashMap<>();
+	private final Map<Integer, Tile> tiles = new HashMap<>();
+	private final Map<Integer, List<GameObject>> tileObjects = new HashMap<>();
+	private final Map<Integer, List<TileItem>> tileItems = new HashMap<>();
+	private final List<ReplayScene.Entity> tiledObjects = new ArrayList<>();
+	private final List<ReplayScene.Entity> tiledItems = new ArrayList<>();
+	private final WidgetItem[] widgetItems = new WidgetItem[INVENTORY_SIZE];
+	private final Scene sceneProxy;
+	private final Widget inventoryWidget;
+	private final Widget bankWidget;
+	private final CollisionData[] collisionMaps = new CollisionData[PLANES];
+	private volatile Thread clientThread;
+	@Nullable
+	private int[] bankContents;
+	private Widget[] bankItems = new Widget[0];
+	private Tile[][][] sceneTiles = new Tile[PLANES][SCENE_SIZE][SCENE_SIZE];
+	private int tiledBaseX = -1;
+	private int tiledBaseY = -1;
+	private int baseX;
+	private int baseY;
+	private boolean baseSet;
+
+	public StubClient(ReplayScene scene)
+	{
+		this.scene = scene;
+		this.client = (Client) Proxy.newProxyInstance(StubClient.class.getClassLoader(), new Class<?>[]{Client.class, RSClient.class}, this);
+		playerAnswers.put("getWorldLocation", args -> scene.getPlayerLocation());
+		playerAnswers.put("getLocalLocation", args -> local(scene.getPlayerLocation()));
+		playerAnswers.put("getWorldArea", args -> new WorldArea(scene.getPlayerLocation(), 1, 1));
+		playerAnswers.put("getAnimation", args -> scene.getPlayerAnimation());
+		playerAnswers.put("getConvexHull", args -> hull(scene.getPlayerLocation()));
+		playerAnswers.put("getName", args -> "Player");
+		this.player = stub(Player.class, playerAnswers);
+		this.sceneProxy = stub(Scene.class, Map.of("getTiles", args -> tiles()));
+		this.inventoryWidget = stub(Widget.class, Map.of(
+			"getId", args -> WidgetInfo.INVENTORY.getId(),
+			"getWidgetItems", args -> inventoryItems(),
+			"getBounds", args -> new Rectangle(VIEWPORT_WIDTH - 210, VIEWPORT_HEIGHT - 300, 190, 260)));
+		this.bankWidget = stub(Widget.class, Map.of(
+			"getId", args -> WidgetInfo.BANK_ITEM_CONTAINER.getId(),
+			"getDynamicChildren", args -> bankItems(),
+			"getBounds", args -> new Rectangle(70, 80, 390, 300)));
+		int[][] flags = new int[SCENE_SIZE][SCENE_SIZE];
+		for (int plane = 0; plane < PLANES; plane++)
+		{
+			collisionMaps[plane] = stub(CollisionData.class, Map.of("getFlags", args -> flags));
+		}
+		canvas.setSize(VIEWPORT_WIDTH, VIEWPORT_HEIGHT);
+	}
+
+	public Client getClient()
+	{
+		return client;
+	}
+
+	@Override
+	public ReplayScene getScene()
+	{
+		return scene;
+	}
+
+	/**
+	 * Answers every call to the named client method, replacing the answer from the scene if there is one.
+	 */
+	public StubClient answer(String method, Function<Object[], Object> answer)
+	{
+		answers.put(method, answer);
+		return this;
+	}
+
+	/**
+	 * Answers every call to the named method of the local player, replacing the answer from the scene if there is one.
+	 */
+	public StubClient answerPlayer(String method, Function<Object[], Object> answer)
+	{
+		playerAnswers.put(method, answer);
+		return this;
+	}
+
+	/**
+	 * Answers every call to the named method of any NPC, given the NPC and the arguments.
+	 */
+	public StubClient answerNpc(String method, BiFunction<NPC, Object[], Object> answer)
+	{
+		npcAnswers.put(method, answer);
+		return this;
+	}
+
+	/**
+	 * The thread isClientThread() is true on, or null for every thread.
+	 */
+	public void setClientThread(@Nullable Thread clientThread)
+	{
+		this.clientThread = clientThread;
+	}
+
+	/**
+	 * Creates a stand-in for a client interface. Named methods are answered by the given functions,
+	 * everything else returns 0, false, null or an empty array or list.
+	 */
+	public static <T> T stub(Class<T> type, Map<String, Function<Object[], Object>> answers)
+	{
+		return type.cast(Proxy.newProxyInstance(StubClient.class.getClassLoader(), new Class<?>[]{type},
+			(proxy, method, args) -> answer(proxy, method, args, answers.get(method.getName()))));
+	}
+
+	@Override
+	public Object invoke(Object proxy, Method method, Object[] args)
+	{
+		Function<Object[], Object> answer = answers.get(method.getName());
+		return answer(proxy, method, args, answer != null ? answer : fromScene(method));
+	}
+
+	@Nullable
+	private Function<Object[], Object> fromScene(Method method)
+	{
+		switch (method.getName())
+		{
+			case "isClientThread":
+				return args -> clientThread == null || clientThread == Thread.currentThread();
+			case "getGameState":
+				return args -> scene.getGameState();
+			case "getTickCount":
+				return args -> scene.getTickCount();
+			case "getLocalPlayer":
+				return args -> scene.getPlayerLocation() == null ? null : player;
+			case "getPlane":
+				return args -> scene.getPlayerLocation() == null ? 0 : scene.getPlayerLocation().getPlane();
+			case "getBaseX":
+				return args -> base()[0];
+			case "getBaseY":
+				return args -> base()[1];
+			case "getNpcs":
+				return args -> npcs();
+			case "getScene":
+				return args -> sceneProxy;
+			case "getCollisionMaps":
+				return args -> scene.getPlayerLocation() == null ? null : collisionMaps;
+			case "getItemContainer":
+				return args -> getItemContainer(((InventoryID) args[0]).getId());
+			case "getWidget":
+				return args -> args.length == 1 ? widget((WidgetInfo) args[0]) : null;
+			case "getVarpValue":
+				return args -> args.length == 1 ? scene.getVarp((int) args[0]) : null;
+			case "getVarps":
+				return args -> varps();
+			case "getVar":
+				return args -> args[0] instanceof VarPlayer ? scene.getVarp(((VarPlayer) args[0]).getId()) : null;
+			case "getRealSkillLevel":
+				return args -> scene.getLevel((Skill) args[0]);
+			case "getBoostedSkillLevel":
+				return args -> scene.getBoostedLevel((Skill) args[0]);
+			case "getSkillExperience":
+				return args -> scene.getXp((Skill) args[0]);
+			case "isResized":
+				return args -> true;
+			case "getCanvas":
+				return args -> canvas;
+			case "getViewportWidth":
+			case "getCanvasWidth":
+				return args -> VIEWPORT_WIDTH;
+			case "getViewportHeight":
+			case "getCanvasHeight":
+				return args -> VIEWPORT_HEIGHT;
+			case "getCenterX":
+				return args -> VIEWPORT_WIDTH / 2;
+			case "getCenterY":
+				return args -> VIEWPORT_HEIGHT / 2;
+			default:
+				return null;
+		}
+	}
+
+	@Nullable
+	LocalPoint local(@Nullable WorldPoint location)
+	{
+		return location == null ? null : LocalPoint.fromWorld(client, location);
+	}
+
+	/**
+	 * The object on the scene for the entity, the same instance for as long as the entity is in the scene.
+	 */
+	@Override
+	@Nullable
+	public synchronized GameObject getGameObject(ReplayScene.Entity entity)
+	{
+		tiles();
+		return objects.get(entity);
+	}
+
+	/**
+	 * The ground item on the scene for the entity, the same instance for as long as the entity is in the scene.
+	 */
+	@Override
+	@Nullable
+	public synchronized TileItem getTileItem(ReplayScene.Entity entity)
+	{
+		tiles();
+		return items.get(entity);
+	}
+
+	/**
+	 * The NPC at the index, the same instance for as long as the scene has the same NPC there.
+	 */
+	@Override
+	@Nullable
+	public synchronized NPC getNpc(int index)
+	{
+		npcs();
+		return npcs.get(index);
+	}
+
+	/**
+	 * The tile at a world location in the scene, or null if it is outside of the scene.
+	 */
+	@Override
+	@Nullable
+	public synchronized Tile getTile(WorldPoint location)
+	{
+		tiles();
+		int x = location.getX() - baseX;
+		int y = location.getY() - baseY;
+		if (x < 0 || y < 0 || x >= SCENE_SIZE || y >= SCENE_SIZE)
+		{
+			return null;
+		}
+		return tile(location.getPlane(), x, y);
+	}
+
+	//Scene base, moved like the real client's when the player walks near its edge
+	private synchronized int[] base()
+	{
+		WorldPoint location = scene.getPlayerLocation();
+		if (location != null)
+		{
+			int x = location.getX() - baseX;
+			int y = location.getY() - baseY;
+			if (!baseSet || x < SCENE_EDGE || y < SCENE_EDGE || x >= SCENE_SIZE - SCENE_EDGE || y >= SCENE_SIZE - SCENE_EDGE)
+			{
+				baseX = (location.getX() - SCENE_SIZE / 2) & ~7;
+				baseY = (location.getY() - SCENE_SIZE / 2) & ~7;
+				baseSet = true;
+			}
+		}
+		return new int[]{baseX, baseY};
+	}
+
+	//Same NPC instance for as long as the scene has the same NPC at that index, plugins compare them by identity
+	private synchronized List<NPC> npcs()
+	{
+		Map<Integer, ReplayScene.Entity> spawned = scene.getNpcsByIndex();
+		npcs.keySet().retainAll(spawned.keySet());
+		npcEntities.keySet().retainAll(spawned.keySet());
+		List<NPC> result = new ArrayList<>(spawned.size());
+		for (Map.Entry<Integer, ReplayScene.Entity> entry : spawned.entrySet())
+		{
+			int index = entry.getKey();
+			ReplayScene.Entity entity = entry.getValue();
+			if (!entity.equals(npcEntities.get(index)))
+			{
+				npcEntities.put(index, entity);
+				npcs.put(index, npc(index, entity));
+			}
+			result.add(npcs.get(index));
+		}
+		return result;
+	}
+
+	private NPC npc(int index, ReplayScene.Entity entity)
+	{
+		Map<String, Function<Object[], Object>> fromEntity = Map.of(
+			"getId", args -> entity.getId(),
+			"getIndex", args -> index,
+			"getWorldLocation", args -> entity.getLocation(),
+			"getLocalLocation", args -> local(entity.getLocation()),
+			"getWorldArea", args -> new WorldArea(entity.getLocation(), 1, 1),
+			"getConvexHull", args -> hull(entity.getLocation()),
+			"getAnimation", args -> -1,
+			"getHealthRatio", args -> -1,
+			"getHealthScale", args -> -1);
+		return (NPC) Proxy.newProxyInstance(StubClient.class.getClassLoader(), new Class<?>[]{NPC.class}, (proxy, method, args) ->
+		{
+			BiFunction<NPC, Object[], Object> answer = npcAnswers.get(method.getName());
+			return answer(proxy, method, args, answer != null ? npcArgs -> answer.apply((NPC) proxy, npcArgs) : fromEntity.get(method.getName()));
+		});
+	}
+
+	//Tiles holding objects or ground items, the rest of the scene is empty
+	private synchronized Tile[][][] tiles()
+	{
+		int[] base = base();
+		boolean moved = base[0] != tiledBaseX || base[1] != tiledBaseY;
+		if (!moved && sameEntities(tiledObjects, scene.getObjects()) && sameEntities(tiledItems, scene.getGroundItems()))
+		{
+			return sceneTiles;
+		}
+		if (moved)
+		{
+			tiles.clear();
+			tiledBaseX = base[0];
+			tiledBaseY = base[1];
+		}
+		objects.keySet().retainAll(identitySet(scene.getObjects()).keySet());
+		items.keySet().retainAll(identitySet(scene.getGroundItems()).keySet());
+		tileObjects.clear();
+		tileItems.clear();
+		sceneTiles = new Tile[PLANES][SCENE_SIZE][SCENE_SIZE];
+		for (ReplayScene.Entity entity : scene.getObjects())
+		{
+			Tile tile = place(entity);
+			if (tile != null)
+			{
+				GameObject object = objects.computeIfAbsent(entity, this::gameObject);
+				tileObjects.computeIfAbsent(key(tile), key -> new ArrayList<>()).add(object);
+			}
+		}
+		for (ReplayScene.Entity entity : scene.getGroundItems())
+		{
+			Tile tile = place(entity);
+			if (tile != null)
+			{
+				TileItem item = items.computeIfAbsent(entity, e -> tileItem(e, tile));
+				tileItems.computeIfAbsent(key(tile), key -> new ArrayList<>()).add(item);
+			}
+		}
+		tiledObjects.clear();
+		tiledObjects.addAll(scene.getObjects());
+		tiledItems.clear();
+		tiledItems.addAll(scene.getGroundItems());
+		return sceneTiles;
+	}
+
+	@Nullable
+	private Tile place(ReplayScene.Entity entity)
+	{
+		WorldPoint location = entity.getLocation();
+		if (location == null)
+		{
+			return null;
+		}
+		int x = location.getX() - tiledBaseX;
+		int y = location.getY() - tiledBaseY;
+		if (x < 0 || y < 0 || x >= SCENE_SIZE || y >= SCENE_SIZE)
+		{
+			return null;
+		}
+		Tile tile = tile(location.getPlane(), x, y);
+		sceneTiles[location.getPlane()][x][y] = tile;
+		return tile;
+	}
+
+	private Tile tile(int plane, int x, int y)
+	{
+		return tiles.computeIfAbsent(key(plane, x, y), key -> stub(Tile.class, Map.of(
+			"getPlane", args -> plane,
+			"getWorldLocation", args -> new WorldPoint(tiledBaseX + x, tiledBaseY + y, plane),
+			"getLocalLocation", args -> LocalPoint.fromScene(x, y),
+			"getSceneLocation", args -> new Point(x, y),
+			"getGameObjects", args -> tileObjects.getOrDefault(key, Collections.emptyList()).toArray(new GameObject[0]),
+			"getGroundItems", args -> tileItems.getOrDefault(key, Collections.emptyList()))));
+	}
+
+	private GameObject gameObject(ReplayScene.Entity entity)
+	{
+		WorldPoint location = entity.getLocation();
+		return stub(GameObject.class, Map.of(
+			"getId", args -> entity.getId(),
+			"getPlane", args -> location.getPlane(),
+			"getWorldLocation", args -> location,
+			"getLocalLocation", args -> local(location),
+			"getSceneMinLocation", args -> new Point(location.getX() - tiledBaseX, location.getY() - tiledBaseY),
+			"getSceneMaxLocation", args -> new Point(location.getX() - tiledBaseX, location.getY() - tiledBaseY),
+			"getConvexHull", args -> hull(location)));
+	}
+
+	private TileItem tileItem(ReplayScene.Entity entity, Tile tile)
+	{
+		return stub(TileItem.class, Map.of(
+			"getId", args -> entity.getId(),
+			"getQuantity", args -> entity.getQuantity(),
+			"getTile", args -> tile));
+	}
+
+	//Top-down around the player at the centre of the viewport, north is up
+	@Nullable
+	private Polygon hull(@Nullable WorldPoint location)
+	{
+		WorldPoint playerLocation = scene.getPlayerLocation();
+		if (location == null || playerLocation == null || location.getPlane() != playerLocation.getPlane())
+		{
+			return null;
+		}
+		int x = VIEWPORT_WIDTH / 2 + (location.getX() - playerLocation.getX()) * TILE_PIXELS - TILE_PIXELS / 2;
+		int y = VIEWPORT_HEIGHT / 2 - (location.getY() - playerLocation.getY()) * TILE_PIXELS - TILE_PIXELS / 2;
+		return new Polygon(new int[]{x, x + TILE_PIXELS, x + TILE_PIXELS, x}, new int[]{y, y, y + TILE_PIXELS, y + TILE_PIXELS}, 4);
+	}
+
+	//Items in the inventory container, laid out in the inventory panel 4 to a row. Empty slots have no item.
+	private synchronized List<WidgetItem> inventoryItems()
+	{
+		int[] contents = scene.getContainer(InventoryID.INVENTORY.getId());
+		List<WidgetItem> result = new ArrayList<>();
+		for (int slot = 0; contents != null && slot < Math.min(INVENTORY_SIZE, contents.length / 2); slot++)
+		{
+			int id = contents[slot * 2];
+			int quantity = contents[slot * 2 + 1];
+			if (id <= 0 || quantity <= 0)
+			{
+				widgetItems[slot] = null;
+				continue;
+			}
+			WidgetItem item = widgetItems[slot];
+			if (item == null || item.getId() != id || item.getQuantity() != quantity)
+			{
+				item = widgetItem(slot, id, quantity);
+				widgetItems[slot] = item;
+			}
+			result.add(item);
+		}
+		return result;
+	}
+
+	@Nullable
+	private Widget widget(WidgetInfo widgetInfo)
+	{
+		if (widgetInfo == WidgetInfo.INVENTORY && scene.getContainer(InventoryID.INVENTORY.getId()) != null)
+		{
+			return inventoryWidget;
+		}
+		if (widgetInfo == WidgetInfo.BANK_ITEM_CONTAINER && scene.getContainer(InventoryID.BANK.getId()) != null)
+		{
+			return bankWidget;
+		}
+		return null;
+	}
+
+	//Bank items laid out 8 to a row, rebuilt when the bank container is replaced
+	private synchronized Widget[] bankItems()
+	{
+		int[] contents = scene.getContainer(InventoryID.BANK.getId());
+		if (contents == null)
+		{
+			return new Widget[0];
+		}
+		if (contents != bankContents)
+		{
+			Rectangle panel = bankWidget.getBounds();
+			bankItems = new Widget[contents.length / 2];
+			for (int slot = 0; slot < bankItems.length; slot++)
+			{
+				int id = contents[slot * 2];
+				int quantity = contents[slot * 2 + 1];
+				int index = slot;
+				int x = panel.x + (slot % 8) * 48;
+				int y = panel.y + (slot / 8) * 36;
+				bankItems[slot] = stub(Widget.class, Map.of(
+					"getIndex", args -> index,
+					"getItemId", args -> id,
+					"getItemQuantity", args -> quantity,
+					//Bank queries resize the bounds they are given
+					"getBounds", args -> new Rectangle(x, y, 36, 32)));
+			}
+			bankContents = contents;
+		}
+		return bankItems;
+	}
+
+	private WidgetItem widgetItem(int slot, int id, int quantity)
+	{
+		Rectangle panel = inventoryWidget.getBounds();
+		WidgetItem item = mock(WidgetItem.class);
+		when(item.getId()).thenReturn(id);
+		when(item.getQuantity()).thenReturn(quantity);
+		when(item.getIndex()).thenReturn(slot);
+		when(item.getWidget()).thenReturn(inventoryWidget);
+		when(item.getCanvasBounds()).thenReturn(new Rectangle(panel.x + (slot % 4) * 42, panel.y + (slot / 4) * 36, 36, 32));
+		return item;
+	}
+
+	/**
+	 * The container as last set in the scene, a new instance every time.
+	 */
+	@Override
+	@Nullable
+	public ItemContainer getItemContainer(int containerId)
+	{
+		int[] items = scene.getContainer(containerId);
+		if (items == null)
+		{
+			return null;
+		}
+		Item[] contents = new Item[items.length / 2];
+		for (int i = 0; i < contents.length; i++)
+		{
+			contents[i] = new Item(items[i * 2], items[i * 2 + 1]);
+		}
+		return stub(ItemContainer.class, Map.of(
+			"getId", args -> containerId,
+			"getItems", args -> contents,
+			"getItem", args -> (int) args[0] < contents.length ? contents[(int) args[0]] : null));
+	}
+
+	private int[] varps()
+	{
+		int[] varps = new int[VARPS];
+		for (int i = 0; i < varps.length; i++)
+		{
+			varps[i] = scene.getVarp(i);
+		}
+		return varps;
+	}
+
+	private static boolean sameEntities(List<ReplayScene.Entity> tiled, List<ReplayScene.Entity> current)
+	{
+		if (tiled.size() != current.size())
+		{
+			return false;
+		}
+		for (int i = 0; i < tiled.size(); i++)
+		{
+			if (tiled.get(i) != current.get(i))
+			{
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private static Map<ReplayScene.Entity, Boolean> identitySet(Collection<ReplayScene.Entity> entities)
+	{
+		Map<ReplayScene.Entity, Boolean> set = new IdentityHashMap<>();
+		entities.forEach(entity -> set.put(entity, true));
+		return set;
+	}
+
+	private static int key(Tile tile)
+	{
+		return key(tile.getPlane(), tile.getSceneLocation().getX(), tile.getSceneLocation().getY());
+	}
+
+	private static int key(int plane, int x, int y)
+	{
+		return (plane << 16) | (x << 8) | y;
+	}
+
+	@Nullable
+	private static Object answer(Object proxy, Method method, Object[] args, @Nullable Function<Object[], Object> answer)
+	{
+		if (method.getDeclaringClass() == Object.class)
+		{
+			switch (method.getName())
+			{
+				case "equals":
+					return proxy == args[0];
+				case "hashCode":
+					return System.identityHashCode(proxy);
+				default:
+					return proxy.getClass().getInterfaces()[0].getSimpleName() + "@" + Integer.toHexString(System.identityHashCode(proxy));
+			}
+		}
+		Object value = answer == null ? null : answer.apply(args == null ? new Object[0] : args);
+		return value != null ? value : defaultValue(method.getReturnType());
+	}
+
+	@Nullable
+	private static Object defaultValue(Class<?> type)
+	{
+		if (type == boolean.class)
+		{
+			return false;
+		}
+		if (type == int.class)
+		{
+			return 0;
+		}
+		if (type == long.class)
+		{
+			return 0L;
+		}
+		if (type == double.class)
+		{
+			return 0.0;
+		}
+		if (type == float.class)
+		{
+			return 0.0f;
+		}
+		if (type == short.class)
+		{
+			return (short) 0;
+		}
+		if (type == byte.class)
+		{
+			return (byte) 0;
+		}
+		if (type == char.class)
+		{
+			return (char) 0;
+		}
+		if (type.isArray())
+		{
+			return Array.newInstance(type.getComponentType(), 0);
+		}
+		if (type == List.class || type == Collection.class)
+		{
+			return Collections.emptyList();
+		}
+		return null;
+	}
+}
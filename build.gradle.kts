@@ -83,6 +83,15 @@ subprojects {
         compileOnly(Libraries.javax)
         compileOnly(Libraries.lombok)
         compileOnly(Libraries.pf4j)
+
+        testAnnotationProcessor(group = "org.projectlombok", name = "lombok", version = "1.18.12")
+        testImplementation("com.openosrs:runelite-api:$openosrsVersion+")
+        testImplementation("com.openosrs.rs:runescape-api:$openosrsVersion+")
+        testImplementation("com.openosrs:runelite-client:$openosrsVersion+")
+        testImplementation("com.openosrs:http-api:$openosrsVersion+")
+        testImplementation(Libraries.javax)
+        testImplementation(Libraries.junit)
+        testImplementation(Libraries.mockito)
     }
 
     configure<JavaPluginConvention> {
@@ -97,8 +106,11 @@ subprojects {
             }
         }
         publications {
-            register("mavenJava", MavenPublication::class) {
-                from(components["java"])
+            //The benchmarks aren't a plugin, there's nothing to release
+            if (project.name != "benchmarks") {
+                register("mavenJava", MavenPublication::class) {
+                    from(components["java"])
+                }
             }
         }
     }
@@ -108,11 +120,15 @@ subprojects {
             options.encoding = "UTF-8"
         }
 
-        withType<Jar> {
-            doLast {
-                copy {
-                    from("./build/libs/")
-                    into(System.getProperty("user.home") + "/Documents/JavaProjects/My Plugins Jars")
+        if (project.name != "benchmarks") {
+            withType<Jar> {
+                doLast {
+                    copy {
+                        from("./build/libs/") {
+                            exclude("*-test-fixtures.jar")
+                        }
+                        into(System.getProperty("user.home") + "/Documents/JavaProjects/My Plugins Jars")
+                    }
                 }
             }
         }
@@ -44,6 +44,11 @@ open class BootstrapTask : DefaultTask() {
             val baseBootstrap = getBootstrap("$bootstrapDir/plugins.json") ?: throw RuntimeException("Base bootstrap is null!")
 
             project.subprojects.forEach {
+                //JMH benchmarks for botutils, not a plugin
+                if (it.project.name == "benchmarks") {
+                    return@forEach
+                }
+
                 if (it.project.properties.containsKey("PluginName") && it.project.properties.containsKey("PluginDescription")) {
                     var pluginAdded = false
                     val plugin = it.project.tasks["jar"].outputs.files.singleFile
@@ -34,7 +34,9 @@ object Libraries {
         const val apacheCommonsText = "1.8"
         const val guice = "4.2.2"
         const val javax = "1.3.2"
+        const val junit = "4.12"
         const val lombok = "1.18.10"
+        const val mockito = "3.3.3"
         const val okhttp3 = "4.2.2"
         const val pf4j = "3.2.0"
         const val slf4j = "1.7.30"
@@ -44,7 +46,9 @@ object Libraries {
     const val apacheCommonsText = "org.apache.commons:commons-text:${Versions.apacheCommonsText}"
     const val guice = "com.google.inject:guice:${Versions.guice}:no_aop"
     const val javax = "javax.annotation:javax.annotation-api:${Versions.javax}"
+    const val junit = "junit:junit:${Versions.junit}"
     const val lombok = "org.projectlombok:lombok:${Versions.lombok}"
+    const val mockito = "org.mockito:mockito-core:${Versions.mockito}"
     const val okhttp3 = "com.squareup.okhttp3:okhttp:${Versions.okhttp3}"
     const val pf4j = "org.pf4j:pf4j:${Versions.pf4j}"
     const val slf4j = "org.slf4j:slf4j-api:${Versions.slf4j}"
@@ -50,6 +50,7 @@ import net.runelite.api.events.GameTick;
 import net.runelite.api.widgets.Widget;
 import net.runelite.api.widgets.WidgetInfo;
 import net.runelite.api.widgets.WidgetItem;
+import net.runelite.client.callback.ClientThread;
 import net.runelite.client.config.ConfigManager;
 import net.runelite.client.eventbus.Subscribe;
 import net.runelite.client.events.ConfigChanged;
@@ -58,6 +59,7 @@ import net.runelite.client.plugins.PluginDependency;
 import net.runelite.client.plugins.PluginDescriptor;
 import net.runelite.client.plugins.PluginType;
 import net.runelite.client.plugins.botutils.BotUtils;
+import net.runelite.client.plugins.botutils.ClickTarget;
 import static net.runelite.client.plugins.combinationrunecrafter.CombinationRunecrafterState.*;
 import net.runelite.client.ui.overlay.OverlayManager;
 import org.pf4j.Extension;
@@ -87,6 +89,9 @@ public class CombinationRunecrafterPlugin extends Plugin
 	@Inject
 	private ConfigManager configManager;
 
+	@Inject
+	private ClientThread clientThread;
+
 	@Inject
 	private OverlayManager overlayManager;
 
@@ -261,7 +266,15 @@ public class CombinationRunecrafterPlugin extends Plugin
 		currentCraftedRunes = 0;
 	}
 
+	//Looks up every missing price at once and sets them when all are in
 	private void updatePrices()
+	{
+		utils.getPriceCache().prefetch(List.of(createdRuneTypeID, essenceTypeID, talismanID, ItemID.RING_OF_DUELING8,
+			materialRuneID, ItemID.BINDING_NECKLACE, ItemID.STAMINA_POTION4))
+			.thenRun(() -> clientThread.invoke(this::setPrices));
+	}
+
+	private void setPrices()
 	{
 		runesCost = utils.getOSBItem(createdRuneTypeID).getOverall_average();
 		essenceCost = (essenceTypeID != ItemID.DAEYALT_ESSENCE) ?
@@ -544,7 +557,7 @@ public class CombinationRunecrafterPlugin extends Plugin
 					targetMenu = new MenuEntry("", "", 34817, MenuOpcode.GAME_OBJECT_FIRST_OPTION.getId(),
 						mysteriousRuins.getSceneMinLocation().getX(), mysteriousRuins.getSceneMinLocation().getY(), false);
 					utils.setMenuEntry(targetMenu);
-					utils.delayMouseClick(mysteriousRuins.getConvexHull().getBounds(), sleepDelay());
+					utils.delayMouseClick(ClickTarget.of(mysteriousRuins), sleepDelay());
 					timeout = tickDelay();
 					break;
 				case TELEPORT_CASTLE_WARS:
@@ -564,14 +577,14 @@ public class CombinationRunecrafterPlugin extends Plugin
 						fireAltar.getId(), MenuOpcode.ITEM_USE_ON_GAME_OBJECT.getId(), fireAltar.getSceneMinLocation().getX(),
 						fireAltar.getSceneMinLocation().getY(), false);
 					utils.setMenuEntry(targetMenu);
-					utils.delayMouseClick(fireAltar.getConvexHull().getBounds(), sleepDelay());
+					utils.delayMouseClick(ClickTarget.of(fireAltar), sleepDelay());
 					timeout = tickDelay();
 					break;
 				case OPEN_BANK:
 					targetMenu = new MenuEntry("", "", bankChest.getId(), MenuOpcode.GAME_OBJECT_FIRST_OPTION.getId(),
 						bankChest.getSceneMinLocation().getX(), bankChest.getSceneMinLocation().getY(), false);
 					utils.setMenuEntry(targetMenu);
-					utils.delayMouseClick(bankChest.getConvexHull().getBounds(), sleepDelay());
+					utils.delayMouseClick(ClickTarget.of(bankChest), sleepDelay());
 					timeout = tickDelay();
 					break;
 				case TELEPORT_DUEL_ARENA:
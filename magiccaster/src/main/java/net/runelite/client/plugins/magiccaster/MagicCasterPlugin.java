@@ -31,6 +31,7 @@ import java.time.Instant;
 import javax.inject.Inject;
 import lombok.extern.slf4j.Slf4j;
 import net.runelite.api.Client;
+import net.runelite.api.InventoryID;
 import net.runelite.api.MenuEntry;
 import net.runelite.api.MenuOpcode;
 import net.runelite.api.GameState;
@@ -56,7 +57,12 @@ import net.runelite.client.plugins.PluginDependency;
 import net.runelite.client.plugins.PluginDescriptor;
 import net.runelite.client.plugins.PluginManager;
 import net.runelite.client.plugins.PluginType;
+import net.runelite.client.plugins.botutils.ActionOutcome;
 import net.runelite.client.plugins.botutils.BotUtils;
+import net.runelite.client.plugins.botutils.ClickTarget;
+import net.runelite.client.plugins.botutils.SessionRecorder;
+import net.runelite.client.plugins.botutils.StateInput;
+import net.runelite.client.plugins.botutils.StateMachine;
 import net.runelite.client.ui.overlay.OverlayManager;
 import org.pf4j.Extension;
 import static net.runelite.client.plugins.magiccaster.MagicCasterState.*;
@@ -98,6 +104,8 @@ public class MagicCasterPlugin extends Plugin
 	CastType castType;
 	Spells selectedSpell;
 	MagicCasterState state;
+	private StateMachine<MagicCasterState> stateMachine;
+	private SessionRecorder.Session session;
 	Instant botTimer;
 	MenuEntry targetMenu;
 	LocalPoint beforeLoc = new LocalPoint(0, 0); //initiate to mitigate npe
@@ -114,17 +122,24 @@ public class MagicCasterPlugin extends Plugin
 	private static final String OUT_OF_RUNES_MSG = "You do not have enough";
 	private static final String UNREACHABLE_MSG = "I can't reach that";
 	private final int MAX_FAILURE = 10;
+	//The cast takes the item out of the inventory within a tick or two. With the backoff tick a retry goes out
+	//before the 5 tick cast cadence runs out
+	private static final int ALCH_VERIFY_TICKS = 2;
 
 	@Override
 	protected void startUp()
 	{
 		chinBreakHandler.registerPlugin(this);
+		stateMachine = buildStateMachine();
+		utils.registerStateMachine(stateMachine);
 	}
 
 	@Override
 	protected void shutDown()
 	{
 		resetVals();
+		utils.unregisterStateMachine(stateMachine);
+		log.debug("Magic caster states: {}", stateMachine);
 		chinBreakHandler.unregisterPlugin(this);
 	}
 
@@ -151,6 +166,9 @@ public class MagicCasterPlugin extends Plugin
 					chinBreakHandler.startPlugin(this);
 					botTimer = Instant.now();
 					state = null;
+					stateMachine.reset();
+					session = utils.getSessionRecorder().start("Magic Caster");
+					stateMachine.setSession(session);
 					targetMenu = null;
 					timeout = 0;
 					botTimer = Instant.now();
@@ -182,9 +200,16 @@ public class MagicCasterPlugin extends Plugin
 		selectedSpell = null;
 		botTimer = null;
 		failureCount = 0;
+		utils.getMetricsEndpoint().setState("Magic Caster", null);
 		npcID = -1;
 		itemID = -1;
 		timeout = 0;
+		if (session != null)
+		{
+			stateMachine.setSession(null);
+			session.close();
+			session = null;
+		}
 	}
 
 	@Subscribe
@@ -194,6 +219,7 @@ public class MagicCasterPlugin extends Plugin
 		{
 			return;
 		}
+		stateMachine.invalidate(StateInput.CONFIG);
 		switch (event.getKey())
 		{
 			case "npcID":
@@ -247,6 +273,7 @@ public class MagicCasterPlugin extends Plugin
 
 	private void castSpell()
 	{
+		session.count("casts");
 		switch (castType.getName())
 		{
 			case "Single cast":
@@ -258,38 +285,78 @@ public class MagicCasterPlugin extends Plugin
 			case "Auto-cast":
 				targetMenu = new MenuEntry("", "", targetNPC.getIndex(), MenuOpcode.NPC_SECOND_OPTION.getId(), 0, 0, false);
 				utils.setMenuEntry(targetMenu);
-				utils.delayMouseClick(targetNPC.getConvexHull().getBounds(), sleepDelay());
+				utils.delayMouseClick(ClickTarget.of(targetNPC), sleepDelay());
 				timeout = 10 + tickDelay();
 				return;
 			case "High Alchemy":
-				targetMenu = new MenuEntry("Cast", "", targetItem.getId(), MenuOpcode.ITEM_USE_ON_WIDGET.getId(), targetItem.getIndex(), 9764864, true);
-				timeout = 5 + tickDelay();
-				utils.oneClickCastSpell(WidgetInfo.SPELL_HIGH_LEVEL_ALCHEMY, targetMenu, targetItem.getCanvasBounds().getBounds(), sleepDelay());
+				//Every attempt restarts the cast cadence, so a retry and the state machine's next cast never share a tick
+				utils.verifiedAction("High Alchemy", ActionOutcome.containerChange(InventoryID.INVENTORY), ALCH_VERIFY_TICKS, 1, () ->
+				{
+					timeout = 5 + tickDelay();
+					castHighAlchemy();
+				});
 				return;
 		}
 	}
 
-	public MagicCasterState getState()
+	//Resolves the item again on every attempt, a retry must not click the slot the first cast saw
+	private void castHighAlchemy()
 	{
-		if (timeout > 0)
-		{
-			return IDLING;
-		}
-		if (utils.isMoving(beforeLoc)) //could also test with just isMoving
-		{
-			return MOVING;
-		}
-		if (chinBreakHandler.shouldBreak(this))
-		{
-			return HANDLE_BREAK;
-		}
-		if (selectedSpell.getName().equals("High Alchemy"))
+		WidgetItem alchItem = utils.getInventoryWidgetItem(itemID);
+		if (alchItem == null || client.getLocalPlayer() == null || client.getLocalPlayer().getAnimation() != -1)
 		{
-			targetItem = getItem();
-			return (targetItem != null && targetItem.getQuantity() > 0) ? FIND_ITEM : ITEM_NOT_FOUND;
+			return;
 		}
-		targetNPC = findNPC();
-		return (targetNPC != null) ? FIND_NPC : NPC_NOT_FOUND;
+		targetMenu = new MenuEntry("Cast", "", alchItem.getId(), MenuOpcode.ITEM_USE_ON_WIDGET.getId(), alchItem.getIndex(), 9764864, true);
+		utils.oneClickCastSpell(WidgetInfo.SPELL_HIGH_LEVEL_ALCHEMY, targetMenu, alchItem.getCanvasBounds().getBounds(), sleepDelay());
+	}
+
+	private StateMachine<MagicCasterState> buildStateMachine()
+	{
+		return StateMachine.builder(MagicCasterState.class)
+			.when(IDLING, () -> timeout > 0, StateInput.TICK)
+			.when(MOVING, utils::isMoving, StateInput.POSITION)
+			.when(HANDLE_BREAK, () -> chinBreakHandler.shouldBreak(this), StateInput.TICK)
+			.when(FIND_ITEM, () -> isHighAlchemy() && (targetItem = getItem()) != null && targetItem.getQuantity() > 0,
+				StateInput.INVENTORY, StateInput.CONFIG)
+			.when(ITEM_NOT_FOUND, this::isHighAlchemy, StateInput.CONFIG)
+			.when(FIND_NPC, () -> (targetNPC = findNPC()) != null, StateInput.TICK)
+			.otherwise(NPC_NOT_FOUND)
+			.onTick(IDLING, () -> timeout--)
+			.onTick(MOVING, () -> timeout = tickDelay())
+			.onTick(NPC_NOT_FOUND, () ->
+			{
+				log.debug("NPC not found");
+				utils.sendGameMessage("NPC not found");
+				timeout = tickDelay();
+			})
+			.onTick(ITEM_NOT_FOUND, () ->
+			{
+				log.info("Item not found, config: {}, ID: {}", config.itemID(), itemID);
+				utils.sendGameMessage("Item not found");
+				if (config.logout())
+				{
+					utils.logout();
+					resetVals();
+				}
+				else
+				{
+					timeout = tickDelay();
+				}
+			})
+			.onTick(HANDLE_BREAK, () ->
+			{
+				chinBreakHandler.startBreak(this);
+				timeout = 10;
+			})
+			.onTick(FIND_NPC, this::castSpell)
+			.onTick(FIND_ITEM, this::castSpell)
+			.build();
+	}
+
+	private boolean isHighAlchemy()
+	{
+		return selectedSpell.getName().equals("High Alchemy");
 	}
 
 	@Subscribe
@@ -309,43 +376,9 @@ public class MagicCasterPlugin extends Plugin
 				return;
 			}
 			utils.handleRun(40, 20);
-			state = getState();
+			state = stateMachine.tick();
+			utils.getMetricsEndpoint().setState("Magic Caster", state);
 			beforeLoc = player.getLocalLocation();
-			switch (state)
-			{
-				case IDLING:
-					timeout--;
-					return;
-				case MOVING:
-					timeout = tickDelay();
-					break;
-				case NPC_NOT_FOUND:
-					log.debug("NPC not found");
-					utils.sendGameMessage("NPC not found");
-					timeout = tickDelay();
-					break;
-				case ITEM_NOT_FOUND:
-					log.info("Item not found, config: {}, ID: {}, quantity {}", config.itemID(), targetItem.getId(), targetItem.getQuantity());
-					utils.sendGameMessage("Item not found");
-					if (config.logout())
-					{
-						utils.logout();
-						resetVals();
-					}
-					else
-					{
-						timeout = tickDelay();
-					}
-					break;
-				case HANDLE_BREAK:
-					chinBreakHandler.startBreak(this);
-					timeout = 10;
-					break;
-				case FIND_NPC:
-				case FIND_ITEM:
-					castSpell();
-					break;
-			}
 		}
 		else
 		{
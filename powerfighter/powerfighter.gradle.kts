@@ -31,6 +31,10 @@ project.extra["PluginDescription"] = "Illumine - Powerfighter plugin"
 dependencies {
     compileOnly(project(":botutils"))
     compileOnly(group = "com.owain.externals", name = "chinbreakhandler", version = "0.0.13+")
+
+    testImplementation(project(":botutils"))
+    testImplementation(testFixtures(project(":botutils")))
+    testImplementation(group = "com.owain.externals", name = "chinbreakhandler", version = "0.0.13+")
 }
 
 tasks {
@@ -0,0 +1,234 @@
+package net.runelite.client.plugins.powerfighter;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import javax.annotation.Nullable;
+import javax.inject.Inject;
+import lombok.extern.slf4j.Slf4j;
+import net.runelite.api.Client;
+import net.runelite.api.TileItem;
+import net.runelite.api.coords.WorldPoint;
+import net.runelite.client.plugins.botutils.BotUtils;
+import net.runelite.client.plugins.botutils.PathDistanceField;
+
+/**
+ * Plans the order loot is picked up in instead of walking to whichever item is nearest after every pickup.
+ * Items are grouped into piles by tile, the piles worth the most per tick of travel are kept and visited in the
+ * order of a nearest neighbour route improved with 2-opt over walking distances. Piles that can't be walked to
+ * are left out. The route is planned again when loot is added, pickups only take items off it.
+ * Client thread only.
+ */
+@Slf4j
+class LootPlanner
+{
+	//Each planned pile costs a walking distance search, the rest are planned once these are picked up
+	private static final int MAX_PILES = 8;
+	//Cost of a leg between piles with no path, e.g. on both sides of a fence, so it's only taken when nothing else is left
+	private static final int NO_PATH_COST = 1000;
+
+	@Inject
+	private Client client;
+
+	@Inject
+	private BotUtils utils;
+
+	private final List<Pile> route = new ArrayList<>();
+	private boolean dirty = true;
+
+	//Plans again on the next call to next
+	void invalidate()
+	{
+		dirty = true;
+	}
+
+	void clear()
+	{
+		route.clear();
+		dirty = true;
+	}
+
+	void removed(TileItem item)
+	{
+		for (Pile pile : route)
+		{
+			pile.items.remove(item);
+		}
+		route.removeIf(pile -> pile.items.isEmpty());
+	}
+
+	/**
+	 * The item to pick up next, the most valuable one of the first pile on the route, or null if none of the loot
+	 * can be walked to.
+	 */
+	@Nullable
+	TileItem next(Collection<TileItem> loot)
+	{
+		if (dirty || route.isEmpty())
+		{
+			plan(loot);
+			dirty = false;
+		}
+		return route.isEmpty() ? null : route.get(0).items.get(0);
+	}
+
+	private void plan(Collection<TileItem> loot)
+	{
+		route.clear();
+		if (client.getLocalPlayer() == null)
+		{
+			return;
+		}
+		PathDistanceField pathDistances = utils.getPathDistances();
+		boolean run = utils.isRunEnabled();
+		Map<WorldPoint, Pile> piles = new HashMap<>();
+		for (TileItem item : loot)
+		{
+			piles.computeIfAbsent(item.getTile().getWorldLocation(), Pile::new).add(item, value(item));
+		}
+		List<Pile> candidates = new ArrayList<>();
+		for (Pile pile : piles.values())
+		{
+			int distance = pathDistances.getPickupDistance(pile.location);
+			if (distance == PathDistanceField.UNREACHABLE)
+			{
+				continue;
+			}
+			pile.score = score(pile.value, distance, run);
+			candidates.add(pile);
+		}
+		if (candidates.isEmpty())
+		{
+			return;
+		}
+		candidates.sort(Comparator.comparingDouble((Pile pile) -> pile.score).reversed());
+		List<Pile> selected = candidates.subList(0, Math.min(MAX_PILES, candidates.size()));
+
+		List<WorldPoint> tiles = new ArrayList<>();
+		tiles.add(client.getLocalPlayer().getWorldLocation());
+		for (Pile pile : selected)
+		{
+			pile.items.sort(Comparator.comparingLong((TileItem item) -> pile.values.get(item)).reversed());
+			tiles.add(pile.location);
+		}
+		int[][] costs = pathDistances.getDistances(tiles);
+		int[] order = improve(nearestNeighbour(costs), costs);
+		for (int i = 1; i < order.length; i++)
+		{
+			route.add(selected.get(order[i] - 1));
+		}
+		log.debug("Planned loot route of {} piles, {} tiles", route.size(), cost(order, costs));
+	}
+
+	private long value(TileItem item)
+	{
+		//Untradeables such as clue scrolls and bones priced at nothing still get picked up
+		return Math.max(1L, (long) utils.getPriceCache().getPrice(item.getId()) * item.getQuantity());
+	}
+
+	//Value per tick of travel, running covers two tiles a tick
+	static double score(long value, int distance, boolean run)
+	{
+		return value / (1.0 + (run ? (distance + 1) / 2 : distance));
+	}
+
+	//Route starting at the player, index 0, always walking to the closest pile not visited yet
+	static int[] nearestNeighbour(int[][] costs)
+	{
+		int[] order = new int[costs.length];
+		boolean[] visited = new boolean[costs.length];
+		visited[0] = true;
+		for (int i = 1; i < order.length; i++)
+		{
+			int best = -1;
+			for (int next = 1; next < costs.length; next++)
+			{
+				if (!visited[next] && (best == -1 || leg(costs, order[i - 1], next) < leg(costs, order[i - 1], best)))
+				{
+					best = next;
+				}
+			}
+			order[i] = best;
+			visited[best] = true;
+		}
+		return order;
+	}
+
+	//Reverses stretches of the route while that makes it shorter, the player stays at the start
+	static int[] improve(int[] order, int[][] costs)
+	{
+		int bestCost = cost(order, costs);
+		boolean improved = true;
+		while (improved)
+		{
+			improved = false;
+			for (int i = 1; i < order.length - 1; i++)
+			{
+				for (int k = i + 1; k < order.length; k++)
+				{
+					reverse(order, i, k);
+					int cost = cost(order, costs);
+					if (cost < bestCost)
+					{
+						bestCost = cost;
+						improved = true;
+					}
+					else
+					{
+						reverse(order, i, k);
+					}
+				}
+			}
+		}
+		return order;
+	}
+
+	static int cost(int[] order, int[][] costs)
+	{
+		int cost = 0;
+		for (int i = 1; i < order.length; i++)
+		{
+			cost += leg(costs, order[i - 1], order[i]);
+		}
+		return cost;
+	}
+
+	private static int leg(int[][] costs, int from, int to)
+	{
+		return costs[from][to] == PathDistanceField.UNREACHABLE ? NO_PATH_COST : costs[from][to];
+	}
+
+	private static void reverse(int[] order, int from, int to)
+	{
+		for (; from < to; from++, to--)
+		{
+			int swap = order[from];
+			order[from] = order[to];
+			order[to] = swap;
+		}
+	}
+
+	private static class Pile
+	{
+		private final WorldPoint location;
+		private final List<TileItem> items = new ArrayList<>();
+		private final Map<TileItem, Long> values = new HashMap<>();
+		private long value;
+		private double score;
+
+		private Pile(WorldPoint location)
+		{
+			this.location = location;
+		}
+
+		private void add(TileItem item, long value)
+		{
+			items.add(item);
+			values.put(item, value);
+			this.value += value;
+		}
+	}
+}
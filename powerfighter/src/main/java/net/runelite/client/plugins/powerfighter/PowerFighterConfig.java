@@ -517,6 +517,20 @@ public interface PowerFighterConfig extends Config
 		return true;
 	}
 
+	@ConfigItem(
+		keyName = "planLoot",
+		name = "Plan loot route",
+		description = "Pick up loot piles in the order with the least walking, favouring valuable piles, instead of always the nearest item",
+		position = 52,
+		hidden = true,
+		unhide = "lootItems",
+		titleSection = "lootTitle"
+	)
+	default boolean planLoot()
+	{
+		return true;
+	}
+
 	@ConfigTitleSection(
 		keyName = "alchTitle",
 		name = "Alch Settings",
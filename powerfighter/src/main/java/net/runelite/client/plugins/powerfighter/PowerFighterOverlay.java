@@ -4,12 +4,12 @@ import java.awt.Dimension;
 import java.awt.Graphics2D;
 import java.awt.Rectangle;
 import java.time.Duration;
-import java.time.Instant;
 import javax.inject.Inject;
 import javax.inject.Singleton;
 import lombok.extern.slf4j.Slf4j;
 import net.runelite.api.Client;
 import static net.runelite.api.MenuOpcode.RUNELITE_OVERLAY_CONFIG;
+import net.runelite.client.plugins.botutils.BotUtils;
 import static net.runelite.client.ui.overlay.OverlayManager.OPTION_CONFIGURE;
 import net.runelite.client.ui.overlay.OverlayMenuEntry;
 import net.runelite.client.ui.overlay.OverlayPanel;
@@ -27,18 +27,20 @@ class PowerFighterOverlay extends OverlayPanel
 	private final Client client;
 	private final PowerFighterPlugin plugin;
 	private final PowerFighterConfig config;
+	private final BotUtils utils;
 
 	String timeFormat;
 	private String infoStatus = "Starting...";
 
 	@Inject
-	private PowerFighterOverlay(final Client client, final PowerFighterPlugin plugin, final PowerFighterConfig config)
+	private PowerFighterOverlay(final Client client, final PowerFighterPlugin plugin, final PowerFighterConfig config, final BotUtils utils)
 	{
 		super(plugin);
 		setPosition(OverlayPosition.BOTTOM_LEFT);
 		this.client = client;
 		this.plugin = plugin;
 		this.config = config;
+		this.utils = utils;
 		getMenuEntries().add(new OverlayMenuEntry(RUNELITE_OVERLAY_CONFIG, OPTION_CONFIGURE, "Power Fighter overlay"));
 	}
 
@@ -52,7 +54,7 @@ class PowerFighterOverlay extends OverlayPanel
 		TableComponent tableComponent = new TableComponent();
 		tableComponent.setColumnAlignments(TableAlignment.LEFT, TableAlignment.RIGHT);
 
-		Duration duration = Duration.between(plugin.botTimer, Instant.now());
+		Duration duration = Duration.between(plugin.botTimer, utils.getClock().now());
 		timeFormat = (duration.toHours() < 1) ? "mm:ss" : "HH:mm:ss";
 		tableComponent.addRow("Time running:", formatDuration(duration.toMillis(),timeFormat));
 		if (plugin.state != null)
@@ -32,11 +32,13 @@ import java.time.Instant;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Set;
 import java.util.concurrent.ExecutorService;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
+import javax.annotation.Nullable;
 import javax.inject.Inject;
 import lombok.extern.slf4j.Slf4j;
 import net.runelite.api.*;
@@ -53,6 +55,11 @@ import net.runelite.client.plugins.PluginDependency;
 import net.runelite.client.plugins.PluginDescriptor;
 import net.runelite.client.plugins.PluginType;
 import net.runelite.client.plugins.botutils.BotUtils;
+import net.runelite.client.plugins.botutils.ClickTarget;
+import net.runelite.client.plugins.botutils.ItemDigest;
+import net.runelite.client.plugins.botutils.PathDistanceField;
+import net.runelite.client.plugins.botutils.SessionRecorder;
+import net.runelite.client.plugins.botutils.TickProfiler;
 
 import net.runelite.client.ui.overlay.OverlayManager;
 import net.runelite.http.api.osbuddy.OSBGrandExchangeResult;
@@ -98,10 +105,14 @@ public class PowerFighterPlugin extends Plugin
 	@Inject
 	private ChinBreakHandler chinBreakHandler;
 
+	@Inject
+	private LootPlanner lootPlanner;
+
 	NPC currentNPC;
 	WorldPoint deathLocation;
 	List<TileItem> loot = new ArrayList<>();
 	List<TileItem> ammoLoot = new ArrayList<>();
+	List<TileItem> unpricedLoot = new ArrayList<>();
 	List<String> lootableItems = new ArrayList<>();
 	Set<String> alchableItems = new HashSet<>();
 	Set<Integer> alchBlacklist = Set.of(ItemID.NATURE_RUNE, ItemID.FIRE_RUNE, ItemID.COINS_995);
@@ -116,6 +127,8 @@ public class PowerFighterPlugin extends Plugin
 	LocalPoint beforeLoc = new LocalPoint(0, 0);
 	WorldPoint startLoc;
 	OSBGrandExchangeResult itemGeValue;
+	TickProfiler.Section gameTickSection;
+	SessionRecorder.Session session;
 
 	int highAlchCost;
 	boolean startBot;
@@ -141,6 +154,7 @@ public class PowerFighterPlugin extends Plugin
 	protected void startUp()
 	{
 		chinBreakHandler.registerPlugin(this);
+		gameTickSection = utils.getTickProfiler().section("Power Fighter", "onGameTick");
 	}
 
 	@Override
@@ -160,11 +174,19 @@ public class PowerFighterPlugin extends Plugin
 		newLoot = null;
 		lootTimer = null;
 		loot.clear();
+		lootPlanner.clear();
+		unpricedLoot.clear();
 		ammoLoot.clear();
 		lootableItems.clear();
 		alchLoot.clear();
 		currentNPC = null;
 		state = null;
+		utils.getMetricsEndpoint().setState("Power Fighter", null);
+		if (session != null)
+		{
+			session.close();
+			session = null;
+		}
 	}
 
 	@Subscribe
@@ -191,10 +213,11 @@ public class PowerFighterPlugin extends Plugin
 				slayerCompleted = false;
 				state = null;
 				targetMenu = null;
-				botTimer = Instant.now();
+				botTimer = utils.getClock().now();
+				session = utils.getSessionRecorder().start("Power Fighter");
 				overlayManager.add(overlay);
 				updateConfigValues();
-				highAlchCost = utils.getOSBItem(ItemID.NATURE_RUNE).getOverall_average() + (utils.getOSBItem(ItemID.FIRE_RUNE).getOverall_average() * 5);
+				prefetchPrices();
 				startLoc = client.getLocalPlayer().getWorldLocation();
 				if (config.safeSpot())
 				{
@@ -230,6 +253,25 @@ public class PowerFighterPlugin extends Plugin
 		}
 	}
 
+	//Alch runes, ammo and the inventory alch candidates in one batch instead of a lookup per item as they come up
+	private void prefetchPrices()
+	{
+		List<Integer> itemIds = new ArrayList<>(List.of(ItemID.NATURE_RUNE, ItemID.FIRE_RUNE, config.ammoID()));
+		ItemContainer inventory = client.getItemContainer(InventoryID.INVENTORY);
+		if (inventory != null)
+		{
+			for (Item item : inventory.getItems())
+			{
+				if (item.getId() > 0)
+				{
+					itemIds.add(item.getId());
+				}
+			}
+		}
+		utils.getPriceCache().prefetch(itemIds).thenRun(() -> clientThread.invoke(() ->
+			highAlchCost = utils.getPriceCache().getPrice(ItemID.NATURE_RUNE) + (utils.getPriceCache().getPrice(ItemID.FIRE_RUNE) * 5)));
+	}
+
 	private long sleepDelay()
 	{
 		sleepLength = utils.randomDelay(config.sleepWeightedDistribution(), config.sleepMin(), config.sleepMax(), config.sleepDeviation(), config.sleepTarget());
@@ -243,15 +285,17 @@ public class PowerFighterPlugin extends Plugin
 		return tickLength;
 	}
 
+	//Nearest by walking distance, items behind walls or across water are skipped
 	private TileItem getNearestTileItem(List<TileItem> tileItems)
 	{
+		PathDistanceField pathDistances = utils.getPathDistances();
 		int currentDistance;
-		TileItem closestTileItem = tileItems.get(0);
-		int closestDistance = closestTileItem.getTile().getWorldLocation().distanceTo(player.getWorldLocation());
+		TileItem closestTileItem = null;
+		int closestDistance = Integer.MAX_VALUE;
 		for (TileItem tileItem : tileItems)
 		{
-			currentDistance = tileItem.getTile().getWorldLocation().distanceTo(player.getWorldLocation());
-			if (currentDistance < closestDistance)
+			currentDistance = pathDistances.getPickupDistance(tileItem.getTile().getWorldLocation());
+			if (currentDistance != PathDistanceField.UNREACHABLE && currentDistance < closestDistance)
 			{
 				closestTileItem = tileItem;
 				closestDistance = currentDistance;
@@ -260,21 +304,40 @@ public class PowerFighterPlugin extends Plugin
 		return closestTileItem;
 	}
 
-	private void lootItem(List<TileItem> itemList)
+	//Loot that can't be walked to is left alone, so it doesn't hold the plugin in a loot state until it despawns
+	@Nullable
+	private TileItem nextLoot()
+	{
+		if (loot.isEmpty())
+		{
+			return null;
+		}
+		return config.planLoot() ? lootPlanner.next(loot) : getNearestTileItem(loot);
+	}
+
+	private void lootItem(TileItem lootItem)
 	{
-		TileItem lootItem = getNearestTileItem(itemList);
 		if (lootItem != null)
 		{
 			targetMenu = new MenuEntry("", "", lootItem.getId(), MenuOpcode.GROUND_ITEM_THIRD_OPTION.getId(),
 				lootItem.getTile().getSceneLocation().getX(), lootItem.getTile().getSceneLocation().getY(), false);
 			utils.setMenuEntry(targetMenu);
-			utils.delayMouseClick(lootItem.getTile().getItemLayer().getCanvasTilePoly().getBounds(), sleepDelay());
+			utils.delayMouseClick(ClickTarget.of(lootItem.getTile()), sleepDelay()).thenAccept(this::onClickResolved);
+		}
+	}
+
+	//The target was gone by the time the click went out, look for another one next tick instead of waiting out the timeout
+	private void onClickResolved(boolean clicked)
+	{
+		if (!clicked)
+		{
+			clientThread.invoke(() -> timeout = 0);
 		}
 	}
 
 	private boolean lootableItem(TileItem item)
 	{
-		String itemName = client.getItemDefinition(item.getId()).getName().toLowerCase();
+		String itemName = utils.getItemDigests().getLowerName(item.getId());
 		return config.lootItems() &&
 			((config.lootNPCOnly() && item.getTile().getWorldLocation().equals(deathLocation)) ||
 				(!config.lootNPCOnly() && item.getTile().getWorldLocation().distanceTo(startLoc) < config.lootRadius())) &&
@@ -301,14 +364,15 @@ public class PowerFighterPlugin extends Plugin
 		if (config.alchByValue())
 		{
 			itemGeValue = utils.getOSBItem(itemID);
+			highAlchCost = utils.getPriceCache().getPrice(ItemID.NATURE_RUNE) + (utils.getPriceCache().getPrice(ItemID.FIRE_RUNE) * 5);
 		}
-		ItemDefinition itemDef = client.getItemDefinition(itemID);
-		log.debug("Checking alch value of item: {}", itemDef.getName());
+		ItemDigest itemDigest = utils.getItemDigests().get(itemID);
+		log.debug("Checking alch value of item: {}", itemDigest.getName());
 		return config.alchItems() &&
-			(config.alchByValue() && itemDef.getHaPrice() > highAlchCost &&
-				itemDef.getHaPrice() > itemGeValue.getOverall_average() &&
-				itemDef.getHaPrice() < config.maxAlchValue()) ||
-			(config.alchByName() && !alchableItems.isEmpty() && alchableItems.stream().anyMatch(itemDef.getName().toLowerCase()::contains));
+			(config.alchByValue() && itemDigest.getHaPrice() > highAlchCost &&
+				itemDigest.getHaPrice() > itemGeValue.getOverall_average() &&
+				itemDigest.getHaPrice() < config.maxAlchValue()) ||
+			(config.alchByName() && !alchableItems.isEmpty() && alchableItems.stream().anyMatch(itemDigest.getLowerName()::contains));
 	}
 
 	private void castHighAlch(Integer itemID)
@@ -357,7 +421,7 @@ public class PowerFighterPlugin extends Plugin
 		targetMenu = new MenuEntry("", "", npc.getIndex(), MenuOpcode.NPC_SECOND_OPTION.getId(),
 			0, 0, false);
 		utils.setMenuEntry(targetMenu);
-		utils.delayMouseClick(currentNPC.getConvexHull().getBounds(), sleepDelay());
+		utils.delayMouseClick(ClickTarget.of(currentNPC), sleepDelay()).thenAccept(this::onClickResolved);
 		timeout = 2 + tickDelay();
 	}
 
@@ -423,13 +487,13 @@ public class PowerFighterPlugin extends Plugin
 		}
 		if (config.lootOnly())
 		{
-			return (config.lootItems() && !utils.inventoryFull() && !loot.isEmpty()) ? PowerFighterState.LOOT_ITEMS : PowerFighterState.TIMEOUT;
+			return (config.lootItems() && !utils.inventoryFull() && nextLoot() != null) ? PowerFighterState.LOOT_ITEMS : PowerFighterState.TIMEOUT;
 		}
-		if (config.forceLoot() && config.lootItems() && !utils.inventoryFull() && !loot.isEmpty())
+		if (config.forceLoot() && config.lootItems() && !utils.inventoryFull() && nextLoot() != null)
 		{
 			if (newLoot != null)
 			{
-				Duration duration = Duration.between(newLoot, Instant.now());
+				Duration duration = Duration.between(newLoot, utils.getClock().now());
 				nextItemLootTime = (nextItemLootTime == 0) ? utils.getRandomIntBetweenRange(10, 50) : nextItemLootTime;
 				if (duration.toSeconds() > nextItemLootTime)
 				{
@@ -492,7 +556,7 @@ public class PowerFighterPlugin extends Plugin
 			log.debug("high alch conditions met");
 			return PowerFighterState.HIGH_ALCH;
 		}
-		if (config.lootItems() && !utils.inventoryFull() && !loot.isEmpty())
+		if (config.lootItems() && !utils.inventoryFull() && nextLoot() != null)
 		{
 			return PowerFighterState.LOOT_ITEMS;
 		}
@@ -507,7 +571,7 @@ public class PowerFighterPlugin extends Plugin
 			{
 				if (lootTimer != null)
 				{
-					Duration duration = Duration.between(lootTimer, Instant.now());
+					Duration duration = Duration.between(lootTimer, utils.getClock().now());
 					if (duration.toSeconds() > nextAmmoLootTime)
 					{
 						return PowerFighterState.LOOT_AMMO;
@@ -515,7 +579,7 @@ public class PowerFighterPlugin extends Plugin
 				}
 				else
 				{
-					lootTimer = Instant.now();
+					lootTimer = utils.getClock().now();
 				}
 			}
 		}
@@ -529,12 +593,26 @@ public class PowerFighterPlugin extends Plugin
 
 	@Subscribe
 	private void onGameTick(GameTick event)
+	{
+		long start = gameTickSection.start();
+		try
+		{
+			tick();
+		}
+		finally
+		{
+			gameTickSection.stop(start);
+		}
+	}
+
+	private void tick()
 	{
 		if (!startBot || chinBreakHandler.isBreakActive(this))
 		{
 			return;
 		}
 		player = client.getLocalPlayer();
+		checkUnpricedLoot();
 		if (client != null && player != null && client.getGameState() == GameState.LOGGED_IN)
 		{
 			if (!client.isResized())
@@ -544,6 +622,7 @@ public class PowerFighterPlugin extends Plugin
 				return;
 			}
 			state = getState();
+			utils.getMetricsEndpoint().setState("Power Fighter", state);
 			switch (state)
 			{
 				case TIMEOUT:
@@ -585,11 +664,11 @@ public class PowerFighterPlugin extends Plugin
 					break;
 				case FORCE_LOOT:
 				case LOOT_ITEMS:
-					lootItem(loot);
+					lootItem(nextLoot());
 					timeout = tickDelay();
 					break;
 				case LOOT_AMMO:
-					lootItem(ammoLoot);
+					lootItem(getNearestTileItem(ammoLoot));
 					break;
 				case WAIT_COMBAT:
 					timeout = 10 + tickDelay();
@@ -633,6 +712,7 @@ public class PowerFighterPlugin extends Plugin
 			deathLocation = event.getActor().getWorldLocation();
 			log.debug("Our npc died, updating deathLocation: {}", deathLocation.toString());
 			killcount++;
+			session.count("kills");
 		}
 	}
 
@@ -665,6 +745,41 @@ public class PowerFighterPlugin extends Plugin
 	}
 
 
+	private void addLoot(TileItem item)
+	{
+		log.debug("Adding loot item: {}", utils.getItemDigests().get(item.getId()).getName());
+		if (loot.isEmpty())
+		{
+			log.debug("Starting force loot timer");
+			newLoot = utils.getClock().now();
+		}
+		loot.add(item);
+		lootPlanner.invalidate();
+		session.count("loot.items");
+		session.count("loot.value", (long) utils.getPriceCache().getPrice(item.getId()) * item.getQuantity());
+	}
+
+	//Loot is judged by value only once its price is known, a failed lookup leaves it waiting for the retry
+	private void checkUnpricedLoot()
+	{
+		Iterator<TileItem> iterator = unpricedLoot.iterator();
+		while (iterator.hasNext())
+		{
+			TileItem item = iterator.next();
+			if (!utils.getPriceCache().contains(item.getId()))
+			{
+				//Queues the lookup again once the failed one is due for a retry
+				utils.getPriceCache().get(item.getId());
+				continue;
+			}
+			iterator.remove();
+			if (lootableItem(item))
+			{
+				addLoot(item);
+			}
+		}
+	}
+
 	@Subscribe
 	private void onItemSpawned(ItemSpawned event)
 	{
@@ -674,13 +789,13 @@ public class PowerFighterPlugin extends Plugin
 		}
 		if (lootableItem(event.getItem()))
 		{
-			log.debug("Adding loot item: {}", client.getItemDefinition(event.getItem().getId()).getName());
-			if (loot.isEmpty())
-			{
-				log.debug("Starting force loot timer");
-				newLoot = Instant.now();
-			}
-			loot.add(event.getItem());
+			addLoot(event.getItem());
+		}
+		else if (config.lootGEValue() && utils.getItemDigests().get(event.getItem().getId()).isTradeable() &&
+			!utils.getPriceCache().contains(event.getItem().getId()))
+		{
+			//price lookup has been queued, check the item again once it's cached. Untradeables never get a price
+			unpricedLoot.add(event.getItem());
 		}
 		if (config.lootAmmo() && event.getItem().getId() == config.ammoID())
 		{
@@ -704,6 +819,8 @@ public class PowerFighterPlugin extends Plugin
 			return;
 		}
 		loot.remove(event.getItem());
+		lootPlanner.removed(event.getItem());
+		unpricedLoot.remove(event.getItem());
 		if (loot.isEmpty())
 		{
 			newLoot = null;
@@ -743,6 +860,8 @@ public class PowerFighterPlugin extends Plugin
 		}
 		log.debug("GameState changed to logged in, clearing loot and npc");
 		loot.clear();
+		lootPlanner.clear();
+		unpricedLoot.clear();
 		ammoLoot.clear();
 		alchLoot.clear();
 		currentNPC = null;
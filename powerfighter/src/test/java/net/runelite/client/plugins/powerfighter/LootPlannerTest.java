@@ -0,0 +1,192 @@
+package net.runelite.client.plugins.powerfighter;
+
+import com.google.inject.Injector;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicBoolean;
+import lombok.extern.slf4j.Slf4j;
+import net.runelite.api.TileItem;
+import net.runelite.api.coords.WorldPoint;
+import net.runelite.client.plugins.botutils.BotUtils;
+import net.runelite.client.plugins.botutils.PathDistanceField;
+import net.runelite.client.plugins.botutils.ReplayScene;
+import net.runelite.client.plugins.botutils.Simulation;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+@Slf4j
+public class LootPlannerTest
+{
+	private static final WorldPoint START = new WorldPoint(3230, 3295, 0);
+	private static final int BONES = 526;
+	private static final int U = PathDistanceField.UNREACHABLE;
+	//Player at 0, piles at +1, -2 and +6 on a line
+	private static final int[][] LINE = {
+		{0, 1, 2, 6},
+		{1, 0, 3, 5},
+		{2, 3, 0, 8},
+		{6, 5, 8, 0}};
+	//Eight single item piles around the player, as many as are planned at once
+	private static final int[][] SCATTER = {{2, 0}, {-3, 1}, {5, 3}, {-6, -2}, {1, -5}, {8, -1}, {-4, 7}, {10, 6}};
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	@Test
+	public void testTwoOptUncrossesNearestNeighbourRoute()
+	{
+		int[] order = LootPlanner.nearestNeighbour(LINE);
+		//Nearest first goes to +1, back past the player to -2 and all the way to +6
+		assertArrayEquals(new int[]{0, 1, 2, 3}, order);
+		assertEquals(12, LootPlanner.cost(order, LINE));
+
+		order = LootPlanner.improve(order, LINE);
+		assertArrayEquals(new int[]{0, 2, 1, 3}, order);
+		assertEquals(10, LootPlanner.cost(order, LINE));
+	}
+
+	@Test
+	public void testUnreachableLegIsNotShort()
+	{
+		//No path between piles 1 and 2, the detour through pile 3 is walked instead
+		int[][] costs = {
+			{0, 1, 2, 5},
+			{1, 0, U, 4},
+			{2, U, 0, 3},
+			{5, 4, 3, 0}};
+		int[] order = LootPlanner.improve(LootPlanner.nearestNeighbour(costs), costs);
+		assertArrayEquals(new int[]{0, 1, 3, 2}, order);
+		assertEquals(8, LootPlanner.cost(order, costs));
+		assertTrue(LootPlanner.cost(new int[]{0, 1, 2, 3}, costs) >= 1000);
+	}
+
+	@Test
+	public void testTwoOptNeverLengthensRoute()
+	{
+		Random random = new Random(1);
+		for (int run = 0; run < 200; run++)
+		{
+			int size = 2 + random.nextInt(8);
+			int[][] costs = new int[size][size];
+			for (int i = 0; i < size; i++)
+			{
+				for (int j = i + 1; j < size; j++)
+				{
+					costs[i][j] = costs[j][i] = random.nextInt(10) == 0 ? U : 1 + random.nextInt(20);
+				}
+			}
+			int[] nearest = LootPlanner.nearestNeighbour(costs);
+			int nearestCost = LootPlanner.cost(nearest, costs);
+			int[] improved = LootPlanner.improve(nearest.clone(), costs);
+
+			assertTrue(LootPlanner.cost(improved, costs) <= nearestCost);
+			//Still starts at the player and visits every pile once
+			assertEquals(0, improved[0]);
+			assertArrayEquals(sorted(nearest), sorted(improved));
+		}
+	}
+
+	@Test
+	public void testScoreTradesValueForTravel()
+	{
+		//Standing on it, the score is the value
+		assertEquals(100, LootPlanner.score(100, 0, false), 0.001);
+		assertEquals(100, LootPlanner.score(100, 0, true), 0.001);
+		//A cheap pile next to the player beats a valuable one across the room when walking
+		double cheap = LootPlanner.score(100, 1, false);
+		double valuable = LootPlanner.score(1000, 30, false);
+		assertEquals(50, cheap, 0.001);
+		assertTrue(cheap > valuable);
+		//Running halves the ticks spent getting there, which is enough to make the valuable pile worth it
+		assertEquals(62.5, LootPlanner.score(1000, 30, true), 0.001);
+		assertTrue(LootPlanner.score(1000, 30, true) > LootPlanner.score(100, 1, true));
+		//Closer is better for the same value
+		assertTrue(LootPlanner.score(100, 4, false) > LootPlanner.score(100, 5, false));
+	}
+
+	@Test
+	public void testPlannedRouteIsShorterThanNearestFirst() throws IOException
+	{
+		int[][] line = {{1, 0}, {-2, 0}, {6, 0}};
+		int plannedLine = walk(line, true);
+		int greedyLine = walk(line, false);
+		assertEquals(10, plannedLine);
+		assertEquals(12, greedyLine);
+
+		int planned = walk(SCATTER, true);
+		int greedy = walk(SCATTER, false);
+		log.info("Scattered loot walked: {} tiles planned, {} tiles nearest first", planned, greedy);
+		assertTrue(planned < greedy);
+	}
+
+	//Tiles walked picking up a single item pile at each offset from the start, in planned or nearest first order
+	private int walk(int[][] offsets, boolean plan) throws IOException
+	{
+		Simulation simulation = new Simulation(folder.newFolder(), 1);
+		simulation.item(BONES, "Bones", 100, false);
+		Injector injector = simulation.createInjector();
+		BotUtils utils = injector.getInstance(BotUtils.class);
+		LootPlanner planner = injector.getInstance(LootPlanner.class);
+		simulation.start(utils);
+		simulation.login(START);
+		Map<TileItem, ReplayScene.Entity> loot = new LinkedHashMap<>();
+		for (int[] offset : offsets)
+		{
+			ReplayScene.Entity entity = simulation.spawnItem(BONES, 1, START.dx(offset[0]).dy(offset[1]));
+			loot.put(simulation.getStubClient().getTileItem(entity), entity);
+		}
+		simulation.tick();
+
+		int walked = 0;
+		TileItem item;
+		while ((item = plan ? planner.next(loot.keySet()) : nearest(utils, loot.keySet())) != null)
+		{
+			WorldPoint tile = item.getTile().getWorldLocation();
+			walked += simulation.getPlayerLocation().distanceTo(tile);
+			AtomicBoolean arrived = new AtomicBoolean();
+			simulation.walkTo(tile, 0, () -> arrived.set(true));
+			for (int i = 0; i < 20 && !arrived.get(); i++)
+			{
+				simulation.tick();
+			}
+			assertEquals(tile, simulation.getPlayerLocation());
+			simulation.despawnItem(loot.remove(item));
+			planner.removed(item);
+		}
+		simulation.stop();
+		assertTrue(loot.isEmpty());
+		return walked;
+	}
+
+	//As the plugin picks loot without planning
+	private static TileItem nearest(BotUtils utils, Collection<TileItem> loot)
+	{
+		TileItem nearest = null;
+		int nearestDistance = Integer.MAX_VALUE;
+		for (TileItem item : loot)
+		{
+			int distance = utils.getPathDistances().getPickupDistance(item.getTile().getWorldLocation());
+			if (distance != PathDistanceField.UNREACHABLE && distance < nearestDistance)
+			{
+				nearest = item;
+				nearestDistance = distance;
+			}
+		}
+		return nearest;
+	}
+
+	private static int[] sorted(int[] order)
+	{
+		int[] copy = order.clone();
+		Arrays.sort(copy);
+		return copy;
+	}
+}
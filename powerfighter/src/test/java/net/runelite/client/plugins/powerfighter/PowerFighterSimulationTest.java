@@ -0,0 +1,94 @@
+package net.runelite.client.plugins.powerfighter;
+
+import com.google.inject.Injector;
+import com.owain.chinbreakhandler.ChinBreakHandler;
+import java.util.Map;
+import lombok.extern.slf4j.Slf4j;
+import net.runelite.api.InventoryID;
+import net.runelite.api.Item;
+import net.runelite.api.Skill;
+import net.runelite.api.coords.WorldPoint;
+import net.runelite.api.events.ConfigButtonClicked;
+import net.runelite.client.plugins.botutils.BotUtils;
+import net.runelite.client.plugins.botutils.CombatModel;
+import net.runelite.client.plugins.botutils.LatencyHistogram;
+import net.runelite.client.plugins.botutils.Simulation;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import static org.mockito.Mockito.mock;
+
+@Slf4j
+public class PowerFighterSimulationTest
+{
+	private static final WorldPoint START = new WorldPoint(3230, 3295, 0);
+	private static final int CHICKEN = 1173;
+	private static final int FEATHER = 314;
+	private static final int BONES = 526;
+	//An hour of game time
+	private static final int TICKS = 6000;
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	@Test
+	public void testFightsAndLootsForAnHour()
+	{
+		Simulation simulation = new Simulation(folder.getRoot(), 1);
+		simulation.item(FEATHER, "Feather", 3, true);
+		simulation.item(BONES, "Bones", 100, false);
+		simulation.npcName(CHICKEN, "Chicken");
+		CombatModel chickens = new CombatModel(CHICKEN, 3, 2, 4, 25).drop(FEATHER, 5).drop(BONES, 1);
+		simulation.addModel(chickens);
+		PowerFighterConfig config = Simulation.config(PowerFighterConfig.class, Map.of(
+			"npcName", "chicken",
+			"lootItemNames", "feather",
+			"stopFood", false,
+			"alchItems", false));
+		Injector injector = simulation.createInjector(binder ->
+		{
+			binder.bind(PowerFighterConfig.class).toInstance(config);
+			binder.bind(ChinBreakHandler.class).toInstance(mock(ChinBreakHandler.class));
+		});
+		BotUtils utils = injector.getInstance(BotUtils.class);
+		PowerFighterPlugin plugin = injector.getInstance(PowerFighterPlugin.class);
+
+		simulation.start(utils);
+		plugin.startUp();
+		simulation.register(plugin);
+		simulation.login(START);
+		simulation.spawnNpc(CHICKEN, START.dx(2));
+		simulation.spawnNpc(CHICKEN, START.dx(-3).dy(1));
+		simulation.spawnNpc(CHICKEN, START.dy(4));
+		simulation.spawnNpc(CHICKEN, START.dx(4).dy(-3));
+		simulation.tick();
+		ConfigButtonClicked start = new ConfigButtonClicked();
+		start.setGroup("PowerFighter");
+		start.setKey("startButton");
+		simulation.post(start);
+		simulation.run(TICKS);
+		plugin.shutDown();
+		simulation.stop();
+
+		int feathers = 0;
+		for (Item item : simulation.getClient().getItemContainer(InventoryID.INVENTORY).getItems())
+		{
+			if (item.getId() == FEATHER)
+			{
+				feathers += item.getQuantity();
+			}
+		}
+		LatencyHistogram tickCost = simulation.getTickCost();
+		log.info("Power fighter: {} attack xp/h, {} kills, {} feathers, {} clicks, tick p50 {}us p99 {}us", (long) simulation.getXpPerHour(Skill.ATTACK),
+			chickens.getKills(), feathers, simulation.getClicks(), tickCost.getPercentileNanos(0.5) / 1000, tickCost.getPercentileNanos(0.99) / 1000);
+		assertEquals(TICKS + 1, tickCost.getCount());
+		assertTrue(chickens.getKills() > 10);
+		//4 xp a damage, 3 to a kill, plus whatever the last fight got in before the hour was up
+		assertTrue(simulation.getXpGained(Skill.ATTACK) >= chickens.getKills() * 3 * 4);
+		//Feathers are looted off kills, the bones aren't on the loot list
+		assertTrue(feathers > 0);
+		assertTrue(simulation.getScene().getGroundItems().stream().anyMatch(item -> item.getId() == BONES));
+	}
+}
@@ -503,6 +503,36 @@ public interface PowerSkillerConfiguration extends Config
 		return false;
 	}
 
+	@ConfigItem(
+		keyName = "dropWhileSkilling",
+		name = "Drop while skilling",
+		description = "Drop a few items at a time while the skilling animation is running instead of waiting for a full inventory",
+		position = 122,
+		titleSection = "dropTitle"
+	)
+	default boolean dropWhileSkilling()
+	{
+		return false;
+	}
+
+	@Range(
+		min = 1,
+		max = 5
+	)
+	@ConfigItem(
+		keyName = "dropsPerTick",
+		name = "Drops per tick",
+		description = "Most items dropped in a single game tick while skilling",
+		position = 123,
+		hidden = true,
+		unhide = "dropWhileSkilling",
+		titleSection = "dropTitle"
+	)
+	default int dropsPerTick()
+	{
+		return 2;
+	}
+
 	@Range(
 		min = 1,
 		max = 60
@@ -551,6 +581,46 @@ public interface PowerSkillerConfiguration extends Config
 	)
 	default int safeSpotRadius() { return 1; }
 
+	@ConfigItem(
+		keyName = "predictRespawns",
+		name = "Predict respawns",
+		description = "Learns how long depleted objects take to respawn and walks to one that is about to respawn " +
+			"when it would be ready before another object can be reached",
+		position = 137,
+		titleSection = "skillerTitle"
+	)
+	default boolean predictRespawns()
+	{
+		return false;
+	}
+
+	@ConfigItem(
+		keyName = "scoreTargets",
+		name = "Score targets",
+		description = "Pick the target with the best score from its weight, distance, other players working it " +
+			"and how long it is expected to last, instead of the nearest one",
+		position = 138,
+		titleSection = "skillerTitle"
+	)
+	default boolean scoreTargets()
+	{
+		return false;
+	}
+
+	@ConfigItem(
+		keyName = "objectWeights",
+		name = "Target weights",
+		description = "Weight per ID as id:weight, separate with comma. IDs without a weight use 1, a weight of 0 skips the ID",
+		position = 139,
+		hidden = true,
+		unhide = "scoreTargets",
+		titleSection = "skillerTitle"
+	)
+	default String objectWeights()
+	{
+		return "";
+	}
+
 	@ConfigItem(
 		keyName = "enableUI",
 		name = "Enable UI",
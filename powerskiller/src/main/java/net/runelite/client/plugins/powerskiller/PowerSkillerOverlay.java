@@ -4,14 +4,14 @@ import java.awt.Dimension;
 import java.awt.Graphics2D;
 import java.awt.Rectangle;
 import java.time.Duration;
-import java.time.Instant;
 import javax.inject.Inject;
 import javax.inject.Singleton;
 import lombok.extern.slf4j.Slf4j;
 import net.runelite.api.Client;
-import net.runelite.api.Perspective;
 import static net.runelite.api.MenuOpcode.RUNELITE_OVERLAY_CONFIG;
 import net.runelite.api.coords.LocalPoint;
+import net.runelite.client.plugins.botutils.BotUtils;
+import net.runelite.client.plugins.botutils.GeometryCache;
 import static net.runelite.client.ui.overlay.OverlayManager.OPTION_CONFIGURE;
 import net.runelite.client.ui.overlay.OverlayMenuEntry;
 import net.runelite.client.ui.overlay.OverlayPanel;
@@ -30,18 +30,23 @@ class PowerSkillerOverlay extends OverlayPanel
 	private final Client client;
 	private final PowerSkillerPlugin plugin;
 	private final PowerSkillerConfiguration config;
+	private final GeometryCache geometryCache;
+	private final BotUtils utils;
 
 	String timeFormat;
 	private String infoStatus = "Starting...";
 
 	@Inject
-	private PowerSkillerOverlay(final Client client, final PowerSkillerPlugin plugin, final PowerSkillerConfiguration config)
+	private PowerSkillerOverlay(final Client client, final PowerSkillerPlugin plugin, final PowerSkillerConfiguration config, final GeometryCache geometryCache,
+		final BotUtils utils)
 	{
 		super(plugin);
 		setPosition(OverlayPosition.DYNAMIC);
 		this.client = client;
 		this.plugin = plugin;
 		this.config = config;
+		this.geometryCache = geometryCache;
+		this.utils = utils;
 		getMenuEntries().add(new OverlayMenuEntry(RUNELITE_OVERLAY_CONFIG, OPTION_CONFIGURE, "Power Skiller overlay"));
 	}
 
@@ -57,7 +62,7 @@ class PowerSkillerOverlay extends OverlayPanel
 		{
 			try
 			{
-				OverlayUtil.renderPolygon(graphics, Perspective.getCanvasTileAreaPoly(client, LocalPoint.fromWorld(client, plugin.skillLocation) /* client.getLocalPlayer().getLocalLocation()*/,config.locationRadius()), ColorUtil.fromHex("#121212"));
+				OverlayUtil.renderPolygon(graphics, geometryCache.getCanvasTileAreaPoly(LocalPoint.fromWorld(client, plugin.skillLocation) /* client.getLocalPlayer().getLocalLocation()*/,config.locationRadius()), ColorUtil.fromHex("#121212"));
 			} catch (Exception ignored) {
 				//Perspective can not find the Polygon to draw on the map.
 			}
@@ -65,7 +70,7 @@ class PowerSkillerOverlay extends OverlayPanel
 		TableComponent tableComponent = new TableComponent();
 		tableComponent.setColumnAlignments(TableAlignment.LEFT, TableAlignment.RIGHT);
 
-		Duration duration = Duration.between(plugin.botTimer, Instant.now());
+		Duration duration = Duration.between(plugin.botTimer, utils.getClock().now());
 		timeFormat = (duration.toHours() < 1) ? "mm:ss" : "HH:mm:ss";
 		tableComponent.addRow("Time running:", formatDuration(duration.toMillis(), timeFormat));
 		if (plugin.state != null)
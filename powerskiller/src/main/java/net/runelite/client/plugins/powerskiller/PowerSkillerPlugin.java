@@ -29,14 +29,20 @@ import com.google.inject.Provides;
 import com.owain.chinbreakhandler.ChinBreakHandler;
 import java.awt.Rectangle;
 import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 import javax.inject.Inject;
 import lombok.extern.slf4j.Slf4j;
 import net.runelite.api.Client;
 import net.runelite.api.GameObject;
+import net.runelite.api.InventoryID;
+import net.runelite.api.Item;
+import net.runelite.api.ItemContainer;
 import net.runelite.api.MenuEntry;
 import net.runelite.api.NPC;
 import net.runelite.api.NullObjectID;
@@ -51,10 +57,15 @@ import net.runelite.api.events.GameStateChanged;
 import net.runelite.api.events.GameTick;
 import net.runelite.api.events.ItemContainerChanged;
 import net.runelite.api.events.GameObjectDespawned;
+import net.runelite.api.events.GameObjectSpawned;
 import net.runelite.api.events.ConfigButtonClicked;
 import net.runelite.api.events.NpcDefinitionChanged;
+import net.runelite.api.events.NpcDespawned;
+import net.runelite.api.events.NpcSpawned;
 import net.runelite.api.events.MenuOptionClicked;
 import net.runelite.api.widgets.Widget;
+import net.runelite.api.widgets.WidgetItem;
+import net.runelite.client.callback.ClientThread;
 import net.runelite.client.config.ConfigManager;
 import net.runelite.client.eventbus.Subscribe;
 import net.runelite.client.events.ConfigChanged;
@@ -63,7 +74,13 @@ import net.runelite.client.plugins.PluginDependency;
 import net.runelite.client.plugins.PluginDescriptor;
 import net.runelite.client.plugins.PluginManager;
 import net.runelite.client.plugins.PluginType;
+import net.runelite.client.plugins.botutils.BankLocation;
 import net.runelite.client.plugins.botutils.BotUtils;
+import net.runelite.client.plugins.botutils.ClickTarget;
+import net.runelite.client.plugins.botutils.EventGate;
+import net.runelite.client.plugins.botutils.RespawnTracker;
+import net.runelite.client.plugins.botutils.StateInput;
+import net.runelite.client.plugins.botutils.TickProfiler;
 import net.runelite.client.ui.overlay.OverlayManager;
 import org.pf4j.Extension;
 import static net.runelite.client.plugins.powerskiller.PowerSkillerState.*;
@@ -87,6 +104,9 @@ public class PowerSkillerPlugin extends Plugin
 	@Inject
 	private PowerSkillerConfiguration config;
 
+	@Inject
+	private ClientThread clientThread;
+
 	@Inject
 	private BotUtils utils;
 
@@ -105,11 +125,25 @@ public class PowerSkillerPlugin extends Plugin
 	@Inject
 	private ChinBreakHandler chinBreakHandler;
 
+	@Inject
+	private TargetScorer targetScorer;
+
+	@Inject
+	private SpotTracker spotTracker;
+
 	PowerSkillerState state;
+	private PowerSkillerState lastEvaluatedState;
+	private EventGate.Watch stateInputs;
+	private TickProfiler.Section gameTickSection;
 	GameObject targetObject;
 	NPC targetNPC;
 	MenuEntry targetMenu;
 	WorldPoint skillLocation;
+	//Depleted object tile walked to ahead of its respawn
+	WorldPoint respawnTile;
+	//Bank being walked to while none is in the scene
+	BankLocation bankLocation;
+	CompletableFuture<BankLocation> bankLookup;
 	Instant botTimer;
 	LocalPoint beforeLoc;
 	Player player;
@@ -120,12 +154,16 @@ public class PowerSkillerPlugin extends Plugin
 	private final WorldPoint SE_ROCK = new WorldPoint(3167, 2913, 0);
 	private final WorldArea DESERT_QUARRY = new WorldArea(new WorldPoint(3148,2896,0),new WorldPoint(3186,2926,0));
 	int waterskinsLeft;
+	//Item each inventory slot was dropped with while skilling, -1 once an inventory change shows it gone
+	private final int[] droppedSlotIds = new int[28];
 
 	int timeout = 0;
 	int opcode;
 	long sleepLength;
 	boolean startPowerSkiller;
 	boolean npcMoved;
+	//The target spot moved and no other spot was around, take the next one that spawns
+	private boolean awaitingSpot;
 	private final Set<Integer> itemIds = new HashSet<>();
 	private final Set<Integer> objectIds = new HashSet<>();
 	private final Set<Integer> requiredIds = new HashSet<>();
@@ -142,6 +180,9 @@ public class PowerSkillerPlugin extends Plugin
 	protected void startUp()
 	{
 		chinBreakHandler.registerPlugin(this);
+		stateInputs = utils.getEventGate().watch(StateInput.INVENTORY, StateInput.EQUIPMENT, StateInput.BANK,
+			StateInput.OBJECTS, StateInput.NPCS, StateInput.STATS, StateInput.ANIMATION, StateInput.POSITION);
+		gameTickSection = utils.getTickProfiler().section("Power Skiller", "onGameTick");
 	}
 
 	@Override
@@ -156,11 +197,19 @@ public class PowerSkillerPlugin extends Plugin
 		overlayManager.remove(overlay);
 		chinBreakHandler.stopPlugin(this);
 		state = null;
+		utils.getMetricsEndpoint().setState("Power Skiller", null);
+		lastEvaluatedState = null;
 		timeout = 0;
 		botTimer = null;
 		skillLocation = null;
+		respawnTile = null;
+		bankLocation = null;
+		bankLookup = null;
+		utils.getRespawnTracker().stopTracking();
 		startPowerSkiller = false;
 		npcMoved = false;
+		awaitingSpot = false;
+		Arrays.fill(droppedSlotIds, -1);
 		objectIds.clear();
 		requiredIds.clear();
 		itemIds.clear();
@@ -182,7 +231,7 @@ public class PowerSkillerPlugin extends Plugin
 				chinBreakHandler.startPlugin(this);
 				state = null;
 				targetMenu = null;
-				botTimer = Instant.now();
+				botTimer = utils.getClock().now();
 				setLocation();
 				getConfigValues();
 				overlayManager.add(overlay);
@@ -206,6 +255,15 @@ public class PowerSkillerPlugin extends Plugin
 			case "objectIds":
 				objectIds.clear();
 				objectIds.addAll(utils.stringToIntList(config.objectIds()));
+				if (startPowerSkiller)
+				{
+					utils.getRespawnTracker().track(objectIds);
+				}
+				targetScorer.configure(objectIds, config.objectWeights());
+				spotTracker.setIds(objectIds);
+				break;
+			case "objectWeights":
+				targetScorer.configure(objectIds, config.objectWeights());
 				break;
 			case "requiredItems":
 				log.info("config changed");
@@ -235,6 +293,9 @@ public class PowerSkillerPlugin extends Plugin
 			requiredIds.addAll(utils.stringToIntList(config.requiredItems()));
 		}
 		itemIds.addAll(utils.stringToIntList(config.items()));
+		utils.getRespawnTracker().track(objectIds);
+		targetScorer.configure(objectIds, config.objectWeights());
+		spotTracker.setIds(objectIds);
 	}
 
 	public void setLocation()
@@ -283,13 +344,11 @@ public class PowerSkillerPlugin extends Plugin
 
 	private void interactNPC()
 	{
-		targetNPC = utils.findNearestNpcWithin(skillLocation, config.locationRadius(), objectIds);
-		opcode = (config.customOpcode() && config.objectOpcode() ? config.objectOpcodeValue() : MenuOpcode.NPC_FIRST_OPTION.getId());
+		targetNPC = findSpot();
 		if (targetNPC != null)
 		{
-			targetMenu = new MenuEntry("", "", targetNPC.getIndex(), opcode, 0, 0, false);
-			utils.setMenuEntry(targetMenu);
-			utils.delayMouseClick(targetNPC.getConvexHull().getBounds(), sleepDelay());
+			awaitingSpot = false;
+			clickNpc(targetNPC);
 		}
 		else
 		{
@@ -297,17 +356,78 @@ public class PowerSkillerPlugin extends Plugin
 		}
 	}
 
+	private NPC findSpot()
+	{
+		if (config.scoreTargets())
+		{
+			return targetScorer.bestNpc(spotTracker.getSpots(skillLocation, config.locationRadius()));
+		}
+		return spotTracker.getNearest(skillLocation, config.locationRadius());
+	}
+
+	private void clickNpc(NPC npc)
+	{
+		opcode = (config.customOpcode() && config.objectOpcode() ? config.objectOpcodeValue() : MenuOpcode.NPC_FIRST_OPTION.getId());
+		targetMenu = new MenuEntry("", "", npc.getIndex(), opcode, 0, 0, false);
+		utils.setMenuEntry(targetMenu);
+		utils.delayMouseClick(ClickTarget.of(npc), sleepDelay()).thenAccept(this::onClickResolved);
+	}
+
+	//The target was gone by the time the click went out, look for another one next tick instead of waiting out the timeout
+	private void onClickResolved(boolean clicked)
+	{
+		if (!clicked)
+		{
+			clientThread.invoke(() -> timeout = 0);
+		}
+	}
+
+	//True while skilling on an NPC spot and nothing else, e.g. dropping or a break, is using the mouse
+	private boolean canRetarget()
+	{
+		return startPowerSkiller && config.type() == PowerSkillerType.NPC && skillLocation != null &&
+			client.getLocalPlayer() != null && !utils.iterating && !chinBreakHandler.isBreakActive(this) &&
+			(lastEvaluatedState == ANIMATING || lastEvaluatedState == FIND_NPC || lastEvaluatedState == MOVING) &&
+			!utils.inventoryFull();
+	}
+
+	/**
+	 * Clicks the next spot as soon as the current one is gone instead of waiting for the next FIND_NPC.
+	 */
+	private void retarget()
+	{
+		targetNPC = findSpot();
+		if (targetNPC == null)
+		{
+			awaitingSpot = true;
+			return;
+		}
+		log.debug("Spot moved, retargeting to {}", targetNPC.getWorldLocation());
+		awaitingSpot = false;
+		npcMoved = false;
+		clickNpc(targetNPC);
+		timeout = tickDelay();
+	}
+
 	private void interactObject()
 	{
-		targetObject = (config.type() == PowerSkillerType.DENSE_ESSENCE) ? getDenseEssence() :
-			utils.findNearestGameObjectWithin(skillLocation, config.locationRadius(), objectIds);
-		opcode = (config.customOpcode() && config.objectOpcode() ? config.objectOpcodeValue() : MenuOpcode.GAME_OBJECT_FIRST_OPTION.getId());
+		if (config.type() == PowerSkillerType.DENSE_ESSENCE)
+		{
+			targetObject = getDenseEssence();
+		}
+		else
+		{
+			targetObject = config.scoreTargets() ? targetScorer.bestObject(skillLocation, config.locationRadius()) :
+				utils.findNearestGameObjectWithin(skillLocation, config.locationRadius(), objectIds);
+		}
+		if (config.predictRespawns() && config.type() == PowerSkillerType.GAME_OBJECT && moveToRespawn())
+		{
+			return;
+		}
+		respawnTile = null;
 		if (targetObject != null)
 		{
-			targetMenu = new MenuEntry("", "", targetObject.getId(), opcode,
-				targetObject.getSceneMinLocation().getX(), targetObject.getSceneMinLocation().getY(), false);
-			utils.setMenuEntry(targetMenu);
-			utils.delayMouseClick(targetObject.getConvexHull().getBounds(), sleepDelay());
+			clickObject(targetObject);
 		}
 		else
 		{
@@ -315,6 +435,50 @@ public class PowerSkillerPlugin extends Plugin
 		}
 	}
 
+	private void clickObject(GameObject object)
+	{
+		opcode = (config.customOpcode() && config.objectOpcode() ? config.objectOpcodeValue() : MenuOpcode.GAME_OBJECT_FIRST_OPTION.getId());
+		targetMenu = new MenuEntry("", "", object.getId(), opcode,
+			object.getSceneMinLocation().getX(), object.getSceneMinLocation().getY(), false);
+		utils.setMenuEntry(targetMenu);
+		utils.delayMouseClick(ClickTarget.of(object), sleepDelay()).thenAccept(this::onClickResolved);
+	}
+
+	/**
+	 * Walks to, or waits next to, a depleted object if it is expected back before the nearest present object can be reached.
+	 */
+	private boolean moveToRespawn()
+	{
+		RespawnTracker.Respawn respawn = utils.getRespawnTracker().getNextRespawn(skillLocation, config.locationRadius(), objectIds);
+		if (respawn == null)
+		{
+			return false;
+		}
+		boolean run = utils.isRunEnabled();
+		int targetEta = targetObject == null ? Integer.MAX_VALUE : utils.getMovementTracker().getEtaTicks(targetObject.getWorldLocation(), run);
+		if (!respawnsFirst(respawn.getTicksRemaining(), utils.getMovementTracker().getEtaTicks(respawn.getLocation(), run), targetEta))
+		{
+			return false;
+		}
+		targetObject = null;
+		respawnTile = respawn.getLocation();
+		if (player.getWorldLocation().distanceTo(respawnTile) > 1)
+		{
+			log.debug("Moving to {} which respawns in {} ticks", respawnTile, respawn.getTicksRemaining());
+			utils.walk(respawnTile, 0, sleepDelay());
+		}
+		return true;
+	}
+
+	/**
+	 * Whether a depleted object is back and reached before the target can be reached. The target eta is
+	 * Integer.MAX_VALUE without a target, an eta of -1 couldn't be estimated.
+	 */
+	static boolean respawnsFirst(int ticksRemaining, int respawnEta, int targetEta)
+	{
+		return Math.max(ticksRemaining, respawnEta) < targetEta;
+	}
+
 	private PowerSkillerState getBankState()
 	{
 		if (!utils.isBankOpen() && !utils.isDepositBoxOpen())
@@ -345,16 +509,94 @@ public class PowerSkillerPlugin extends Plugin
 		GameObject bank = utils.findNearestBank();
 		if (bank != null)
 		{
+			bankLocation = null;
+			bankLookup = null;
 			targetMenu = new MenuEntry("", "", bank.getId(),
 				utils.getBankMenuOpcode(bank.getId()), bank.getSceneMinLocation().getX(),
 				bank.getSceneMinLocation().getY(), false);
 			utils.setMenuEntry(targetMenu);
-			utils.delayMouseClick(bank.getConvexHull().getBounds(), sleepDelay());
+			utils.delayMouseClick(ClickTarget.of(bank), sleepDelay());
+			utils.waitForBankOpen(20).thenAccept(open ->
+			{
+				if (open && state == FIND_BANK)
+				{
+					timeout = 0; //bank interface is ready, don't wait out the tick delay
+				}
+			});
 		}
 		else
 		{
-			utils.sendGameMessage("Bank not found, stopping");
-			startPowerSkiller = false;
+			if (bankLocation == null)
+			{
+				//Start walking to the closest bank in a straight line, switch once the path lengths are in
+				bankLocation = BankLocation.nearest(player.getWorldLocation());
+				bankLookup = utils.findNearestBankLocation(player.getWorldLocation()).exceptionally(e -> null);
+				log.info("No bank in scene, walking to {}", bankLocation.getName());
+			}
+			else if (bankLookup != null && bankLookup.isDone())
+			{
+				BankLocation nearest = bankLookup.join();
+				bankLookup = null;
+				if (nearest != null && nearest != bankLocation)
+				{
+					log.info("{} is closer by path, walking there instead", nearest.getName());
+					bankLocation = nearest;
+				}
+			}
+			utils.webWalk(bankLocation.getLocation(), 2, utils.isMoving(beforeLoc), sleepDelay());
+		}
+	}
+
+	private boolean canDropWhileSkilling()
+	{
+		return config.dropWhileSkilling() && !config.bankItems() && !(config.customOpcode() && config.inventoryMenu()) &&
+			config.type() != PowerSkillerType.SANDSTONE && config.type() != PowerSkillerType.DENSE_ESSENCE;
+	}
+
+	private boolean shouldDrop(int itemId)
+	{
+		if (config.dropInventory())
+		{
+			return true;
+		}
+		if (config.dropExcept())
+		{
+			return !itemIds.contains(itemId) && !requiredIds.contains(itemId);
+		}
+		return itemIds.contains(itemId);
+	}
+
+	/**
+	 * Drops up to the per tick budget of items while the player keeps skilling, so the inventory rarely fills.
+	 */
+	private void dropWhileSkilling()
+	{
+		if (!canDropWhileSkilling() || utils.iterating)
+		{
+			return;
+		}
+		Collection<WidgetItem> inventoryItems = utils.getAllInventoryItems();
+		if (inventoryItems == null)
+		{
+			return;
+		}
+		List<WidgetItem> batch = new ArrayList<>(config.dropsPerTick());
+		for (WidgetItem item : inventoryItems)
+		{
+			if (batch.size() >= config.dropsPerTick())
+			{
+				break;
+			}
+			int slot = item.getIndex();
+			if (shouldDrop(item.getId()) && slot >= 0 && slot < droppedSlotIds.length && droppedSlotIds[slot] == -1)
+			{
+				batch.add(item);
+				droppedSlotIds[slot] = item.getId();
+			}
+		}
+		if (!batch.isEmpty())
+		{
+			utils.dropInventoryItems(batch, config.sleepMin(), config.sleepMax());
 		}
 	}
 
@@ -469,6 +711,11 @@ public class PowerSkillerPlugin extends Plugin
 		{
 			return RETURN_SAFE_SPOT;
 		}
+		//banked somewhere the skilling area isn't loaded, objects around it can't be clicked from here
+		if (config.bankItems() && !skillLocation.isInScene(client))
+		{
+			return RETURN_FROM_BANK;
+		}
 		if (client.getLocalPlayer().getAnimation() == -1 || npcMoved)
 		{
 			if (config.type() == PowerSkillerType.DENSE_ESSENCE)
@@ -484,6 +731,19 @@ public class PowerSkillerPlugin extends Plugin
 
 	@Subscribe
 	private void onGameTick(GameTick tick)
+	{
+		long start = gameTickSection.start();
+		try
+		{
+			tick();
+		}
+		finally
+		{
+			gameTickSection.stop(start);
+		}
+	}
+
+	private void tick()
 	{
 		if (!startPowerSkiller || chinBreakHandler.isBreakActive(this))
 		{
@@ -498,12 +758,30 @@ public class PowerSkillerPlugin extends Plugin
 				startPowerSkiller = false;
 				return;
 			}
+			//Nothing getState reads has changed since it last returned ANIMATING, so it would return it again
+			boolean inputsChanged = timeout > 0 || stateInputs.poll();
+			if (!inputsChanged && lastEvaluatedState == ANIMATING && !npcMoved && !chinBreakHandler.shouldBreak(this))
+			{
+				utils.handleRun(30, 20);
+				dropWhileSkilling();
+				timeout = tickDelay();
+				return;
+			}
 			state = getState();
+			utils.getMetricsEndpoint().setState("Power Skiller", state);
+			if (state != TIMEOUT)
+			{
+				lastEvaluatedState = state;
+			}
 			beforeLoc = player.getLocalLocation();
 			switch (state)
 			{
 				case TIMEOUT:
 					utils.handleRun(30, 20);
+					if (lastEvaluatedState == ANIMATING && client.getLocalPlayer().getAnimation() != -1)
+					{
+						dropWhileSkilling();
+					}
 					timeout--;
 					break;
 				case CASTING_HUMIDIFY:
@@ -564,6 +842,10 @@ public class PowerSkillerPlugin extends Plugin
 					utils.depositAllOfItems(itemIds);
 					timeout = tickDelay();
 					break;
+				case RETURN_FROM_BANK:
+					utils.webWalk(skillLocation, 1, utils.isMoving(beforeLoc), sleepDelay());
+					timeout = tickDelay();
+					break;
 				case RETURN_SAFE_SPOT:
 					utils.walk(skillLocation, config.safeSpotRadius(), sleepDelay());
 					timeout = 2 + tickDelay();
@@ -582,6 +864,10 @@ public class PowerSkillerPlugin extends Plugin
 					timeout = 10;
 					break;
 				case ANIMATING:
+					utils.handleRun(30, 20);
+					dropWhileSkilling();
+					timeout = tickDelay();
+					break;
 				case MOVING:
 					utils.handleRun(30, 20);
 					timeout = tickDelay();
@@ -603,6 +889,7 @@ public class PowerSkillerPlugin extends Plugin
 	@Subscribe
 	public void onGameObjectDespawned(GameObjectDespawned event)
 	{
+		targetScorer.objectDespawned(event.getGameObject());
 		if (targetObject == null || event.getGameObject() != targetObject || !startPowerSkiller)
 		{
 			return;
@@ -616,16 +903,67 @@ public class PowerSkillerPlugin extends Plugin
 		}
 	}
 
+	@Subscribe
+	private void onGameObjectSpawned(GameObjectSpawned event)
+	{
+		GameObject object = event.getGameObject();
+		targetScorer.objectSpawned(object);
+		if (respawnTile == null || !startPowerSkiller || !objectIds.contains(object.getId()) ||
+			!respawnTile.equals(object.getWorldLocation()) || utils.inventoryFull())
+		{
+			return;
+		}
+		//the object we were waiting on is back, click it without waiting for the next FIND_GAME_OBJECT
+		respawnTile = null;
+		targetObject = object;
+		clickObject(object);
+		timeout = tickDelay();
+	}
+
+	@Subscribe
+	private void onNpcSpawned(NpcSpawned event)
+	{
+		NPC npc = event.getNpc();
+		spotTracker.spawned(npc);
+		if (awaitingSpot && spotTracker.isTracked(npc.getId()) && canRetarget() &&
+			npc.getWorldLocation().distanceTo(skillLocation) <= config.locationRadius())
+		{
+			retarget();
+		}
+	}
+
+	@Subscribe
+	private void onNpcDespawned(NpcDespawned event)
+	{
+		NPC npc = event.getNpc();
+		spotTracker.despawned(npc);
+		if (npc != targetNPC)
+		{
+			return;
+		}
+		targetNPC = null;
+		if (canRetarget())
+		{
+			retarget();
+		}
+		else
+		{
+			npcMoved = true;
+		}
+	}
+
 	@Subscribe
 	public void onNPCDefinitionChanged(NpcDefinitionChanged event)
 	{
+		//Before retargeting, so the spot that changed isn't found again
+		spotTracker.definitionChanged(event.getNpc());
 		if (targetNPC == null || event.getNpc() != targetNPC || !startPowerSkiller)
 		{
 			return;
 		}
-		if (timeout == 0)
+		if (canRetarget())
 		{
-			interactNPC();
+			retarget();
 		}
 		else
 		{
@@ -633,9 +971,26 @@ public class PowerSkillerPlugin extends Plugin
 		}
 	}
 
+	//A slot dropped while skilling can be dropped again once the inventory no longer has the item there
+	private void confirmDrops(ItemContainer inventory)
+	{
+		Item[] items = inventory.getItems();
+		for (int slot = 0; slot < droppedSlotIds.length; slot++)
+		{
+			if (droppedSlotIds[slot] != -1 && (slot >= items.length || items[slot].getId() != droppedSlotIds[slot]))
+			{
+				droppedSlotIds[slot] = -1;
+			}
+		}
+	}
+
 	@Subscribe
 	private void onItemContainerChanged(ItemContainerChanged event)
 	{
+		if (event.getContainerId() == InventoryID.INVENTORY.getId() && event.getItemContainer() != null)
+		{
+			confirmDrops(event.getItemContainer());
+		}
 		if (event.getContainerId() != 93 || !startPowerSkiller || !config.dropOne())
 		{
 			return;
@@ -698,7 +1053,7 @@ public class PowerSkillerPlugin extends Plugin
 			targetMenu = new MenuEntry("", "", targetObject.getId(), opcode,
 					targetObject.getSceneMinLocation().getX(), targetObject.getSceneMinLocation().getY(), false);
 			utils.setMenuEntry(targetMenu);
-			utils.delayMouseClick(targetObject.getConvexHull().getBounds(), sleepDelay());
+			utils.delayMouseClick(ClickTarget.of(targetObject), sleepDelay()).thenAccept(this::onClickResolved);
 		}
 		else
 		{
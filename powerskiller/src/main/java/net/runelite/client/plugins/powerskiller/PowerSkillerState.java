@@ -18,6 +18,7 @@ public enum PowerSkillerState
 	ITERATING,
 	MISSING_ITEMS,
 	MOVING,
+	RETURN_FROM_BANK,
 	RETURN_SAFE_SPOT,
 	TIMEOUT,
 	WAIT_DENSE_ESSENCE,
@@ -0,0 +1,174 @@
+package net.runelite.client.plugins.powerskiller;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import javax.inject.Inject;
+import net.runelite.api.NPC;
+import net.runelite.api.coords.WorldPoint;
+import net.runelite.client.plugins.botutils.BotUtils;
+import net.runelite.client.plugins.botutils.PathDistanceField;
+
+/**
+ * Live NPC skilling spots of the configured ids, e.g. fishing spots, bucketed by 8x8 tile chunk. Kept current from
+ * NpcSpawned, NpcDespawned and NpcDefinitionChanged, so a replacement for a spot that moved is found without going over
+ * every NPC in the scene.
+ * Client thread only.
+ */
+class SpotTracker
+{
+	private static final int CHUNK_BITS = 3;
+
+	@Inject
+	private BotUtils utils;
+
+	private final Set<Integer> ids = new HashSet<>();
+	private final Map<Integer, List<NPC>> chunks = new HashMap<>();
+	private final Map<NPC, Integer> chunkOf = new HashMap<>();
+	private boolean seeded;
+
+	void setIds(Collection<Integer> ids)
+	{
+		this.ids.clear();
+		this.ids.addAll(ids);
+		invalidate();
+	}
+
+	//Rebuilds the index from the scene on the next query
+	void invalidate()
+	{
+		seeded = false;
+		chunks.clear();
+		chunkOf.clear();
+	}
+
+	void spawned(NPC npc)
+	{
+		if (seeded && ids.contains(npc.getId()))
+		{
+			add(npc);
+		}
+	}
+
+	/**
+	 * Removes the spot, returns false if it wasn't tracked.
+	 */
+	boolean despawned(NPC npc)
+	{
+		Integer chunk = chunkOf.remove(npc);
+		if (chunk == null)
+		{
+			return false;
+		}
+		List<NPC> spots = chunks.get(chunk);
+		spots.remove(npc);
+		if (spots.isEmpty())
+		{
+			chunks.remove(chunk);
+		}
+		return true;
+	}
+
+	//A spot can turn into another id in place, it is tracked for as long as its current id is
+	void definitionChanged(NPC npc)
+	{
+		if (ids.contains(npc.getId()))
+		{
+			spawned(npc);
+		}
+		else
+		{
+			despawned(npc);
+		}
+	}
+
+	boolean isTracked(int id)
+	{
+		return ids.contains(id);
+	}
+
+	/**
+	 * Spots within the radius of the center that still have a tracked id, only looking at the chunks the radius covers.
+	 */
+	List<NPC> getSpots(WorldPoint center, int radius)
+	{
+		seed();
+		List<NPC> spots = new ArrayList<>();
+		int minX = (center.getX() - radius) >> CHUNK_BITS;
+		int maxX = (center.getX() + radius) >> CHUNK_BITS;
+		int minY = (center.getY() - radius) >> CHUNK_BITS;
+		int maxY = (center.getY() + radius) >> CHUNK_BITS;
+		for (int x = minX; x <= maxX; x++)
+		{
+			for (int y = minY; y <= maxY; y++)
+			{
+				List<NPC> chunk = chunks.get(key(x, y, center.getPlane()));
+				if (chunk == null)
+				{
+					continue;
+				}
+				for (NPC npc : chunk)
+				{
+					if (ids.contains(npc.getId()) && npc.getWorldLocation().distanceTo(center) <= radius)
+					{
+						spots.add(npc);
+					}
+				}
+			}
+		}
+		return spots;
+	}
+
+	/**
+	 * The spot within the radius of the center with the shortest walk from the player, skipping spots that can't be
+	 * walked to.
+	 */
+	NPC getNearest(WorldPoint center, int radius)
+	{
+		PathDistanceField pathDistances = utils.getPathDistances();
+		NPC nearest = null;
+		int nearestDistance = Integer.MAX_VALUE;
+		for (NPC npc : getSpots(center, radius))
+		{
+			int distance = pathDistances.getDistance(npc);
+			if (distance != PathDistanceField.UNREACHABLE && distance < nearestDistance)
+			{
+				nearest = npc;
+				nearestDistance = distance;
+			}
+		}
+		return nearest;
+	}
+
+	private void seed()
+	{
+		if (seeded)
+		{
+			return;
+		}
+		for (NPC npc : utils.getNPCs(ids.stream().mapToInt(Integer::intValue).toArray()))
+		{
+			add(npc);
+		}
+		seeded = true;
+	}
+
+	private void add(NPC npc)
+	{
+		WorldPoint location = npc.getWorldLocation();
+		int chunk = key(location.getX() >> CHUNK_BITS, location.getY() >> CHUNK_BITS, location.getPlane());
+		if (chunkOf.putIfAbsent(npc, chunk) == null)
+		{
+			chunks.computeIfAbsent(chunk, k -> new ArrayList<>()).add(npc);
+		}
+	}
+
+	private static int key(int chunkX, int chunkY, int plane)
+	{
+		return (plane << 24) | (chunkX << 12) | chunkY;
+	}
+}
@@ -0,0 +1,190 @@
+package net.runelite.client.plugins.powerskiller;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import javax.inject.Inject;
+import lombok.extern.slf4j.Slf4j;
+import net.runelite.api.Client;
+import net.runelite.api.GameObject;
+import net.runelite.api.Locatable;
+import net.runelite.api.NPC;
+import net.runelite.api.Player;
+import net.runelite.api.coords.WorldPoint;
+import net.runelite.client.plugins.botutils.BotUtils;
+import net.runelite.client.plugins.botutils.PathDistanceField;
+
+/**
+ * Picks the best object or NPC to skill on instead of the nearest one. Each candidate scores
+ * weight * survival / ((1 + travel ticks) * (1 + other players working it)), where survival drops below 1
+ * when the object is expected to be depleted before the player gets there. Travel is the walking distance from
+ * BotUtils' path distance field, targets that can't be walked to are skipped.
+ * Objects are kept in an index updated from spawn and despawn events, so scoring never queries the scene,
+ * NPC candidates come from the {@link SpotTracker}.
+ * Client thread only.
+ */
+@Slf4j
+class TargetScorer
+{
+	private static final double DEFAULT_WEIGHT = 1;
+	//Lower bound of the survival factor, an object expected to be gone may still be there
+	private static final double MIN_SURVIVAL = 0.1;
+
+	@Inject
+	private Client client;
+
+	@Inject
+	private BotUtils utils;
+
+	private final Map<Integer, Double> weights = new HashMap<>();
+	private final Set<Integer> ids = new HashSet<>();
+	private final Set<GameObject> objects = new HashSet<>();
+	private boolean seeded;
+
+	/**
+	 * Sets the ids to index and their weights given as id:weight pairs, e.g. "11364:2, 11365:1".
+	 * Ids without a weight use 1.
+	 */
+	void configure(Collection<Integer> ids, String weights)
+	{
+		this.ids.clear();
+		this.ids.addAll(ids);
+		this.weights.clear();
+		for (String entry : weights.split(","))
+		{
+			String[] pair = entry.trim().split(":");
+			if (pair.length != 2)
+			{
+				continue;
+			}
+			try
+			{
+				this.weights.put(Integer.parseInt(pair[0].trim()), Double.parseDouble(pair[1].trim()));
+			}
+			catch (NumberFormatException e)
+			{
+				log.info("Invalid target weight: {}", entry);
+			}
+		}
+		invalidate();
+	}
+
+	//Rebuilds the index from the scene on the next call to bestObject
+	void invalidate()
+	{
+		seeded = false;
+		objects.clear();
+	}
+
+	void objectSpawned(GameObject object)
+	{
+		if (seeded && ids.contains(object.getId()))
+		{
+			objects.add(object);
+		}
+	}
+
+	void objectDespawned(GameObject object)
+	{
+		objects.remove(object);
+	}
+
+	GameObject bestObject(WorldPoint center, int radius)
+	{
+		seed();
+		Player player = client.getLocalPlayer();
+		List<Player> players = client.getPlayers();
+		boolean run = utils.isRunEnabled();
+		GameObject best = null;
+		double bestScore = 0;
+		for (GameObject object : objects)
+		{
+			WorldPoint location = object.getWorldLocation();
+			if (location.distanceTo(center) > radius)
+			{
+				continue;
+			}
+			int travel = travelTicks(object, run);
+			if (travel < 0)
+			{
+				continue;
+			}
+			int lifetime = utils.getRespawnTracker().getRemainingLifetimeTicks(object);
+			double survival = (lifetime < 0 || lifetime >= travel) ? 1 : Math.max(MIN_SURVIVAL, (double) lifetime / travel);
+			double score = score(object.getId(), travel, contention(location, player, players), survival);
+			if (score > bestScore)
+			{
+				best = object;
+				bestScore = score;
+			}
+		}
+		return best;
+	}
+
+	NPC bestNpc(Collection<NPC> spots)
+	{
+		Player player = client.getLocalPlayer();
+		List<Player> players = client.getPlayers();
+		boolean run = utils.isRunEnabled();
+		NPC best = null;
+		double bestScore = 0;
+		for (NPC npc : spots)
+		{
+			int travel = travelTicks(npc, run);
+			if (travel < 0)
+			{
+				continue;
+			}
+			double score = score(npc.getId(), travel, contention(npc.getWorldLocation(), player, players), 1);
+			if (score > bestScore)
+			{
+				best = npc;
+				bestScore = score;
+			}
+		}
+		return best;
+	}
+
+	private double score(int id, int travel, int contention, double survival)
+	{
+		return weights.getOrDefault(id, DEFAULT_WEIGHT) * survival / ((1.0 + travel) * (1 + contention));
+	}
+
+	private void seed()
+	{
+		if (seeded)
+		{
+			return;
+		}
+		objects.addAll(utils.getGameObjects(ids.stream().mapToInt(Integer::intValue).toArray()));
+		seeded = true;
+	}
+
+	//Other players next to the target and busy, most likely working it
+	private static int contention(WorldPoint location, Player local, List<Player> players)
+	{
+		int count = 0;
+		for (Player other : players)
+		{
+			if (other != local && other.getAnimation() != -1 && other.getWorldLocation().distanceTo(location) <= 1)
+			{
+				count++;
+			}
+		}
+		return count;
+	}
+
+	//Ticks to walk next to the target, or -1 if it can't be reached
+	private int travelTicks(Locatable target, boolean run)
+	{
+		int distance = utils.getPathDistances().getDistance(target);
+		if (distance == PathDistanceField.UNREACHABLE)
+		{
+			return -1;
+		}
+		return run ? (distance + 1) / 2 : distance;
+	}
+}
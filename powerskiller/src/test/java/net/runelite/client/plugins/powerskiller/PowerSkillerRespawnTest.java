@@ -0,0 +1,39 @@
+package net.runelite.client.plugins.powerskiller;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import org.junit.Test;
+
+public class PowerSkillerRespawnTest
+{
+	@Test
+	public void testWaitsForRespawnBeatingTheWalkToTarget()
+	{
+		//Back in 3 ticks, 2 ticks away, the target is 6 ticks away
+		assertTrue(PowerSkillerPlugin.respawnsFirst(3, 2, 6));
+		//Here already, back before the target is reached
+		assertTrue(PowerSkillerPlugin.respawnsFirst(4, 0, 5));
+	}
+
+	@Test
+	public void testGoesToTargetWhenRespawnIsNoSooner()
+	{
+		assertFalse(PowerSkillerPlugin.respawnsFirst(10, 2, 6));
+		//Back soon, but further away than the target
+		assertFalse(PowerSkillerPlugin.respawnsFirst(0, 8, 6));
+		//A tie goes to the object that is there
+		assertFalse(PowerSkillerPlugin.respawnsFirst(6, 1, 6));
+	}
+
+	@Test
+	public void testWithoutTargetAnyRespawnIsTaken()
+	{
+		assertTrue(PowerSkillerPlugin.respawnsFirst(50, 20, Integer.MAX_VALUE));
+	}
+
+	@Test
+	public void testUnknownTargetEtaGoesToTarget()
+	{
+		assertFalse(PowerSkillerPlugin.respawnsFirst(0, 0, -1));
+	}
+}
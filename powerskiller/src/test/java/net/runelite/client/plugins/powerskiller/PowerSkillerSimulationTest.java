@@ -0,0 +1,136 @@
+package net.runelite.client.plugins.powerskiller;
+
+import com.google.inject.Injector;
+import com.owain.chinbreakhandler.ChinBreakHandler;
+import java.awt.event.MouseAdapter;
+import java.awt.event.MouseEvent;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import lombok.extern.slf4j.Slf4j;
+import net.runelite.api.Skill;
+import net.runelite.api.coords.WorldPoint;
+import net.runelite.api.events.ConfigButtonClicked;
+import net.runelite.api.events.MenuOptionClicked;
+import net.runelite.client.eventbus.Subscribe;
+import net.runelite.client.plugins.PluginManager;
+import net.runelite.client.plugins.botutils.BotUtils;
+import net.runelite.client.plugins.botutils.LatencyHistogram;
+import net.runelite.client.plugins.botutils.Simulation;
+import net.runelite.client.plugins.botutils.SkillingModel;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import static org.mockito.Mockito.mock;
+
+@Slf4j
+public class PowerSkillerSimulationTest
+{
+	private static final WorldPoint START = new WorldPoint(3200, 3200, 0);
+	private static final int TREE = 1276;
+	private static final int LOGS = 1511;
+	private static final int CHOP_ANIMATION = 879;
+	//An hour of game time
+	private static final int TICKS = 6000;
+	//Long enough for a few inventories to be chopped and dropped
+	private static final int SEEDED_TICKS = 1000;
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	@Test
+	public void testChopsAndDropsForAnHour()
+	{
+		Simulation simulation = new Simulation(folder.getRoot(), 1);
+		SkillingModel trees = chop(simulation, TICKS, new ArrayList<>());
+
+		LatencyHistogram tickCost = simulation.getTickCost();
+		log.info("Power skiller: {} woodcutting xp/h, {} logs, {} clicks, tick p50 {}us p99 {}us", (long) simulation.getXpPerHour(Skill.WOODCUTTING),
+			trees.getActions(), simulation.getClicks(), tickCost.getPercentileNanos(0.5) / 1000, tickCost.getPercentileNanos(0.99) / 1000);
+		assertEquals(TICKS + 1, tickCost.getCount());
+		//Dropped at least one full inventory to keep going
+		assertTrue(trees.getActions() > Simulation.INVENTORY_SIZE);
+		assertEquals(trees.getActions() * 25, simulation.getXpGained(Skill.WOODCUTTING));
+		assertTrue(trees.getDepletions() > 0);
+	}
+
+	@Test
+	public void testSameSeedPlaysOutTheSame() throws Exception
+	{
+		List<String> firstClicks = new ArrayList<>();
+		Simulation first = new Simulation(folder.newFolder("first"), 7);
+		SkillingModel firstTrees = chop(first, SEEDED_TICKS, firstClicks);
+		List<String> secondClicks = new ArrayList<>();
+		Simulation second = new Simulation(folder.newFolder("second"), 7);
+		SkillingModel secondTrees = chop(second, SEEDED_TICKS, secondClicks);
+
+		assertFalse(firstClicks.isEmpty());
+		//Same entries clicked at the same points on the same ticks
+		assertEquals(firstClicks, secondClicks);
+		assertEquals(firstTrees.getActions(), secondTrees.getActions());
+		assertEquals(firstTrees.getDepletions(), secondTrees.getDepletions());
+		assertEquals(first.getXpGained(Skill.WOODCUTTING), second.getXpGained(Skill.WOODCUTTING));
+		assertEquals(first.getPlayerLocation(), second.getPlayerLocation());
+	}
+
+	//Chops the trees around START for the ticks, noting every mouse press and menu click with the tick it was on
+	private static SkillingModel chop(Simulation simulation, int ticks, List<String> clicks)
+	{
+		simulation.item(LOGS, "Logs", 30, false);
+		SkillingModel trees = new SkillingModel(TREE, Skill.WOODCUTTING, 25, LOGS, CHOP_ANIMATION, 4, 8, 15);
+		simulation.addModel(trees);
+		PowerSkillerConfiguration config = Simulation.config(PowerSkillerConfiguration.class, Map.of(
+			"type", PowerSkillerType.GAME_OBJECT,
+			"objectIds", String.valueOf(TREE),
+			"dropInventory", true,
+			"locationRadius", 10));
+		Injector injector = simulation.createInjector(binder ->
+		{
+			binder.bind(PowerSkillerConfiguration.class).toInstance(config);
+			binder.bind(ChinBreakHandler.class).toInstance(mock(ChinBreakHandler.class));
+			binder.bind(PluginManager.class).toInstance(mock(PluginManager.class));
+		});
+		BotUtils utils = injector.getInstance(BotUtils.class);
+		PowerSkillerPlugin plugin = injector.getInstance(PowerSkillerPlugin.class);
+		List<String> noted = Collections.synchronizedList(clicks);
+		simulation.getClient().getCanvas().addMouseListener(new MouseAdapter()
+		{
+			@Override
+			public void mousePressed(MouseEvent e)
+			{
+				noted.add(simulation.getTickCount() + " press " + e.getX() + "," + e.getY());
+			}
+		});
+
+		simulation.start(utils);
+		plugin.startUp();
+		simulation.register(plugin);
+		simulation.register(new Object()
+		{
+			@Subscribe
+			private void onMenuOptionClicked(MenuOptionClicked event)
+			{
+				noted.add(simulation.getTickCount() + " " + event.getOption() + " " + event.getIdentifier() + " "
+					+ event.getOpcode() + " " + event.getParam0() + "," + event.getParam1());
+			}
+		});
+		simulation.login(START);
+		simulation.spawnObject(TREE, START.dx(3));
+		simulation.spawnObject(TREE, START.dx(-2).dy(4));
+		simulation.spawnObject(TREE, START.dy(-5));
+		simulation.spawnObject(TREE, START.dx(6).dy(2));
+		simulation.tick();
+		ConfigButtonClicked start = new ConfigButtonClicked();
+		start.setGroup("PowerSkiller");
+		start.setKey("startButton");
+		simulation.post(start);
+		simulation.run(ticks);
+		plugin.shutDown();
+		simulation.stop();
+		return trees;
+	}
+}
@@ -0,0 +1,80 @@
+package net.runelite.client.plugins.powerskiller;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import net.runelite.api.NPC;
+import net.runelite.api.coords.WorldPoint;
+import net.runelite.client.plugins.botutils.Simulation;
+import net.runelite.client.plugins.botutils.StubClient;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class SpotTrackerTest
+{
+	private static final WorldPoint START = new WorldPoint(3200, 3200, 0);
+	private static final int FISHING_SPOT = 1530;
+	private static final int OTHER_SPOT = 1521;
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	private SpotTracker tracker;
+
+	@Before
+	public void before()
+	{
+		Simulation simulation = new Simulation(folder.getRoot(), 1);
+		simulation.login(START);
+		tracker = simulation.createInjector().getInstance(SpotTracker.class);
+		tracker.setIds(Set.of(FISHING_SPOT));
+		//Seeds from the empty scene, spots come from spawns after this
+		assertTrue(tracker.getSpots(START, 10).isEmpty());
+	}
+
+	@Test
+	public void testSpotChangingToUntrackedIdIsDropped()
+	{
+		AtomicInteger id = new AtomicInteger(FISHING_SPOT);
+		NPC spot = spot(id, START.dx(3));
+		tracker.spawned(spot);
+		assertEquals(List.of(spot), tracker.getSpots(START, 10));
+
+		id.set(OTHER_SPOT);
+		//Already left out before the change is posted
+		assertTrue(tracker.getSpots(START, 10).isEmpty());
+		tracker.definitionChanged(spot);
+		assertTrue(tracker.getSpots(START, 10).isEmpty());
+		//No longer tracked, so a despawn has nothing to remove
+		assertFalse(tracker.despawned(spot));
+	}
+
+	@Test
+	public void testSpotChangingToTrackedIdIsAdded()
+	{
+		AtomicInteger id = new AtomicInteger(OTHER_SPOT);
+		NPC spot = spot(id, START.dy(2));
+		tracker.spawned(spot);
+		assertTrue(tracker.getSpots(START, 10).isEmpty());
+
+		id.set(FISHING_SPOT);
+		tracker.definitionChanged(spot);
+		assertEquals(List.of(spot), tracker.getSpots(START, 10));
+		//Posted twice, still tracked once
+		tracker.definitionChanged(spot);
+		assertEquals(List.of(spot), tracker.getSpots(START, 10));
+	}
+
+	private static NPC spot(AtomicInteger id, WorldPoint location)
+	{
+		return StubClient.stub(NPC.class, Map.of(
+			"getId", args -> id.get(),
+			"getWorldLocation", args -> location));
+	}
+}
@@ -0,0 +1,123 @@
+package net.runelite.client.plugins.quickeater;
+
+import java.util.Arrays;
+import java.util.function.IntPredicate;
+import javax.annotation.Nullable;
+import net.runelite.api.Item;
+import net.runelite.api.ItemContainer;
+
+/**
+ * Tracks which inventory slots hold an item of each {@link ItemCategory}. Categories are looked up in a table
+ * indexed by item id and each category keeps a bitmask of its slots, updated only for the slots that changed,
+ * so checking for and finding an item of a category doesn't scan the inventory.
+ */
+class InventoryCategories
+{
+	private static final int INVENTORY_SIZE = 28;
+	private static final ItemCategory[] CATEGORIES = ItemCategory.values();
+	private static final int[] CATEGORY_TABLE;
+
+	static
+	{
+		int maxId = 0;
+		for (ItemCategory category : CATEGORIES)
+		{
+			for (int itemId : category.getItemIds())
+			{
+				maxId = Math.max(maxId, itemId);
+			}
+		}
+		CATEGORY_TABLE = new int[maxId + 1];
+		for (ItemCategory category : CATEGORIES)
+		{
+			for (int itemId : category.getItemIds())
+			{
+				CATEGORY_TABLE[itemId] |= category.getMask();
+			}
+		}
+	}
+
+	private final IntPredicate isFood;
+	private final int[] slotItems = new int[INVENTORY_SIZE];
+	private final int[] categorySlots = new int[CATEGORIES.length];
+	private boolean initialised;
+
+	InventoryCategories(IntPredicate isFood)
+	{
+		this.isFood = isFood;
+		reset();
+	}
+
+	void update(@Nullable ItemContainer inventory)
+	{
+		if (inventory == null)
+		{
+			return;
+		}
+		Item[] items = inventory.getItems();
+		for (int slot = 0; slot < INVENTORY_SIZE; slot++)
+		{
+			int itemId = (slot < items.length) ? items[slot].getId() : -1;
+			if (slotItems[slot] != itemId)
+			{
+				setSlot(slot, categoriesOf(slotItems[slot]), false);
+				setSlot(slot, categoriesOf(itemId), true);
+				slotItems[slot] = itemId;
+			}
+		}
+		initialised = true;
+	}
+
+	boolean isInitialised()
+	{
+		return initialised;
+	}
+
+	boolean contains(ItemCategory category)
+	{
+		return categorySlots[category.ordinal()] != 0;
+	}
+
+	/**
+	 * Returns the first inventory slot holding an item of the category, or -1.
+	 */
+	int getSlot(ItemCategory category)
+	{
+		int slots = categorySlots[category.ordinal()];
+		return (slots == 0) ? -1 : Integer.numberOfTrailingZeros(slots);
+	}
+
+	void reset()
+	{
+		Arrays.fill(slotItems, -1);
+		Arrays.fill(categorySlots, 0);
+		initialised = false;
+	}
+
+	private int categoriesOf(int itemId)
+	{
+		if (itemId <= 0)
+		{
+			return 0;
+		}
+		int mask = (itemId < CATEGORY_TABLE.length) ? CATEGORY_TABLE[itemId] : 0;
+		return isFood.test(itemId) ? mask | ItemCategory.FOOD.getMask() : mask;
+	}
+
+	private void setSlot(int slot, int categories, boolean present)
+	{
+		while (categories != 0)
+		{
+			int category = Integer.numberOfTrailingZeros(categories);
+			categories &= categories - 1;
+			if (present)
+			{
+				categorySlots[category] |= 1 << slot;
+			}
+			else
+			{
+				categorySlots[category] &= ~(1 << slot);
+			}
+		}
+	}
+}
@@ -31,6 +31,7 @@ import javax.inject.Inject;
 import lombok.extern.slf4j.Slf4j;
 import net.runelite.api.Client;
 import net.runelite.api.GameState;
+import net.runelite.api.InventoryID;
 import net.runelite.api.ItemID;
 import net.runelite.api.MenuEntry;
 import net.runelite.api.MenuOpcode;
@@ -40,18 +41,21 @@ import net.runelite.api.VarPlayer;
 import net.runelite.api.events.GameStateChanged;
 import net.runelite.api.events.GameTick;
 import net.runelite.api.events.HitsplatApplied;
+import net.runelite.api.events.ItemContainerChanged;
 import net.runelite.api.events.StatChanged;
 import net.runelite.api.events.VarbitChanged;
+import net.runelite.api.widgets.Widget;
 import net.runelite.api.widgets.WidgetInfo;
 import net.runelite.api.widgets.WidgetItem;
 import net.runelite.client.config.ConfigManager;
 import net.runelite.client.eventbus.Subscribe;
-import net.runelite.client.game.ItemManager;
 import net.runelite.client.plugins.Plugin;
 import net.runelite.client.plugins.PluginDependency;
 import net.runelite.client.plugins.PluginDescriptor;
 import net.runelite.client.plugins.PluginType;
 import net.runelite.client.plugins.botutils.BotUtils;
+import net.runelite.client.plugins.botutils.ItemAction;
+import net.runelite.client.plugins.botutils.TickProfiler;
 import org.pf4j.Extension;
 
 
@@ -79,46 +83,20 @@ public class QuickEaterPlugin extends Plugin
 	@Inject
 	private ConfigManager configManager;
 
-	@Inject
-	private ItemManager itemManager;
-
 	MenuEntry targetMenu;
 	Player player;
 
 	private final Set<Integer> IGNORE_FOOD = Set.of(ItemID.DWARVEN_ROCK_CAKE, ItemID.DWARVEN_ROCK_CAKE_7510);
-	private final Set<Integer> DRINK_SET = Set.of(ItemID.JUG_OF_WINE, ItemID.SARADOMIN_BREW1, ItemID.SARADOMIN_BREW2, ItemID.SARADOMIN_BREW3, ItemID.SARADOMIN_BREW4, ItemID.BANDAGES);
-	private final Set<Integer> POISON_SET = Set.of(ItemID.ANTIPOISON1, ItemID.ANTIPOISON2, ItemID.ANTIPOISON3, ItemID.ANTIPOISON4, ItemID.SUPERANTIPOISON1, ItemID.SUPERANTIPOISON2, ItemID.SUPERANTIPOISON3, ItemID.SUPERANTIPOISON4,
-		ItemID.ANTIDOTE1, ItemID.ANTIDOTE2, ItemID.ANTIDOTE3, ItemID.ANTIDOTE4, ItemID.ANTIDOTE1_5958, ItemID.ANTIDOTE2_5956, ItemID.ANTIDOTE3_5954, ItemID.ANTIDOTE4_5952);
-	private final Set<Integer> PRAYER_SET = Set.of(ItemID.PRAYER_POTION1, ItemID.PRAYER_POTION2, ItemID.PRAYER_POTION3, ItemID.PRAYER_POTION4,
-		ItemID.SUPER_RESTORE1, ItemID.SUPER_RESTORE2, ItemID.SUPER_RESTORE3, ItemID.SUPER_RESTORE4, ItemID.BLIGHTED_SUPER_RESTORE1,
-		ItemID.BLIGHTED_SUPER_RESTORE2, ItemID.BLIGHTED_SUPER_RESTORE3, ItemID.BLIGHTED_SUPER_RESTORE4, ItemID.EGNIOL_POTION_1,
-		ItemID.EGNIOL_POTION_2,ItemID.EGNIOL_POTION_3,ItemID.EGNIOL_POTION_4);
-	private final Set<Integer> STRENGTH_SET = Set.of(ItemID.STRENGTH_POTION1, ItemID.STRENGTH_POTION2, ItemID.STRENGTH_POTION3, ItemID.STRENGTH_POTION4,
-		ItemID.SUPER_STRENGTH1, ItemID.SUPER_STRENGTH2, ItemID.SUPER_STRENGTH3, ItemID.SUPER_STRENGTH4,
-		ItemID.DIVINE_SUPER_STRENGTH_POTION1, ItemID.DIVINE_SUPER_STRENGTH_POTION2, ItemID.DIVINE_SUPER_STRENGTH_POTION3, ItemID.DIVINE_SUPER_STRENGTH_POTION4,
-		ItemID.DIVINE_SUPER_COMBAT_POTION1, ItemID.DIVINE_SUPER_COMBAT_POTION2, ItemID.DIVINE_SUPER_COMBAT_POTION3, ItemID.DIVINE_SUPER_COMBAT_POTION4);
-	private final Set<Integer> ATTACK_SET = Set.of(ItemID.ATTACK_POTION1, ItemID.ATTACK_POTION2, ItemID.ATTACK_POTION3, ItemID.ATTACK_POTION4,
-		ItemID.SUPER_ATTACK1, ItemID.SUPER_ATTACK2, ItemID.SUPER_ATTACK3, ItemID.SUPER_ATTACK4,
-		ItemID.DIVINE_SUPER_ATTACK_POTION1, ItemID.DIVINE_SUPER_ATTACK_POTION2, ItemID.DIVINE_SUPER_ATTACK_POTION3, ItemID.DIVINE_SUPER_ATTACK_POTION4,
-		ItemID.DIVINE_SUPER_COMBAT_POTION1, ItemID.DIVINE_SUPER_COMBAT_POTION2, ItemID.DIVINE_SUPER_COMBAT_POTION3, ItemID.DIVINE_SUPER_COMBAT_POTION4);
-	private final Set<Integer> DEFENCE_SET = Set.of(ItemID.DEFENCE_POTION1, ItemID.DEFENCE_POTION2, ItemID.DEFENCE_POTION3, ItemID.DEFENCE_POTION4,
-		ItemID.SUPER_DEFENCE1, ItemID.SUPER_DEFENCE2, ItemID.SUPER_DEFENCE3, ItemID.SUPER_DEFENCE4,
-		ItemID.DIVINE_SUPER_DEFENCE_POTION1, ItemID.DIVINE_SUPER_DEFENCE_POTION2, ItemID.DIVINE_SUPER_DEFENCE_POTION3, ItemID.DIVINE_SUPER_DEFENCE_POTION4,
-		ItemID.DIVINE_SUPER_COMBAT_POTION1, ItemID.DIVINE_SUPER_COMBAT_POTION2, ItemID.DIVINE_SUPER_COMBAT_POTION3, ItemID.DIVINE_SUPER_COMBAT_POTION4);
-	private final Set<Integer> RANGED_SET = Set.of(ItemID.RANGING_POTION1, ItemID.RANGING_POTION2, ItemID.RANGING_POTION3, ItemID.RANGING_POTION4,
-		ItemID.BASTION_POTION1, ItemID.BASTION_POTION2, ItemID.BASTION_POTION3, ItemID.BASTION_POTION4,
-		ItemID.DIVINE_RANGING_POTION1, ItemID.DIVINE_RANGING_POTION2, ItemID.DIVINE_RANGING_POTION3, ItemID.DIVINE_RANGING_POTION4,
-		ItemID.DIVINE_BASTION_POTION1, ItemID.DIVINE_BASTION_POTION2, ItemID.DIVINE_BASTION_POTION3, ItemID.DIVINE_BASTION_POTION4);
-	private final Set<Integer> MAGIC_SET = Set.of(ItemID.MAGIC_POTION1, ItemID.MAGIC_POTION2, ItemID.MAGIC_POTION3, ItemID.MAGIC_POTION4,
-		ItemID.BATTLEMAGE_POTION1, ItemID.BATTLEMAGE_POTION2, ItemID.BATTLEMAGE_POTION3, ItemID.BATTLEMAGE_POTION4,
-		ItemID.DIVINE_MAGIC_POTION1, ItemID.DIVINE_MAGIC_POTION2, ItemID.DIVINE_MAGIC_POTION3, ItemID.DIVINE_MAGIC_POTION4,
-		ItemID.DIVINE_BATTLEMAGE_POTION1, ItemID.DIVINE_BATTLEMAGE_POTION2, ItemID.DIVINE_BATTLEMAGE_POTION3, ItemID.DIVINE_BATTLEMAGE_POTION4);
+	private final InventoryCategories categories = new InventoryCategories(itemId ->
+		!IGNORE_FOOD.contains(itemId) && utils.getItemDigests().hasAction(itemId, ItemAction.EAT));
 
 	private int timeout;
 	private int drinkTimeout;
 	private int drinkEnergy;
 	private int nextEatHP;
 	private int drinkPrayer;
+	private TickProfiler.Section gameTickSection;
+	private TickProfiler.Section statChangedSection;
 
 	@Provides
 	QuickEaterConfiguration provideConfig(ConfigManager configManager)
@@ -131,12 +109,14 @@ public class QuickEaterPlugin extends Plugin
 	{
 		nextEatHP = utils.getRandomIntBetweenRange(config.minEatHP(), config.maxEatHP());
 		drinkPrayer = utils.getRandomIntBetweenRange(config.minPrayerPoints(), config.maxPrayerPoints());
+		gameTickSection = utils.getTickProfiler().section("Quick Eater", "onGameTick");
+		statChangedSection = utils.getTickProfiler().section("Quick Eater", "onStatChanged");
 	}
 
 	@Override
 	protected void shutDown()
 	{
-
+		categories.reset();
 	}
 
 	private void useItem(WidgetItem item)
@@ -150,15 +130,35 @@ public class QuickEaterPlugin extends Plugin
 		}
 	}
 
+	private WidgetItem getInventoryItem(ItemCategory category)
+	{
+		if (!categories.isInitialised())
+		{
+			categories.update(client.getItemContainer(InventoryID.INVENTORY));
+		}
+		int slot = categories.getSlot(category);
+		Widget inventoryWidget = client.getWidget(WidgetInfo.INVENTORY);
+		return (slot == -1 || inventoryWidget == null) ? null : inventoryWidget.getWidgetItem(slot);
+	}
+
+	@Subscribe
+	private void onItemContainerChanged(ItemContainerChanged event)
+	{
+		if (event.getContainerId() == InventoryID.INVENTORY.getId())
+		{
+			categories.update(event.getItemContainer());
+		}
+	}
+
 	@Subscribe
 	private void onVarbitChanged(VarbitChanged event)
 	{
 		if (config.drinkAntiPoison() && event.getIndex() == VarPlayer.POISON.getId() && client.getVarpValue(VarPlayer.POISON.getId()) > 0)
 		{
-			if (utils.inventoryContains(POISON_SET))
+			WidgetItem poisonItem = getInventoryItem(ItemCategory.POISON);
+			if (poisonItem != null)
 			{
 				log.debug("Drinking anti-poison");
-				WidgetItem poisonItem = utils.getInventoryWidgetItem(POISON_SET);
 				useItem(poisonItem);
 			}
 			else
@@ -170,6 +170,19 @@ public class QuickEaterPlugin extends Plugin
 
 	@Subscribe
 	private void onGameTick(GameTick event)
+	{
+		long start = gameTickSection.start();
+		try
+		{
+			tick();
+		}
+		finally
+		{
+			gameTickSection.stop(start);
+		}
+	}
+
+	private void tick()
 	{
 		if (drinkTimeout > 0)
 		{
@@ -185,8 +198,7 @@ public class QuickEaterPlugin extends Plugin
 			}
 			if (client.getBoostedSkillLevel(Skill.HITPOINTS) <= nextEatHP)
 			{
-				WidgetItem eatItem = utils.getInventoryItemMenu(itemManager, "Eat", 33,
-					IGNORE_FOOD);
+				WidgetItem eatItem = getInventoryItem(ItemCategory.FOOD);
 				if (eatItem != null)
 				{
 					useItem(eatItem);
@@ -194,9 +206,9 @@ public class QuickEaterPlugin extends Plugin
 					log.debug("Next Eat HP: {}", nextEatHP);
 					return;
 				}
-				if (utils.inventoryContains(DRINK_SET))
+				WidgetItem drinkItem = getInventoryItem(ItemCategory.DRINK);
+				if (drinkItem != null)
 				{
-					WidgetItem drinkItem = utils.getInventoryWidgetItem(DRINK_SET);
 					useItem(drinkItem);
 					nextEatHP = utils.getRandomIntBetweenRange(config.minEatHP(), config.maxEatHP());
 					log.debug("Next Eat HP: {}", nextEatHP);
@@ -252,7 +264,15 @@ public class QuickEaterPlugin extends Plugin
 	@Subscribe
 	public void onStatChanged(StatChanged event)
 	{
-		checkSkill(event.getSkill(), event.getBoostedLevel());
+		long start = statChangedSection.start();
+		try
+		{
+			checkSkill(event.getSkill(), event.getBoostedLevel());
+		}
+		finally
+		{
+			statChangedSection.stop(start);
+		}
 	}
 
 	private void checkSkill(Skill skill, int boostedLevel)
@@ -260,7 +280,7 @@ public class QuickEaterPlugin extends Plugin
 		switch (skill)
 		{
 			case PRAYER:
-				if (config.drinkPrayer() && drinkPot(skill, boostedLevel, PRAYER_SET, drinkPrayer))
+				if (config.drinkPrayer() && drinkPot(skill, boostedLevel, ItemCategory.PRAYER, drinkPrayer))
 				{
 					drinkPrayer = utils.getRandomIntBetweenRange(config.minPrayerPoints(), config.maxPrayerPoints());
 				}
@@ -270,49 +290,49 @@ public class QuickEaterPlugin extends Plugin
 			case DEFENCE:
 				if (config.drinkStrength())
 				{
-					drinkPot(Skill.STRENGTH, client.getBoostedSkillLevel(Skill.STRENGTH), STRENGTH_SET, config.strengthPoints());
+					drinkPot(Skill.STRENGTH, client.getBoostedSkillLevel(Skill.STRENGTH), ItemCategory.STRENGTH, config.strengthPoints());
 				}
 				if (config.drinkAttack())
 				{
-					drinkPot(Skill.ATTACK, client.getBoostedSkillLevel(Skill.ATTACK), ATTACK_SET, config.attackPoints());
+					drinkPot(Skill.ATTACK, client.getBoostedSkillLevel(Skill.ATTACK), ItemCategory.ATTACK, config.attackPoints());
 				}
 				if (config.drinkDefence())
 				{
-					drinkPot(Skill.DEFENCE, client.getBoostedSkillLevel(Skill.DEFENCE), DEFENCE_SET, config.defencePoints());
+					drinkPot(Skill.DEFENCE, client.getBoostedSkillLevel(Skill.DEFENCE), ItemCategory.DEFENCE, config.defencePoints());
 				}
 				break;
 			case RANGED:
 				if (config.drinkRanged())
 				{
-					drinkPot(skill, boostedLevel, RANGED_SET, config.rangedPoints());
+					drinkPot(skill, boostedLevel, ItemCategory.RANGED, config.rangedPoints());
 				}
 				if (config.drinkDefence())
 				{
-					drinkPot(Skill.DEFENCE, client.getBoostedSkillLevel(Skill.DEFENCE), DEFENCE_SET, config.defencePoints());
+					drinkPot(Skill.DEFENCE, client.getBoostedSkillLevel(Skill.DEFENCE), ItemCategory.DEFENCE, config.defencePoints());
 				}
 				break;
 			case MAGIC:
 				if (config.drinkMagic())
 				{
-					drinkPot(skill, boostedLevel, MAGIC_SET, config.magicPoints());
+					drinkPot(skill, boostedLevel, ItemCategory.MAGIC, config.magicPoints());
 				}
 				if (config.drinkDefence())
 				{
-					drinkPot(Skill.DEFENCE, client.getBoostedSkillLevel(Skill.DEFENCE), DEFENCE_SET, config.defencePoints());
+					drinkPot(Skill.DEFENCE, client.getBoostedSkillLevel(Skill.DEFENCE), ItemCategory.DEFENCE, config.defencePoints());
 				}
 				break;
 		}
 	}
 
-	private boolean drinkPot(Skill skill, int boostedLevel, Set<Integer> itemSet, int drinkPotLevel)
+	private boolean drinkPot(Skill skill, int boostedLevel, ItemCategory category, int drinkPotLevel)
 	{
 		if (boostedLevel == 0 || boostedLevel > drinkPotLevel)
 		{
 			return false;
 		}
-		if (utils.inventoryContains(itemSet) && drinkTimeout == 0)
+		WidgetItem itemToDrink = getInventoryItem(category);
+		if (itemToDrink != null && drinkTimeout == 0)
 		{
-			WidgetItem itemToDrink = utils.getInventoryWidgetItem(itemSet);
 			useItem(itemToDrink);
 			drinkTimeout = 4;
 			return true;
@@ -48,6 +48,8 @@ import net.runelite.client.plugins.PluginDependency;
 import net.runelite.client.plugins.PluginDescriptor;
 import net.runelite.client.plugins.PluginType;
 import net.runelite.client.plugins.botutils.BotUtils;
+import net.runelite.client.plugins.botutils.ClickTarget;
+import net.runelite.client.plugins.botutils.TickProfiler;
 import org.pf4j.Extension;
 
 @PluginDependency(BotUtils.class)
@@ -96,6 +98,7 @@ public class RandomHandlerPlugin extends Plugin
 	private NPC randomToDismiss;
 	private MenuEntry targetMenu;
 	private boolean genie;
+	private TickProfiler.Section gameTickSection;
 	long sleepLength;
 	int tickLength;
 	int timeout;
@@ -125,6 +128,7 @@ public class RandomHandlerPlugin extends Plugin
 		genie = false;
 		currentRandomEvent = null;
 		randomToDismiss = null;
+		gameTickSection = utils.getTickProfiler().section("Random Handler", "onGameTick");
 	}
 
 	@Override
@@ -179,6 +183,19 @@ public class RandomHandlerPlugin extends Plugin
 
 	@Subscribe
 	private void GameTick(GameTick event)
+	{
+		long start = gameTickSection.start();
+		try
+		{
+			dismissRandom();
+		}
+		finally
+		{
+			gameTickSection.stop(start);
+		}
+	}
+
+	private void dismissRandom()
 	{
 		if (randomToDismiss == null)
 		{
@@ -199,7 +216,7 @@ public class RandomHandlerPlugin extends Plugin
 				targetMenu = new MenuEntry("Continue", "", 0, MenuOpcode.WIDGET_TYPE_6.getId(),
 					-1, 15138819, false);
 				utils.setMenuEntry(targetMenu);
-				utils.delayMouseClick(randomToDismiss.getConvexHull().getBounds(), sleepDelay());
+				utils.delayMouseClick(ClickTarget.of(randomToDismiss), sleepDelay());
 				timeout = 2 + tickDelay();
 				return;
 			}
@@ -209,7 +226,7 @@ public class RandomHandlerPlugin extends Plugin
 			(genie) ? MenuOpcode.NPC_FIRST_OPTION.getId() : MenuOpcode.NPC_FIFTH_OPTION.getId(),
 			0, 0, false);
 		utils.setMenuEntry(targetMenu);
-		utils.delayMouseClick(randomToDismiss.getConvexHull().getBounds(), sleepDelay());
+		utils.delayMouseClick(ClickTarget.of(randomToDismiss), sleepDelay());
 		timeout = 2 + tickDelay();
 	}
 
@@ -71,6 +71,8 @@ import net.runelite.client.plugins.PluginDescriptor;
 import net.runelite.client.plugins.PluginManager;
 import net.runelite.client.plugins.PluginType;
 import net.runelite.client.plugins.botutils.BotUtils;
+import net.runelite.client.plugins.botutils.ClickTarget;
+import net.runelite.client.plugins.botutils.SessionRecorder;
 import net.runelite.client.ui.overlay.OverlayManager;
 import org.pf4j.Extension;
 
@@ -115,6 +117,7 @@ public class RooftopAgilityPlugin extends Plugin {
     Player player;
     RooftopAgilityState state;
     Instant botTimer;
+    SessionRecorder.Session session;
     TileItem markOfGrace;
     Tile markOfGraceTile;
     MenuEntry targetMenu;
@@ -170,6 +173,10 @@ public class RooftopAgilityPlugin extends Plugin {
         marksPerHour = 0;
         alchTimeout = 0;
         inventoryItems.clear();
+        if (session != null) {
+            session.close();
+            session = null;
+        }
     }
 
     @Subscribe
@@ -186,6 +193,7 @@ public class RooftopAgilityPlugin extends Plugin {
                     state = null;
                     targetMenu = null;
                     botTimer = Instant.now();
+                    session = utils.getSessionRecorder().start("Rooftop Agility");
                     restockBank = config.bankRestock();
                     inventoryItems.addAll(Set.of(ItemID.NATURE_RUNE, ItemID.MARK_OF_GRACE));
                     if (config.alchItemID() != 0) {
@@ -328,7 +336,7 @@ public class RooftopAgilityPlugin extends Plugin {
                         MenuOpcode.GAME_OBJECT_SECOND_OPTION.getId(), bankBooth.getSceneMinLocation().getX(),
                         bankBooth.getSceneMinLocation().getY(), false);
                 utils.setMenuEntry(targetMenu);
-                utils.delayMouseClick(bankBooth.getConvexHull().getBounds(), sleepDelay());
+                utils.delayMouseClick(ClickTarget.of(bankBooth), sleepDelay());
                 timeout = tickDelay();
             }
         }
@@ -348,7 +356,7 @@ public class RooftopAgilityPlugin extends Plugin {
                 if (decObstacle != null) {
                     targetMenu = new MenuEntry("", "", decObstacle.getId(), MenuOpcode.GAME_OBJECT_FIRST_OPTION.getId(), decObstacle.getLocalLocation().getSceneX(), decObstacle.getLocalLocation().getSceneY(), false);
                     utils.setMenuEntry(targetMenu);
-                    utils.delayMouseClick(decObstacle.getConvexHull().getBounds(), sleepDelay());
+                    utils.delayMouseClick(ClickTarget.of(decObstacle), sleepDelay());
                     return;
                 }
             }
@@ -357,7 +365,7 @@ public class RooftopAgilityPlugin extends Plugin {
                 if (groundObstacle != null) {
                     targetMenu = new MenuEntry("", "", groundObstacle.getId(), MenuOpcode.GAME_OBJECT_FIRST_OPTION.getId(), groundObstacle.getLocalLocation().getSceneX(), groundObstacle.getLocalLocation().getSceneY(), false);
                     utils.setMenuEntry(targetMenu);
-                    utils.delayMouseClick(groundObstacle.getConvexHull().getBounds(), sleepDelay());
+                    utils.delayMouseClick(ClickTarget.of(groundObstacle), sleepDelay());
                     return;
                 }
             }
@@ -365,7 +373,7 @@ public class RooftopAgilityPlugin extends Plugin {
             if (objObstacle != null) {
                 targetMenu = new MenuEntry("", "", objObstacle.getId(), MenuOpcode.GAME_OBJECT_FIRST_OPTION.getId(), objObstacle.getSceneMinLocation().getX(), objObstacle.getSceneMinLocation().getY(), false);
                 utils.setMenuEntry(targetMenu);
-                utils.delayMouseClick(objObstacle.getConvexHull().getBounds(), sleepDelay());
+                utils.delayMouseClick(ClickTarget.of(objObstacle), sleepDelay());
                 return;
             }
         } else {
@@ -523,7 +531,7 @@ public class RooftopAgilityPlugin extends Plugin {
                     targetMenu = new MenuEntry("", "", spawnedPortal.getId(), MenuOpcode.GAME_OBJECT_FIRST_OPTION.getId(),
                             spawnedPortal.getSceneMinLocation().getX(), spawnedPortal.getSceneMinLocation().getY(), false);
                     utils.setMenuEntry(targetMenu);
-                    utils.delayMouseClick(spawnedPortal.getConvexHull().getBounds(), sleepDelay());
+                    utils.delayMouseClick(ClickTarget.of(spawnedPortal), sleepDelay());
                     break;
                 case HANDLE_BREAK:
                     chinBreakHandler.startBreak(this);
@@ -626,6 +634,9 @@ public class RooftopAgilityPlugin extends Plugin {
         if (event.getItemContainer().count(ItemID.MARK_OF_GRACE) > mogInventoryCount) {
             mogCollectCount++;
             mogInventoryCount = -1;
+            if (session != null) {
+                session.count("marks");
+            }
         }
     }
 }
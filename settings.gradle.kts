@@ -25,6 +25,7 @@
 
 rootProject.name = "Illumine Plugins"
 
+include(":benchmarks")
 include(":botutils")
 include("combinationrunecrafter")
 include(":magiccaster")